@@ -29,7 +29,7 @@ final class CustomValidator implements HeaderValidator {
     @NonNull
     public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
         if (headerValue.equalsIgnoreCase(headerName) && service.hasAtLeastXUpperCaseLetters(headerValue, permissibleUppercaseLetters)) {
-            return new ValidationResult.Success();
+            return ValidationResult.SUCCESS;
         }
         return new ValidationResult.Failure("Header value '%s' should be '%s' with at least %d uppercase letters".formatted(headerValue, headerName, permissibleUppercaseLetters));
     }
@@ -0,0 +1,158 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link HeaderValidationEngine}s on a valid request, against 16 rules using one or four validator types
+ * on top of the default rules (which call two). With two types in all, the call site of the
+ * {@link HeaderValidationEngine#PER_RULE} loop is bimorphic and still inlined; with four it is megamorphic, whereas
+ * each of the {@link HeaderValidationEngine#GENERATED} call sites stays monomorphic.
+ * <p>
+ * Run with {@code java -jar header-validator-benchmarks/target/benchmarks.jar EngineBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EngineBenchmark {
+    private static final int RULES = 16;
+    /**
+     * The required headers among the default rules, which validate them with two validator types of their own.
+     */
+    private static final List<String> REQUIRED_DEFAULT_HEADERS = List.of(
+            "X-FeatureName",
+            "X-ServiceCode",
+            "X-ServiceName",
+            "X-MinorServiceVersion",
+            "X-ChannelCategory",
+            "X-ChannelCode",
+            "X-ChannelName"
+    );
+
+    @Param({"PER_RULE", "SINGLE_PASS", "GENERATED"})
+    HeaderValidationEngine engine;
+    @Param({"1", "4"})
+    int validatorTypes;
+
+    private BenchmarkValidator validator;
+    /**
+     * Keyed by the configured header names, so that looking headers up costs next to nothing and the engines dominate.
+     */
+    private Map<String, String> request;
+
+    static final class BenchmarkValidator extends AbstractHeaderValidator {
+        private static final HeaderAccessor<Map<String, String>> HEADERS = new HeaderAccessor<>() {
+            @Override
+            public String getFirst(@NonNull Map<String, String> headers, @NonNull String headerName) {
+                return headers.get(headerName);
+            }
+
+            @NonNull
+            @Override
+            public Iterator<String> headerNames(@NonNull Map<String, String> headers) {
+                return headers.keySet().iterator();
+            }
+
+            @NonNull
+            @Override
+            public HttpMethod method(@NonNull Map<String, String> headers) {
+                return HttpMethod.GET;
+            }
+        };
+
+        BenchmarkValidator(HeaderValidationProperties properties) {
+            super(properties);
+        }
+
+        HeadersValidationException validate(Map<String, String> request) {
+            return validateHeaders(request, HEADERS);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        Set<HeaderRule> rules = new HashSet<>();
+        var values = new HashMap<String, String>();
+        for (int i = 0; i < RULES; i++) {
+            var name = "X-Benchmark-" + i;
+            switch (i % validatorTypes) {
+                case 0 -> {
+                    rules.add(HeaderRule.builder().headerName(name).validator(new DefaultHeaderValidator()).build());
+                    values.put(name, "value-" + i);
+                }
+                case 1 -> {
+                    rules.add(HeaderRule.builder().headerName(name).validator(new RegexValidator("^v\\d+$")).build());
+                    values.put(name, "v" + i);
+                }
+                case 2 -> {
+                    rules.add(HeaderRule.builder().headerName(name).validator(new AsciiValidator()).build());
+                    values.put(name, "ascii-" + i);
+                }
+                default -> {
+                    rules.add(HeaderRule.builder().headerName(name).validator(new LengthValidator()).build());
+                    values.put(name, "value");
+                }
+            }
+        }
+
+        validator = new BenchmarkValidator(HeaderValidationProperties.builder().headers(rules).engine(engine).build());
+        request = values;
+        for (var name : REQUIRED_DEFAULT_HEADERS) request.put(name, "v1");
+    }
+
+    @Benchmark
+    public HeadersValidationException validate() {
+        return validator.validate(request);
+    }
+
+    static final class LengthValidator implements HeaderValidator {
+        private static final ValidationResult TOO_LONG = new ValidationResult.Failure("Longer than 64 characters");
+
+        @NonNull
+        @Override
+        public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+            return headerValue.length() <= 64 ? ValidationResult.SUCCESS : TOO_LONG;
+        }
+    }
+
+    static final class AsciiValidator implements HeaderValidator {
+        private static final ValidationResult NOT_ASCII = new ValidationResult.Failure("Not printable ASCII");
+
+        @NonNull
+        @Override
+        public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+            for (int i = 0; i < headerValue.length(); i++) {
+                char c = headerValue.charAt(i);
+                if (c < 0x20 || c > 0x7e) return NOT_ASCII;
+            }
+            return ValidationResult.SUCCESS;
+        }
+    }
+}
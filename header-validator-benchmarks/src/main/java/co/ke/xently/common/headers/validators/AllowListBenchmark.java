@@ -0,0 +1,87 @@
+package co.ke.xently.common.headers.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares {@link AllowList} lookups with those of a {@link HashSet} of the same values, half of the probes being
+ * values of the list. Probes are copies, so that their hash codes are not cached, as they are not for header values.
+ * <p>
+ * Run with {@code java -jar header-validator-benchmarks/target/benchmarks.jar AllowListBenchmark -prof gc} to also
+ * compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AllowListBenchmark {
+    private static final int PROBES = 1 << 16;
+
+    @Param({"1000", "500000"})
+    int size;
+
+    private Path file;
+    private AllowList allowList;
+    private Set<String> hashSet;
+    private String[] probes;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        var random = new SplittableRandom(42);
+        List<String> values = IntStream.range(0, size).mapToObj("SVC-%08d"::formatted).toList();
+        file = Files.createTempFile("allow-list", ".xal");
+        AllowList.write(values, file);
+        allowList = AllowList.map(file);
+        hashSet = new HashSet<>(values);
+        probes = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            var value = i % 2 == 0 ? values.get(random.nextInt(size)) : "SVC-X%07d".formatted(i);
+            probes[i] = new String(value.toCharArray());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public boolean allowList() {
+        return allowList.contains(probe());
+    }
+
+    @Benchmark
+    public boolean hashSet() {
+        return hashSet.contains(probe());
+    }
+
+    /**
+     * A copy of the next probe: {@link String#hashCode()} is cached once computed.
+     */
+    private String probe() {
+        return new String(probes[next++ & PROBES - 1]);
+    }
+}
@@ -0,0 +1,77 @@
+package co.ke.xently.common.headers.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link RegexValidator}, which compiles the patterns of the default headers to scanners, with a fresh
+ * {@link java.util.regex.Matcher} per call, as it used to, on matching and mismatching values.
+ * <p>
+ * Run with {@code java -jar header-validator-benchmarks/target/benchmarks.jar RegexValidatorBenchmark -prof gc} to
+ * also compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RegexValidatorBenchmark {
+    /**
+     * The patterns of the {@code X-MinorServiceVersion} and {@code X-CallBackURL} default headers, with a matching and
+     * a mismatching value each.
+     */
+    public enum DefaultPattern {
+        MINOR_SERVICE_VERSION(Pattern.compile("v?\\d+(.\\d+){0,2}", Pattern.CASE_INSENSITIVE), "v1.12.3", "v1.12.3-beta"),
+        CALLBACK_URL(Pattern.compile("^https?://.+..+"), "https://example.com/callbacks/payments", "example.com/callbacks");
+
+        final Pattern pattern;
+        final String match;
+        final String mismatch;
+
+        DefaultPattern(Pattern pattern, String match, String mismatch) {
+            this.pattern = pattern;
+            this.match = match;
+            this.mismatch = mismatch;
+        }
+    }
+
+    @Param
+    DefaultPattern defaultPattern;
+    @Param({"true", "false"})
+    boolean matching;
+
+    private Pattern pattern;
+    private RegexValidator validator;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        pattern = defaultPattern.pattern;
+        validator = new RegexValidator(pattern);
+        if (!validator.isCompiled()) throw new IllegalStateException("%s is not compiled".formatted(pattern));
+        value = matching ? defaultPattern.match : defaultPattern.mismatch;
+    }
+
+    @Benchmark
+    public boolean matcher() {
+        return pattern.matcher(value).matches();
+    }
+
+    @Benchmark
+    public ValidationResult validator() {
+        return validator.validate("X-Header", value);
+    }
+}
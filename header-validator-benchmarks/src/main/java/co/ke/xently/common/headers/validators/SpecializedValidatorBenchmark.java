@@ -0,0 +1,97 @@
+package co.ke.xently.common.headers.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the built-in validators {@link ValidatorSpec} creates with the pattern each replaces, per value shape, on
+ * valid and invalid values: matched by {@link java.util.regex} and by the {@link RegexValidator} of the pattern, which
+ * matches such patterns with a compiled scanner.
+ * <p>
+ * Run with {@code java -jar header-validator-benchmarks/target/benchmarks.jar SpecializedValidatorBenchmark -prof gc}
+ * to also compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SpecializedValidatorBenchmark {
+    @Param({"uuid", "url", "integer", "enum", "tokens"})
+    String shape;
+
+    @Param({"true", "false"})
+    boolean valid;
+
+    private HeaderValidator specialized;
+    private RegexValidator regex;
+    private String value;
+
+    @Setup
+    public void setUp() {
+        switch (shape) {
+            case "uuid" -> {
+                specialized = new UuidValidator();
+                regex = regex("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+                value = valid ? "123e4567-e89b-12d3-a456-426614174000" : "123e4567-e89b-12d3-a456-42661417400g";
+            }
+            case "url" -> {
+                specialized = new UrlValidator();
+                regex = regex("https?://[^\\s/$.?#].[^\\s]*");
+                value = valid ? "https://example.com:8443/callbacks/payments?id=1" : "https://example.com/call backs";
+            }
+            case "integer" -> {
+                specialized = new IntegerRangeValidator(0, 86_400);
+                regex = regex("\\d{1,5}");
+                value = valid ? "3600" : "36o0";
+            }
+            case "enum" -> {
+                specialized = new EnumValidator(List.of("App", "USSD", "Web", "SMS", "IVR"));
+                regex = new RegexValidator(Pattern.compile("App|USSD|Web|SMS|IVR", Pattern.CASE_INSENSITIVE));
+                value = valid ? "ussd" : "Fax";
+            }
+            case "tokens" -> {
+                specialized = new TokenListValidator(List.of("SMS", "EMAIL", "PUSH", "WEBHOOK"));
+                regex = new RegexValidator(Pattern.compile(
+                        "(SMS|EMAIL|PUSH|WEBHOOK)(\\s*,\\s*(SMS|EMAIL|PUSH|WEBHOOK))*",
+                        Pattern.CASE_INSENSITIVE
+                ));
+                value = valid ? "SMS, PUSH, WEBHOOK" : "SMS, PUSH, FAX";
+            }
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    @Benchmark
+    public boolean javaUtilRegex() {
+        return regex.pattern().matcher(value).matches();
+    }
+
+    @Benchmark
+    public ValidationResult regex() {
+        return regex.validate("X-Header", value);
+    }
+
+    @Benchmark
+    public ValidationResult specialized() {
+        return specialized.validate("X-Header", value);
+    }
+
+    private static RegexValidator regex(String pattern) {
+        return new RegexValidator(Pattern.compile(pattern));
+    }
+}
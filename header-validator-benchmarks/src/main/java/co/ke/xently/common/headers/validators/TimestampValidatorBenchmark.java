@@ -0,0 +1,80 @@
+package co.ke.xently.common.headers.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link ISO8601TimestampValidator} and {@link EpochTimestampValidator} with parsing by {@link java.time} and
+ * {@link Long#parseLong(String)}, as validators used to, on valid and invalid values. Invalid values are where the
+ * exceptions the latter throw make them slow.
+ * <p>
+ * Run with {@code java -jar header-validator-benchmarks/target/benchmarks.jar TimestampValidatorBenchmark -prof gc} to
+ * also compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TimestampValidatorBenchmark {
+    private static final ValidationResult.Failure INVALID = ValidationResult.Failure.of("INVALID", "Invalid timestamp");
+
+    @Param({"true", "false"})
+    boolean valid;
+
+    private final ISO8601TimestampValidator iso8601Validator = new ISO8601TimestampValidator();
+    private final EpochTimestampValidator epochValidator = new EpochTimestampValidator();
+    private String iso8601;
+    private String epoch;
+
+    @Setup
+    public void setUp() {
+        iso8601 = valid ? "2025-01-31T08:15:30.250+03:00" : "2025-01-31 08:15:30";
+        epoch = valid ? "1738300530" : "1738300530.250";
+    }
+
+    @Benchmark
+    public ValidationResult iso8601DateTimeFormatter() {
+        try {
+            DateTimeFormatter.ISO_INSTANT.parse(iso8601, Instant::from);
+            return ValidationResult.SUCCESS;
+        } catch (DateTimeParseException e) {
+            return INVALID;
+        }
+    }
+
+    @Benchmark
+    public ValidationResult iso8601Validator() {
+        return iso8601Validator.validate("X-Timestamp", iso8601);
+    }
+
+    @Benchmark
+    public ValidationResult epochParseLong() {
+        try {
+            Long.parseLong(epoch);
+            return ValidationResult.SUCCESS;
+        } catch (NumberFormatException e) {
+            return INVALID;
+        }
+    }
+
+    @Benchmark
+    public ValidationResult epochValidator() {
+        return epochValidator.validate("X-TimeStamp", epoch);
+    }
+}
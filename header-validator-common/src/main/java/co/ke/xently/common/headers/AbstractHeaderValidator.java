@@ -4,47 +4,365 @@ import co.ke.xently.common.headers.exceptions.HeaderException;
 import co.ke.xently.common.headers.exceptions.HeadersValidationException;
 import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
 import co.ke.xently.common.headers.exceptions.MissingHeaderException;
+import co.ke.xently.common.headers.validators.HeaderValidator;
 import co.ke.xently.common.headers.validators.ValidationResult;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
-import java.util.function.Function;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
-@AllArgsConstructor(access = AccessLevel.PROTECTED)
+@Slf4j
 abstract class AbstractHeaderValidator {
+    private static final int INITIAL_HITS = 16;
+
+    /**
+     * The current generation of the configuration. Swapped by {@link #reload(HeaderValidationProperties)}; requests
+     * read it once, without locking.
+     */
     @NonNull
-    protected final HeaderValidationProperties properties;
+    private volatile CompiledRules rules;
+    /**
+     * Serializes reloads; never taken on the request path.
+     */
+    private final Object reloadLock = new Object();
+
+    protected AbstractHeaderValidator(@NonNull HeaderValidationProperties properties) {
+        this.rules = CompiledRules.compile(properties);
+    }
 
-    protected HeadersValidationException createHeadersValidationException(
-            @NonNull Function<String, String> headerValue) {
-        var exception = new HeadersValidationException();
+    @NonNull
+    protected CompiledRules rules() {
+        return rules;
+    }
 
-        for (var rule : properties.headers()) {
-            var value = headerValue.apply(rule.getHeaderName());
+    /**
+     * Compiles {@code properties} into a new generation of rules and swaps it in. Requests already being validated
+     * finish against the previous generation. If the new configuration does not compile, the current one is kept.
+     *
+     * @return whether the new configuration was swapped in.
+     */
+    protected boolean reload(@NonNull HeaderValidationProperties properties) {
+        synchronized (reloadLock) {
+            CompiledRules next;
             try {
-                validate(rule, value);
-            } catch (HeaderException e) {
-                exception.addHeaderException(e);
+                next = CompiledRules.compile(properties);
+                prepare(next);
+            } catch (RuntimeException e) {
+                log.error("Failed to compile the reloaded header rules; keeping the current ones.", e);
+                return false;
             }
+            rules = next;
+            log.info("Reloaded {} header rules and {} routes.", next.headers().size(), properties.routes().size());
+            return true;
         }
-        return exception;
     }
 
-    protected void validate(@NonNull HeaderRule rule, String headerValue) throws HeaderException {
-        if (headerValue == null) {
-            if (!rule.isRequired()) return;
+    /**
+     * Prepares a generation before it is swapped in, e.g. by compiling the plans of known handlers.
+     */
+    protected void prepare(@NonNull CompiledRules next) {
+    }
+
+    /**
+     * Prepares the current generation again, e.g. once handlers were discovered.
+     */
+    protected void prepareCurrent() {
+        synchronized (reloadLock) {
+            prepare(rules);
+        }
+    }
+
+    /**
+     * Like {@link #validateHeaders(Object, HeaderAccessor)}, but never {@code null}: the exception has no header
+     * exceptions if every rule passed.
+     */
+    @NonNull
+    protected <R> HeadersValidationException createHeadersValidationException(
+            @NonNull R request,
+            @NonNull HeaderAccessor<R> headers) {
+        return Objects.requireNonNullElseGet(validateHeaders(request, headers), HeadersValidationException::new);
+    }
+
+    /**
+     * Validates the headers of {@code request} against the plan of its {@link HeaderRoute} (or the global plan if it
+     * matches none) using the configured {@link HeaderValidationEngine}.
+     * <p>
+     * A request that passes every rule allocates nothing beyond what the engine needs: failures are only collected
+     * once the first one is seen and the exception is only created when the request is rejected.
+     *
+     * @return the exception to reject the request with, or {@code null} if every rule passed.
+     */
+    @Nullable
+    protected <R> HeadersValidationException validateHeaders(@NonNull R request, @NonNull HeaderAccessor<R> headers) {
+        return validateHeaders(request, headers, RoutePlan.INHERIT);
+    }
+
+    /**
+     * Like {@link #validateHeaders(Object, HeaderAccessor)}, for a request whose handler is known.
+     *
+     * @param handler the plan of the request's handler, see {@link CompiledRules#handler(Method, Class)}.
+     */
+    @Nullable
+    protected <R> HeadersValidationException validateHeaders(
+            @NonNull R request,
+            @NonNull HeaderAccessor<R> headers,
+            @NonNull RoutePlan handler) {
+        return validateHeaders(request, headers, handler, null);
+    }
+
+    /**
+     * Like {@link #validateHeaders(Object, HeaderAccessor, RoutePlan)}, but the rules whose validator is
+     * {@link #isDeferred(HeaderValidator) deferred} are not evaluated: those present on the request are added to
+     * {@code deferred} for the caller to evaluate. Missing headers are still checked inline.
+     * <p>
+     * When failing fast, nothing is deferred past the first failure found inline.
+     */
+    @Nullable
+    protected <R> HeadersValidationException validateHeaders(
+            @NonNull R request,
+            @NonNull HeaderAccessor<R> headers,
+            @NonNull RoutePlan handler,
+            @Nullable DeferredRules deferred) {
+        return validateHeaders(rules, request, headers, handler, deferred);
+    }
+
+    /**
+     * Like {@link #validateHeaders(Object, HeaderAccessor, RoutePlan, DeferredRules)}, against the given generation of
+     * the rules; for callers that already read it, e.g. to look up the plan of the request's handler.
+     */
+    @Nullable
+    protected <R> HeadersValidationException validateHeaders(
+            @NonNull CompiledRules rules,
+            @NonNull R request,
+            @NonNull HeaderAccessor<R> headers,
+            @NonNull RoutePlan handler,
+            @Nullable DeferredRules deferred) {
+        var target = handler == RoutePlan.INHERIT ? resolve(rules, request, headers) : handler;
+        if (target == RoutePlan.SKIP) return null;
+        if (deferred != null) deferred.failFast(rules.failFast());
+
+        return switch (rules.engine()) {
+            case PER_RULE -> validateEachRule(target, rules.failFast(), request, deferred, headers);
+            case SINGLE_PASS -> scanHeaders(target, rules.failFast(), request, deferred, headers);
+            case GENERATED -> runGenerated(target, rules.failFast(), request, deferred, headers);
+        };
+    }
+
+    /**
+     * @return whether rules validated by {@code validator} are left to the caller when it asks for deferral.
+     */
+    protected boolean isDeferred(@NonNull HeaderValidator validator) {
+        return false;
+    }
+
+    /**
+     * @return the plan to validate {@code request} against, which is {@link RoutePlan#SKIP} if its route skips
+     * validation.
+     */
+    @NonNull
+    private static <R> RoutePlan resolve(CompiledRules rules, R request, HeaderAccessor<R> headers) {
+        var routes = rules.routes();
+        var handlerRoutes = rules.handlerRoutes();
+        if (routes.isEmpty() && handlerRoutes.isEmpty()) return rules.global();
+
+        var path = headers.path(request);
+        if (path == null) return rules.global();
+
+        var method = headers.method(request);
+        var target = handlerRoutes.resolve(path, method);
+        if (target == null || target == RoutePlan.INHERIT) target = routes.resolve(path, method);
+        return target == null ? rules.global() : target;
+    }
+
+    @Nullable
+    private <R> HeadersValidationException validateEachRule(
+            RoutePlan target,
+            boolean failFast,
+            R request,
+            @Nullable DeferredRules deferred,
+            HeaderAccessor<R> headers) {
+        var rules = target.plan().rules();
+        if (failFast) {
+            for (int index : target.order().snapshot().order()) {
+                var failure = check(target, index, headers.getFirst(request, rules[index].headerName()), deferred);
+                if (failure != null) return reject(target, index, failure);
+            }
+            return null;
+        }
+
+        List<HeaderException> failures = null;
+        for (int index = 0; index < rules.length; index++) {
+            var failure = check(target, index, headers.getFirst(request, rules[index].headerName()), deferred);
+            if (failure != null) failures = add(failures, failure);
+        }
+        return failures == null ? null : new HeadersValidationException(failures);
+    }
 
-            throw new MissingHeaderException(rule);
+    /**
+     * Like {@link #validateEachRule}, through the {@link GeneratedPlan} of the plan: unrolled, or one rule at a time in
+     * the adaptive order when failing fast.
+     */
+    @Nullable
+    private <R> HeadersValidationException runGenerated(
+            RoutePlan target,
+            boolean failFast,
+            R request,
+            @Nullable DeferredRules deferred,
+            HeaderAccessor<R> headers) {
+        var generated = target.plan().generated(this::isDeferred);
+        if (generated == null) return validateEachRule(target, failFast, request, deferred, headers);
+        if (!failFast) return generated.validate(target, request, headers, deferred);
+
+        for (int index : target.order().snapshot().order()) {
+            var failure = generated.check(target, request, headers, deferred, index);
+            if (failure != null) return reject(target, index, failure);
         }
+        return null;
+    }
+
+    /**
+     * Only the rules whose header is present on the request are evaluated. Each match is recorded as a hit that packs
+     * the rank of the rule in the evaluation order (high half) with the position of the matching name (low half), so
+     * that sorting the hits orders them for evaluation and brings names differing only in case next to each other.
+     * Missing required headers are checked first, as they are the cheapest failures to find, but only searched for
+     * when fewer required rules were hit than the plan has.
+     */
+    @Nullable
+    private <R> HeadersValidationException scanHeaders(
+            RoutePlan target,
+            boolean failFast,
+            R request,
+            @Nullable DeferredRules deferred,
+            HeaderAccessor<R> headers) {
+        var plan = target.plan();
+        var snapshot = target.order().snapshot();
+        var ranks = snapshot.ranks();
+        long[] hits = null;
+        String[] names = null;
+        int count = 0;
+
+        for (var iterator = headers.headerNames(request); iterator.hasNext(); ) {
+            var name = iterator.next();
+            int index = plan.indexOf(name);
+            if (index < 0) continue;
+
+            if (hits == null) {
+                hits = new long[INITIAL_HITS];
+                names = new String[INITIAL_HITS];
+            } else if (count == hits.length) {
+                hits = Arrays.copyOf(hits, count << 1);
+                names = Arrays.copyOf(names, count << 1);
+            }
+            hits[count] = (long) ranks[index] << 32 | count;
+            names[count++] = name;
+        }
+        if (hits != null) Arrays.sort(hits, 0, count);
+
+        var rules = plan.rules();
+        var order = snapshot.order();
+        List<HeaderException> failures = null;
+
+        var required = plan.requiredRules();
+        if (countRequiredHits(plan, hits, count, order) < required.length) {
+            for (int index : required) {
+                if (isHit(hits, count, ranks[index])) continue;
 
-        switch (rule.validate(headerValue)) {
-            case ValidationResult.Success ignored -> {
+                var failure = new MissingHeaderException(rules[index].source());
+                if (failFast) return reject(target, index, failure);
+                failures = add(failures, failure);
             }
-            case ValidationResult.Failure failure -> throw new InvalidHeaderValueException(
-                    rule,
-                    failure
-            );
         }
+
+        for (int i = 0, previous = -1; i < count; i++) {
+            int rank = (int) (hits[i] >>> 32);
+            if (rank == previous) continue;
+
+            previous = rank;
+            int index = order[rank];
+            var failure = check(target, index, headers.getFirst(request, names[(int) hits[i]]), deferred);
+            if (failure == null) continue;
+
+            if (failFast) return reject(target, index, failure);
+            failures = add(failures, failure);
+        }
+        return failures == null ? null : new HeadersValidationException(failures);
+    }
+
+    private static int countRequiredHits(ValidationPlan plan, long[] hits, int count, int[] order) {
+        int requiredHits = 0;
+        for (int i = 0, previous = -1; i < count; i++) {
+            int rank = (int) (hits[i] >>> 32);
+            if (rank != previous && plan.get(order[rank]).required()) requiredHits++;
+            previous = rank;
+        }
+        return requiredHits;
+    }
+
+    private static boolean isHit(long[] hits, int count, int rank) {
+        if (count == 0) return false;
+
+        // Hits of the same rank only differ in their low half, so the insertion point of (rank, 0) is the first of them.
+        int i = Arrays.binarySearch(hits, 0, count, (long) rank << 32);
+        if (i < 0) i = -i - 1;
+        return i < count && (int) (hits[i] >>> 32) == rank;
+    }
+
+    private static HeadersValidationException reject(RoutePlan target, int index, HeaderException failure) {
+        target.order().recordFailure(index);
+        return new HeadersValidationException(add(null, failure));
+    }
+
+    private static List<HeaderException> add(@Nullable List<HeaderException> failures, HeaderException failure) {
+        if (failures == null) failures = new ArrayList<>();
+        failures.add(failure);
+        return failures;
+    }
+
+    protected void validate(@NonNull HeaderRule rule, String headerValue) throws HeaderException {
+        var failure = check(ValidationPlan.Rule.of(rule), headerValue);
+        if (failure != null) throw failure;
+    }
+
+    @Nullable
+    private HeaderException check(
+            RoutePlan target,
+            int index,
+            @Nullable String headerValue,
+            @Nullable DeferredRules deferred) {
+        var rule = target.plan().rules()[index];
+        if (deferred != null && headerValue != null && !rule.isTooLong(headerValue) && isDeferred(rule.validator())) {
+            deferred.add(target, index, headerValue);
+            return null;
+        }
+        return check(rule, headerValue);
+    }
+
+    @Nullable
+    private static HeaderException check(@NonNull ValidationPlan.Rule rule, @Nullable String headerValue) {
+        if (headerValue == null) {
+            return rule.required() ? new MissingHeaderException(rule.source()) : null;
+        }
+
+        return check(rule, rule.validate(headerValue), headerValue);
+    }
+
+    /**
+     * @return the failure to report for {@code result}, which {@code rule} produced for {@code headerValue}, or
+     * {@code null} if it passed.
+     */
+    @Nullable
+    static HeaderException check(
+            @NonNull ValidationPlan.Rule rule,
+            @NonNull ValidationResult result,
+            @NonNull String headerValue) {
+        return switch (result) {
+            case ValidationResult.Success ignored -> null;
+            case ValidationResult.Failure failure -> new InvalidHeaderValueException(rule.source(), failure, headerValue);
+        };
     }
 }
@@ -0,0 +1,71 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.ValidationCost;
+import org.springframework.lang.NonNull;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+/**
+ * The order in which a fail-fast validator evaluates the rules of a {@link ValidationPlan}, adapted to the failures it
+ * observes.
+ * <p>
+ * Rules start in plan order, i.e. cheapest first. Every {@link #REORDER_INTERVAL} recorded failures the rules are
+ * re-ranked by failure count per unit of {@link ValidationCost#weight() cost}, so that the rules most likely to reject a
+ * request cheaply run first. The counts are halved on every re-rank so that the order follows changes in traffic.
+ */
+final class AdaptiveRuleOrder {
+    static final int REORDER_INTERVAL = 256;
+
+    private final ValidationPlan.Rule[] rules;
+    private final AtomicLongArray failures;
+    private final AtomicLong recorded = new AtomicLong();
+    @NonNull
+    private volatile Snapshot snapshot;
+
+    AdaptiveRuleOrder(@NonNull ValidationPlan plan) {
+        this.rules = plan.rules();
+        this.failures = new AtomicLongArray(rules.length);
+        var identity = IntStream.range(0, rules.length).toArray();
+        this.snapshot = new Snapshot(identity, identity);
+    }
+
+    /**
+     * @return the current order. It is replaced, never modified, on re-ranking, so callers should read it once per
+     * request.
+     */
+    @NonNull
+    Snapshot snapshot() {
+        return snapshot;
+    }
+
+    void recordFailure(int rule) {
+        failures.incrementAndGet(rule);
+        if (recorded.incrementAndGet() % REORDER_INTERVAL == 0) reorder();
+    }
+
+    synchronized void reorder() {
+        var scores = new double[rules.length];
+        for (int i = 0; i < rules.length; i++) {
+            scores[i] = (double) failures.getAndUpdate(i, count -> count >>> 1) / rules[i].cost().weight();
+        }
+
+        var order = IntStream.range(0, rules.length)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        var ranks = new int[order.length];
+        for (int rank = 0; rank < order.length; rank++) ranks[order[rank]] = rank;
+        snapshot = new Snapshot(order, ranks);
+    }
+
+    /**
+     * @param order the rule indices in evaluation order.
+     * @param ranks the inverse of {@code order}: the position of every rule index in it.
+     */
+    record Snapshot(int[] order, int[] ranks) {
+    }
+}
@@ -0,0 +1,28 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The validators named by FQCN in the configuration, resolved ahead of time by {@link HeaderValidatorAotProcessor}:
+ * each one is created by a plain constructor call rather than by reflection.
+ *
+ * @param suppliers by fully qualified class name.
+ */
+record AotHeaderValidators(@NonNull Map<String, Supplier<HeaderValidator>> suppliers) {
+    static final String BEAN_NAME = "aotHeaderValidators";
+    static final AotHeaderValidators NONE = new AotHeaderValidators(Map.of());
+
+    AotHeaderValidators {
+        suppliers = Map.copyOf(suppliers);
+    }
+
+    @Nullable
+    Supplier<HeaderValidator> get(@NonNull String className) {
+        return suppliers.get(className);
+    }
+}
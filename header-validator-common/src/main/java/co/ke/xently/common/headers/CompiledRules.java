@@ -0,0 +1,141 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.RegexValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * One generation of the compiled configuration: the plans of the global rules, of the routes and of the annotated
+ * handlers. Replaced as a whole when the configuration is reloaded, and read once per request, so that a request is
+ * validated against a single generation even if a reload completes halfway through it.
+ */
+@Slf4j
+final class CompiledRules {
+    @NonNull
+    private final Set<HeaderRule> headers;
+    /**
+     * The plan of requests that match no {@link HeaderRoute}.
+     */
+    @NonNull
+    private final RoutePlan global;
+    @NonNull
+    private final RouteIndex routes;
+    @NonNull
+    private final HeaderValidationEngine engine;
+    private final boolean failFast;
+    /**
+     * The plans of handler methods, compiled against {@link #headers} on first use.
+     */
+    private final Map<Method, RoutePlan> handlers = new ConcurrentHashMap<>();
+    /**
+     * Routes derived from annotated handlers, for web stacks that validate requests before their handler is known. They
+     * are matched before {@link #routes}.
+     */
+    @NonNull
+    private volatile RouteIndex handlerRoutes = RouteIndex.EMPTY;
+
+    private CompiledRules(HeaderValidationProperties properties) {
+        this.headers = properties.headers();
+        var routes = Objects.requireNonNullElse(properties.routes(), List.<HeaderRoute>of());
+        checkPatterns(Stream.concat(headers.stream(), routes.stream().flatMap(route -> route.getHeaders().stream())),
+                properties.regexEngine());
+        this.global = RoutePlan.compile(headers);
+        this.routes = RouteIndex.compile(routes, headers);
+        this.engine = Objects.requireNonNullElse(properties.engine(), HeaderValidationEngine.PER_RULE);
+        this.failFast = properties.failFast();
+    }
+
+    /**
+     * @throws RuntimeException if a rule or route does not compile, e.g. on an invalid path pattern.
+     */
+    @NonNull
+    static CompiledRules compile(@NonNull HeaderValidationProperties properties) {
+        return new CompiledRules(properties);
+    }
+
+    /**
+     * Rejects the rules whose pattern would be matched by {@link java.util.regex} if {@code engine} is
+     * {@link RegexValidator.Engine#LINEAR}, or else warns about those that may backtrack catastrophically.
+     *
+     * @throws IllegalStateException if a rule is rejected.
+     */
+    private static void checkPatterns(Stream<HeaderRule> rules, RegexValidator.Engine engine) {
+        rules.forEach(rule -> {
+            if (!(rule.getValidator() instanceof RegexValidator validator) || validator.isCompiled()) return;
+
+            if (engine == RegexValidator.Engine.LINEAR) {
+                try {
+                    new RegexValidator(validator.pattern(), engine);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalStateException("Header %s: %s".formatted(rule.getHeaderName(), e.getMessage()), e);
+                }
+            }
+            var risk = validator.backtrackingRisk();
+            if (risk != null) {
+                log.warn("The pattern '{}' of header {} may backtrack catastrophically on crafted values ({}). Set the "
+                                + "max-length of the rule, or rewrite the pattern in the syntax matched in linear time.",
+                        validator.pattern(), rule.getHeaderName(), risk);
+            }
+        });
+    }
+
+    @NonNull
+    Set<HeaderRule> headers() {
+        return headers;
+    }
+
+    @NonNull
+    RoutePlan global() {
+        return global;
+    }
+
+    @NonNull
+    RouteIndex routes() {
+        return routes;
+    }
+
+    @NonNull
+    RouteIndex handlerRoutes() {
+        return handlerRoutes;
+    }
+
+    @NonNull
+    HeaderValidationEngine engine() {
+        return engine;
+    }
+
+    boolean failFast() {
+        return failFast;
+    }
+
+    /**
+     * @return the plan of a handler method, see {@link HandlerRules#compile(Method, Class, Set)}.
+     */
+    @NonNull
+    RoutePlan handler(@NonNull Method method, @NonNull Class<?> handlerType) {
+        // Looked up before computeIfAbsent so that compiled handlers do not allocate a capturing lambda.
+        var plan = handlers.get(method);
+        return plan != null
+                ? plan
+                : handlers.computeIfAbsent(method, key -> HandlerRules.compile(key, handlerType, headers));
+    }
+
+    /**
+     * Installs the routes of the annotated handlers. Routes must be ordered most specific first and should include the
+     * handlers that are not annotated (with {@link RoutePlan#INHERIT}), so that those are not mistaken for a less
+     * specific annotated one.
+     */
+    void setHandlerRoutes(@NonNull List<RouteIndex.Route> routes) {
+        this.handlerRoutes = routes.stream().anyMatch(route -> route.plan() != RoutePlan.INHERIT)
+                ? RouteIndex.of(routes)
+                : RouteIndex.EMPTY;
+    }
+}
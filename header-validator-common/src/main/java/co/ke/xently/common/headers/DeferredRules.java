@@ -0,0 +1,65 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * The rules whose validators a web stack evaluates itself, asynchronously, collected along with their header values
+ * while the rest of a request is validated inline. See
+ * {@link AbstractHeaderValidator#validateHeaders(Object, HeaderAccessor, RoutePlan, DeferredRules)}.
+ */
+final class DeferredRules {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private RoutePlan target;
+    private int[] indices;
+    private String[] values;
+    private int size;
+    private boolean failFast;
+
+    void add(@NonNull RoutePlan target, int index, @NonNull String headerValue) {
+        if (indices == null) {
+            indices = new int[INITIAL_CAPACITY];
+            values = new String[INITIAL_CAPACITY];
+        } else if (size == indices.length) {
+            indices = Arrays.copyOf(indices, size << 1);
+            values = Arrays.copyOf(values, size << 1);
+        }
+        this.target = target;
+        indices[size] = index;
+        values[size++] = headerValue;
+    }
+
+    /**
+     * Whether the generation of the rules the request was validated against fails fast.
+     */
+    boolean failFast() {
+        return failFast;
+    }
+
+    void failFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    int size() {
+        return size;
+    }
+
+    @NonNull
+    ValidationPlan.Rule rule(int i) {
+        return target.plan().get(indices[i]);
+    }
+
+    @NonNull
+    String value(int i) {
+        return values[i];
+    }
+
+    /**
+     * Feeds a failure of the {@code i}-th deferred rule back into the evaluation order of its plan.
+     */
+    void recordFailure(int i) {
+        target.order().recordFailure(indices[i]);
+    }
+}
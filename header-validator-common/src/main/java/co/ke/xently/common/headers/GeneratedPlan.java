@@ -0,0 +1,482 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.exceptions.HeaderException;
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
+import co.ke.xently.common.headers.exceptions.MissingHeaderException;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.ConstantDynamic;
+import org.springframework.asm.Handle;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.core.NativeDetector;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A {@link ValidationPlan} compiled to bytecode, see {@link HeaderValidationEngine#GENERATED}.
+ * <p>
+ * The generated subclass unrolls the rules of the plan, in plan order, into straight-line code: every header name is a
+ * constant and every validator is called from a call site of its own, typed as its concrete class whenever that class
+ * can be named. Each call site therefore only ever sees one receiver, which the JIT can inline, whereas the single call
+ * site of the interpreted loop goes megamorphic as soon as a plan mixes more than two validator types. The rules and
+ * validators are handed to the class as class data and loaded as dynamic constants, which the JIT treats as constants.
+ * <p>
+ * The class is hidden, so it is unloaded along with the plan, e.g. once a reload replaced it.
+ */
+abstract class GeneratedPlan {
+    /**
+     * Plans with more rules are not generated: their method would grow past the size HotSpot compiles
+     * ({@code -XX:-DontCompileHugeMethods}) and be slower than the loop.
+     */
+    static final int MAX_RULES = 128;
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final String SELF = Type.getInternalName(GeneratedPlan.class);
+    private static final String GENERATED = SELF.substring(0, SELF.lastIndexOf('/') + 1) + "GeneratedPlan$Rules";
+    private static final String LIST = Type.getDescriptor(List.class);
+    private static final String RULE = Type.getDescriptor(ValidationPlan.Rule.class);
+    private static final String STRING = Type.getDescriptor(String.class);
+    private static final String RESULT = Type.getDescriptor(ValidationResult.class);
+    private static final String EXCEPTION = Type.getDescriptor(HeadersValidationException.class);
+    private static final String ROUTE_PLAN = Type.getDescriptor(RoutePlan.class);
+    private static final String PARAMETERS = ROUTE_PLAN
+            + Type.getDescriptor(Object.class)
+            + Type.getDescriptor(HeaderAccessor.class)
+            + Type.getDescriptor(DeferredRules.class);
+    private static final Handle CLASS_DATA_AT = new Handle(
+            Opcodes.H_INVOKESTATIC,
+            Type.getInternalName(MethodHandles.class),
+            "classDataAt",
+            MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class)
+                    .toMethodDescriptorString(),
+            false
+    );
+
+    private static final int TARGET = 1;
+    private static final int REQUEST = 2;
+    private static final int HEADERS = 3;
+    private static final int DEFERRED = 4;
+    private static final int FAILURES = 5;
+    private static final int INDEX = 5;
+    private static final int VALUE = 6;
+
+    /**
+     * Evaluates every rule of the plan this was generated from against {@code request}, in plan order.
+     *
+     * @param target   the route plan this was generated from.
+     * @param deferred receives the present headers of the rules generated as deferred, if not {@code null}.
+     * @return the exception to reject the request with, or {@code null} if every rule passed.
+     */
+    @Nullable
+    abstract HeadersValidationException validate(
+            @NonNull RoutePlan target,
+            @NonNull Object request,
+            @NonNull HeaderAccessor<?> headers,
+            @Nullable DeferredRules deferred);
+
+    /**
+     * Evaluates the rule at {@code index} against {@code request}; for callers choosing the order, e.g. when failing
+     * fast. Every rule still has call sites of its own.
+     *
+     * @return the failure of the rule, or {@code null} if it passed or was deferred.
+     */
+    @Nullable
+    abstract HeaderException check(
+            @NonNull RoutePlan target,
+            @NonNull Object request,
+            @NonNull HeaderAccessor<?> headers,
+            @Nullable DeferredRules deferred,
+            int index);
+
+    /**
+     * @param deferrable whether the rules validated by a validator are added to {@code deferred} rather than evaluated,
+     *                   when the caller asks for deferral.
+     * @return the generated plan, or {@code null} if the plan has more than {@link #MAX_RULES} rules or if running in a
+     * native image, where classes cannot be defined at runtime.
+     */
+    @Nullable
+    static GeneratedPlan generate(@NonNull ValidationPlan plan, @NonNull Predicate<HeaderValidator> deferrable) {
+        if (plan.size() > MAX_RULES || NativeDetector.inNativeImage()) return null;
+
+        var classData = new ArrayList<>(plan.size() * 2);
+        var rules = new GeneratedRule[plan.size()];
+        for (int index = 0; index < rules.length; index++) {
+            var rule = plan.get(index);
+            var validator = rule.validator();
+            classData.add(rule);
+            classData.add(validator);
+            var validatorType = nameableType(validator.getClass());
+            rules[index] = new GeneratedRule(
+                    index,
+                    rule,
+                    deferrable.test(validator),
+                    classData(2 * index, ValidationPlan.Rule.class),
+                    classData(2 * index + 1, validatorType),
+                    validatorType
+            );
+        }
+
+        var writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Only reached when merging frames; every local the methods merge is typed by an interface.
+                return "java/lang/Object";
+            }
+        };
+        writer.visit(Opcodes.V21, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, GENERATED, null, SELF, null);
+        generateConstructor(writer);
+        generateValidate(writer, rules);
+        generateCheck(writer, rules);
+        writer.visitEnd();
+
+        try {
+            var lookup = LOOKUP.defineHiddenClassWithClassData(writer.toByteArray(), List.copyOf(classData), true);
+            return (GeneratedPlan) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to generate the validation plan of %s".formatted(plan), e);
+        }
+    }
+
+    private static void generateConstructor(ClassWriter writer) {
+        var constructor = writer.visitMethod(0, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, SELF, "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+    }
+
+    /**
+     * Emits, for every rule:
+     * <pre>{@code
+     * value = headers.getFirst(request, "<header name>");
+     * if (value == null) {
+     *     failures = add(failures, missing(RULE));                // required rules only
+     * } else if (value.length() > <max length>) {                 // rules with a maximum length only
+     *     failures = add(failures, AbstractHeaderValidator.check(RULE, RULE.tooLong(), value));
+     * } else if (deferred != null) {                              // deferrable rules only
+     *     deferred.add(target, <index>, value);
+     * } else {
+     *     failures = add(failures, AbstractHeaderValidator.check(RULE, VALIDATOR.validate("<header name>", value), value));
+     * }
+     * }</pre>
+     */
+    private static void generateValidate(ClassWriter writer, GeneratedRule[] rules) {
+        var method = writer.visitMethod(0, "validate", "(%s)%s".formatted(PARAMETERS, EXCEPTION), null, null);
+        method.visitCode();
+        method.visitInsn(Opcodes.ACONST_NULL);
+        method.visitVarInsn(Opcodes.ASTORE, FAILURES);
+        for (var rule : rules) {
+            var next = new Label();
+            var present = new Label();
+            generateLookup(method, rule);
+            method.visitJumpInsn(Opcodes.IFNONNULL, present);
+            if (rule.rule().required()) {
+                method.visitVarInsn(Opcodes.ALOAD, FAILURES);
+                generateMissing(method, rule);
+                generateAdd(method);
+            }
+            method.visitJumpInsn(Opcodes.GOTO, next);
+
+            method.visitLabel(present);
+            if (rule.isBounded()) {
+                var within = new Label();
+                generateLengthCheck(method, rule, within);
+                method.visitVarInsn(Opcodes.ALOAD, FAILURES);
+                generateTooLong(method, rule);
+                generateAdd(method);
+                method.visitJumpInsn(Opcodes.GOTO, next);
+                method.visitLabel(within);
+            }
+            generateDeferral(method, rule, next);
+            method.visitVarInsn(Opcodes.ALOAD, FAILURES);
+            generateValidation(method, rule);
+            generateAdd(method);
+            method.visitLabel(next);
+        }
+        method.visitVarInsn(Opcodes.ALOAD, FAILURES);
+        method.visitMethodInsn(Opcodes.INVOKESTATIC, SELF, "result", "(%s)%s".formatted(LIST, EXCEPTION), false);
+        method.visitInsn(Opcodes.ARETURN);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * Emits a {@code switch (index)} with a case per rule:
+     * <pre>{@code
+     * value = headers.getFirst(request, "<header name>");
+     * if (value == null) return missing(RULE);                    // or null for optional rules
+     * if (value.length() > <max length>) {                        // rules with a maximum length only
+     *     return AbstractHeaderValidator.check(RULE, RULE.tooLong(), value);
+     * }
+     * if (deferred != null) {                                     // deferrable rules only
+     *     deferred.add(target, <index>, value);
+     *     return null;
+     * }
+     * return AbstractHeaderValidator.check(RULE, VALIDATOR.validate("<header name>", value), value);
+     * }</pre>
+     */
+    private static void generateCheck(ClassWriter writer, GeneratedRule[] rules) {
+        var method = writer.visitMethod(
+                0,
+                "check",
+                "(%sI)%s".formatted(PARAMETERS, Type.getDescriptor(HeaderException.class)),
+                null,
+                null
+        );
+        method.visitCode();
+        var fallback = new Label();
+        var cases = new Label[rules.length];
+        Arrays.setAll(cases, i -> new Label());
+        method.visitVarInsn(Opcodes.ILOAD, INDEX);
+        if (rules.length == 0) {
+            method.visitInsn(Opcodes.POP);
+        } else {
+            method.visitTableSwitchInsn(0, rules.length - 1, fallback, cases);
+        }
+        for (var rule : rules) {
+            var present = new Label();
+            var returnNull = new Label();
+            method.visitLabel(cases[rule.index()]);
+            generateLookup(method, rule);
+            method.visitJumpInsn(Opcodes.IFNONNULL, present);
+            if (rule.rule().required()) {
+                generateMissing(method, rule);
+                method.visitInsn(Opcodes.ARETURN);
+            } else {
+                method.visitInsn(Opcodes.ACONST_NULL);
+                method.visitInsn(Opcodes.ARETURN);
+            }
+
+            method.visitLabel(present);
+            if (rule.isBounded()) {
+                var within = new Label();
+                generateLengthCheck(method, rule, within);
+                generateTooLong(method, rule);
+                method.visitInsn(Opcodes.ARETURN);
+                method.visitLabel(within);
+            }
+            generateDeferral(method, rule, returnNull);
+            generateValidation(method, rule);
+            method.visitInsn(Opcodes.ARETURN);
+            if (rule.deferrable()) {
+                method.visitLabel(returnNull);
+                method.visitInsn(Opcodes.ACONST_NULL);
+                method.visitInsn(Opcodes.ARETURN);
+            }
+        }
+        method.visitLabel(fallback);
+        method.visitVarInsn(Opcodes.ILOAD, INDEX);
+        method.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                SELF,
+                "noSuchRule",
+                "(I)%s".formatted(Type.getDescriptor(RuntimeException.class)),
+                false
+        );
+        method.visitInsn(Opcodes.ATHROW);
+        method.visitMaxs(0, 0);
+        method.visitEnd();
+    }
+
+    /**
+     * {@code value = headers.getFirst(request, "<header name>")}, leaving {@code value} on the stack.
+     */
+    private static void generateLookup(MethodVisitor method, GeneratedRule rule) {
+        method.visitVarInsn(Opcodes.ALOAD, HEADERS);
+        method.visitVarInsn(Opcodes.ALOAD, REQUEST);
+        method.visitLdcInsn(rule.rule().headerName());
+        method.visitMethodInsn(
+                Opcodes.INVOKEINTERFACE,
+                Type.getInternalName(HeaderAccessor.class),
+                "getFirst",
+                "(%s%s)%s".formatted(Type.getDescriptor(Object.class), STRING, STRING),
+                true
+        );
+        method.visitInsn(Opcodes.DUP);
+        method.visitVarInsn(Opcodes.ASTORE, VALUE);
+    }
+
+    /**
+     * {@code if (value.length() <= <max length>) goto within;}
+     */
+    private static void generateLengthCheck(MethodVisitor method, GeneratedRule rule, Label within) {
+        method.visitVarInsn(Opcodes.ALOAD, VALUE);
+        method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(String.class), "length", "()I", false);
+        method.visitLdcInsn(rule.rule().maxLength());
+        method.visitJumpInsn(Opcodes.IF_ICMPLE, within);
+    }
+
+    /**
+     * {@code AbstractHeaderValidator.check(RULE, RULE.tooLong(), value)}, leaving the failure on the stack.
+     */
+    private static void generateTooLong(MethodVisitor method, GeneratedRule rule) {
+        method.visitLdcInsn(rule.ruleConstant());
+        method.visitInsn(Opcodes.DUP);
+        method.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                Type.getInternalName(ValidationPlan.Rule.class),
+                "tooLong",
+                "()%s".formatted(Type.getDescriptor(ValidationResult.Failure.class)),
+                false
+        );
+        method.visitVarInsn(Opcodes.ALOAD, VALUE);
+        generateResultCheck(method);
+    }
+
+    /**
+     * For deferrable rules, {@code if (deferred != null) { deferred.add(target, <index>, value); goto deferredLabel; }}
+     */
+    private static void generateDeferral(MethodVisitor method, GeneratedRule rule, Label deferredLabel) {
+        if (!rule.deferrable()) return;
+
+        var inline = new Label();
+        method.visitVarInsn(Opcodes.ALOAD, DEFERRED);
+        method.visitJumpInsn(Opcodes.IFNULL, inline);
+        method.visitVarInsn(Opcodes.ALOAD, DEFERRED);
+        method.visitVarInsn(Opcodes.ALOAD, TARGET);
+        method.visitLdcInsn(rule.index());
+        method.visitVarInsn(Opcodes.ALOAD, VALUE);
+        method.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                Type.getInternalName(DeferredRules.class),
+                "add",
+                "(%sI%s)V".formatted(ROUTE_PLAN, STRING),
+                false
+        );
+        method.visitJumpInsn(Opcodes.GOTO, deferredLabel);
+        method.visitLabel(inline);
+    }
+
+    /**
+     * {@code missing(RULE)}, leaving the failure on the stack.
+     */
+    private static void generateMissing(MethodVisitor method, GeneratedRule rule) {
+        method.visitLdcInsn(rule.ruleConstant());
+        method.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                SELF,
+                "missing",
+                "(%s)%s".formatted(RULE, Type.getDescriptor(HeaderException.class)),
+                false
+        );
+    }
+
+    /**
+     * {@code AbstractHeaderValidator.check(RULE, VALIDATOR.validate("<header name>", value), value)}, leaving the
+     * failure (or {@code null}) on the stack.
+     */
+    private static void generateValidation(MethodVisitor method, GeneratedRule rule) {
+        var validatorType = rule.validatorType();
+        method.visitLdcInsn(rule.ruleConstant());
+        method.visitLdcInsn(rule.validatorConstant());
+        method.visitLdcInsn(rule.rule().headerName());
+        method.visitVarInsn(Opcodes.ALOAD, VALUE);
+        method.visitMethodInsn(
+                validatorType.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                Type.getInternalName(validatorType),
+                "validate",
+                "(%s%s)%s".formatted(STRING, STRING, RESULT),
+                validatorType.isInterface()
+        );
+        method.visitVarInsn(Opcodes.ALOAD, VALUE);
+        generateResultCheck(method);
+    }
+
+    /**
+     * {@code AbstractHeaderValidator.check(<rule>, <result>, <value>)}, on the operands on the stack.
+     */
+    private static void generateResultCheck(MethodVisitor method) {
+        method.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                Type.getInternalName(AbstractHeaderValidator.class),
+                "check",
+                "(%s%s%s)%s".formatted(RULE, RESULT, STRING, Type.getDescriptor(HeaderException.class)),
+                false
+        );
+    }
+
+    /**
+     * {@code failures = add(failures, <failure on the stack>)}.
+     */
+    private static void generateAdd(MethodVisitor method) {
+        method.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                SELF,
+                "add",
+                "(%s%s)%s".formatted(LIST, Type.getDescriptor(HeaderException.class), LIST),
+                false
+        );
+        method.visitVarInsn(Opcodes.ASTORE, FAILURES);
+    }
+
+    private record GeneratedRule(
+            int index,
+            ValidationPlan.Rule rule,
+            boolean deferrable,
+            ConstantDynamic ruleConstant,
+            ConstantDynamic validatorConstant,
+            Class<?> validatorType
+    ) {
+        boolean isBounded() {
+            return rule.maxLength() != HeaderRule.UNLIMITED;
+        }
+    }
+
+    private static ConstantDynamic classData(int index, Class<?> type) {
+        return new ConstantDynamic("_", Type.getDescriptor(type), CLASS_DATA_AT, index);
+    }
+
+    /**
+     * @return {@code type} if the generated class can refer to it by name, otherwise {@link HeaderValidator} (e.g. for
+     * lambdas, which are hidden classes, or classes that are private or loaded by another class loader).
+     */
+    private static Class<?> nameableType(Class<?> type) {
+        if (type.isHidden() || type.isArray()) return HeaderValidator.class;
+        try {
+            LOOKUP.accessClass(type);
+            return Class.forName(type.getName(), false, GeneratedPlan.class.getClassLoader()) == type
+                    ? type
+                    : HeaderValidator.class;
+        } catch (IllegalAccessException | ClassNotFoundException | LinkageError e) {
+            return HeaderValidator.class;
+        }
+    }
+
+    // Called by the generated code.
+
+    static HeaderException missing(ValidationPlan.Rule rule) {
+        return new MissingHeaderException(rule.source());
+    }
+
+    @Nullable
+    static List<HeaderException> add(@Nullable List<HeaderException> failures, @Nullable HeaderException failure) {
+        if (failure == null) return failures;
+
+        if (failures == null) failures = new ArrayList<>();
+        failures.add(failure);
+        return failures;
+    }
+
+    @Nullable
+    static HeadersValidationException result(@Nullable List<HeaderException> failures) {
+        return failures == null ? null : new HeadersValidationException(failures);
+    }
+
+    static RuntimeException noSuchRule(int index) {
+        return new IndexOutOfBoundsException(index);
+    }
+}
@@ -0,0 +1,59 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the {@link RequireHeaders} and {@link SkipHeaderValidation} annotations of handler methods into plans.
+ * Meant to be called once per handler method, at startup.
+ */
+final class HandlerRules {
+    private HandlerRules() {
+    }
+
+    /**
+     * @param headers the configured rules the annotations apply on top of.
+     * @return {@link RoutePlan#SKIP} if validation is disabled for the handler, {@link RoutePlan#INHERIT} if it is not
+     * annotated, or else the plan compiled from its annotations and {@code headers}.
+     */
+    @NonNull
+    static RoutePlan compile(@NonNull Method method, @NonNull Class<?> handlerType, @NonNull Set<HeaderRule> headers) {
+        var onMethod = AnnotatedElementUtils.findMergedAnnotation(method, RequireHeaders.class);
+        if (AnnotatedElementUtils.hasAnnotation(method, SkipHeaderValidation.class)) return RoutePlan.SKIP;
+        if (onMethod == null && AnnotatedElementUtils.hasAnnotation(handlerType, SkipHeaderValidation.class)) {
+            return RoutePlan.SKIP;
+        }
+
+        var onType = AnnotatedElementUtils.findMergedAnnotation(handlerType, RequireHeaders.class);
+        if (onMethod == null && onType == null) return RoutePlan.INHERIT;
+
+        var excluded = new HashSet<String>();
+        Stream.of(onMethod, onType)
+                .filter(Objects::nonNull)
+                .flatMap(annotation -> Arrays.stream(annotation.exclude()))
+                .map(name -> name.strip().toLowerCase(Locale.ROOT))
+                .forEach(excluded::add);
+
+        var rules = new ArrayList<HeaderRule>();
+        for (var annotation : new RequireHeaders[]{onMethod, onType}) {
+            if (annotation == null) continue;
+            for (var header : annotation.value()) {
+                rules.add(HeaderRule.builder()
+                        .headerName(header.name())
+                        .required(header.required())
+                        .validator(BeanUtils.instantiateClass(header.validator()))
+                        .maxLength(header.maxLength())
+                        .build());
+            }
+        }
+        for (var rule : headers) {
+            if (!excluded.contains(rule.getHeaderName().strip().toLowerCase(Locale.ROOT))) rules.add(rule);
+        }
+        return RoutePlan.compile(rules);
+    }
+}
@@ -0,0 +1,45 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Iterator;
+
+/**
+ * Reads the headers of a web-stack specific request type.
+ * <p>
+ * Implementations should be stateless singletons so that validating a request does not allocate one.
+ *
+ * @param <R> the request (or headers) type of the web stack.
+ */
+public interface HeaderAccessor<R> {
+    /**
+     * @return the first value of {@code headerName} (compared case-insensitively), or {@code null} if absent.
+     */
+    @Nullable
+    String getFirst(@NonNull R request, @NonNull String headerName);
+
+    /**
+     * @return the names of the headers present on {@code request}. A name may be repeated with a different case, as some
+     * stacks keep the case the client sent.
+     */
+    @NonNull
+    Iterator<String> headerNames(@NonNull R request);
+
+    /**
+     * @return the path of {@code request} within the application, used to resolve its {@link HeaderRoute}; or
+     * {@code null} if routes do not apply, in which case the global rules are used.
+     */
+    @Nullable
+    default PathContainer path(@NonNull R request) {
+        return null;
+    }
+
+    /**
+     * @return the method of {@code request}; only called when {@link #path(Object)} is not {@code null}.
+     */
+    @NonNull
+    HttpMethod method(@NonNull R request);
+}
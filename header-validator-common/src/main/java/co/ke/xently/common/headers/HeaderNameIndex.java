@@ -0,0 +1,87 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.utils.PerfectHash;
+import org.springframework.lang.NonNull;
+
+/**
+ * Case-insensitive lookup from a header name to the index of its rule in a {@link ValidationPlan}, backed by a
+ * {@link PerfectHash} built over the canonical rule names. Lookups neither lower-case nor allocate.
+ */
+final class HeaderNameIndex {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long seed;
+    private final PerfectHash hash;
+    /**
+     * Canonical header name stored at each slot of {@link #hash}.
+     */
+    private final String[] names;
+    /**
+     * Rule index stored at each slot of {@link #hash}.
+     */
+    private final int[] rules;
+
+    private HeaderNameIndex(long seed, PerfectHash hash, String[] names, int[] rules) {
+        this.seed = seed;
+        this.hash = hash;
+        this.names = names;
+        this.rules = rules;
+    }
+
+    @NonNull
+    static HeaderNameIndex build(@NonNull ValidationPlan.Rule[] rules) {
+        var hashes = new long[rules.length];
+        for (long seed = 0; ; seed++) {
+            for (int i = 0; i < rules.length; i++) {
+                hashes[i] = hash(rules[i].canonicalName(), seed);
+            }
+            PerfectHash hash;
+            try {
+                hash = PerfectHash.build(hashes);
+            } catch (IllegalArgumentException e) {
+                continue; // Two names collided on all 64 bits; try another seed.
+            }
+
+            var names = new String[rules.length];
+            var indices = new int[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                int slot = hash.slot(hashes[i]);
+                names[slot] = rules[i].canonicalName();
+                indices[slot] = i;
+            }
+            return new HeaderNameIndex(seed, hash, names, indices);
+        }
+    }
+
+    /**
+     * @return the index of the rule for {@code headerName}, compared case-insensitively, or {@code -1} if no rule
+     * targets it.
+     */
+    int indexOf(@NonNull String headerName) {
+        if (names.length == 0) return -1;
+
+        int slot = hash.slot(hash(headerName, seed));
+        var name = names[slot];
+        return name.length() == headerName.length() && name.regionMatches(true, 0, headerName, 0, name.length())
+                ? rules[slot]
+                : -1;
+    }
+
+    /**
+     * FNV-1a over the lower-cased characters of {@code name}, folded without allocating a lower-cased copy.
+     */
+    private static long hash(String name, long seed) {
+        long hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = 0, length = name.length(); i < length; i++) {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toLowerCase(c);
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return PerfectHash.mix(hash);
+    }
+}
@@ -0,0 +1,47 @@
+package co.ke.xently.common.headers;
+
+import lombok.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Scopes header validation to the requests whose path matches one of {@link #getPaths() paths} and, if any are given,
+ * whose method is one of {@link #getMethods() methods}.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeaderRoute {
+    /**
+     * Path patterns in {@link org.springframework.web.util.pattern.PathPattern} syntax, e.g. {@code /actuator/**}.
+     */
+    @NonNull
+    @Builder.Default
+    private List<String> paths = List.of();
+    /**
+     * The methods the route applies to; all methods when empty.
+     */
+    @NonNull
+    @Builder.Default
+    private Set<HttpMethod> methods = Set.of();
+    /**
+     * Whether matching requests bypass header validation altogether.
+     */
+    private boolean skip;
+    /**
+     * Rules applied on top of (and taking precedence over) the globally configured ones.
+     */
+    @NonNull
+    @Builder.Default
+    private Set<HeaderRule> headers = Set.of();
+
+    @Override
+    public String toString() {
+        return "HeaderRoute{paths=%s, methods=%s, skip=%s}".formatted(paths, methods, skip);
+    }
+}
@@ -1,13 +1,21 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.validators.AsyncHeaderValidator;
+import co.ke.xently.common.headers.validators.CircuitBreaker;
+import co.ke.xently.common.headers.validators.CoalescingHeaderValidator;
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.GuardedHeaderValidator;
 import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.MemoizingHeaderValidator;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import lombok.*;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
+import java.time.Duration;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 @Setter
@@ -15,6 +23,11 @@ import java.util.Objects;
 @NoArgsConstructor
 @AllArgsConstructor
 public class HeaderRule {
+    /**
+     * The {@link #maxLength} of rules that do not limit the length of their values.
+     */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
     @NonNull
     private String headerName;
     @Builder.Default
@@ -22,6 +35,34 @@ public class HeaderRule {
     @NonNull
     @Builder.Default
     private HeaderValidator validator = new DefaultHeaderValidator();
+    /**
+     * The longest value, in characters, passed to {@link #validator}. Longer values are rejected with
+     * {@link ValidationResult.Failure#VALUE_TOO_LONG} before any validator runs, so that no validator spends time on
+     * them, e.g. a pattern that backtracks.
+     */
+    @Builder.Default
+    private int maxLength = UNLIMITED;
+    /**
+     * Memoizes the results of {@link #validator} when set; only suitable for validators that are pure functions of the
+     * header name and value.
+     */
+    @Nullable
+    private Cache cache;
+    /**
+     * Whether concurrent calls to {@link #validator} for the same value share a single call.
+     */
+    private boolean coalesce;
+    /**
+     * Bounds the latency of {@link #validator} and short-circuits it while it keeps failing, when set.
+     */
+    @Nullable
+    private Guard guard;
+    /**
+     * The last result of {@link #compileValidator()}, so that every plan a rule is compiled into (e.g. one per route)
+     * shares the same cache. Initialized and final, so Lombok leaves it out of the builder and constructors.
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<CompiledValidator> compiled = new AtomicReference<>();
 
     @NonNull
     public ValidationResult validate(@NonNull String headerValue) {
@@ -50,8 +91,118 @@ public class HeaderRule {
         return Objects.hashCode(getCaseInsensitiveHeaderName());
     }
 
+    /**
+     * @return {@link #validator}, guarded as configured by {@link #guard}, then coalesced if {@link #coalesce} is set,
+     * then memoized as configured by {@link #cache}. The cache is outermost so that hits skip the guard; it never caches
+     * the results the guard substitutes for timeouts and errors. Coalesced callers share a single guarded call. Each
+     * wrapper stays an {@link AsyncHeaderValidator} when what it wraps is one, so that it can be awaited without
+     * blocking.
+     */
+    @NonNull
+    HeaderValidator compileValidator() {
+        var validator = this.validator;
+        var cache = this.cache != null && this.cache.isEnabled() ? this.cache : null;
+        var coalesce = this.coalesce;
+        var guard = this.guard != null && this.guard.isEnabled() ? this.guard : null;
+        if (cache == null && !coalesce && guard == null) return validator;
+
+        return compiled.updateAndGet(current -> current != null && current.compiledFrom(validator, cache, coalesce, guard)
+                ? current
+                : new CompiledValidator(validator, cache, coalesce, guard, wrap(headerName, validator, cache, coalesce, guard))
+        ).validator();
+    }
+
+    private static HeaderValidator wrap(
+            String headerName,
+            HeaderValidator validator,
+            @Nullable Cache cache,
+            boolean coalesce,
+            @Nullable Guard guard) {
+        if (guard != null) {
+            validator = new GuardedHeaderValidator(
+                    validator,
+                    guard.getTimeout(),
+                    guard.getFailureMode(),
+                    new CircuitBreaker(headerName, guard.getFailureThreshold(), guard.getOpenDuration())
+            );
+        }
+        if (coalesce) validator = new CoalescingHeaderValidator(validator);
+        if (cache != null) {
+            validator = validator instanceof AsyncHeaderValidator async
+                    ? new MemoizingHeaderValidator.Async(async, cache.getMaximumSize(), cache.getTtl(), cache.getFailureTtl())
+                    : new MemoizingHeaderValidator(validator, cache.getMaximumSize(), cache.getTtl(), cache.getFailureTtl());
+        }
+        return validator;
+    }
+
+    private record CompiledValidator(
+            HeaderValidator source,
+            @Nullable Cache cache,
+            boolean coalesce,
+            @Nullable Guard guard,
+            HeaderValidator validator
+    ) {
+        boolean compiledFrom(HeaderValidator source, @Nullable Cache cache, boolean coalesce, @Nullable Guard guard) {
+            return this.source == source && this.cache == cache && this.coalesce == coalesce && this.guard == guard;
+        }
+    }
+
     @Override
     public String toString() {
         return "HeaderRule{headerName='%s', required=%s}".formatted(headerName, required);
     }
-}
\ No newline at end of file
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cache {
+        @Builder.Default
+        private boolean enabled = true;
+        @Builder.Default
+        private int maximumSize = 1_000;
+        @NonNull
+        @Builder.Default
+        private Duration ttl = Duration.ofMinutes(10);
+        /**
+         * How long failures are cached; {@link Duration#ZERO} disables negative caching.
+         */
+        @NonNull
+        @Builder.Default
+        private Duration failureTtl = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Guard {
+        @Builder.Default
+        private boolean enabled = true;
+        /**
+         * The latency budget of a call to the validator.
+         */
+        @NonNull
+        @Builder.Default
+        private Duration timeout = Duration.ofSeconds(1);
+        /**
+         * What calls that time out, throw or are short-circuited result in.
+         */
+        @NonNull
+        @Builder.Default
+        private GuardedHeaderValidator.FailureMode failureMode = GuardedHeaderValidator.FailureMode.FAIL_CLOSED;
+        /**
+         * The number of consecutive timeouts or errors that open the circuit.
+         */
+        @Builder.Default
+        private int failureThreshold = 5;
+        /**
+         * How long the circuit stays open before a probe call is let through.
+         */
+        @NonNull
+        @Builder.Default
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+}
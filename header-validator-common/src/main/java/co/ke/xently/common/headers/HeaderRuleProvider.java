@@ -0,0 +1,30 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashSet;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+/**
+ * Provides header rules declared at compile time, e.g. the classes generated for {@link HeaderSpec}s. Providers are
+ * loaded with {@link ServiceLoader}.
+ */
+public interface HeaderRuleProvider {
+    @NonNull
+    Set<HeaderRule> rules();
+
+    /**
+     * @return the rules of every provider visible to {@code classLoader}. When two rules share a header name, the one
+     * loaded first wins.
+     */
+    @NonNull
+    static Set<HeaderRule> loadRules(@Nullable ClassLoader classLoader) {
+        var rules = new LinkedHashSet<HeaderRule>();
+        for (var provider : ServiceLoader.load(HeaderRuleProvider.class, classLoader)) {
+            rules.addAll(provider.rules());
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,23 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * @param file     a {@code .properties} or {@code .yml} file of {@link HeaderValidationProperties} (with their full
+ *                 keys) that takes precedence over the rest of the environment, and is watched for changes.
+ * @param debounce how long to wait for a changed {@code file} to settle before reloading it. Defaults to 500ms.
+ */
+@ConfigurationProperties(prefix = HeaderValidationProperties.PREFIX + ".reload")
+public record HeaderRulesReloadProperties(@Nullable Path file, Duration debounce) {
+    @NonNull
+    @Override
+    public Duration debounce() {
+        return Objects.requireNonNullElse(debounce, Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,228 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.env.PropertiesPropertySourceLoader;
+import org.springframework.boot.env.PropertySourceLoader;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.env.CompositePropertySource;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reloads the header rules of the validators at runtime: whenever Spring Cloud refreshes the environment, or the rules
+ * file of {@link HeaderRulesReloadProperties#file()} changes. The properties are bound again from the environment and
+ * compiled on a background thread, then swapped into every validator (see
+ * {@link AbstractHeaderValidator#reload(HeaderValidationProperties)}); requests are never blocked.
+ * <p>
+ * Only the compiled rules are swapped: settings read when the validators are created, such as
+ * {@link HeaderValidationProperties#parallel()}, take effect on restart.
+ */
+@Slf4j
+final class HeaderRulesReloader implements SmartApplicationListener, SmartInitializingSingleton, DisposableBean {
+    /**
+     * Published by Spring Cloud once it refreshed the environment. Matched by name so as not to depend on it.
+     */
+    static final String ENVIRONMENT_CHANGE_EVENT = "org.springframework.cloud.context.environment.EnvironmentChangeEvent";
+    static final String RULES_FILE_PROPERTY_SOURCE = "headerRulesFile";
+    private static final List<PropertySourceLoader> LOADERS = List.of(
+            new PropertiesPropertySourceLoader(),
+            new YamlPropertySourceLoader()
+    );
+
+    @NonNull
+    private final ConfigurableEnvironment environment;
+    @NonNull
+    private final ApplicationConversionService conversionService = new ApplicationConversionService();
+    @NonNull
+    private final HeaderRulesReloadProperties properties;
+    @NonNull
+    private final List<? extends AbstractHeaderValidator> validators;
+    /**
+     * Runs one reload at a time, in the order they were requested.
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("header-rules-reloader").factory()
+    );
+    private volatile WatchService watchService;
+
+    HeaderRulesReloader(
+            @NonNull ConfigurableEnvironment environment,
+            @NonNull Converter<String, HeaderValidator> validatorConverter,
+            @NonNull HeaderRulesReloadProperties properties,
+            @NonNull List<? extends AbstractHeaderValidator> validators) {
+        this.environment = environment;
+        this.conversionService.addConverter(String.class, HeaderValidator.class, validatorConverter);
+        this.properties = properties;
+        this.validators = validators;
+    }
+
+    /**
+     * Binds the rules again and swaps them into the validators, in the background.
+     *
+     * @return whether every validator swapped the new rules in; {@code false} if they do not bind or compile, in
+     * which case the current rules are kept.
+     */
+    @NonNull
+    CompletableFuture<Boolean> reload() {
+        return CompletableFuture.supplyAsync(this::reloadNow, executor);
+    }
+
+    private boolean reloadNow() {
+        HeaderValidationProperties bound;
+        try {
+            bound = new Binder(
+                    ConfigurationPropertySources.get(environment),
+                    new PropertySourcesPlaceholdersResolver(environment),
+                    conversionService
+            ).bindOrCreate(HeaderValidationProperties.PREFIX, HeaderValidationProperties.class);
+        } catch (RuntimeException e) {
+            log.error("Failed to bind the reloaded header rules; keeping the current ones.", e);
+            return false;
+        }
+
+        boolean reloaded = true;
+        for (var validator : validators) reloaded &= validator.reload(bound);
+        return reloaded;
+    }
+
+    @Override
+    public boolean supportsEventType(@NonNull Class<? extends ApplicationEvent> eventType) {
+        return eventType.getName().equals(ENVIRONMENT_CHANGE_EVENT);
+    }
+
+    @Override
+    public void onApplicationEvent(@NonNull ApplicationEvent event) {
+        reload();
+    }
+
+    /**
+     * Loads the rules file, if any, and starts watching it.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        var file = properties.file();
+        if (file == null) return;
+
+        var version = FileVersion.of(file);
+        try {
+            loadRulesFile(file);
+            reloadNow();
+            watchService = file.getFileSystem().newWatchService();
+            file.toAbsolutePath().getParent().register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE
+            );
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to watch the header rules file %s".formatted(file), e);
+        }
+        Thread.ofPlatform()
+                .daemon()
+                .name("header-rules-watcher")
+                .start(() -> watch(watchService, file, version));
+    }
+
+    /**
+     * Reacts to any change in the directory of {@code file} rather than to events naming it, as a mounted config map is
+     * updated by swapping the {@code ..data} symlink that {@code file} resolves through, which leaves {@code file}
+     * itself untouched. The file is reloaded if what it resolves to, or when that was last modified, changed.
+     */
+    private void watch(WatchService watchService, Path file, FileVersion loaded) {
+        var version = loaded;
+        try {
+            while (true) {
+                var key = watchService.take();
+                key.pollEvents();
+                key.reset();
+
+                // Let the directory settle: editors write a file, and config-map updates swap it, in several steps.
+                Thread.sleep(properties.debounce());
+                for (var pending = watchService.poll(); pending != null; pending = watchService.poll()) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+                var current = FileVersion.of(file);
+                if (current == null || current.equals(version)) continue;
+
+                version = current;
+                executor.execute(() -> {
+                    try {
+                        loadRulesFile(file);
+                        reloadNow();
+                    } catch (IOException | RuntimeException e) {
+                        log.error("Failed to load the header rules file {}; keeping the current rules.", file, e);
+                    }
+                });
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Shutting down.
+        }
+    }
+
+    private void loadRulesFile(Path file) throws IOException {
+        var name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        var loader = LOADERS.stream()
+                .filter(candidate -> List.of(candidate.getFileExtensions()).stream()
+                        .anyMatch(extension -> name.endsWith("." + extension)))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported header rules file %s".formatted(file)));
+
+        var source = new CompositePropertySource(RULES_FILE_PROPERTY_SOURCE);
+        loader.load(RULES_FILE_PROPERTY_SOURCE, new FileSystemResource(file)).forEach(source::addPropertySource);
+        var sources = environment.getPropertySources();
+        if (sources.contains(RULES_FILE_PROPERTY_SOURCE)) {
+            sources.replace(RULES_FILE_PROPERTY_SOURCE, source);
+        } else {
+            sources.addFirst(source);
+        }
+    }
+
+    /**
+     * @param path the file a path resolves to, following symlinks.
+     */
+    private record FileVersion(Path path, FileTime lastModified) {
+        /**
+         * @return the version of {@code file}, or {@code null} if it cannot be read, e.g. while it is being swapped.
+         */
+        @Nullable
+        static FileVersion of(Path file) {
+            try {
+                return new FileVersion(file.toRealPath(), Files.getLastModifiedTime(file));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        executor.shutdownNow();
+        if (watchService != null) watchService.close();
+    }
+}
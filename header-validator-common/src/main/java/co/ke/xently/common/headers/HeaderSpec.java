@@ -0,0 +1,44 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares header rules on a record, whose components are the headers, or on an interface, whose abstract methods are.
+ * Every component or method must be a {@code String} annotated with {@link Header}.
+ * <p>
+ * The {@code header-validator-processor} annotation processor generates, next to the annotated type, a
+ * {@code <Type>Rules} class that creates the declared rules without reflection and binds a request's headers to the
+ * type. It registers the class as a {@link HeaderRuleProvider}, so that the rules are validated on top of the
+ * configured ones.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface HeaderSpec {
+    @Documented
+    @Target({ElementType.METHOD, ElementType.RECORD_COMPONENT})
+    @Retention(RetentionPolicy.CLASS)
+    @interface Header {
+        String name();
+
+        boolean required() default true;
+
+        /**
+         * A regular expression the value must match, checked at compile time. Exclusive with {@link #validator()}.
+         */
+        String pattern() default "";
+
+        /**
+         * Must be public, with a public no-arg constructor.
+         */
+        Class<? extends HeaderValidator> validator() default DefaultHeaderValidator.class;
+
+        /**
+         * See {@link HeaderRule#getMaxLength()}.
+         */
+        int maxLength() default HeaderRule.UNLIMITED;
+    }
+}
@@ -0,0 +1,30 @@
+package co.ke.xently.common.headers;
+
+public enum HeaderValidationEngine {
+    /**
+     * Looks up every configured header on the request, one rule at a time.
+     * <p>
+     * Costs one (case-insensitive) header lookup per rule. Cheapest when few rules are configured.
+     */
+    PER_RULE,
+    /**
+     * Iterates the request's headers exactly once, matching each name against a perfect hash of the configured rule
+     * names, and only evaluates the rules whose header is present. Missing required headers are detected by counting
+     * the required rules that were hit, so they are only looked for when at least one is missing.
+     * <p>
+     * Costs one hash per request header, independent of how many rules are configured, which makes it the engine of
+     * choice for large (e.g. multi-tenant) rule sets.
+     */
+    SINGLE_PASS,
+    /**
+     * Like {@link #PER_RULE}, but each plan is compiled to a class of its own on first use, which evaluates its rules
+     * without a loop: header names are constants and every validator is called directly, from its own call site, so
+     * that the JIT can inline it. Pays off once a plan mixes more than two validator types, where the single call site
+     * of the loop can no longer be inlined.
+     * <p>
+     * When failing fast, rules are evaluated in the adaptive order of the plan, as by {@link #PER_RULE}, each one through
+     * its own direct call. Plans with more than 128 rules, and all plans in a native image, are evaluated as by
+     * {@link #PER_RULE}.
+     */
+    GENERATED
+}
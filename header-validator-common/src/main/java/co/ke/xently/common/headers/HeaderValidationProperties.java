@@ -1,18 +1,58 @@
 package co.ke.xently.common.headers;
 
 import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.ISO8601TimestampValidator;
 import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.TimestampWindow;
+import co.ke.xently.common.headers.validators.UrlValidator;
 import co.ke.xently.common.utils.ElapsedTimeManager;
+import lombok.Builder;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.regex.Pattern;
 
-@ConfigurationProperties(prefix = "xently.api.headers.validation")
-public record HeaderValidationProperties(Set<HeaderRule> headers) {
+/**
+ * @param headers  the header rules, merged with (and taking precedence over) the rules of {@link HeaderSpec}s, then
+ *                 the default rules. Merged once, when the properties are created, so that reading them is cheap and
+ *                 always returns the same rules; unmodifiable.
+ * @param engine   how requests are evaluated against the rules. Defaults to {@link HeaderValidationEngine#PER_RULE}.
+ * @param failFast whether to reject a request on its first failing rule instead of reporting every failure. Rules are
+ *                 then evaluated in an order that adapts to the failures observed, cheapest first.
+ * @param routes   rules scoped to paths and methods. The first route matching a request decides its rules; requests
+ *                 matching none are validated against {@code headers}.
+ * @param parallel whether the servlet stack evaluates the rules of {@link HeaderValidator#isBlocking() blocking}
+ *                 validators in parallel, on virtual threads, rather than one after another. The WebFlux stack always
+ *                 evaluates them concurrently, off its event loop. Read at startup only: reloading the rules does
+ *                 not change it.
+ * @param regexEngine how the patterns of the rules' {@link RegexValidator}s must be matched. With
+ *                    {@link RegexValidator.Engine#LINEAR}, rules whose pattern would be matched by
+ *                    {@link java.util.regex} fail to compile; otherwise those that may backtrack catastrophically are
+ *                    logged. Defaults to {@link RegexValidator.Engine#HYBRID}.
+ * @param timestamp   how the default {@value ElapsedTimeManager#TIMESTAMP_HEADER} rule validates its timestamps.
+ */
+@Builder
+@ConfigurationProperties(prefix = HeaderValidationProperties.PREFIX)
+public record HeaderValidationProperties(
+        Set<HeaderRule> headers,
+        HeaderValidationEngine engine,
+        boolean failFast,
+        List<HeaderRoute> routes,
+        boolean parallel,
+        RegexValidator.Engine regexEngine,
+        Timestamp timestamp
+) {
+    public static final String PREFIX = "xently.api.headers.validation";
+
     private static final Set<HeaderRule> DEFAULT_HEADERS = Set.of(
             HeaderRule.builder().headerName("X-FeatureCode")
                     .required(false)
@@ -38,10 +78,6 @@ public record HeaderValidationProperties(Set<HeaderRule> headers) {
             HeaderRule.builder().headerName("X-RouteCode")
                     .required(false)
                     .build(),
-            HeaderRule.builder().headerName(ElapsedTimeManager.TIMESTAMP_HEADER)
-                    .required(false)
-                    .validator(new EpochTimestampValidator())
-                    .build(),
             HeaderRule.builder().headerName("X-ServiceMode")
                     .required(false)
                     .build(),
@@ -50,15 +86,109 @@ public record HeaderValidationProperties(Set<HeaderRule> headers) {
                     .build(),
             HeaderRule.builder().headerName("X-CallBackURL")
                     .required(false)
-                    .validator(new RegexValidator("^https?://.+..+"))
+                    .validator(new UrlValidator())
                     .build()
     );
 
+    @ConstructorBinding
+    public HeaderValidationProperties {
+        headers = merge(headers, Objects.requireNonNullElse(timestamp, Timestamp.DEFAULT));
+    }
+
+    public HeaderValidationProperties(Set<HeaderRule> headers) {
+        this(headers, null, false, null, false, null, null);
+    }
+
+    /**
+     * @param format  the format of the timestamps. Defaults to {@link Format#EPOCH}.
+     * @param unit    the unit of epoch timestamps. Defaults to {@link EpochTimestampValidator.Unit#SECONDS}, as read
+     *                by {@link ElapsedTimeManager}.
+     * @param maxAge  how far in the past a timestamp may be; unlimited by default.
+     * @param maxSkew how far in the future a timestamp may be; unlimited by default.
+     */
+    public record Timestamp(
+            Format format,
+            EpochTimestampValidator.Unit unit,
+            @Nullable Duration maxAge,
+            @Nullable Duration maxSkew
+    ) {
+        private static final Timestamp DEFAULT = new Timestamp(null, null, null, null);
+
+        public enum Format {
+            /**
+             * Validated by {@link EpochTimestampValidator}.
+             */
+            EPOCH,
+            /**
+             * Validated by {@link ISO8601TimestampValidator}.
+             */
+            ISO_8601
+        }
+
+        @NonNull
+        @Override
+        public Format format() {
+            return Objects.requireNonNullElse(format, Format.EPOCH);
+        }
+
+        @NonNull
+        @Override
+        public EpochTimestampValidator.Unit unit() {
+            return Objects.requireNonNullElse(unit, EpochTimestampValidator.Unit.SECONDS);
+        }
+
+        @NonNull
+        public TimestampWindow window() {
+            return new TimestampWindow(maxAge, maxSkew);
+        }
+
+        @NonNull
+        public HeaderValidator validator() {
+            return switch (format()) {
+                case EPOCH -> new EpochTimestampValidator(unit(), window());
+                case ISO_8601 -> new ISO8601TimestampValidator(window());
+            };
+        }
+    }
+
+    @NonNull
+    @Override
+    public HeaderValidationEngine engine() {
+        return Objects.requireNonNullElse(engine, HeaderValidationEngine.PER_RULE);
+    }
+
+    @NonNull
+    @Override
+    public RegexValidator.Engine regexEngine() {
+        return Objects.requireNonNullElse(regexEngine, RegexValidator.Engine.HYBRID);
+    }
+
+    @NonNull
+    @Override
+    public Timestamp timestamp() {
+        return Objects.requireNonNullElse(timestamp, Timestamp.DEFAULT);
+    }
+
+    @NonNull
+    @Override
+    public List<HeaderRoute> routes() {
+        return Objects.requireNonNullElse(routes, List.of());
+    }
+
     @NonNull
     @Override
     public Set<HeaderRule> headers() {
-        Set<HeaderRule> headers = new HashSet<>(Objects.requireNonNullElse(this.headers, Set.of()));
-        headers.addAll(DEFAULT_HEADERS);
         return headers;
     }
+
+    private static Set<HeaderRule> merge(@Nullable Set<HeaderRule> configured, Timestamp timestamp) {
+        Set<HeaderRule> headers = new HashSet<>(Objects.requireNonNullElse(configured, Set.of()));
+        headers.addAll(HeaderRuleProvider.loadRules(Thread.currentThread().getContextClassLoader()));
+        headers.add(HeaderRule.builder().headerName(ElapsedTimeManager.TIMESTAMP_HEADER)
+                .required(false)
+                .validator(timestamp.validator())
+                .build());
+        headers.addAll(DEFAULT_HEADERS);
+        return Collections.unmodifiableSet(headers);
+    }
 }
\ No newline at end of file
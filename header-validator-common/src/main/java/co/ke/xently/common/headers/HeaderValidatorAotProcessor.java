@@ -0,0 +1,173 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import org.springframework.aot.generate.GenerationContext;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.context.properties.source.IterableConfigurationPropertySource;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.lang.model.element.Modifier;
+import java.lang.reflect.AnnotatedElement;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Resolves, at build time, the validators that would otherwise be created by reflection, so that the starters run as
+ * native images and start faster in AOT-optimized mode:
+ * <ul>
+ *     <li>the validators named by FQCN in the {@code validator} properties of the build-time environment get a
+ *     constructor reference in {@link AotHeaderValidators}, which {@link HeaderValidatorConverter} calls instead of
+ *     reflecting, and</li>
+ *     <li>those, and the validators of {@link RequireHeaders} annotations, are registered for reflection, for
+ *     properties changed at runtime.</li>
+ * </ul>
+ * Validators named in a reloaded rules file are only known at runtime, so they are still created by reflection.
+ */
+class HeaderValidatorAotProcessor implements BeanFactoryInitializationAotProcessor {
+    private static final ConfigurationPropertyName PREFIX = ConfigurationPropertyName.of(HeaderValidationProperties.PREFIX);
+    private static final String VALIDATOR = "validator";
+
+    @Nullable
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(@NonNull ConfigurableListableBeanFactory beanFactory) {
+        var classLoader = beanFactory.getBeanClassLoader();
+        var configured = new TreeMap<String, Class<?>>();
+        var environment = beanFactory.getBeanProvider(ConfigurableEnvironment.class).getIfAvailable();
+        if (environment != null) {
+            for (var className : configuredValidators(environment)) {
+                var type = resolveValidator(className, classLoader);
+                if (type != null) configured.put(className, type);
+            }
+        }
+        var annotated = annotatedValidators(beanFactory);
+
+        if (configured.isEmpty() && annotated.isEmpty()) return null;
+        return new Contribution(configured, annotated);
+    }
+
+    /**
+     * @return the values of every {@code validator} property under {@link HeaderValidationProperties#PREFIX}, be they
+     * class or bean names.
+     */
+    @NonNull
+    static Set<String> configuredValidators(@NonNull ConfigurableEnvironment environment) {
+        var validators = new TreeSet<String>();
+        for (var source : ConfigurationPropertySources.get(environment)) {
+            if (!(source instanceof IterableConfigurationPropertySource iterable)) continue;
+
+            iterable.filter(name -> PREFIX.isAncestorOf(name)
+                            && VALIDATOR.equals(name.getLastElement(ConfigurationPropertyName.Form.UNIFORM)))
+                    .forEach(name -> {
+                        var property = source.getConfigurationProperty(name);
+                        if (property != null && property.getValue() != null) {
+                            validators.add(environment.resolvePlaceholders(property.getValue().toString()).trim());
+                        }
+                    });
+        }
+        return validators;
+    }
+
+    @Nullable
+    private static Class<?> resolveValidator(String className, @Nullable ClassLoader classLoader) {
+        if (!ClassUtils.isPresent(className, classLoader)) return null;
+
+        var type = ClassUtils.resolveClassName(className, classLoader);
+        return HeaderValidator.class.isAssignableFrom(type) ? type : null;
+    }
+
+    private static Set<Class<?>> annotatedValidators(ConfigurableListableBeanFactory beanFactory) {
+        var validators = new LinkedHashSet<Class<?>>();
+        for (var beanName : beanFactory.getBeanDefinitionNames()) {
+            var type = beanFactory.getType(beanName, false);
+            if (type == null) continue;
+
+            var userType = ClassUtils.getUserClass(type);
+            addAnnotatedValidators(userType, validators);
+            ReflectionUtils.doWithMethods(userType, method -> addAnnotatedValidators(method, validators));
+        }
+        return validators;
+    }
+
+    private static void addAnnotatedValidators(AnnotatedElement element, Set<Class<?>> validators) {
+        var annotation = AnnotatedElementUtils.findMergedAnnotation(element, RequireHeaders.class);
+        if (annotation == null) return;
+
+        for (var header : annotation.value()) {
+            validators.add(header.validator());
+        }
+    }
+
+    /**
+     * @return whether generated code in another package can call the public no-arg constructor of {@code type}.
+     */
+    static boolean isInstantiable(@NonNull Class<?> type) {
+        if (type.isInterface() || java.lang.reflect.Modifier.isAbstract(type.getModifiers())) return false;
+        for (var enclosing = type; enclosing != null; enclosing = enclosing.getEnclosingClass()) {
+            if (!java.lang.reflect.Modifier.isPublic(enclosing.getModifiers())) return false;
+        }
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param configured the validator classes named in the configuration, by name.
+     * @param annotated  the validator classes of {@link RequireHeaders} annotations.
+     */
+    private record Contribution(Map<String, Class<?>> configured,
+                                Set<Class<?>> annotated) implements BeanFactoryInitializationAotContribution {
+        @Override
+        public void applyTo(@NonNull GenerationContext generationContext,
+                            @NonNull BeanFactoryInitializationCode beanFactoryInitializationCode) {
+            var reflection = generationContext.getRuntimeHints().reflection();
+            // The converter reads the fields of the validators it creates, to tell whether rules can share them.
+            configured.values().forEach(type -> reflection.registerType(type,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.DECLARED_FIELDS));
+            annotated.forEach(type -> reflection.registerType(type, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS));
+
+            var instantiable = configured.entrySet().stream()
+                    .filter(entry -> isInstantiable(entry.getValue()))
+                    .toList();
+            if (instantiable.isEmpty()) return;
+
+            var generatedClass = generationContext.getGeneratedClasses().addForFeatureComponent(
+                    "HeaderValidators",
+                    AotHeaderValidators.class,
+                    type -> type.addJavadoc("Registers the header validators configured by class name.")
+                            .addModifiers(Modifier.PUBLIC)
+            );
+            var method = generatedClass.getMethods().add("registerHeaderValidators", builder -> {
+                builder.addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .addParameter(DefaultListableBeanFactory.class, "beanFactory")
+                        .addStatement("$T<$T, $T<$T>> suppliers = new $T<>()",
+                                Map.class, String.class, Supplier.class, HeaderValidator.class, HashMap.class);
+                for (var entry : instantiable) {
+                    builder.addStatement("suppliers.put($S, $T::new)", entry.getKey(), entry.getValue());
+                }
+                builder.addStatement("beanFactory.registerSingleton($S, new $T(suppliers))",
+                        AotHeaderValidators.BEAN_NAME, AotHeaderValidators.class);
+            });
+            beanFactoryInitializationCode.addInitializer(method.toMethodReference());
+        }
+    }
+}
@@ -2,9 +2,12 @@ package co.ke.xently.common.headers;
 
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
 import co.ke.xently.common.headers.validators.HeaderValidator;
-import lombok.AllArgsConstructor;
+import co.ke.xently.common.headers.validators.ValidatorSpec;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.boot.context.properties.ConfigurationPropertiesBinding;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.convert.converter.Converter;
@@ -12,24 +15,79 @@ import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+/**
+ * Resolves validators once per {@code (source, strategy)}: rules naming the same validator share an instance when it is
+ * safe, i.e. a singleton bean or a class whose instance fields are all final (such as a record), and sources that
+ * are neither a class nor a bean are remembered, so that every other rule naming them falls back straight away.
+ * <p>
+ * Sources of the form {@code name(...)} are {@link ValidatorSpec specs} of built-in validators, and are neither looked
+ * up as classes nor as beans. Those that hold resources, such as allow-list validators watching their file, are closed
+ * with the context.
+ */
 @Slf4j
 @Component
 @ConfigurationPropertiesBinding
-@AllArgsConstructor
-class HeaderValidatorConverter implements Converter<String, HeaderValidator> {
+class HeaderValidatorConverter implements Converter<String, HeaderValidator>, DisposableBean {
+    static final String SOURCE_PROPERTY = "xently.api.headers.validator.source";
+
     private final ApplicationContext context;
+    private final HeaderValidatorSource headerValidatorSource;
+    private final AotHeaderValidators aotValidators;
+    private final ConcurrentMap<Resolution, HeaderValidator> shared = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Resolution, Exception> failures = new ConcurrentHashMap<>();
+    /**
+     * The built-in validators to close on {@link #destroy()}.
+     */
+    private final Queue<AutoCloseable> closeables = new ConcurrentLinkedQueue<>();
 
-    @Override
-    public HeaderValidator convert(@NonNull String source) {
-        var headerValidatorSource = context.getEnvironment().getProperty(
-                "xently.api.headers.validator.source",
+    /**
+     * @param strategy how {@code source} is resolved; {@link HeaderValidatorSource#FQCN} or
+     *                 {@link HeaderValidatorSource#BeanDefinition} for the failures.
+     */
+    private record Resolution(String source, HeaderValidatorSource strategy) {
+    }
+
+    /**
+     * @param shareable whether rules naming the same source can share {@code validator}.
+     */
+    private record Resolved(HeaderValidator validator, boolean shareable) {
+    }
+
+    HeaderValidatorConverter(ApplicationContext context) {
+        this.context = context;
+        this.headerValidatorSource = context.getEnvironment().getProperty(
+                SOURCE_PROPERTY,
                 HeaderValidatorSource.class,
                 HeaderValidatorSource.FQCNB4BeanDefinition
         );
+        this.aotValidators = context.containsBean(AotHeaderValidators.BEAN_NAME)
+                ? context.getBean(AotHeaderValidators.BEAN_NAME, AotHeaderValidators.class)
+                : AotHeaderValidators.NONE;
+    }
+
+    @Override
+    public HeaderValidator convert(@NonNull String source) {
+        var resolution = new Resolution(source, headerValidatorSource);
+        var validator = shared.get(resolution);
+        if (validator != null) return validator;
 
-        return switch (headerValidatorSource) {
+        // Created at most once, as some, such as allow-list validators, start watching a file.
+        var builtIn = shared.computeIfAbsent(resolution, r -> {
+            var parsed = ValidatorSpec.parse(source);
+            if (parsed instanceof AutoCloseable closeable) closeables.add(closeable);
+            return parsed;
+        });
+        if (builtIn != null) return builtIn;
+
+        var resolved = switch (headerValidatorSource) {
             case FQCN -> getHeaderValidatorFromFQCN(source);
             case BeanDefinition -> getHeaderValidatorFromBeanDefinition(source);
             case FQCNB4BeanDefinition ->
@@ -37,41 +95,96 @@ class HeaderValidatorConverter implements Converter<String, HeaderValidator> {
             case BeanDefinitionB4FQCN ->
                     getHeaderValidatorFromBeanDefinition(source, e -> getHeaderValidatorFromFQCN(source));
         };
+        return resolved.shareable()
+                ? shared.computeIfAbsent(resolution, r -> resolved.validator())
+                : resolved.validator();
     }
 
-    private HeaderValidator getHeaderValidatorFromBeanDefinition(String source) {
+    @Override
+    public void destroy() {
+        for (AutoCloseable closeable; (closeable = closeables.poll()) != null; ) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Failed to close {}.", closeable, e);
+            }
+        }
+    }
+
+    private Resolved getHeaderValidatorFromBeanDefinition(String source) {
         return getHeaderValidatorFromBeanDefinition(source, e -> {
             log.error("Bean definition retrieval failed for instance of type '{}' from '{}'.", HeaderValidator.class.getName(), source, e);
-            return new DefaultHeaderValidator();
+            return new Resolved(new DefaultHeaderValidator(), true);
         });
     }
 
-    private HeaderValidator getHeaderValidatorFromBeanDefinition(String source, Function<Exception, HeaderValidator> fallback) {
+    private Resolved getHeaderValidatorFromBeanDefinition(String source, Function<Exception, Resolved> fallback) {
+        var resolution = new Resolution(source, HeaderValidatorSource.BeanDefinition);
+        var failure = failures.get(resolution);
+        if (failure != null) return fallback.apply(failure);
+
         try {
-            return context.getBean(source, HeaderValidator.class);
+            return new Resolved(context.getBean(source, HeaderValidator.class), context.isSingleton(source));
+        } catch (NoSuchBeanDefinitionException | BeanNotOfRequiredTypeException e) {
+            failures.putIfAbsent(resolution, e);
+            return fallback.apply(e);
         } catch (BeansException e) {
             return fallback.apply(e);
         }
     }
 
-    private static HeaderValidator getHeaderValidatorFromFQCN(String source) {
+    private Resolved getHeaderValidatorFromFQCN(String source) {
         return getHeaderValidatorFromFQCN(source, e -> {
             log.error("Failed to create an instance of '{}' from '{}'.", HeaderValidator.class.getName(), source, e);
-            return new DefaultHeaderValidator();
+            return new Resolved(new DefaultHeaderValidator(), true);
         });
     }
 
-    private static HeaderValidator getHeaderValidatorFromFQCN(String source, Function<Exception, HeaderValidator> fallback) {
+    /**
+     * Calls the constructor resolved ahead of time, if any, and only falls back to reflection otherwise.
+     */
+    private Resolved getHeaderValidatorFromFQCN(String source, Function<Exception, Resolved> fallback) {
+        var resolution = new Resolution(source, HeaderValidatorSource.FQCN);
+        var failure = failures.get(resolution);
+        if (failure != null) return fallback.apply(failure);
+
+        var supplier = aotValidators.get(source);
+        if (supplier != null) {
+            try {
+                return resolved(supplier.get());
+            } catch (RuntimeException e) {
+                return fallback.apply(e);
+            }
+        }
         try {
-            return (HeaderValidator) Class.forName(source)
+            return resolved((HeaderValidator) Class.forName(source)
                     .getDeclaredConstructor()
-                    .newInstance();
+                    .newInstance());
         } catch (ClassNotFoundException
-                 | InvocationTargetException
                  | InstantiationException
                  | IllegalAccessException
                  | NoSuchMethodException e) {
+            failures.putIfAbsent(resolution, e);
             return fallback.apply(e);
+        } catch (InvocationTargetException e) {
+            return fallback.apply(e);
+        }
+    }
+
+    private static Resolved resolved(HeaderValidator validator) {
+        return new Resolved(validator, isShareable(validator.getClass()));
+    }
+
+    /**
+     * @return whether every instance field of {@code type}, including inherited ones, is final.
+     */
+    static boolean isShareable(@NonNull Class<?> type) {
+        if (type.isRecord()) return true;
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            boolean mutable = Arrays.stream(current.getDeclaredFields())
+                    .anyMatch(field -> !Modifier.isStatic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers()));
+            if (mutable) return false;
         }
+        return true;
     }
 }
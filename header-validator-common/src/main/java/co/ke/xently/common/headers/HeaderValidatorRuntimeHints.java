@@ -0,0 +1,35 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.ISO8601TimestampValidator;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Registers what the starters reflect on, whatever the configuration: the built-in validators that can be named by
+ * FQCN, the handler annotations, which are read (and synthesized) at startup, and the {@link HeaderRuleProvider}
+ * registrations.
+ *
+ * @see HeaderValidatorAotProcessor
+ */
+class HeaderValidatorRuntimeHints implements RuntimeHintsRegistrar {
+    @Override
+    public void registerHints(@NonNull RuntimeHints hints, @Nullable ClassLoader classLoader) {
+        hints.reflection().registerTypes(
+                TypeReference.listOf(DefaultHeaderValidator.class, EpochTimestampValidator.class, ISO8601TimestampValidator.class),
+                hint -> hint.withMembers(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)
+        );
+        hints.reflection().registerTypes(
+                TypeReference.listOf(RequireHeaders.class, RequireHeaders.Header.class, SkipHeaderValidation.class),
+                hint -> hint.withMembers(MemberCategory.INVOKE_DECLARED_METHODS)
+        );
+        hints.proxies().registerJdkProxy(RequireHeaders.class);
+        hints.proxies().registerJdkProxy(RequireHeaders.Header.class);
+        hints.resources().registerPattern("META-INF/services/" + HeaderRuleProvider.class.getName());
+    }
+}
@@ -0,0 +1,49 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+
+import java.lang.annotation.*;
+
+/**
+ * Adds header rules to, or removes them from, the rules a controller (or one of its handler methods) is validated
+ * against.
+ * <p>
+ * Rules declared on a method take precedence over those declared on its class, which take precedence over the
+ * configured ones. The resulting rules are compiled once per handler method at startup.
+ *
+ * @see SkipHeaderValidation
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireHeaders {
+    /**
+     * Rules added on top of, or overriding (by header name), the configured ones.
+     */
+    Header[] value() default {};
+
+    /**
+     * Names of configured headers that are not validated for this handler.
+     */
+    String[] exclude() default {};
+
+    @Documented
+    @Target({})
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Header {
+        String name();
+
+        boolean required() default true;
+
+        /**
+         * Must have a public no-arg constructor.
+         */
+        Class<? extends HeaderValidator> validator() default DefaultHeaderValidator.class;
+
+        /**
+         * See {@link HeaderRule#getMaxLength()}.
+         */
+        int maxLength() default HeaderRule.UNLIMITED;
+    }
+}
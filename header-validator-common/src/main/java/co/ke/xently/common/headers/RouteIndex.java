@@ -0,0 +1,129 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the {@link RoutePlan} of a request from a list of routes.
+ * <p>
+ * Routes are compiled once: their patterns are parsed and every route gets its own plan. They are then bucketed by the
+ * literal first segment of their patterns (e.g. {@code actuator} for {@code /actuator/**}), so that resolving a request
+ * costs one hash lookup on its first path segment plus matching the few patterns in that bucket. The first route, in
+ * list order, that matches wins.
+ */
+final class RouteIndex {
+    static final RouteIndex EMPTY = of(List.of());
+
+    /**
+     * Routes whose patterns start with the keyed literal segment, merged in list order with {@link #wildcards}.
+     */
+    private final Map<String, Route[]> byFirstSegment;
+    /**
+     * Routes with a pattern that does not start with a literal segment, e.g. {@code /{tenant}/**} or {@code /**}.
+     */
+    private final Route[] wildcards;
+
+    private RouteIndex(Map<String, Route[]> byFirstSegment, Route[] wildcards) {
+        this.byFirstSegment = byFirstSegment;
+        this.wildcards = wildcards;
+    }
+
+    /**
+     * Compiles the configured routes. Each route's plan is made of its rules followed by {@code headers}, so that the
+     * former take precedence.
+     */
+    @NonNull
+    static RouteIndex compile(@NonNull List<HeaderRoute> routes, @NonNull Set<HeaderRule> headers) {
+        var parser = PathPatternParser.defaultInstance;
+        var compiled = new ArrayList<Route>();
+        for (var route : routes) {
+            var plan = route.isSkip()
+                    ? RoutePlan.SKIP
+                    : RoutePlan.compile(Stream.concat(route.getHeaders().stream(), headers.stream()).toList());
+            // Relaxed binding keeps the case of method names, but HttpMethod is case-sensitive.
+            var methods = route.getMethods().stream()
+                    .map(method -> HttpMethod.valueOf(method.name().toUpperCase(Locale.ROOT)))
+                    .collect(Collectors.toUnmodifiableSet());
+            for (var path : route.getPaths()) {
+                compiled.add(new Route(parser.parse(path), methods, plan));
+            }
+        }
+        return of(compiled);
+    }
+
+    @NonNull
+    static RouteIndex of(@NonNull List<Route> routes) {
+        var literals = new LinkedHashSet<String>();
+        for (var route : routes) {
+            var segment = route.firstSegment();
+            if (segment != null) literals.add(segment);
+        }
+        var byFirstSegment = new HashMap<String, Route[]>();
+        for (var literal : literals) {
+            byFirstSegment.put(literal, routes.stream()
+                    .filter(route -> route.firstSegment() == null || literal.equals(route.firstSegment()))
+                    .toArray(Route[]::new));
+        }
+        var wildcards = routes.stream()
+                .filter(route -> route.firstSegment() == null)
+                .toArray(Route[]::new);
+        return new RouteIndex(Map.copyOf(byFirstSegment), wildcards);
+    }
+
+    boolean isEmpty() {
+        return wildcards.length == 0 && byFirstSegment.isEmpty();
+    }
+
+    /**
+     * @return the plan of the first route matching the request, which may be {@link RoutePlan#SKIP}; or {@code null}
+     * if none matches.
+     */
+    @Nullable
+    RoutePlan resolve(@NonNull PathContainer path, @NonNull HttpMethod method) {
+        var routes = wildcards;
+        var elements = path.elements();
+        for (int i = 0, limit = Math.min(2, elements.size()); i < limit; i++) {
+            if (elements.get(i) instanceof PathContainer.PathSegment segment) {
+                routes = byFirstSegment.getOrDefault(segment.valueToMatch(), wildcards);
+                break;
+            }
+        }
+
+        for (var route : routes) {
+            if ((route.methods().isEmpty() || route.methods().contains(method)) && route.pattern().matches(path)) {
+                return route.plan();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param methods the methods the route applies to; all methods when empty.
+     */
+    record Route(@NonNull PathPattern pattern, @NonNull Set<HttpMethod> methods, @NonNull RoutePlan plan) {
+        /**
+         * @return the literal first segment of the pattern, or {@code null} if it contains a variable or wildcard.
+         */
+        @Nullable
+        String firstSegment() {
+            var pattern = pattern().getPatternString();
+            int start = pattern.startsWith("/") ? 1 : 0;
+            int end = pattern.indexOf('/', start);
+            var segment = pattern.substring(start, end < 0 ? pattern.length() : end);
+            if (segment.isEmpty()) return null;
+            for (int i = 0; i < segment.length(); i++) {
+                char c = segment.charAt(i);
+                if (c == '{' || c == '*' || c == '?') return null;
+            }
+            return segment;
+        }
+    }
+}
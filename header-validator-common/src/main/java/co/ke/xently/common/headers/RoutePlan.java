@@ -0,0 +1,26 @@
+package co.ke.xently.common.headers;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * A {@link ValidationPlan} together with the order its rules are evaluated in when failing fast.
+ */
+record RoutePlan(@NonNull ValidationPlan plan, @NonNull AdaptiveRuleOrder order) {
+    /**
+     * Marks a route or handler whose requests bypass validation. Compared by identity.
+     */
+    static final RoutePlan SKIP = compile(List.of());
+    /**
+     * Marks a handler without rules of its own, whose requests are validated against the configured routes and rules.
+     * Compared by identity.
+     */
+    static final RoutePlan INHERIT = compile(List.of());
+
+    @NonNull
+    static RoutePlan compile(@NonNull Iterable<HeaderRule> rules) {
+        var plan = ValidationPlan.compile(rules);
+        return new RoutePlan(plan, new AdaptiveRuleOrder(plan));
+    }
+}
@@ -0,0 +1,13 @@
+package co.ke.xently.common.headers;
+
+import java.lang.annotation.*;
+
+/**
+ * Disables header validation for a controller or one of its handler methods. On a class, it is overridden by a
+ * {@link RequireHeaders} on the method.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SkipHeaderValidation {
+}
@@ -0,0 +1,179 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.ValidationCost;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, pre-compiled view of the configured {@link HeaderRule}s.
+ * <p>
+ * A plan is compiled once (at startup) and then walked on every request. Header names are canonicalized at compile
+ * time and every compiled {@link Rule} copies the state of its (mutable) {@link HeaderRule}, so evaluating a plan
+ * neither hashes nor allocates.
+ */
+public final class ValidationPlan {
+    private final Rule[] rules;
+    private final HeaderNameIndex index;
+    /**
+     * Indices of the required rules, in ascending order.
+     */
+    private final int[] requiredRules;
+    /**
+     * The bytecode of this plan, generated on first use by {@link HeaderValidationEngine#GENERATED}; empty if the plan
+     * is too large to be generated.
+     */
+    @Nullable
+    private volatile Optional<GeneratedPlan> generated;
+
+    private ValidationPlan(Rule[] rules) {
+        this.rules = rules;
+        this.index = HeaderNameIndex.build(rules);
+        this.requiredRules = IntStream.range(0, rules.length)
+                .filter(i -> rules[i].required())
+                .toArray();
+    }
+
+    /**
+     * Compiles the given rules into a plan. When two rules share the same (case-insensitive) header name, the first one
+     * wins, which mirrors how {@link HeaderValidationProperties#headers()} lets configured rules take precedence over
+     * the defaults.
+     * <p>
+     * The compiled rules are ordered by {@link ValidationCost}, cheapest first, keeping the given order among rules of
+     * the same cost.
+     */
+    @NonNull
+    public static ValidationPlan compile(@NonNull Iterable<HeaderRule> rules) {
+        var compiled = new ArrayList<Rule>();
+        var seen = new HashSet<String>();
+        for (var rule : rules) {
+            var compiledRule = Rule.of(rule);
+            if (seen.add(compiledRule.canonicalName())) {
+                compiled.add(compiledRule);
+            }
+        }
+        compiled.sort(Comparator.comparing(Rule::cost));
+        return new ValidationPlan(compiled.toArray(Rule[]::new));
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    @NonNull
+    public Rule get(int index) {
+        return rules[index];
+    }
+
+    /**
+     * @return the index of the rule for {@code headerName} (compared case-insensitively), or {@code -1} if there is
+     * none.
+     */
+    public int indexOf(@NonNull String headerName) {
+        return index.indexOf(headerName);
+    }
+
+    /**
+     * The indices of the required rules, in ascending order. Callers must never modify it.
+     */
+    int[] requiredRules() {
+        return requiredRules;
+    }
+
+    /**
+     * Exposes the backing array to the validators in this package so that they can iterate without allocating an
+     * iterator. Callers must never modify it.
+     */
+    Rule[] rules() {
+        return rules;
+    }
+
+    /**
+     * @param deferrable see {@link GeneratedPlan#generate(ValidationPlan, Predicate)}; only consulted by the first call,
+     *                   as a plan is only ever evaluated by the validator that compiled it.
+     * @return the generated plan, or {@code null} if this plan is too large to be generated.
+     */
+    @Nullable
+    GeneratedPlan generated(@NonNull Predicate<HeaderValidator> deferrable) {
+        var generated = this.generated;
+        if (generated == null) {
+            synchronized (this) {
+                generated = this.generated;
+                if (generated == null) {
+                    generated = Optional.ofNullable(GeneratedPlan.generate(this, deferrable));
+                    this.generated = generated;
+                }
+            }
+        }
+        return generated.orElse(null);
+    }
+
+    /**
+     * A {@link HeaderRule} frozen at compile time.
+     *
+     * @param source        the rule this was compiled from; used when reporting failures.
+     * @param headerName    the configured header name, stripped of surrounding whitespace.
+     * @param canonicalName the lower-cased header name used for case-insensitive comparisons.
+     * @param cost          the cost of {@code validator}, sampled once at compile time.
+     * @param maxLength     see {@link HeaderRule#getMaxLength()}.
+     * @param tooLong       the failure of values longer than {@code maxLength}.
+     */
+    public record Rule(
+            @NonNull HeaderRule source,
+            @NonNull String headerName,
+            @NonNull String canonicalName,
+            boolean required,
+            @NonNull HeaderValidator validator,
+            @NonNull ValidationCost cost,
+            int maxLength,
+            @NonNull ValidationResult.Failure tooLong
+    ) {
+        /**
+         * @throws IllegalArgumentException if the rule's maximum length is negative.
+         */
+        @NonNull
+        static Rule of(@NonNull HeaderRule rule) {
+            var headerName = rule.getHeaderName().strip();
+            int maxLength = rule.getMaxLength();
+            if (maxLength < 0) {
+                throw new IllegalArgumentException("maxLength of header %s must not be negative: %d".formatted(headerName, maxLength));
+            }
+            var validator = rule.compileValidator();
+            return new Rule(
+                    rule,
+                    headerName,
+                    headerName.toLowerCase(Locale.ROOT),
+                    rule.isRequired(),
+                    validator,
+                    validator.cost(),
+                    maxLength,
+                    ValidationResult.Failure.of(
+                            ValidationResult.Failure.VALUE_TOO_LONG,
+                            "Header value is longer than %d characters".formatted(maxLength)
+                    )
+            );
+        }
+
+        /**
+         * @return whether {@code headerValue} is longer than {@link #maxLength}, in which case it is rejected with
+         * {@link #tooLong} without calling {@link #validator}.
+         */
+        public boolean isTooLong(@NonNull String headerValue) {
+            return headerValue.length() > maxLength;
+        }
+
+        @NonNull
+        public ValidationResult validate(@NonNull String headerValue) {
+            return isTooLong(headerValue) ? tooLong : validator.validate(headerName, headerValue);
+        }
+    }
+}
@@ -3,15 +3,39 @@ package co.ke.xently.common.headers.exceptions;
 import co.ke.xently.common.headers.HeaderRule;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 
+/**
+ * A single header failure. These are collected into a {@link HeadersValidationException} rather than thrown up the
+ * stack, so they are created without a stack trace.
+ */
 @Getter
-@RequiredArgsConstructor
 public abstract sealed class HeaderException extends Exception permits MissingHeaderException, InvalidHeaderValueException {
     @NonNull
     private final HeaderRule rule;
     @NonNull
     private final ValidationResult.Failure failure;
+    /**
+     * The rejected value, kept so that the failure message can be rendered lazily. {@code null} when the header is
+     * missing.
+     */
+    @Nullable
+    private final String headerValue;
+
+    protected HeaderException(
+            @NonNull HeaderRule rule,
+            @NonNull ValidationResult.Failure failure,
+            @Nullable String headerValue) {
+        super(null, null, false, false);
+        this.rule = rule;
+        this.failure = failure;
+        this.headerValue = headerValue;
+    }
+
+    @NonNull
+    public String getErrorMessage() {
+        return failure.renderMessage(headerValue);
+    }
 }
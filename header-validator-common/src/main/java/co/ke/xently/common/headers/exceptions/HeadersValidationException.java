@@ -9,6 +9,10 @@ import org.springframework.web.server.ResponseStatusException;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Raised once per rejected request. It is a control-flow signal that is always handled by the starters' exception
+ * handlers, so it does not capture a stack trace.
+ */
 @Getter
 @ResponseStatus(HttpStatus.BAD_REQUEST)
 public final class HeadersValidationException extends ResponseStatusException {
@@ -16,11 +20,23 @@ public final class HeadersValidationException extends ResponseStatusException {
     private final List<HeaderException> headerExceptions;
 
     public HeadersValidationException() {
+        this(new ArrayList<>());
+    }
+
+    /**
+     * @param headerExceptions the failures gathered while validating the request. The list is adopted, not copied.
+     */
+    public HeadersValidationException(@NonNull List<HeaderException> headerExceptions) {
         super(HttpStatus.BAD_REQUEST);
-        headerExceptions = new ArrayList<>();
+        this.headerExceptions = headerExceptions;
     }
 
     public void addHeaderException(@NonNull HeaderException headerException) {
         headerExceptions.add(headerException);
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
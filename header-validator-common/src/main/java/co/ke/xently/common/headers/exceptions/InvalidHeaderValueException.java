@@ -4,10 +4,18 @@ import co.ke.xently.common.headers.HeaderRule;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import lombok.Getter;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
 @Getter
 public final class InvalidHeaderValueException extends HeaderException {
     public InvalidHeaderValueException(@NonNull HeaderRule rule, @NonNull ValidationResult.Failure failure) {
-        super(rule, failure);
+        this(rule, failure, null);
+    }
+
+    public InvalidHeaderValueException(
+            @NonNull HeaderRule rule,
+            @NonNull ValidationResult.Failure failure,
+            @Nullable String headerValue) {
+        super(rule, failure, headerValue);
     }
 }
@@ -5,7 +5,12 @@ import co.ke.xently.common.headers.validators.ValidationResult;
 import org.springframework.lang.NonNull;
 
 public final class MissingHeaderException extends HeaderException {
+    public static final ValidationResult.Failure MISSING_HEADER = ValidationResult.Failure.of(
+            ValidationResult.Failure.MISSING_HEADER,
+            "Missing required header"
+    );
+
     public MissingHeaderException(@NonNull HeaderRule rule) {
-        super(rule, new ValidationResult.Failure("Missing required header"));
+        super(rule, MISSING_HEADER, null);
     }
 }
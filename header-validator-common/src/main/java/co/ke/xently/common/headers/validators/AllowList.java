@@ -0,0 +1,223 @@
+package co.ke.xently.common.headers.validators;
+
+import co.ke.xently.common.utils.PerfectHash;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A set of values stored in a file with a minimal {@link PerfectHash} of them, so that it is memory-mapped rather than
+ * loaded onto the heap, and looked up without allocating. The file holds, in big-endian order:
+ * <ol>
+ *     <li>a header: {@link #MAGIC}, {@link #VERSION}, the number of values {@code n} and of buckets {@code b} as
+ *     {@code int}s, then the seed of the value hashes as a {@code long};</li>
+ *     <li>the {@code b} displacements of the perfect hash, as {@code int}s;</li>
+ *     <li>the {@code n + 1} offsets of the value at each slot in the values section, as {@code int}s;</li>
+ *     <li>the values, UTF-8 encoded, in slot order.</li>
+ * </ol>
+ * Values are compared case-sensitively.
+ */
+public final class AllowList {
+    /**
+     * {@code XAL1}.
+     */
+    static final int MAGIC = 0x58414C31;
+    static final int VERSION = 1;
+    private static final int HEADER_SIZE = 24;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    @NonNull
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int bucketCount;
+    private final long seed;
+    private final int offsetsStart;
+    private final int valuesStart;
+
+    private AllowList(@NonNull ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an allow-list file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported allow-list file version %d".formatted(buffer.getInt(4)));
+        }
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.bucketCount = buffer.getInt(12);
+        this.seed = buffer.getLong(16);
+        if (size < 1 || bucketCount < 1) {
+            throw new IllegalArgumentException("Invalid allow-list file header: %d values, %d buckets".formatted(size, bucketCount));
+        }
+        this.offsetsStart = HEADER_SIZE + Integer.BYTES * bucketCount;
+        this.valuesStart = offsetsStart + Integer.BYTES * (size + 1);
+        // A file that is still being written is shorter than its header says.
+        if (valuesStart > buffer.capacity() || valuesStart + (long) buffer.getInt(offsetsStart + Integer.BYTES * size) != buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated allow-list file");
+        }
+    }
+
+    /**
+     * Maps {@code file} into memory; the mapping is released once the list is garbage-collected. The file must not be
+     * modified while mapped, as reading a mapping of a truncated file fails; it should be replaced instead, e.g. by
+     * moving a new file over it, as {@link #write(Collection, Path)} does.
+     *
+     * @throws IllegalArgumentException if {@code file} is not a complete allow-list file.
+     */
+    @NonNull
+    public static AllowList map(@NonNull Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new AllowList(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the allow-list file of {@code values} to a temporary file next to {@code file}, then moves it over
+     * {@code file} atomically, so that lists mapping the previous file keep reading it.
+     *
+     * @throws IllegalArgumentException if {@code values} is empty, or has a value twice or one that is not valid
+     *                                  UTF-16, i.e. with unpaired surrogates.
+     */
+    public static void write(@NonNull Collection<String> values, @NonNull Path file) throws IOException {
+        var list = List.copyOf(values);
+        if (list.isEmpty()) throw new IllegalArgumentException("No values");
+
+        var encoded = new byte[list.size()][];
+        long valuesSize = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            var value = list.get(i);
+            encoded[i] = value.getBytes(StandardCharsets.UTF_8);
+            if (!new String(encoded[i], StandardCharsets.UTF_8).equals(value)) {
+                throw new IllegalArgumentException("Value %d is not valid UTF-16".formatted(i));
+            }
+            valuesSize += encoded[i].length;
+        }
+
+        var hashes = new long[encoded.length];
+        long seed = 0;
+        PerfectHash hash;
+        while (true) {
+            for (int i = 0; i < hashes.length; i++) hashes[i] = hash(list.get(i), seed);
+            try {
+                hash = PerfectHash.build(hashes);
+                break;
+            } catch (IllegalArgumentException e) {
+                if (seed == 0 && list.stream().distinct().count() != list.size()) {
+                    throw new IllegalArgumentException("Duplicate values", e);
+                }
+                seed++; // Two values collided on all 64 bits; try another seed.
+            }
+        }
+
+        int bucketCount = hash.bucketCount();
+        long fileSize = HEADER_SIZE + (long) Integer.BYTES * (bucketCount + encoded.length + 1) + valuesSize;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Allow-list file would exceed 2GB: %d bytes".formatted(fileSize));
+        }
+
+        var slots = new int[encoded.length];
+        var bySlot = new int[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            slots[i] = hash.slot(hashes[i]);
+            bySlot[slots[i]] = i;
+        }
+        var buffer = ByteBuffer.allocate((int) fileSize)
+                .putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(encoded.length)
+                .putInt(bucketCount)
+                .putLong(seed);
+        for (int bucket = 0; bucket < bucketCount; bucket++) buffer.putInt(hash.displacement(bucket));
+        int offset = 0;
+        for (int slot = 0; slot < encoded.length; slot++) {
+            buffer.putInt(offset);
+            offset += encoded[bySlot[slot]].length;
+        }
+        buffer.putInt(offset);
+        for (int slot = 0; slot < encoded.length; slot++) buffer.put(encoded[bySlot[slot]]);
+
+        var directory = file.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                buffer.flip();
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @return the number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(@NonNull String value) {
+        long hash = hash(value, seed);
+        int displacement = buffer.getInt(HEADER_SIZE + Integer.BYTES * PerfectHash.bucket(hash, bucketCount));
+        int slot = PerfectHash.slot(hash, displacement, size);
+        int from = valuesStart + buffer.getInt(offsetsStart + Integer.BYTES * slot);
+        int to = valuesStart + buffer.getInt(offsetsStart + Integer.BYTES * (slot + 1));
+        return equalsUtf8(value, from, to);
+    }
+
+    /**
+     * @return whether the bytes in {@code [from, to)} of {@link #buffer} are the UTF-8 encoding of {@code value},
+     * encoding it a character at a time rather than into an array.
+     */
+    private boolean equalsUtf8(String value, int from, int to) {
+        int index = from;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (index >= to || buffer.get(index++) != c) return false;
+                continue;
+            }
+
+            int codePoint = c;
+            if (Character.isSurrogate(c)) {
+                // Values with unpaired surrogates are never written.
+                if (!Character.isHighSurrogate(c) || i + 1 == length || !Character.isLowSurrogate(value.charAt(i + 1))) {
+                    return false;
+                }
+                codePoint = Character.toCodePoint(c, value.charAt(++i));
+            }
+            int bytes = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (to - index < bytes) return false;
+
+            // The leading byte holds the high bits after a prefix of as many ones as there are bytes...
+            int shift = 6 * (bytes - 1);
+            if (buffer.get(index++) != (byte) ((0xF00 >> bytes) | codePoint >>> shift)) return false;
+            // ...and each continuation byte six lower bits after a 10 prefix.
+            while ((shift -= 6) >= 0) {
+                if (buffer.get(index++) != (byte) (0x80 | codePoint >>> shift & 0x3F)) return false;
+            }
+        }
+        return index == to;
+    }
+
+    /**
+     * FNV-1a over the characters of {@code value}.
+     */
+    private static long hash(String value, long seed) {
+        long hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return PerfectHash.mix(hash);
+    }
+}
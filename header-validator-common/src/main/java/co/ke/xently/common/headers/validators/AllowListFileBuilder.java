@@ -0,0 +1,49 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+
+/**
+ * Builds the {@link AllowList} file of a UTF-8 text file of one value per line. Values are stripped of surrounding
+ * whitespace, and blank lines, lines starting with {@code #} and repeated values are skipped:
+ * <pre>{@code
+ * java -cp header-validator-common.jar co.ke.xently.common.headers.validators.AllowListFileBuilder \
+ *     channel-codes.txt channel-codes.xal
+ * }</pre>
+ * The file is replaced atomically, so it can be built in place while validators map it.
+ */
+public final class AllowListFileBuilder {
+    private AllowListFileBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AllowListFileBuilder <values.txt> <allow-list file>");
+            System.exit(2);
+        }
+        int size = build(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("Wrote %d values to %s%n", size, args[1]);
+    }
+
+    /**
+     * @return the number of values written.
+     * @throws IllegalArgumentException if {@code source} has no values.
+     */
+    public static int build(@NonNull Path source, @NonNull Path target) throws IOException {
+        var values = new LinkedHashSet<String>();
+        try (var lines = Files.lines(source, StandardCharsets.UTF_8)) {
+            lines.map(String::strip)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(values::add);
+        }
+        if (values.isEmpty()) throw new IllegalArgumentException("No values in %s".formatted(source));
+
+        AllowList.write(values, target);
+        return values.size();
+    }
+}
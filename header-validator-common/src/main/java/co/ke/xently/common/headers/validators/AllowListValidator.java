@@ -0,0 +1,141 @@
+package co.ke.xently.common.headers.validators;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+
+/**
+ * Validates that values are in a large {@link AllowList}, e.g. of channel or service codes, that is memory-mapped
+ * rather than held on the heap. The file is watched, and swapped for its new content whenever it is replaced, without
+ * blocking validations; a file that cannot be mapped is logged and the current list kept.
+ * <p>
+ * Build the file from a text file of one value per line with {@link AllowListFileBuilder}, which replaces the file
+ * atomically. The file must never be rewritten in place. {@link #close() Close} validators that are no longer used to
+ * stop watching the file.
+ */
+@Slf4j
+public final class AllowListValidator implements HeaderValidator, Closeable {
+    public static final ValidationResult.Failure NOT_ALLOWED = ValidationResult.Failure.of(
+            "NOT_ALLOWED",
+            "Header value '%s' is not allowed".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+
+    @NonNull
+    private final Path file;
+    @NonNull
+    private final WatchService watchService;
+    @NonNull
+    private final Thread watcher;
+    private volatile AllowList allowList;
+
+    /**
+     * Maps {@code file} and starts watching it.
+     *
+     * @throws UncheckedIOException     if {@code file} cannot be read or watched.
+     * @throws IllegalArgumentException if {@code file} is not an allow-list file.
+     */
+    public AllowListValidator(@NonNull Path file) {
+        this.file = file.toAbsolutePath();
+        try {
+            this.allowList = AllowList.map(this.file);
+            this.watchService = this.file.getFileSystem().newWatchService();
+            this.file.getParent().register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map the allow-list file %s".formatted(file), e);
+        }
+        this.watcher = Thread.ofPlatform()
+                .daemon()
+                .name("allow-list-watcher")
+                .start(this::watch);
+    }
+
+    @NonNull
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * @return the number of values in the current list.
+     */
+    public int size() {
+        return allowList.size();
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        return allowList.contains(headerValue) ? ValidationResult.SUCCESS : NOT_ALLOWED;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    /**
+     * Maps the file again and swaps it in, as the watcher does when the file changes.
+     *
+     * @return whether it was swapped in; {@code false} if it cannot be mapped, in which case the current list is kept.
+     */
+    public boolean reload() {
+        try {
+            allowList = AllowList.map(file);
+            log.info("Reloaded the allow-list file {}: {} values", file, allowList.size());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to reload the allow-list file {}; keeping the current list.", file, e);
+            return false;
+        }
+    }
+
+    private void watch() {
+        var fileName = file.getFileName();
+        try {
+            while (true) {
+                var key = watchService.take();
+                boolean changed = key.pollEvents().stream().anyMatch(event -> fileName.equals(event.context()));
+                key.reset();
+                if (changed) reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed.
+        }
+    }
+
+    /**
+     * @return whether the file is still watched, i.e. the validator was not closed.
+     */
+    public boolean isWatching() {
+        return watcher.isAlive();
+    }
+
+    /**
+     * Stops watching the file, waiting for a reload in progress to finish. The current list is kept.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        try {
+            watcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AllowListValidator{file=%s}".formatted(file);
+    }
+}
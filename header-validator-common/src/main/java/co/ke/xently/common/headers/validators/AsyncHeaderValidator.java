@@ -0,0 +1,14 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link HeaderValidator} whose results complete asynchronously, so that non-blocking web stacks can await them
+ * without tying up a thread. {@link #validate(String, String)} waits for {@link #validateAsync(String, String)}.
+ */
+public interface AsyncHeaderValidator extends HeaderValidator {
+    @NonNull
+    CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue);
+}
@@ -0,0 +1,367 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Looks for the constructs that make {@link java.util.regex} backtrack catastrophically, i.e. take time exponential, or
+ * polynomial, in the length of the values it rejects:
+ * <ul>
+ *     <li>nested quantifiers whose inner loop can start another iteration of the outer one, e.g. {@code (a+)+} or
+ *     {@code (\w+\s?)*};</li>
+ *     <li>quantified alternations whose branches can start with the same character, e.g. {@code (a|ab)*}; and</li>
+ *     <li>quantifiers that can match the same characters, separated by nothing but optional ones, e.g. {@code \d+\d*}
+ *     or {@code .*x?.*}.</li>
+ * </ul>
+ * A heuristic: it accepts the whole {@link Pattern} syntax, tells what characters a construct matches only for the
+ * syntax {@link PatternScanner} supports (assuming the worst of the rest), and trusts possessive quantifiers and atomic
+ * groups, which do not backtrack.
+ */
+final class BacktrackingAnalysis {
+    private static final int UNBOUNDED = PatternScanner.Repetition.UNBOUNDED;
+
+    private final String expression;
+    private final int flags;
+    private int index;
+
+    private BacktrackingAnalysis(String expression, int flags) {
+        this.expression = expression;
+        this.flags = flags;
+    }
+
+    /**
+     * @return a description of the first risky construct of {@code pattern}, or {@code null} if it has none.
+     */
+    @Nullable
+    static String analyze(@NonNull Pattern pattern) {
+        var analysis = new BacktrackingAnalysis(pattern.pattern(), pattern.flags());
+        return analysis.find(analysis.alternation());
+    }
+
+    /**
+     * @param set the characters the node can match, or {@code null} if unknown.
+     */
+    private record Chars(@Nullable PatternScanner.CharSet set) implements Node {
+    }
+
+    /**
+     * @param atomic    whether the group is never backtracked into once matched.
+     * @param zeroWidth whether the group is a lookaround.
+     */
+    private record Group(List<List<Term>> branches, boolean atomic, boolean zeroWidth) implements Node {
+    }
+
+    /**
+     * Anchors, boundaries and inline flags.
+     */
+    private record Assertion() implements Node {
+    }
+
+    private sealed interface Node permits Chars, Group, Assertion {
+    }
+
+    /**
+     * A quantified node, spanning {@code [start, end)} of the expression.
+     */
+    private record Term(Node node, int min, int max, boolean possessive, int start, int end) {
+        boolean isLoop() {
+            return max == UNBOUNDED && !possessive && !(node instanceof Group group && group.atomic());
+        }
+
+        boolean isNullable() {
+            return min == 0 || BacktrackingAnalysis.isNullable(node);
+        }
+    }
+
+    @Nullable
+    private String find(List<List<Term>> branches) {
+        for (var branch : branches) {
+            for (int i = 0; i < branch.size(); i++) {
+                var term = branch.get(i);
+                if (term.isLoop() && consumes(term.node())) {
+                    var first = first(term.node());
+                    if (term.node() instanceof Group group && hasLoopStarting(group.branches(), first)) {
+                        return "nested quantifiers in '%s'".formatted(source(term, term));
+                    }
+                    if (term.node() instanceof Group group && hasOverlappingBranches(group.branches())) {
+                        return "overlapping alternatives in '%s'".formatted(source(term, term));
+                    }
+                    for (int j = i + 1; j < branch.size(); j++) {
+                        var next = branch.get(j);
+                        if (next.isLoop() && consumes(next.node()) && overlaps(first, first(next.node()))) {
+                            return "adjacent quantifiers matching the same characters in '%s'".formatted(source(term, next));
+                        }
+                        if (!next.isNullable()) break;
+                    }
+                }
+                if (term.node() instanceof Group group) {
+                    var risk = find(group.branches());
+                    if (risk != null) return risk;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether a loop of {@code branches}, followed by nothing but optional terms, can start with one of
+     * {@code first}, so that a value can be split between the iterations of both loops in many ways.
+     */
+    private static boolean hasLoopStarting(List<List<Term>> branches, @Nullable PatternScanner.CharSet first) {
+        for (var branch : branches) {
+            for (int i = branch.size() - 1; i >= 0; i--) {
+                var term = branch.get(i);
+                if (term.isLoop() && consumes(term.node()) && overlaps(first(term.node()), first)) return true;
+                if (term.node() instanceof Group group && !group.zeroWidth() && hasLoopStarting(group.branches(), first)) {
+                    return true;
+                }
+                if (!term.isNullable()) break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasOverlappingBranches(List<List<Term>> branches) {
+        for (int i = 0; i < branches.size(); i++) {
+            for (int j = i + 1; j < branches.size(); j++) {
+                if (overlaps(first(branches.get(i)), first(branches.get(j)))) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlaps(@Nullable PatternScanner.CharSet a, @Nullable PatternScanner.CharSet b) {
+        return a == null || b == null || a.intersects(b);
+    }
+
+    /**
+     * @return the characters {@code node} can start with, or {@code null} if unknown.
+     */
+    @Nullable
+    private static PatternScanner.CharSet first(Node node) {
+        return switch (node) {
+            case Chars chars -> chars.set();
+            case Assertion ignored -> PatternScanner.CharSet.union();
+            case Group group -> {
+                if (group.zeroWidth()) yield PatternScanner.CharSet.union();
+                var sets = new ArrayList<PatternScanner.CharSet>();
+                for (var branch : group.branches()) {
+                    var set = first(branch);
+                    if (set == null) yield null;
+                    sets.add(set);
+                }
+                yield PatternScanner.CharSet.union(sets.toArray(PatternScanner.CharSet[]::new));
+            }
+        };
+    }
+
+    @Nullable
+    private static PatternScanner.CharSet first(List<Term> branch) {
+        var sets = new ArrayList<PatternScanner.CharSet>();
+        for (var term : branch) {
+            if (term.max() == 0) continue;
+
+            var set = first(term.node());
+            if (set == null) return null;
+            sets.add(set);
+            if (!term.isNullable()) break;
+        }
+        return PatternScanner.CharSet.union(sets.toArray(PatternScanner.CharSet[]::new));
+    }
+
+    private static boolean isNullable(Node node) {
+        return switch (node) {
+            case Chars ignored -> false;
+            case Assertion ignored -> true;
+            case Group group -> group.zeroWidth()
+                    || group.branches().stream().anyMatch(branch -> branch.stream().allMatch(Term::isNullable));
+        };
+    }
+
+    /**
+     * @return whether {@code node} can match a non-empty value.
+     */
+    private static boolean consumes(Node node) {
+        return switch (node) {
+            case Chars ignored -> true;
+            case Assertion ignored -> false;
+            case Group group -> !group.zeroWidth() && group.branches().stream()
+                    .anyMatch(branch -> branch.stream().anyMatch(term -> term.max() != 0 && consumes(term.node())));
+        };
+    }
+
+    private String source(Term from, Term to) {
+        return expression.substring(from.start(), to.end());
+    }
+
+    // A tolerant parser: the expression compiled, so that it need not report syntax errors.
+
+    private List<List<Term>> alternation() {
+        var branches = new ArrayList<List<Term>>();
+        branches.add(sequence());
+        while (index < expression.length() && expression.charAt(index) == '|') {
+            index++;
+            branches.add(sequence());
+        }
+        return branches;
+    }
+
+    private List<Term> sequence() {
+        var terms = new ArrayList<Term>();
+        while (index < expression.length() && expression.charAt(index) != '|' && expression.charAt(index) != ')') {
+            int start = index;
+            terms.add(quantified(atom(), start));
+        }
+        return terms;
+    }
+
+    private Term quantified(Node node, int start) {
+        int min = 1;
+        int max = 1;
+        if (index < expression.length()) {
+            switch (expression.charAt(index)) {
+                case '?' -> {
+                    min = 0;
+                    index++;
+                }
+                case '*' -> {
+                    min = 0;
+                    max = UNBOUNDED;
+                    index++;
+                }
+                case '+' -> {
+                    max = UNBOUNDED;
+                    index++;
+                }
+                case '{' -> {
+                    int close = expression.indexOf('}', index);
+                    var bounds = expression.substring(index + 1, close).split(",", -1);
+                    min = Integer.parseInt(bounds[0].strip());
+                    max = bounds.length == 1 ? min : bounds[1].isBlank() ? UNBOUNDED : Integer.parseInt(bounds[1].strip());
+                    index = close + 1;
+                }
+                default -> {
+                    return new Term(node, min, max, false, start, index);
+                }
+            }
+        }
+        boolean possessive = index < expression.length() && expression.charAt(index) == '+';
+        if (possessive || index < expression.length() && expression.charAt(index) == '?') index++;
+        return new Term(node, min, max, possessive, start, index);
+    }
+
+    private Node atom() {
+        int start = index;
+        char c = expression.charAt(index++);
+        return switch (c) {
+            case '(' -> group();
+            case '[' -> {
+                skipClass();
+                yield chars(start);
+            }
+            case '\\' -> escape(start);
+            case '^', '$' -> new Assertion();
+            default -> {
+                if (Character.isHighSurrogate(c) && index < expression.length()) index++;
+                yield chars(start);
+            }
+        };
+    }
+
+    private Node group() {
+        boolean atomic = false;
+        boolean zeroWidth = false;
+        if (expression.startsWith("?", index)) {
+            if (expression.startsWith("?:", index)) {
+                index += 2;
+            } else if (expression.startsWith("?>", index)) {
+                atomic = true;
+                index += 2;
+            } else if (expression.startsWith("?=", index) || expression.startsWith("?!", index)) {
+                zeroWidth = true;
+                index += 2;
+            } else if (expression.startsWith("?<=", index) || expression.startsWith("?<!", index)) {
+                zeroWidth = true;
+                index += 3;
+            } else if (expression.startsWith("?<", index)) {
+                index = expression.indexOf('>', index) + 1;
+            } else {
+                // Inline flags, either (?idmsux-idmsux) or (?idmsux-idmsux:X).
+                while (index < expression.length() && expression.charAt(index) != ')' && expression.charAt(index) != ':') {
+                    index++;
+                }
+                if (index < expression.length() && expression.charAt(index++) == ')') return new Assertion();
+            }
+        }
+        var branches = alternation();
+        index++; // ')'
+        return new Group(branches, atomic, zeroWidth);
+    }
+
+    private void skipClass() {
+        int depth = 1;
+        if (index < expression.length() && expression.charAt(index) == '^') index++;
+        // A leading ']' is a literal.
+        if (index < expression.length() && expression.charAt(index) == ']') index++;
+        while (index < expression.length() && depth > 0) {
+            char c = expression.charAt(index++);
+            if (c == '\\') {
+                index++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private Node escape(int start) {
+        if (index >= expression.length()) return new Chars(null);
+
+        char c = expression.charAt(index++);
+        switch (c) {
+            case 'b', 'B', 'A', 'z', 'Z', 'G' -> {
+                return new Assertion();
+            }
+            case 'Q' -> {
+                int end = expression.indexOf("\\E", index);
+                index = end < 0 ? expression.length() : end + 2;
+                return new Chars(null);
+            }
+            case 'k', 'p', 'P', 'x', 'N' -> {
+                if (index < expression.length() && (expression.charAt(index) == '{' || expression.charAt(index) == '<')) {
+                    index = expression.indexOf(expression.charAt(index) == '{' ? '}' : '>', index) + 1;
+                } else if (c == 'x') {
+                    index += 2;
+                } else if (c != 'k') {
+                    index++;
+                }
+            }
+            case 'u' -> index += 4;
+            case 'c' -> index++;
+            default -> {
+                while (Character.isDigit(c) && c != '0' && index < expression.length()
+                        && Character.isDigit(expression.charAt(index))) {
+                    index++;
+                }
+            }
+        }
+        return chars(start);
+    }
+
+    /**
+     * @return what the atom spanning {@code [start, index)} matches, as far as {@link PatternScanner.Parser} can tell.
+     */
+    private Chars chars(int start) {
+        try {
+            var node = new PatternScanner.Parser(expression.substring(start, index), flags).parse();
+            return new Chars(node instanceof PatternScanner.Chars chars ? chars.set() : null);
+        } catch (PatternScanner.UnsupportedSyntaxException e) {
+            return new Chars(null);
+        }
+    }
+}
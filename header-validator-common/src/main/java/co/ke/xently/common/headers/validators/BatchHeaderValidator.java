@@ -0,0 +1,20 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Validates many values of a header in one call, e.g. one request to a remote store. Wrapped in a
+ * {@link BatchingHeaderValidator}, which gathers the values of concurrent requests into batches.
+ */
+@FunctionalInterface
+public interface BatchHeaderValidator {
+    /**
+     * @param headerValues distinct values, at most {@link BatchingHeaderValidator}'s maximum batch size of them.
+     * @return the result of every value in {@code headerValues}.
+     */
+    @NonNull
+    Map<String, ValidationResult> validateAll(@NonNull String headerName, @NonNull Set<String> headerValues);
+}
@@ -0,0 +1,197 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gathers the values of concurrent calls into batches, per header name, and validates each batch with a single call to
+ * a {@link BatchHeaderValidator}. A batch is sent once it holds {@code maxBatchSize} distinct values or
+ * {@code window} after its first value, whichever comes first; callers of the same value share its result.
+ * <p>
+ * Batches are sent on virtual threads, so {@link #validate(String, String)} blocks its caller until the batch
+ * completes. Non-blocking callers should use {@link #validateAsync(String, String)}.
+ * <p>
+ * {@link #close() Closing} it sends the open batches straight away and stops its timer; calls made afterwards are sent
+ * without waiting for others. As a bean, it is closed with the application context.
+ */
+public final class BatchingHeaderValidator implements AsyncHeaderValidator, AutoCloseable {
+    @NonNull
+    private final BatchHeaderValidator delegate;
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final ScheduledExecutorService timer;
+    private final Executor executor;
+    /**
+     * The batch of every header name that is still gathering values.
+     */
+    private final Map<String, Batch> open = new ConcurrentHashMap<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedValues = new LongAdder();
+    private volatile boolean closed;
+
+    public BatchingHeaderValidator(@NonNull BatchHeaderValidator delegate, int maxBatchSize, @NonNull Duration window) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: %d".formatted(maxBatchSize));
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = window.toNanos();
+        this.timer = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("header-batch-timer").factory());
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("header-batch-", 0).factory());
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        try {
+            return validateAsync(headerName, headerValue).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    /**
+     * Adds {@code headerValue} to the open batch of {@code headerName}, opening one if needed.
+     *
+     * @return the result of {@code headerValue}, completed once its batch was validated. Shared by every caller of the
+     * value, so callers must not complete it.
+     */
+    @Override
+    @NonNull
+    public CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+        while (true) {
+            var batch = open.computeIfAbsent(headerName, this::openBatch);
+            synchronized (batch) {
+                if (batch.sent) {
+                    // Sent between the lookup and the lock (possibly before it was even mapped); its successor takes
+                    // the value.
+                    open.remove(headerName, batch);
+                    continue;
+                }
+
+                var call = batch.calls.computeIfAbsent(headerValue, value -> new CompletableFuture<>());
+                if (batch.calls.size() >= maxBatchSize || closed) send(batch);
+                return call;
+            }
+        }
+    }
+
+    private Batch openBatch(String headerName) {
+        var batch = new Batch(headerName);
+        try {
+            batch.timeout = timer.schedule(() -> {
+                synchronized (batch) {
+                    if (!batch.sent) send(batch);
+                }
+            }, windowNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Closed: the batch is sent as soon as its value is added.
+        }
+        return batch;
+    }
+
+    /**
+     * Must be called holding the lock of {@code batch}.
+     */
+    private void send(Batch batch) {
+        batch.sent = true;
+        open.remove(batch.headerName, batch);
+        if (batch.timeout != null) batch.timeout.cancel(false);
+        // Sent by close() before its first value was added.
+        if (!batch.calls.isEmpty()) executor.execute(() -> validate(batch));
+    }
+
+    private void validate(Batch batch) {
+        batches.increment();
+        batchedValues.add(batch.calls.size());
+        try {
+            var results = delegate.validateAll(batch.headerName, Set.copyOf(batch.calls.keySet()));
+            batch.calls.forEach((value, call) -> {
+                var result = results.get(value);
+                if (result != null) {
+                    call.complete(result);
+                } else {
+                    call.completeExceptionally(new IllegalStateException(
+                            "%s returned no result for a value of '%s'".formatted(delegate, batch.headerName)
+                    ));
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            batch.calls.values().forEach(call -> call.completeExceptionally(e));
+        }
+    }
+
+    /**
+     * Sends the open batches without waiting for their window, and stops the timer. Batches already sent still
+     * complete.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (var batch : open.values()) {
+            synchronized (batch) {
+                if (!batch.sent) send(batch);
+            }
+        }
+        timer.shutdownNow();
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @NonNull
+    public BatchHeaderValidator delegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of batches sent to the delegate.
+     */
+    public long batches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the number of distinct values sent to the delegate, across batches.
+     */
+    public long batchedValues() {
+        return batchedValues.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchingHeaderValidator{delegate=%s, maxBatchSize=%d}".formatted(delegate, maxBatchSize);
+    }
+
+    private static final class Batch {
+        private final String headerName;
+        /**
+         * Keyed by header value. Only modified while the batch is open, holding its lock.
+         */
+        private final Map<String, CompletableFuture<ValidationResult>> calls = new LinkedHashMap<>();
+        private ScheduledFuture<?> timeout;
+        private boolean sent;
+
+        private Batch(String headerName) {
+            this.headerName = headerName;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package co.ke.xently.common.headers.validators;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops calling a failing validator for a while. Opens after {@code failureThreshold} consecutive failures, rejects
+ * every call for {@code openDuration}, then lets a single probe through (half-open): the circuit closes if it succeeds
+ * and opens again if it fails.
+ * <p>
+ * The state is swapped atomically, so calls never block on the breaker, and a closed breaker without failures is
+ * only read. State changes are logged with the breaker's {@code name}, e.g. the header its validator checks.
+ */
+@Slf4j
+public final class CircuitBreaker {
+    public enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private static final Status CLOSED = new Status(State.CLOSED, 0, 0);
+
+    @NonNull
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier ticker;
+    private final AtomicReference<Status> status = new AtomicReference<>(CLOSED);
+    private final Map<State, LongAdder> transitions = new EnumMap<>(State.class);
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(@NonNull String name, int failureThreshold, @NonNull Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(@NonNull String name, int failureThreshold, @NonNull Duration openDuration, @NonNull LongSupplier ticker) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive: %d".formatted(failureThreshold));
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.ticker = ticker;
+        for (var state : State.values()) transitions.put(state, new LongAdder());
+    }
+
+    /**
+     * @return whether the call may go ahead. Callers that are let through must report its outcome with
+     * {@link #onSuccess()} or {@link #onFailure()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            var current = status.get();
+            switch (current.state()) {
+                case CLOSED -> {
+                    return true;
+                }
+                case HALF_OPEN -> {
+                    // The probe is still in flight.
+                    rejected.increment();
+                    return false;
+                }
+                case OPEN -> {
+                    if (ticker.getAsLong() - current.openedAt() < openNanos) {
+                        rejected.increment();
+                        return false;
+                    }
+                    if (transition(current, new Status(State.HALF_OPEN, 0, current.openedAt()))) return true;
+                }
+            }
+        }
+    }
+
+    public void onSuccess() {
+        while (true) {
+            var current = status.get();
+            // Open: a call let through before the breaker opened; it says nothing about the current outage.
+            if (current == CLOSED || current.state() == State.OPEN) return;
+            if (transition(current, CLOSED)) return;
+        }
+    }
+
+    public void onFailure() {
+        while (true) {
+            var current = status.get();
+            var next = switch (current.state()) {
+                case CLOSED -> current.failures() + 1 < failureThreshold
+                        ? new Status(State.CLOSED, current.failures() + 1, 0)
+                        : new Status(State.OPEN, 0, ticker.getAsLong());
+                case HALF_OPEN -> new Status(State.OPEN, 0, ticker.getAsLong());
+                case OPEN -> null;
+            };
+            if (next == null || transition(current, next)) return;
+        }
+    }
+
+    private boolean transition(Status current, Status next) {
+        if (!status.compareAndSet(current, next)) return false;
+
+        if (current.state() != next.state()) {
+            transitions.get(next.state()).increment();
+            log.warn("Circuit breaker {}: {} -> {}", name, current.state(), next.state());
+        }
+        return true;
+    }
+
+    @NonNull
+    public String name() {
+        return name;
+    }
+
+    @NonNull
+    public State state() {
+        return status.get().state();
+    }
+
+    /**
+     * @return how many times the breaker entered {@code state}.
+     */
+    public long transitions(@NonNull State state) {
+        return transitions.get(state).sum();
+    }
+
+    /**
+     * @return the number of calls rejected while open or half-open.
+     */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    private record Status(State state, int failures, long openedAt) {
+    }
+}
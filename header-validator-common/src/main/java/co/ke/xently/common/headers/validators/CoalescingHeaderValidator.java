@@ -0,0 +1,196 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collapses concurrent calls for the same header name and value into a single call to the delegate (single flight):
+ * the first caller runs it while the others wait for, and share, its result or exception. Nothing is cached once the
+ * call completes; combine with {@link MemoizingHeaderValidator} for that.
+ * <p>
+ * {@link #validateAsync(String, String)} never waits: callers that find a call in flight get its future, and an
+ * {@link AsyncHeaderValidator} delegate's future is chained rather than awaited. A {@link #isBlocking() blocking}
+ * delegate that is not asynchronous runs on a virtual thread there, so that event loops never call it.
+ */
+public final class CoalescingHeaderValidator implements AsyncHeaderValidator {
+    /**
+     * Thread-per-task, so it never needs shutting down.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("header-coalesce-", 0).factory()
+    );
+
+    @NonNull
+    private final HeaderValidator delegate;
+    /**
+     * Keyed by header name, then value, so that lookups do not allocate a composite key.
+     */
+    private final Map<String, Map<String, CompletableFuture<ValidationResult>>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingHeaderValidator(@NonNull HeaderValidator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        var calls = inFlight(headerName);
+        var call = new CompletableFuture<ValidationResult>();
+        var existing = calls.putIfAbsent(headerValue, call);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        if (delegate instanceof AsyncHeaderValidator async) {
+            return await(start(calls, headerName, headerValue, call, async));
+        }
+        return run(calls, headerName, headerValue, call);
+    }
+
+    /**
+     * Like {@link #validate(String, String)}, but returns the in-flight call instead of waiting for it. Each caller
+     * gets its own copy, so that cancelling it does not cancel the call shared with the others.
+     */
+    @Override
+    @NonNull
+    public CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+        var calls = inFlight(headerName);
+        var call = new CompletableFuture<ValidationResult>();
+        var existing = calls.putIfAbsent(headerValue, call);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.copy();
+        }
+        if (delegate instanceof AsyncHeaderValidator async) {
+            return start(calls, headerName, headerValue, call, async).copy();
+        }
+        if (delegate.isBlocking()) {
+            try {
+                EXECUTOR.execute(() -> runQuietly(calls, headerName, headerValue, call));
+            } catch (RejectedExecutionException e) {
+                calls.remove(headerValue, call);
+                call.completeExceptionally(e);
+            }
+            return call.copy();
+        }
+        runQuietly(calls, headerName, headerValue, call);
+        return call.copy();
+    }
+
+    private Map<String, CompletableFuture<ValidationResult>> inFlight(String headerName) {
+        var calls = inFlight.get(headerName);
+        return calls != null ? calls : inFlight.computeIfAbsent(headerName, name -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Completes {@code call} with the delegate's future, once it completes.
+     */
+    private CompletableFuture<ValidationResult> start(
+            Map<String, CompletableFuture<ValidationResult>> calls,
+            String headerName,
+            String headerValue,
+            CompletableFuture<ValidationResult> call,
+            AsyncHeaderValidator async) {
+        this.calls.increment();
+        CompletableFuture<ValidationResult> result;
+        try {
+            result = async.validateAsync(headerName, headerValue);
+        } catch (RuntimeException | Error e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((outcome, error) -> {
+            calls.remove(headerValue, call);
+            if (error != null) {
+                call.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+            } else {
+                call.complete(outcome);
+            }
+        });
+        return call;
+    }
+
+    private ValidationResult run(
+            Map<String, CompletableFuture<ValidationResult>> calls,
+            String headerName,
+            String headerValue,
+            CompletableFuture<ValidationResult> call) {
+        this.calls.increment();
+        try {
+            var result = delegate.validate(headerName, headerValue);
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(headerValue, call);
+        }
+    }
+
+    private void runQuietly(
+            Map<String, CompletableFuture<ValidationResult>> calls,
+            String headerName,
+            String headerValue,
+            CompletableFuture<ValidationResult> call) {
+        try {
+            run(calls, headerName, headerValue, call);
+        } catch (RuntimeException | Error ignored) {
+            // Already reported through the future.
+        }
+    }
+
+    private static ValidationResult await(CompletableFuture<ValidationResult> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return delegate.isBlocking();
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return delegate.cost();
+    }
+
+    @NonNull
+    public HeaderValidator delegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of calls made to the delegate.
+     */
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return the number of calls that shared another one's result instead of calling the delegate.
+     */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CoalescingHeaderValidator{delegate=%s}".formatted(delegate);
+    }
+}
@@ -6,11 +6,20 @@ import org.springframework.util.StringUtils;
 
 @Component
 public record DefaultHeaderValidator() implements HeaderValidator {
+    public static final ValidationResult.Failure BLANK_VALUE = ValidationResult.Failure.of(
+            "BLANK_VALUE",
+            "Header value is required"
+    );
+
     @Override
     @NonNull
     public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
-        return StringUtils.hasText(headerValue)
-                ? new ValidationResult.Success()
-                : new ValidationResult.Failure("Header value is required");
+        return StringUtils.hasText(headerValue) ? ValidationResult.SUCCESS : BLANK_VALUE;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PRESENCE;
     }
 }
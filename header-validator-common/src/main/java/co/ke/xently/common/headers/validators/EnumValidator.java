@@ -0,0 +1,66 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Validates that values are one of a fixed set, compared case-insensitively, e.g. channel categories. Lookups hash the
+ * value once, through a perfect hash of the set, and neither lower-case it nor allocate.
+ */
+public final class EnumValidator implements HeaderValidator {
+    public static final String UNKNOWN_VALUE = "UNKNOWN_VALUE";
+
+    @NonNull
+    private final List<String> values;
+    @NonNull
+    private final TokenIndex index;
+    @NonNull
+    private final ValidationResult.Failure unknown;
+
+    /**
+     * @throws IllegalArgumentException if {@code values} is empty, or has a blank value or the same value twice,
+     *                                  compared case-insensitively.
+     */
+    public EnumValidator(@NonNull List<String> values) {
+        this.values = List.copyOf(values);
+        this.index = TokenIndex.build(this.values);
+        this.unknown = ValidationResult.Failure.of(
+                UNKNOWN_VALUE,
+                "Header value '",
+                "' is not one of %s".formatted(this.values)
+        );
+    }
+
+    @NonNull
+    public List<String> values() {
+        return values;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        return index.indexOf(headerValue, 0, headerValue.length()) >= 0 ? ValidationResult.SUCCESS : unknown;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EnumValidator that && values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return values.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "EnumValidator{values=%s}".formatted(values);
+    }
+}
@@ -3,18 +3,100 @@ package co.ke.xently.common.headers.validators;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.time.InstantSource;
 
+/**
+ * Validates epoch timestamps, optionally within a {@link TimestampWindow} of the time of validation.
+ * <p>
+ * Values are parsed in a single pass that neither allocates nor throws, since rejecting garbage is as common as
+ * accepting timestamps. Only an optional sign followed by decimal digits is accepted, and only values whose
+ * milliseconds fit a {@code long}.
+ *
+ * @param unit   the unit of the values.
+ * @param window the timestamps accepted.
+ * @param clock  the time the window is relative to.
+ */
 @Component
-public record EpochTimestampValidator() implements HeaderValidator {
+public record EpochTimestampValidator(
+        @NonNull Unit unit,
+        @NonNull TimestampWindow window,
+        @NonNull InstantSource clock
+) implements HeaderValidator {
+    public static final ValidationResult.Failure INVALID_EPOCH_TIMESTAMP = ValidationResult.Failure.of(
+            "INVALID_EPOCH_TIMESTAMP",
+            "Header value is not a valid epoch timestamp"
+    );
+
+    /**
+     * What {@link Unit#toEpochMilli(CharSequence)} returns for values that are not epoch timestamps.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    public enum Unit {
+        SECONDS(1_000),
+        MILLISECONDS(1);
+
+        private final long millis;
+        /**
+         * The largest magnitude whose milliseconds fit a {@code long}.
+         */
+        private final long limit;
+
+        Unit(long millis) {
+            this.millis = millis;
+            this.limit = Long.MAX_VALUE / millis;
+        }
+
+        /**
+         * @return the milliseconds since the epoch {@code value} is, or {@link #INVALID} if {@code value} is not a
+         * decimal number of this unit whose milliseconds fit a {@code long}.
+         */
+        public long toEpochMilli(@NonNull CharSequence value) {
+            int length = value.length();
+            if (length == 0) return INVALID;
+
+            int index = 0;
+            char first = value.charAt(0);
+            boolean negative = first == '-';
+            if (negative || first == '+') {
+                if (length == 1) return INVALID;
+                index = 1;
+            }
+            long result = 0;
+            for (; index < length; index++) {
+                int digit = value.charAt(index) - '0';
+                if (digit < 0 || digit > 9) return INVALID;
+                // result * 10 + digit > limit, without overflowing.
+                if (result > (limit - digit) / 10) return INVALID;
+                result = result * 10 + digit;
+            }
+            return (negative ? -result : result) * millis;
+        }
+    }
+
+    /**
+     * Accepts any epoch seconds, as {@link co.ke.xently.common.utils.ElapsedTimeManager} reads them.
+     */
+    public EpochTimestampValidator() {
+        this(Unit.SECONDS, TimestampWindow.UNBOUNDED);
+    }
+
+    public EpochTimestampValidator(@NonNull Unit unit, @NonNull TimestampWindow window) {
+        this(unit, window, InstantSource.system());
+    }
+
     @Override
     @NonNull
     public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
-        try {
-            new Date(Long.parseLong(headerValue));
-            return new ValidationResult.Success();
-        } catch (NumberFormatException e) {
-            return new ValidationResult.Failure("Header value is not a valid epoch timestamp", e);
-        }
+        long epochMilli = unit.toEpochMilli(headerValue);
+        if (epochMilli == INVALID) return INVALID_EPOCH_TIMESTAMP;
+
+        return window.isUnbounded() ? ValidationResult.SUCCESS : window.check(epochMilli, clock.millis());
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the latency of a validator and isolates its failures: a call that does not complete within {@code timeout}
+ * is abandoned (and its thread interrupted), and a call that throws is caught. Either counts against a
+ * {@link CircuitBreaker}, which short-circuits the validator once it keeps failing. Calls that are abandoned, that
+ * throw or that are short-circuited are passed or rejected as set by the {@link FailureMode}.
+ * <p>
+ * The delegate runs on a virtual thread, unless it is an {@link AsyncHeaderValidator}. The results substituted for
+ * calls that did not complete are reported by {@link #isFallback(ValidationResult)}, so they can be kept out of
+ * caches.
+ */
+public final class GuardedHeaderValidator implements AsyncHeaderValidator {
+    public enum FailureMode {
+        /**
+         * Lets the header through with {@link #FAILED_OPEN}, favoring availability.
+         */
+        FAIL_OPEN,
+        /**
+         * Rejects the header with {@link #TIMED_OUT} or {@link #UNAVAILABLE}.
+         */
+        FAIL_CLOSED
+    }
+
+    public static final ValidationResult.Failure TIMED_OUT = ValidationResult.Failure.of(
+            "VALIDATOR_TIMEOUT",
+            "Header could not be validated in time"
+    );
+    public static final ValidationResult.Failure UNAVAILABLE = ValidationResult.Failure.of(
+            "VALIDATOR_UNAVAILABLE",
+            "Header could not be validated"
+    );
+    /**
+     * Equal to {@link ValidationResult#SUCCESS}, but a distinct instance, so that it can be told apart from the
+     * successes of the delegate.
+     */
+    public static final ValidationResult.Success FAILED_OPEN = new ValidationResult.Success();
+    /**
+     * Thread-per-task, so it is shared by every guard and never needs shutting down.
+     */
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("header-guard-", 0).factory()
+    );
+
+    @NonNull
+    private final HeaderValidator delegate;
+    private final long timeoutNanos;
+    @NonNull
+    private final FailureMode failureMode;
+    @NonNull
+    private final CircuitBreaker breaker;
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder shortCircuited = new LongAdder();
+
+    public GuardedHeaderValidator(
+            @NonNull HeaderValidator delegate,
+            @NonNull Duration timeout,
+            @NonNull FailureMode failureMode,
+            @NonNull CircuitBreaker breaker) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive: %s".formatted(timeout));
+        }
+        this.delegate = delegate;
+        this.timeoutNanos = timeout.toNanos();
+        this.failureMode = failureMode;
+        this.breaker = breaker;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        try {
+            return validateAsync(headerName, headerValue).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    @Override
+    @NonNull
+    public CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+        if (!breaker.tryAcquire()) {
+            shortCircuited.increment();
+            return CompletableFuture.completedFuture(degraded(UNAVAILABLE));
+        }
+
+        CompletableFuture<ValidationResult> call;
+        Future<?> task = null;
+        if (delegate instanceof AsyncHeaderValidator async) {
+            try {
+                // A copy, as the delegate may share its future with other callers.
+                call = async.validateAsync(headerName, headerValue).copy();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+        } else {
+            var result = new CompletableFuture<ValidationResult>();
+            task = EXECUTOR.submit(() -> {
+                try {
+                    result.complete(delegate.validate(headerName, headerValue));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+            call = result;
+        }
+
+        var running = task;
+        return call.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS)
+                .handle((result, error) -> settle(result, error, running));
+    }
+
+    private ValidationResult settle(ValidationResult result, Throwable error, Future<?> task) {
+        if (error == null) {
+            breaker.onSuccess();
+            return result;
+        }
+
+        breaker.onFailure();
+        if ((error instanceof CompletionException ? error.getCause() : error) instanceof TimeoutException) {
+            timeouts.increment();
+            if (task != null) task.cancel(true);
+            return degraded(TIMED_OUT);
+        }
+        errors.increment();
+        return degraded(UNAVAILABLE);
+    }
+
+    private ValidationResult degraded(ValidationResult.Failure failure) {
+        return failureMode == FailureMode.FAIL_OPEN ? FAILED_OPEN : failure;
+    }
+
+    /**
+     * @return whether {@code result} was substituted by a guard for a call that timed out, threw or was
+     * short-circuited, rather than returned by its delegate.
+     */
+    public static boolean isFallback(@NonNull ValidationResult result) {
+        return result == FAILED_OPEN || result == TIMED_OUT || result == UNAVAILABLE;
+    }
+
+    /**
+     * Callers wait for the delegate, which runs on another thread.
+     */
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return delegate.cost();
+    }
+
+    @NonNull
+    public HeaderValidator delegate() {
+        return delegate;
+    }
+
+    @NonNull
+    public CircuitBreaker breaker() {
+        return breaker;
+    }
+
+    /**
+     * @return the number of calls abandoned for taking longer than the timeout.
+     */
+    public long timeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the number of calls that threw.
+     */
+    public long errors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return the number of calls rejected by the circuit breaker without calling the delegate.
+     */
+    public long shortCircuited() {
+        return shortCircuited.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "GuardedHeaderValidator{delegate=%s, failureMode=%s}".formatted(delegate, failureMode);
+    }
+}
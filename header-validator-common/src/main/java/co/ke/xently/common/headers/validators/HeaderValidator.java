@@ -6,4 +6,20 @@ import org.springframework.lang.NonNull;
 public interface HeaderValidator {
     @NonNull
     ValidationResult validate(@NonNull String headerName, @NonNull String headerValue);
+
+    /**
+     * @return how expensive {@link #validate(String, String)} is; used to evaluate cheap rules first.
+     */
+    @NonNull
+    default ValidationCost cost() {
+        return ValidationCost.CUSTOM;
+    }
+
+    /**
+     * @return whether {@link #validate(String, String)} may block the calling thread (e.g. on I/O), in which case
+     * non-blocking web stacks call it off their event loop.
+     */
+    default boolean isBlocking() {
+        return false;
+    }
 }
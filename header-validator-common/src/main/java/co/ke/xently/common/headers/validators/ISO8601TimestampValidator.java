@@ -0,0 +1,163 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.time.InstantSource;
+
+/**
+ * Validates RFC 3339 timestamps, the profile of ISO-8601 used on the wire, e.g. {@code 2025-01-31T08:15:30Z} or
+ * {@code 2025-01-31T08:15:30.250+03:00}, optionally within a {@link TimestampWindow} of the time of validation.
+ * <p>
+ * Values are parsed in a single pass that neither allocates nor throws, unlike {@link java.time.Instant#parse}, which
+ * throws a {@link java.time.format.DateTimeParseException} for every rejected value. The accepted syntax is
+ * {@code yyyy-MM-dd'T'HH:mm:ss[.S{1,9}](Z|±HH:mm)}, where {@code T} and {@code Z} may be lower-case, offsets are at most
+ * {@code 18:00} and a leap second is only accepted at {@code 23:59:60}, read as {@code 23:59:59}.
+ *
+ * @param window the timestamps accepted.
+ * @param clock  the time the window is relative to.
+ */
+public record ISO8601TimestampValidator(
+        @NonNull TimestampWindow window,
+        @NonNull InstantSource clock
+) implements HeaderValidator {
+    public static final ValidationResult.Failure INVALID_ISO8601_TIMESTAMP = ValidationResult.Failure.of(
+            "INVALID_ISO8601_TIMESTAMP",
+            "Header value is not a valid ISO-8601 timestamp, e.g. 2025-01-31T08:15:30Z"
+    );
+
+    /**
+     * What {@link #toEpochMilli(CharSequence)} returns for values that are not timestamps.
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int MAX_OFFSET_HOURS = 18;
+    /**
+     * The days from 0000-03-01 to 1970-01-01.
+     */
+    private static final long EPOCH_DAYS = 719_468;
+
+    public ISO8601TimestampValidator() {
+        this(TimestampWindow.UNBOUNDED);
+    }
+
+    public ISO8601TimestampValidator(@NonNull TimestampWindow window) {
+        this(window, InstantSource.system());
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        long epochMilli = toEpochMilli(headerValue);
+        if (epochMilli == INVALID) return INVALID_ISO8601_TIMESTAMP;
+
+        return window.isUnbounded() ? ValidationResult.SUCCESS : window.check(epochMilli, clock.millis());
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    /**
+     * @return the milliseconds since the epoch {@code value} is, truncating finer fractions of a second, or
+     * {@link #INVALID} if it is not a timestamp in the syntax above.
+     */
+    public static long toEpochMilli(@NonNull CharSequence value) {
+        int length = value.length();
+        // yyyy-MM-ddTHH:mm:ssZ
+        if (length < 20) return INVALID;
+
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0
+                || value.charAt(4) != '-' || value.charAt(7) != '-'
+                || (value.charAt(10) | 0x20) != 't'
+                || value.charAt(13) != ':' || value.charAt(16) != ':') {
+            return INVALID;
+        }
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 60 || second == 60 && (hour != 23 || minute != 59)) {
+            return INVALID;
+        }
+
+        int index = 19;
+        int millis = 0;
+        if (value.charAt(index) == '.') {
+            int start = ++index;
+            while (index < length && index - start < 9) {
+                int digit = value.charAt(index) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (index - start < 3) millis = millis * 10 + digit;
+                index++;
+            }
+            if (index == start) return INVALID;
+            for (int i = index - start; i < 3; i++) millis *= 10;
+        }
+
+        if (index >= length) return INVALID;
+        int offsetSeconds;
+        char sign = value.charAt(index);
+        if ((sign | 0x20) == 'z') {
+            if (index + 1 != length) return INVALID;
+            offsetSeconds = 0;
+        } else if (sign == '+' || sign == '-') {
+            if (index + 6 != length || value.charAt(index + 3) != ':') return INVALID;
+            int offsetHours = digits(value, index + 1, 2);
+            int offsetMinutes = digits(value, index + 4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59
+                    || offsetHours > MAX_OFFSET_HOURS || offsetHours == MAX_OFFSET_HOURS && offsetMinutes > 0) {
+                return INVALID;
+            }
+            offsetSeconds = (offsetHours * 3_600 + offsetMinutes * 60) * (sign == '-' ? -1 : 1);
+        } else {
+            return INVALID;
+        }
+
+        long seconds = epochDay(year, month, day) * 86_400
+                + hour * 3_600
+                + minute * 60
+                + Math.min(second, 59)
+                - offsetSeconds;
+        return seconds * 1_000 + millis;
+    }
+
+    /**
+     * @return the number {@code value} has in {@code [from, from + count)}, or {@code -1} if those are not all ASCII
+     * digits.
+     */
+    private static int digits(CharSequence value, int from, int count) {
+        int result = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return -1;
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * @return the days from 1970-01-01 to {@code year-month-day}, counting years from March so that leap days come
+     * last.
+     */
+    private static long epochDay(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - EPOCH_DAYS;
+    }
+}
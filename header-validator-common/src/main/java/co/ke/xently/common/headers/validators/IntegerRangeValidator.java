@@ -0,0 +1,102 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Validates decimal integers within {@code [min, max]}, e.g. unsigned ones with a {@code min} of {@code 0}. Values are
+ * an optional sign followed by ASCII digits, and are parsed without allocating or throwing.
+ */
+public final class IntegerRangeValidator implements HeaderValidator {
+    public static final ValidationResult.Failure INVALID_INTEGER = ValidationResult.Failure.of(
+            "INVALID_INTEGER",
+            "Header value '%s' is not an integer".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+    public static final String OUT_OF_RANGE = "OUT_OF_RANGE";
+
+    private final long min;
+    private final long max;
+    @NonNull
+    private final ValidationResult.Failure outOfRange;
+
+    /**
+     * @throws IllegalArgumentException if {@code min} is greater than {@code max}.
+     */
+    public IntegerRangeValidator(long min, long max) {
+        if (min > max) throw new IllegalArgumentException("min %d is greater than max %d".formatted(min, max));
+        this.min = min;
+        this.max = max;
+        this.outOfRange = ValidationResult.Failure.of(
+                OUT_OF_RANGE,
+                "Header value '%s' is not between %d and %d".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER, min, max)
+        );
+    }
+
+    /**
+     * Accepts any integer that fits a {@code long}.
+     */
+    public IntegerRangeValidator() {
+        this(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public long min() {
+        return min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        int length = headerValue.length();
+        if (length == 0) return INVALID_INTEGER;
+
+        int index = 0;
+        char first = headerValue.charAt(0);
+        boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (length == 1) return INVALID_INTEGER;
+            index = 1;
+        }
+        // Accumulated negatively, as Long.parseLong does, so that Long.MIN_VALUE is reached without overflowing.
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        boolean overflow = false;
+        for (; index < length; index++) {
+            int digit = headerValue.charAt(index) - '0';
+            if (digit < 0 || digit > 9) return INVALID_INTEGER;
+            // Keeps scanning on overflow, so that digits followed by garbage are still not an integer.
+            if (result < (limit + digit) / 10) {
+                overflow = true;
+            } else {
+                result = result * 10 - digit;
+            }
+        }
+        if (overflow) return outOfRange;
+
+        long value = negative ? result : -result;
+        return value >= min && value <= max ? ValidationResult.SUCCESS : outOfRange;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IntegerRangeValidator that && min == that.min && max == that.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(min) * 31 + Long.hashCode(max);
+    }
+
+    @Override
+    public String toString() {
+        return "IntegerRangeValidator{min=%d, max=%d}".formatted(min, max);
+    }
+}
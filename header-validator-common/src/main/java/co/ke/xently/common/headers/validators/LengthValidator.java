@@ -0,0 +1,66 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Validates that values are between {@code min} and {@code max} characters long, inclusive.
+ */
+public final class LengthValidator implements HeaderValidator {
+    public static final String LENGTH_OUT_OF_RANGE = "LENGTH_OUT_OF_RANGE";
+
+    private final int min;
+    private final int max;
+    @NonNull
+    private final ValidationResult.Failure outOfRange;
+
+    /**
+     * @throws IllegalArgumentException if {@code min} is negative or greater than {@code max}.
+     */
+    public LengthValidator(int min, int max) {
+        if (min < 0 || min > max) {
+            throw new IllegalArgumentException("Invalid length range [%d, %d]".formatted(min, max));
+        }
+        this.min = min;
+        this.max = max;
+        this.outOfRange = ValidationResult.Failure.of(
+                LENGTH_OUT_OF_RANGE,
+                "Header value must be between %d and %d characters long".formatted(min, max)
+        );
+    }
+
+    public int min() {
+        return min;
+    }
+
+    public int max() {
+        return max;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        int length = headerValue.length();
+        return length >= min && length <= max ? ValidationResult.SUCCESS : outOfRange;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PRESENCE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof LengthValidator that && min == that.min && max == that.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return min * 31 + max;
+    }
+
+    @Override
+    public String toString() {
+        return "LengthValidator{min=%d, max=%d}".formatted(min, max);
+    }
+}
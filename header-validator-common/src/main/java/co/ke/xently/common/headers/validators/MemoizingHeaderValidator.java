@@ -0,0 +1,255 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches the results of a {@link HeaderValidator} that is a pure function of the header name and value.
+ * <p>
+ * Successes live for {@code ttl} and failures for {@code failureTtl} (zero disables caching them). The cache holds at
+ * most {@code maximumSize} values per header name: when full, expired entries are dropped first and then, as with the
+ * CLOCK algorithm, entries that were not read since the last sweep. Inserts reserve a slot first, so that the bound
+ * holds under concurrent misses too. Lookups neither lock nor allocate. The results a {@link GuardedHeaderValidator}
+ * substitutes for calls that did not complete are never cached.
+ * <p>
+ * Use {@link Async} for an {@link AsyncHeaderValidator}, so that misses can be awaited without blocking.
+ */
+public sealed class MemoizingHeaderValidator implements HeaderValidator permits MemoizingHeaderValidator.Async {
+    @NonNull
+    private final HeaderValidator delegate;
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final long failureTtlNanos;
+    @NonNull
+    private final LongSupplier ticker;
+    /**
+     * Keyed by header name, then value, so that lookups do not allocate a composite key.
+     */
+    private final Map<String, Values> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public MemoizingHeaderValidator(
+            @NonNull HeaderValidator delegate,
+            int maximumSize,
+            @NonNull Duration ttl,
+            @NonNull Duration failureTtl) {
+        this(delegate, maximumSize, ttl, failureTtl, System::nanoTime);
+    }
+
+    MemoizingHeaderValidator(
+            @NonNull HeaderValidator delegate,
+            int maximumSize,
+            @NonNull Duration ttl,
+            @NonNull Duration failureTtl,
+            @NonNull LongSupplier ticker) {
+        Assert.isTrue(maximumSize > 0, "maximumSize must be positive");
+        Assert.isTrue(!ttl.isNegative() && !failureTtl.isNegative(), "TTLs must not be negative");
+        this.delegate = delegate;
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl.toNanos();
+        this.failureTtlNanos = failureTtl.toNanos();
+        this.ticker = ticker;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        var cached = cached(headerName, headerValue);
+        return cached != null ? cached : remember(headerName, headerValue, delegate.validate(headerName, headerValue));
+    }
+
+    /**
+     * Looks {@code headerValue} up without calling the delegate, e.g. so that a non-blocking caller can serve hits
+     * inline and only call the delegate elsewhere on a miss, then hand its result to
+     * {@link #remember(String, String, ValidationResult)}.
+     *
+     * @return the cached result, or {@code null} on a miss.
+     */
+    @Nullable
+    public final ValidationResult cached(@NonNull String headerName, @NonNull String headerValue) {
+        var entry = values(headerName).map.get(headerValue);
+        if (entry != null && ticker.getAsLong() - entry.expiresAt < 0) {
+            if (!entry.referenced) entry.referenced = true;
+            hits.increment();
+            return entry.result;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches {@code result}, the delegate's result after a miss, unless it is a fallback or its TTL is zero.
+     *
+     * @return {@code result}.
+     */
+    @NonNull
+    public final ValidationResult remember(@NonNull String headerName, @NonNull String headerValue, @NonNull ValidationResult result) {
+        if (GuardedHeaderValidator.isFallback(result)) return result;
+
+        var values = values(headerName);
+        var entry = values.map.get(headerValue);
+        long now = ticker.getAsLong();
+        long ttl = result instanceof ValidationResult.Success ? ttlNanos : failureTtlNanos;
+        if (ttl > 0) {
+            var fresh = new Entry(result, now + ttl);
+            if (entry == null || !values.map.replace(headerValue, entry, fresh)) {
+                reserve(values, now);
+                // Another miss on the same value got there first: give its slot back.
+                if (values.map.put(headerValue, fresh) != null) values.size.decrementAndGet();
+            }
+        } else if (entry != null && values.map.remove(headerValue, entry)) {
+            values.size.decrementAndGet();
+        }
+        return result;
+    }
+
+    private Values values(String headerName) {
+        var values = entries.get(headerName);
+        return values != null ? values : entries.computeIfAbsent(headerName, name -> new Values());
+    }
+
+    /**
+     * Takes a slot for a new entry, evicting until one is free.
+     */
+    private void reserve(Values values, long now) {
+        for (int size = values.size.get(); size >= maximumSize || !values.size.compareAndSet(size, size + 1); size = values.size.get()) {
+            if (size >= maximumSize) evict(values, now);
+        }
+    }
+
+    private void evict(Values values, long now) {
+        // Expired entries first; then a second-chance sweep: referenced entries lose their mark, unreferenced ones go.
+        for (var entry : values.map.entrySet()) {
+            if (now - entry.getValue().expiresAt >= 0) evict(values, entry);
+        }
+        for (var iterator = values.map.entrySet().iterator(); values.size.get() >= maximumSize && iterator.hasNext(); ) {
+            var entry = iterator.next();
+            if (entry.getValue().referenced) {
+                entry.getValue().referenced = false;
+            } else {
+                evict(values, entry);
+            }
+        }
+        // Every entry was referenced: fall back to evicting in iteration order.
+        for (var iterator = values.map.entrySet().iterator(); values.size.get() >= maximumSize && iterator.hasNext(); ) {
+            evict(values, iterator.next());
+        }
+    }
+
+    private void evict(Values values, Map.Entry<String, Entry> entry) {
+        // Conditional, so that only the thread that removed the entry frees its slot.
+        if (values.map.remove(entry.getKey(), entry.getValue())) {
+            values.size.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return delegate.isBlocking();
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        // Mostly a map lookup once warm.
+        return delegate.cost().compareTo(ValidationCost.PARSE) > 0 ? ValidationCost.PARSE : delegate.cost();
+    }
+
+    @NonNull
+    public HeaderValidator delegate() {
+        return delegate;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the number of cached results, across header names; may include expired ones.
+     */
+    public long size() {
+        return entries.values().stream().mapToLong(values -> values.map.size()).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoizingHeaderValidator{delegate=%s, maximumSize=%d}".formatted(delegate, maximumSize);
+    }
+
+    /**
+     * Completes hits immediately, and misses once the delegate does.
+     */
+    public static final class Async extends MemoizingHeaderValidator implements AsyncHeaderValidator {
+        @NonNull
+        private final AsyncHeaderValidator delegate;
+
+        public Async(
+                @NonNull AsyncHeaderValidator delegate,
+                int maximumSize,
+                @NonNull Duration ttl,
+                @NonNull Duration failureTtl) {
+            this(delegate, maximumSize, ttl, failureTtl, System::nanoTime);
+        }
+
+        Async(
+                @NonNull AsyncHeaderValidator delegate,
+                int maximumSize,
+                @NonNull Duration ttl,
+                @NonNull Duration failureTtl,
+                @NonNull LongSupplier ticker) {
+            super(delegate, maximumSize, ttl, failureTtl, ticker);
+            this.delegate = delegate;
+        }
+
+        @Override
+        @NonNull
+        public CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+            var cached = cached(headerName, headerValue);
+            return cached != null
+                    ? CompletableFuture.completedFuture(cached)
+                    : delegate.validateAsync(headerName, headerValue).thenApply(result -> remember(headerName, headerValue, result));
+        }
+    }
+
+    /**
+     * The cached values of a header name, with the number of slots taken: entries plus inserts in progress.
+     */
+    private static final class Values {
+        private final Map<String, Entry> map = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static final class Entry {
+        private final ValidationResult result;
+        private final long expiresAt;
+        /**
+         * Set on every hit and cleared by eviction sweeps; racy by design.
+         */
+        private volatile boolean referenced;
+
+        private Entry(ValidationResult result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,737 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches whole values against a regular expression without {@link java.util.regex.Matcher}s nor backtracking, in time
+ * linear in the length of the value: the expression is compiled to a position (Glushkov) automaton of at most
+ * {@link #MAX_POSITIONS} positions, turned into a DFA over the characters below 256 when it has at most
+ * {@link #MAX_STATES} states, so that each of these characters costs two table lookups. Other characters, and larger
+ * automata, are matched by simulating the automaton, one code point at a time. Matching does not allocate unless the
+ * automaton has more than 64 positions and is simulated.
+ * <p>
+ * Only supports a subset of the syntax: literals, character classes (without intersections nor nested classes), the
+ * {@code \d \w \s} classes and their complements, {@code .}, groups, alternations, greedy or lazy quantifiers,
+ * {@code ^} and {@code $} at the ends of the expression, and the {@link Pattern#CASE_INSENSITIVE} and
+ * {@link Pattern#DOTALL} flags.
+ */
+final class PatternScanner {
+    static final int MISMATCH = 0;
+    static final int MATCH = 1;
+
+    /**
+     * Bounds the size of the automaton, whose simulation costs up to {@code MAX_POSITIONS * MAX_POSITIONS / 64} word
+     * operations per character.
+     */
+    static final int MAX_POSITIONS = 1024;
+    /**
+     * The number of states past which the automaton is simulated, rather than turned into a DFA.
+     */
+    static final int MAX_STATES = 256;
+    private static final int TABLE_SIZE = 256;
+    private static final int DEAD = 0;
+
+    private final CharSet[] sets;
+    /**
+     * The number of {@code long}s a set of positions takes. Sets of positions are stored in rows of that many words.
+     */
+    private final int words;
+    /**
+     * The positions that can follow each position.
+     */
+    private final long[] follow;
+    private final long[] first;
+    private final long[] last;
+    private final boolean nullable;
+    /**
+     * For every character below {@link #TABLE_SIZE}, the positions whose set contains it.
+     */
+    private final long[] table;
+    /**
+     * For every character below {@link #TABLE_SIZE}, its class: characters of the same class are contained by the
+     * same positions.
+     */
+    private final int[] classes;
+    /**
+     * The DFA, or {@code null}: the transitions of each state by class, in a row of {@code classCount} entries.
+     * States are identified by the offset of their row, {@link #DEAD} being the state without positions.
+     */
+    private final int[] transitions;
+    private final int classCount;
+    private final int start;
+    /**
+     * The positions of each state, by state index.
+     */
+    private final long[] states;
+    private final boolean[] accepting;
+
+    private PatternScanner(List<CharSet> sets, List<BitSet> follow, Fragment fragment) {
+        this.sets = sets.toArray(CharSet[]::new);
+        this.words = Math.max(1, (this.sets.length + Long.SIZE - 1) / Long.SIZE);
+        this.follow = new long[this.sets.length * words];
+        for (int position = 0; position < this.sets.length; position++) {
+            store(follow.get(position), this.follow, position);
+        }
+        this.first = store(fragment.first(), new long[words], 0);
+        this.last = store(fragment.last(), new long[words], 0);
+        this.nullable = fragment.nullable();
+        this.table = new long[TABLE_SIZE * words];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            positions(c, table, c * words);
+        }
+
+        var classMasks = new ArrayList<BitSet>();
+        var classIndices = new HashMap<BitSet, Integer>();
+        this.classes = new int[TABLE_SIZE];
+        for (int c = 0; c < TABLE_SIZE; c++) {
+            classes[c] = classIndices.computeIfAbsent(load(table, c), mask -> {
+                classMasks.add(mask);
+                return classMasks.size() - 1;
+            });
+        }
+        this.classCount = classMasks.size();
+        this.start = classCount;
+
+        // Subset construction, with the start state, which precedes the first character, at index 1.
+        var states = new ArrayList<>(List.of(new BitSet(), new BitSet()));
+        var stateIndices = new HashMap<BitSet, Integer>(Map.of(new BitSet(), 0));
+        var transitions = new ArrayList<Integer>();
+        for (int state = 0; state < states.size() && states.size() <= MAX_STATES; state++) {
+            var next = state == 1 ? fragment.first() : follow(states.get(state), follow);
+            for (var classMask : classMasks) {
+                var target = (BitSet) next.clone();
+                target.and(classMask);
+                int index = stateIndices.computeIfAbsent(target, mask -> {
+                    states.add(mask);
+                    return states.size() - 1;
+                });
+                transitions.add(index * classCount);
+            }
+        }
+        if (states.size() <= MAX_STATES) {
+            this.transitions = transitions.stream().mapToInt(Integer::intValue).toArray();
+            this.states = new long[states.size() * words];
+            this.accepting = new boolean[states.size()];
+            for (int state = 0; state < states.size(); state++) {
+                store(states.get(state), this.states, state);
+                accepting[state] = state == 1 ? nullable : states.get(state).intersects(fragment.last());
+            }
+        } else {
+            this.transitions = null;
+            this.states = null;
+            this.accepting = null;
+        }
+    }
+
+    /**
+     * @return the scanner of {@code pattern}, or {@code null} if it uses syntax the scanner does not support or needs
+     * more than {@link #MAX_POSITIONS} positions.
+     */
+    @Nullable
+    static PatternScanner compile(@NonNull Pattern pattern) {
+        try {
+            return of(pattern);
+        } catch (UnsupportedSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @throws UnsupportedSyntaxException if {@code pattern} uses syntax the scanner does not support or needs more than
+     *                                    {@link #MAX_POSITIONS} positions.
+     */
+    @NonNull
+    static PatternScanner of(@NonNull Pattern pattern) throws UnsupportedSyntaxException {
+        int flags = pattern.flags();
+        if ((flags & ~(Pattern.CASE_INSENSITIVE | Pattern.DOTALL)) != 0) {
+            throw new UnsupportedSyntaxException("Flags other than CASE_INSENSITIVE and DOTALL in '%s'".formatted(pattern));
+        }
+
+        var node = new Parser(pattern.pattern(), flags).parse();
+        var builder = new Builder();
+        var fragment = builder.build(node);
+        return new PatternScanner(builder.sets, builder.follow, fragment);
+    }
+
+    /**
+     * Runs the DFA as long as the value's characters are in its table, and simulates the automaton from there on.
+     *
+     * @return {@link #MATCH} if the whole of {@code value} matches, {@link #MISMATCH} otherwise.
+     */
+    int match(@NonNull CharSequence value) {
+        if (transitions == null) return simulate(value, 0, -1);
+
+        int state = start;
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= TABLE_SIZE) return simulate(value, i, state / classCount);
+
+            state = transitions[state + classes[c]];
+            if (state == DEAD) return MISMATCH;
+        }
+        return accepting[state / classCount] ? MATCH : MISMATCH;
+    }
+
+    /**
+     * @param state the index of the DFA state reached before {@code from}, ignored if {@code from} is 0.
+     */
+    private int simulate(CharSequence value, int from, int state) {
+        if (value.isEmpty()) return nullable ? MATCH : MISMATCH;
+
+        if (words == 1) return simulate(value, from, from == 0 ? 0 : states[state]);
+
+        var active = new long[words];
+        if (from > 0) System.arraycopy(states, state * words, active, 0, words);
+        return simulate(value, from, active);
+    }
+
+    /**
+     * Simulates an automaton of at most 64 positions, whose active positions fit in a {@code long}.
+     */
+    private int simulate(CharSequence value, int from, long active) {
+        for (int i = from, length = value.length(); i < length; ) {
+            int c = Character.codePointAt(value, i);
+            long candidates;
+            if (c < TABLE_SIZE) {
+                candidates = table[c];
+            } else {
+                candidates = 0;
+                for (int position = 0; position < sets.length; position++) {
+                    if (sets[position].contains(c)) candidates |= 1L << position;
+                }
+            }
+
+            if (i == 0) {
+                active = first[0] & candidates;
+            } else {
+                long next = 0;
+                for (long remaining = active; remaining != 0; remaining &= remaining - 1) {
+                    next |= follow[Long.numberOfTrailingZeros(remaining)];
+                }
+                active = next & candidates;
+            }
+            if (active == 0) return MISMATCH;
+            i += Character.charCount(c);
+        }
+        return (active & last[0]) != 0 ? MATCH : MISMATCH;
+    }
+
+    /**
+     * Simulates an automaton of more than 64 positions.
+     */
+    private int simulate(CharSequence value, int from, long[] active) {
+        var next = new long[words];
+        var candidates = new long[words];
+        for (int i = from, length = value.length(); i < length; ) {
+            int c = Character.codePointAt(value, i);
+            if (c < TABLE_SIZE) {
+                System.arraycopy(table, c * words, candidates, 0, words);
+            } else {
+                Arrays.fill(candidates, 0);
+                positions(c, candidates, 0);
+            }
+
+            if (i == 0) {
+                System.arraycopy(first, 0, next, 0, words);
+            } else {
+                Arrays.fill(next, 0);
+                for (int word = 0; word < words; word++) {
+                    for (long remaining = active[word]; remaining != 0; remaining &= remaining - 1) {
+                        int row = (word * Long.SIZE + Long.numberOfTrailingZeros(remaining)) * words;
+                        for (int w = 0; w < words; w++) {
+                            next[w] |= follow[row + w];
+                        }
+                    }
+                }
+            }
+            boolean alive = false;
+            for (int w = 0; w < words; w++) {
+                next[w] &= candidates[w];
+                alive |= next[w] != 0;
+            }
+            if (!alive) return MISMATCH;
+
+            var swap = active;
+            active = next;
+            next = swap;
+            i += Character.charCount(c);
+        }
+        for (int w = 0; w < words; w++) {
+            if ((active[w] & last[w]) != 0) return MATCH;
+        }
+        return MISMATCH;
+    }
+
+    /**
+     * Adds the positions whose set contains {@code c} to the row of {@code into} at {@code offset}.
+     */
+    private void positions(int c, long[] into, int offset) {
+        for (int position = 0; position < sets.length; position++) {
+            if (sets[position].contains(c)) into[offset + position / Long.SIZE] |= 1L << position;
+        }
+    }
+
+    private static BitSet follow(BitSet active, List<BitSet> follow) {
+        var next = new BitSet();
+        active.stream().forEach(position -> next.or(follow.get(position)));
+        return next;
+    }
+
+    private long[] store(BitSet positions, long[] into, int row) {
+        var longs = positions.toLongArray();
+        System.arraycopy(longs, 0, into, row * words, longs.length);
+        return into;
+    }
+
+    private BitSet load(long[] from, int row) {
+        return BitSet.valueOf(Arrays.copyOfRange(from, row * words, (row + 1) * words));
+    }
+
+    static final class UnsupportedSyntaxException extends Exception {
+        UnsupportedSyntaxException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * The code points matched by a position, as sorted, disjoint and non-adjacent inclusive ranges.
+     */
+    record CharSet(int[] ranges) {
+        static final CharSet DIGITS = of('0', '9');
+        static final CharSet WORD = union(of('a', 'z'), of('A', 'Z'), of('0', '9'), of('_', '_'));
+        static final CharSet SPACE = union(of(' ', ' '), of('\t', '\r'));
+        /**
+         * What {@code .} matches without {@link Pattern#DOTALL}.
+         */
+        static final CharSet NOT_LINE_TERMINATOR = union(of('\n', '\n'), of('\r', '\r'), of('\u0085', '\u0085'),
+                of('\u2028', '\u2029')).complement();
+        static final CharSet ANY = of(Character.MIN_CODE_POINT, Character.MAX_CODE_POINT);
+
+        static CharSet of(int from, int to) {
+            return new CharSet(new int[]{from, to});
+        }
+
+        static CharSet union(CharSet... sets) {
+            var ranges = new ArrayList<int[]>();
+            for (var set : sets) {
+                for (int i = 0; i < set.ranges.length; i += 2) {
+                    ranges.add(new int[]{set.ranges[i], set.ranges[i + 1]});
+                }
+            }
+            ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+            var merged = new ArrayList<int[]>();
+            for (var range : ranges) {
+                var previous = merged.isEmpty() ? null : merged.getLast();
+                if (previous != null && range[0] <= previous[1] + 1) {
+                    previous[1] = Math.max(previous[1], range[1]);
+                } else {
+                    merged.add(range.clone());
+                }
+            }
+            return new CharSet(merged.stream().flatMapToInt(Arrays::stream).toArray());
+        }
+
+        CharSet complement() {
+            var ranges = new ArrayList<Integer>();
+            int from = Character.MIN_CODE_POINT;
+            for (int i = 0; i < this.ranges.length; i += 2) {
+                if (this.ranges[i] > from) {
+                    ranges.add(from);
+                    ranges.add(this.ranges[i] - 1);
+                }
+                from = this.ranges[i + 1] + 1;
+            }
+            if (from <= Character.MAX_CODE_POINT) {
+                ranges.add(from);
+                ranges.add(Character.MAX_CODE_POINT);
+            }
+            return new CharSet(ranges.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        /**
+         * @return this set, plus the other case of the ASCII letters it contains, as {@link Pattern#CASE_INSENSITIVE}
+         * (without {@link Pattern#UNICODE_CASE}) matches them.
+         */
+        CharSet caseInsensitive() {
+            var sets = new ArrayList<CharSet>();
+            sets.add(this);
+            for (char c = 'a'; c <= 'z'; c++) {
+                char upper = Character.toUpperCase(c);
+                if (contains(c)) sets.add(of(upper, upper));
+                if (contains(upper)) sets.add(of(c, c));
+            }
+            return union(sets.toArray(CharSet[]::new));
+        }
+
+        boolean contains(int c) {
+            return intersects(c, c);
+        }
+
+        boolean intersects(int from, int to) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] <= to && from <= ranges[i + 1]) return true;
+            }
+            return false;
+        }
+
+        boolean intersects(CharSet other) {
+            for (int i = 0; i < other.ranges.length; i += 2) {
+                if (intersects(other.ranges[i], other.ranges[i + 1])) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CharSet other && Arrays.equals(ranges, other.ranges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ranges);
+        }
+
+        @Override
+        public String toString() {
+            return "CharSet" + Arrays.toString(ranges);
+        }
+    }
+
+    sealed interface Node {
+    }
+
+    record Chars(CharSet set) implements Node {
+    }
+
+    record Sequence(List<Node> nodes) implements Node {
+    }
+
+    record Alternation(List<Node> branches) implements Node {
+    }
+
+    /**
+     * @param max {@link #UNBOUNDED} for no maximum.
+     */
+    record Repetition(Node node, int min, int max) implements Node {
+        static final int UNBOUNDED = -1;
+    }
+
+    /**
+     * Parses the supported subset of the {@link Pattern} syntax. Only called on expressions that {@link Pattern}
+     * compiled, so that syntax errors need not be told apart from unsupported syntax.
+     */
+    static final class Parser {
+        private final String expression;
+        private final boolean caseInsensitive;
+        private final boolean dotAll;
+        private int index;
+        private final int end;
+
+        Parser(String expression, int flags) {
+            this.caseInsensitive = (flags & Pattern.CASE_INSENSITIVE) != 0;
+            this.dotAll = (flags & Pattern.DOTALL) != 0;
+            int start = expression.startsWith("^") ? 1 : 0;
+            int end = expression.length();
+            if (end > start && expression.charAt(end - 1) == '$' && !isEscaped(expression, end - 1)) end--;
+            this.expression = expression;
+            this.index = start;
+            this.end = end;
+        }
+
+        private static boolean isEscaped(String expression, int index) {
+            int backslashes = 0;
+            while (index - backslashes - 1 >= 0 && expression.charAt(index - backslashes - 1) == '\\') backslashes++;
+            return backslashes % 2 == 1;
+        }
+
+        Node parse() throws UnsupportedSyntaxException {
+            var node = alternation();
+            if (index != end) throw unsupported("Unexpected '%s'".formatted(expression.charAt(index)));
+            return node;
+        }
+
+        private Node alternation() throws UnsupportedSyntaxException {
+            var branches = new ArrayList<Node>();
+            branches.add(sequence());
+            while (index < end && expression.charAt(index) == '|') {
+                index++;
+                branches.add(sequence());
+            }
+            return branches.size() == 1 ? branches.getFirst() : new Alternation(branches);
+        }
+
+        private Node sequence() throws UnsupportedSyntaxException {
+            var nodes = new ArrayList<Node>();
+            while (index < end && expression.charAt(index) != '|' && expression.charAt(index) != ')') {
+                nodes.add(quantified(atom()));
+            }
+            return nodes.size() == 1 ? nodes.getFirst() : new Sequence(nodes);
+        }
+
+        private Node quantified(Node atom) throws UnsupportedSyntaxException {
+            if (index >= end) return atom;
+
+            int min;
+            int max;
+            switch (expression.charAt(index)) {
+                case '?' -> {
+                    min = 0;
+                    max = 1;
+                    index++;
+                }
+                case '*' -> {
+                    min = 0;
+                    max = Repetition.UNBOUNDED;
+                    index++;
+                }
+                case '+' -> {
+                    min = 1;
+                    max = Repetition.UNBOUNDED;
+                    index++;
+                }
+                case '{' -> {
+                    index++;
+                    min = number();
+                    if (expression.charAt(index) == ',') {
+                        index++;
+                        max = expression.charAt(index) == '}' ? Repetition.UNBOUNDED : number();
+                    } else {
+                        max = min;
+                    }
+                    index++; // '}'
+                }
+                default -> {
+                    return atom;
+                }
+            }
+            if (index < end && expression.charAt(index) == '+') throw unsupported("Possessive quantifier");
+            // Lazy quantifiers match the same whole values as greedy ones.
+            if (index < end && expression.charAt(index) == '?') index++;
+            return new Repetition(atom, min, max);
+        }
+
+        private int number() throws UnsupportedSyntaxException {
+            int start = index;
+            while (index < end && Character.isDigit(expression.charAt(index))) index++;
+            if (index - start > 4) throw unsupported("Repetition count too large");
+            return Integer.parseInt(expression, start, index, 10);
+        }
+
+        private Node atom() throws UnsupportedSyntaxException {
+            char c = expression.charAt(index++);
+            return switch (c) {
+                case '(' -> {
+                    if (expression.startsWith("?:", index)) {
+                        index += 2;
+                    } else if (index < end && expression.charAt(index) == '?') {
+                        throw unsupported("Group construct");
+                    }
+                    var node = alternation();
+                    if (index >= end || expression.charAt(index) != ')') throw unsupported("Unclosed group");
+                    index++;
+                    yield node;
+                }
+                // Case-insensitive classes are folded before being negated.
+                case '[' -> new Chars(characterClass());
+                case '.' -> chars(dotAll ? CharSet.ANY : CharSet.NOT_LINE_TERMINATOR);
+                case '\\' -> chars(escape(false));
+                case '^', '$' -> throw unsupported("Anchor inside the expression");
+                case '*', '+', '?', '{' -> throw unsupported("Quantifier without an operand");
+                default -> chars(literal(codePoint(c)));
+            };
+        }
+
+        private Node chars(CharSet set) {
+            return new Chars(caseInsensitive ? set.caseInsensitive() : set);
+        }
+
+        /**
+         * @return the code point starting with {@code c}, consuming its low surrogate if {@code c} is a high one.
+         */
+        private int codePoint(char c) {
+            if (Character.isHighSurrogate(c) && index < end && Character.isLowSurrogate(expression.charAt(index))) {
+                return Character.toCodePoint(c, expression.charAt(index++));
+            }
+            return c;
+        }
+
+        private CharSet literal(int c) throws UnsupportedSyntaxException {
+            if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) throw unsupported("Unpaired surrogate");
+            return CharSet.of(c, c);
+        }
+
+        private CharSet characterClass() throws UnsupportedSyntaxException {
+            boolean negated = index < end && expression.charAt(index) == '^';
+            if (negated) index++;
+            if (index < end && expression.charAt(index) == ']') throw unsupported("Leading ']' in class");
+
+            var sets = new ArrayList<CharSet>();
+            while (index < end && expression.charAt(index) != ']') {
+                char c = expression.charAt(index++);
+                CharSet from;
+                if (c == '[' || (c == '&' && index < end && expression.charAt(index) == '&')) {
+                    throw unsupported("Nested class or intersection");
+                } else if (c == '\\') {
+                    from = escape(true);
+                } else {
+                    from = literal(codePoint(c));
+                }
+
+                if (index + 1 < end && expression.charAt(index) == '-' && expression.charAt(index + 1) != ']') {
+                    index++;
+                    char d = expression.charAt(index++);
+                    var to = d == '\\' ? escape(true) : literal(codePoint(d));
+                    if (!isSingle(from) || !isSingle(to)) throw unsupported("Range of classes");
+                    sets.add(CharSet.of(from.ranges()[0], to.ranges()[0]));
+                    if (index + 1 < end && expression.charAt(index) == '-' && expression.charAt(index + 1) != ']') {
+                        throw unsupported("Chained ranges");
+                    }
+                } else {
+                    sets.add(from);
+                }
+            }
+            if (index >= end) throw unsupported("Unclosed class");
+            index++; // ']'
+
+            var set = CharSet.union(sets.toArray(CharSet[]::new));
+            if (caseInsensitive) set = set.caseInsensitive();
+            return negated ? set.complement() : set;
+        }
+
+        private static boolean isSingle(CharSet set) {
+            return set.ranges().length == 2 && set.ranges()[0] == set.ranges()[1];
+        }
+
+        private CharSet escape(boolean inClass) throws UnsupportedSyntaxException {
+            if (index >= end) throw unsupported("Trailing backslash");
+            char c = expression.charAt(index++);
+            return switch (c) {
+                case 'd' -> CharSet.DIGITS;
+                case 'D' -> CharSet.DIGITS.complement();
+                case 'w' -> CharSet.WORD;
+                case 'W' -> CharSet.WORD.complement();
+                case 's' -> CharSet.SPACE;
+                case 'S' -> CharSet.SPACE.complement();
+                case 't' -> literal('\t');
+                case 'n' -> literal('\n');
+                case 'r' -> literal('\r');
+                case 'f' -> literal('\f');
+                case 'a' -> literal('\u0007');
+                case 'e' -> literal('\u001B');
+                case 'x' -> literal(hex(2));
+                case 'u' -> literal(hex(4));
+                default -> {
+                    if (Character.isLetterOrDigit(c)) {
+                        throw unsupported("Escape '\\%s'%s".formatted(c, inClass ? " in class" : ""));
+                    }
+                    yield literal(c);
+                }
+            };
+        }
+
+        private char hex(int digits) throws UnsupportedSyntaxException {
+            if (index + digits > end || expression.charAt(index) == '{') throw unsupported("Hexadecimal escape");
+            char c = (char) Integer.parseInt(expression, index, index + digits, 16);
+            index += digits;
+            return c;
+        }
+
+        private UnsupportedSyntaxException unsupported(String reason) {
+            return new UnsupportedSyntaxException("%s at index %d of '%s'".formatted(reason, index, expression));
+        }
+    }
+
+    /**
+     * A part of the automaton: whether it matches the empty string, and the positions it can start and end with. Never
+     * modified once built.
+     */
+    private record Fragment(boolean nullable, BitSet first, BitSet last) {
+        static final Fragment EMPTY = new Fragment(true, new BitSet(), new BitSet());
+    }
+
+    /**
+     * Builds the automaton of a {@link Node}, one position per {@link Chars} (repetitions are unrolled), recording the
+     * positions that can follow each one.
+     */
+    private static final class Builder {
+        private final List<CharSet> sets = new ArrayList<>();
+        private final List<BitSet> follow = new ArrayList<>();
+
+        Fragment build(Node node) throws UnsupportedSyntaxException {
+            return switch (node) {
+                case Chars chars -> {
+                    if (sets.size() == MAX_POSITIONS) {
+                        throw new UnsupportedSyntaxException("More than %d positions".formatted(MAX_POSITIONS));
+                    }
+                    var position = new BitSet();
+                    position.set(sets.size());
+                    sets.add(chars.set());
+                    follow.add(new BitSet());
+                    yield new Fragment(false, position, position);
+                }
+                case Sequence sequence -> {
+                    var fragment = Fragment.EMPTY;
+                    for (var child : sequence.nodes()) {
+                        fragment = concatenate(fragment, build(child));
+                    }
+                    yield fragment;
+                }
+                case Alternation alternation -> {
+                    boolean nullable = false;
+                    var first = new BitSet();
+                    var last = new BitSet();
+                    for (var branch : alternation.branches()) {
+                        var fragment = build(branch);
+                        nullable |= fragment.nullable();
+                        first.or(fragment.first());
+                        last.or(fragment.last());
+                    }
+                    yield new Fragment(nullable, first, last);
+                }
+                case Repetition repetition -> repeat(repetition);
+            };
+        }
+
+        private Fragment repeat(Repetition repetition) throws UnsupportedSyntaxException {
+            var fragment = Fragment.EMPTY;
+            int mandatory = repetition.max() == Repetition.UNBOUNDED ? Math.max(repetition.min() - 1, 0) : repetition.min();
+            for (int i = 0; i < mandatory; i++) {
+                fragment = concatenate(fragment, build(repetition.node()));
+            }
+            if (repetition.max() == Repetition.UNBOUNDED) {
+                var loop = build(repetition.node());
+                link(loop.last(), loop.first());
+                boolean nullable = repetition.min() == 0 || loop.nullable();
+                return concatenate(fragment, new Fragment(nullable, loop.first(), loop.last()));
+            }
+            for (int i = repetition.min(); i < repetition.max(); i++) {
+                var optional = build(repetition.node());
+                fragment = concatenate(fragment, new Fragment(true, optional.first(), optional.last()));
+            }
+            return fragment;
+        }
+
+        private Fragment concatenate(Fragment left, Fragment right) {
+            link(left.last(), right.first());
+            var first = (BitSet) left.first().clone();
+            if (left.nullable()) first.or(right.first());
+            var last = (BitSet) right.last().clone();
+            if (right.nullable()) last.or(left.last());
+            return new Fragment(left.nullable() && right.nullable(), first, last);
+        }
+
+        private void link(BitSet from, BitSet to) {
+            from.stream().forEach(position -> follow.get(position).or(to));
+        }
+    }
+}
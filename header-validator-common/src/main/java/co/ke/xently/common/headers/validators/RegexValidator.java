@@ -1,19 +1,124 @@
 package co.ke.xently.common.headers.validators;
 
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
 
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-public record RegexValidator(@NonNull Pattern pattern) implements HeaderValidator {
-    public RegexValidator(String pattern) {
+/**
+ * Validates that whole values match a pattern.
+ * <p>
+ * Patterns in the subset of the syntax supported by {@link PatternScanner}, which covers the usual header shapes (e.g.
+ * version numbers, codes and URL prefixes), are matched by a compiled scanner, which neither backtracks nor allocates,
+ * in time linear in the length of the value. Others are matched by a {@link Matcher} reused by each thread, unless the
+ * validator was created with {@link Engine#LINEAR}.
+ */
+public final class RegexValidator implements HeaderValidator {
+    public static final String PATTERN_MISMATCH = "PATTERN_MISMATCH";
+
+    public enum Engine {
+        /**
+         * Matches the patterns the scanner supports with it, and the others with {@link java.util.regex}, which may
+         * backtrack.
+         */
+        HYBRID,
+        /**
+         * Only matches patterns with the scanner: patterns it does not support are rejected, so that validation time is
+         * bounded by the length of the value, whatever the pattern.
+         */
+        LINEAR
+    }
+
+    @NonNull
+    private final Pattern pattern;
+    @NonNull
+    private final ValidationResult.Failure mismatch;
+    @Nullable
+    private final PatternScanner scanner;
+    /**
+     * Only set when there is no {@link #scanner}.
+     */
+    @Nullable
+    private final ThreadLocal<Matcher> matchers;
+
+    /**
+     * @throws IllegalArgumentException if {@code engine} is {@link Engine#LINEAR} and the scanner does not support
+     *                                  {@code pattern}.
+     */
+    public RegexValidator(@NonNull Pattern pattern, @NonNull Engine engine) {
+        this.pattern = pattern;
+        this.scanner = switch (engine) {
+            case HYBRID -> PatternScanner.compile(pattern);
+            case LINEAR -> {
+                try {
+                    yield PatternScanner.of(pattern);
+                } catch (PatternScanner.UnsupportedSyntaxException e) {
+                    throw new IllegalArgumentException(
+                            "Pattern '%s' cannot be matched in linear time: %s".formatted(pattern, e.getMessage()), e);
+                }
+            }
+        };
+        this.matchers = scanner == null ? ThreadLocal.withInitial(() -> pattern.matcher("")) : null;
+        this.mismatch = ValidationResult.Failure.of(
+                PATTERN_MISMATCH,
+                "Header value '",
+                "' does not match pattern '%s'".formatted(pattern.pattern())
+        );
+    }
+
+    public RegexValidator(@NonNull Pattern pattern) {
+        this(pattern, Engine.HYBRID);
+    }
+
+    public RegexValidator(@NonNull String pattern) {
         this(Pattern.compile(pattern));
     }
 
+    @NonNull
+    public Pattern pattern() {
+        return pattern;
+    }
+
     @Override
     @NonNull
     public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
-        return pattern.matcher(headerValue).matches()
-                ? new ValidationResult.Success()
-                : new ValidationResult.Failure("Header value '%s' does not match pattern '%s'".formatted(headerValue, pattern.pattern()));
+        if (scanner != null) return scanner.match(headerValue) == PatternScanner.MATCH ? ValidationResult.SUCCESS : mismatch;
+
+        var matcher = matchers.get();
+        try {
+            return matcher.reset(headerValue).matches() ? ValidationResult.SUCCESS : mismatch;
+        } finally {
+            // Not to hold on to the value, which may be sensitive, until the next call on this thread.
+            matcher.reset("");
+        }
+    }
+
+    /**
+     * @return whether the pattern is matched by a compiled scanner rather than by {@link java.util.regex}.
+     */
+    public boolean isCompiled() {
+        return scanner != null;
+    }
+
+    /**
+     * @return why {@link java.util.regex} may backtrack catastrophically on values crafted against the pattern, e.g.
+     * {@code "nested quantifiers in '(a+)+'"}, or {@code null} if the pattern is {@link #isCompiled() compiled} or shows
+     * none of the constructs known to, see {@link BacktrackingAnalysis}.
+     */
+    @Nullable
+    public String backtrackingRisk() {
+        return scanner != null ? null : BacktrackingAnalysis.analyze(pattern);
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PATTERN;
+    }
+
+    @Override
+    public String toString() {
+        return "RegexValidator{pattern='%s'}".formatted(pattern.pattern());
     }
-}
\ No newline at end of file
+}
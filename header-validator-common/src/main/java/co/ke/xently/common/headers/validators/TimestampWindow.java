@@ -0,0 +1,63 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * The timestamps accepted relative to the time of validation, e.g. to reject replayed requests or clients whose clock
+ * is off.
+ *
+ * @param maxAge  how far in the past a timestamp may be, or {@code null} for no limit.
+ * @param maxSkew how far in the future a timestamp may be, or {@code null} for no limit.
+ */
+public record TimestampWindow(@Nullable Duration maxAge, @Nullable Duration maxSkew) {
+    public static final TimestampWindow UNBOUNDED = new TimestampWindow(null, null);
+
+    public static final ValidationResult.Failure TOO_OLD = ValidationResult.Failure.of(
+            "TIMESTAMP_TOO_OLD",
+            "Header value '%s' is older than accepted".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+    public static final ValidationResult.Failure IN_FUTURE = ValidationResult.Failure.of(
+            "TIMESTAMP_IN_FUTURE",
+            "Header value '%s' is further in the future than accepted".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+
+    /**
+     * @throws IllegalArgumentException if a bound is negative or does not fit a {@code long} of milliseconds.
+     */
+    public TimestampWindow {
+        checkBound("maxAge", maxAge);
+        checkBound("maxSkew", maxSkew);
+    }
+
+    private static void checkBound(String name, @Nullable Duration bound) {
+        if (bound == null) return;
+        if (bound.isNegative()) throw new IllegalArgumentException("%s cannot be negative: %s".formatted(name, bound));
+        try {
+            bound.toMillis();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("%s is too long: %s".formatted(name, bound), e);
+        }
+    }
+
+    public boolean isUnbounded() {
+        return maxAge == null && maxSkew == null;
+    }
+
+    /**
+     * @return {@link ValidationResult#SUCCESS}, {@link #TOO_OLD} or {@link #IN_FUTURE}. Allocation-free.
+     */
+    @NonNull
+    public ValidationResult check(long epochMilli, long nowMilli) {
+        // now - maxAge cannot overflow for any now >= 0, but now + maxSkew can, so it saturates.
+        if (maxAge != null && epochMilli < nowMilli - maxAge.toMillis()) return TOO_OLD;
+        if (maxSkew != null) {
+            long skew = maxSkew.toMillis();
+            long latest = skew > Long.MAX_VALUE - nowMilli ? Long.MAX_VALUE : nowMilli + skew;
+            if (epochMilli > latest) return IN_FUTURE;
+        }
+        return ValidationResult.SUCCESS;
+    }
+}
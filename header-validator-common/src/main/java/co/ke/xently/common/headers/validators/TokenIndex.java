@@ -0,0 +1,118 @@
+package co.ke.xently.common.headers.validators;
+
+import co.ke.xently.common.utils.PerfectHash;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Case-insensitive lookup from a region of a value to the index of a token. Up to {@link #MAX_SCANNED} tokens are
+ * scanned, comparing only those of the same length; larger sets are backed by a {@link PerfectHash} built over the
+ * tokens, as {@code HeaderNameIndex} does for header names, since hashing costs more than a few comparisons. Lookups
+ * neither lower-case nor allocate.
+ */
+final class TokenIndex {
+    private static final int MAX_SCANNED = 8;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long seed;
+    /**
+     * {@code null} when {@link #tokens} are scanned.
+     */
+    @Nullable
+    private final PerfectHash hash;
+    /**
+     * Token stored at each slot of {@link #hash}, or the tokens in order when they are scanned.
+     */
+    private final String[] tokens;
+    /**
+     * Index, in the list the index was built from, of the token stored at each slot of {@link #hash}.
+     */
+    private final int[] indices;
+
+    private TokenIndex(long seed, @Nullable PerfectHash hash, String[] tokens, int[] indices) {
+        this.seed = seed;
+        this.hash = hash;
+        this.tokens = tokens;
+        this.indices = indices;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code tokens} is empty, or has a blank token or the same token twice,
+     *                                  compared case-insensitively.
+     */
+    @NonNull
+    static TokenIndex build(@NonNull List<String> tokens) {
+        if (tokens.isEmpty()) throw new IllegalArgumentException("No tokens");
+        if (tokens.stream().anyMatch(String::isBlank)) throw new IllegalArgumentException("Blank token in %s".formatted(tokens));
+        if (tokens.stream().map(token -> token.toLowerCase(Locale.ROOT)).distinct().count() != tokens.size()) {
+            throw new IllegalArgumentException("Duplicate token in %s".formatted(tokens));
+        }
+        if (tokens.size() <= MAX_SCANNED) {
+            return new TokenIndex(0, null, tokens.toArray(String[]::new), IntStream.range(0, tokens.size()).toArray());
+        }
+
+        var hashes = new long[tokens.size()];
+        for (long seed = 0; ; seed++) {
+            for (int i = 0; i < hashes.length; i++) {
+                var token = tokens.get(i);
+                hashes[i] = hash(token, 0, token.length(), seed);
+            }
+            PerfectHash hash;
+            try {
+                hash = PerfectHash.build(hashes);
+            } catch (IllegalArgumentException e) {
+                continue; // Two tokens collided on all 64 bits; try another seed.
+            }
+
+            var slotTokens = new String[hashes.length];
+            var slotIndices = new int[hashes.length];
+            for (int i = 0; i < hashes.length; i++) {
+                int slot = hash.slot(hashes[i]);
+                slotTokens[slot] = tokens.get(i);
+                slotIndices[slot] = i;
+            }
+            return new TokenIndex(seed, hash, slotTokens, slotIndices);
+        }
+    }
+
+    /**
+     * @return the index of the token {@code value} has in {@code [from, to)}, compared case-insensitively, or
+     * {@code -1} if it is none of them.
+     */
+    int indexOf(@NonNull String value, int from, int to) {
+        int length = to - from;
+        if (hash == null) {
+            for (int i = 0; i < tokens.length; i++) {
+                var token = tokens[i];
+                if (token.length() == length && token.regionMatches(true, 0, value, from, length)) return i;
+            }
+            return -1;
+        }
+
+        int slot = hash.slot(hash(value, from, to, seed));
+        var token = tokens[slot];
+        return token.length() == length && token.regionMatches(true, 0, value, from, length) ? indices[slot] : -1;
+    }
+
+    /**
+     * FNV-1a over the lower-cased characters of {@code value} in {@code [from, to)}.
+     */
+    private static long hash(String value, int from, int to, long seed) {
+        long hash = FNV_OFFSET_BASIS ^ seed;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toLowerCase(c);
+            }
+            hash = (hash ^ c) * FNV_PRIME;
+        }
+        return PerfectHash.mix(hash);
+    }
+}
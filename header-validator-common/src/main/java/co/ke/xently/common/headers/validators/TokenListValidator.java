@@ -0,0 +1,111 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+
+/**
+ * Validates comma-separated lists of known tokens, compared case-insensitively, e.g. {@code SMS, EMAIL} for
+ * {@code X-SubscriberEvents}. Spaces and tabs around tokens are ignored, and tokens may repeat, but empty ones are
+ * rejected.
+ * <p>
+ * {@link #toBits(String)} reads a list into a bit set of at most 64 tokens, the bit of each token being its index, so
+ * that handlers can test for tokens without splitting the value again.
+ */
+public final class TokenListValidator implements HeaderValidator {
+    public static final String UNKNOWN_TOKEN = "UNKNOWN_TOKEN";
+    /**
+     * What {@link #toBits(String)} returns for values that are not lists of the tokens.
+     */
+    public static final long INVALID = 0;
+
+    private static final int MAX_TOKENS = Long.SIZE;
+
+    @NonNull
+    private final List<String> tokens;
+    @NonNull
+    private final TokenIndex index;
+    @NonNull
+    private final ValidationResult.Failure unknown;
+
+    /**
+     * @throws IllegalArgumentException if {@code tokens} is empty, has more than 64 tokens, or has a blank token, one
+     *                                  with a comma, or the same token twice, compared case-insensitively.
+     */
+    public TokenListValidator(@NonNull List<String> tokens) {
+        if (tokens.size() > MAX_TOKENS) {
+            throw new IllegalArgumentException("More than %d tokens: %s".formatted(MAX_TOKENS, tokens));
+        }
+        if (tokens.stream().anyMatch(token -> token.indexOf(',') >= 0 || !token.equals(token.strip()))) {
+            throw new IllegalArgumentException("Token with a comma or surrounding whitespace in %s".formatted(tokens));
+        }
+        this.tokens = List.copyOf(tokens);
+        this.index = TokenIndex.build(this.tokens);
+        this.unknown = ValidationResult.Failure.of(
+                UNKNOWN_TOKEN,
+                "Header value '",
+                "' is not a comma-separated list of %s".formatted(this.tokens)
+        );
+    }
+
+    @NonNull
+    public List<String> tokens() {
+        return tokens;
+    }
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        return toBits(headerValue) != INVALID ? ValidationResult.SUCCESS : unknown;
+    }
+
+    /**
+     * @return the bit set of the tokens in {@code value}, bit {@code i} standing for {@code tokens().get(i)}, or
+     * {@link #INVALID} if {@code value} is not a non-empty list of the tokens.
+     */
+    public long toBits(@NonNull String value) {
+        long bits = 0;
+        int length = value.length();
+        int index = 0;
+        do {
+            int from = index;
+            while (from < length && isWhitespace(value.charAt(from))) from++;
+            int comma = from;
+            while (comma < length && value.charAt(comma) != ',') comma++;
+            int to = comma;
+            while (to > from && isWhitespace(value.charAt(to - 1))) to--;
+            if (to == from) return INVALID;
+
+            int token = this.index.indexOf(value, from, to);
+            if (token < 0) return INVALID;
+            bits |= 1L << token;
+            index = comma + 1;
+        } while (index <= length);
+        return bits;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TokenListValidator that && tokens.equals(that.tokens);
+    }
+
+    @Override
+    public int hashCode() {
+        return tokens.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TokenListValidator{tokens=%s}".formatted(tokens);
+    }
+}
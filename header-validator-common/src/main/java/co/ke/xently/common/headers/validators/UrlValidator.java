@@ -0,0 +1,138 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Validates absolute HTTP(S) URLs, e.g. callback URLs, with a single-pass parser of the RFC 3986 syntax:
+ * {@code http[s]://host[:port][/path][?query][#fragment]}, the scheme in either case.
+ * <p>
+ * The host is a non-empty registered name (e.g. {@code example.com} or {@code localhost}) or a bracketed IP literal,
+ * and the port, if any, at most {@code 65535}. Characters outside those the RFC allows in each component, including
+ * spaces and non-ASCII ones, must be percent-encoded. User information ({@code user:password@}) is rejected, as
+ * RFC 9110 forbids it in HTTP(S) URLs.
+ */
+public record UrlValidator() implements HeaderValidator {
+    public static final ValidationResult.Failure INVALID_URL = ValidationResult.Failure.of(
+            "INVALID_URL",
+            "Header value '%s' is not an HTTP(S) URL".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+
+    private static final int MAX_PORT = 65_535;
+
+    /**
+     * The ASCII characters of each class, as a bit per code in two words: {@code [0, 64)} and {@code [64, 128)}.
+     */
+    private static final long[] UNRESERVED = chars("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-._~");
+    private static final long[] SUB_DELIMS = chars("!$&'()*+,;=");
+    private static final long[] REG_NAME = union(UNRESERVED, SUB_DELIMS);
+    private static final long[] PCHAR = union(REG_NAME, chars(":@"));
+    private static final long[] PATH = union(PCHAR, chars("/"));
+    /**
+     * Also those of fragments.
+     */
+    private static final long[] QUERY = union(PATH, chars("?"));
+    private static final long[] IP_LITERAL = chars("0123456789ABCDEFabcdef:.vV" + "-._~!$&'()*+,;=");
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        return isUrl(headerValue) ? ValidationResult.SUCCESS : INVALID_URL;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    private static boolean isUrl(String value) {
+        int length = value.length();
+        int index = scheme(value);
+        if (index < 0) return false;
+
+        // Host
+        if (index < length && value.charAt(index) == '[') {
+            int close = value.indexOf(']', index);
+            if (close < 0 || close == index + 1 || skip(value, index + 1, close, IP_LITERAL) != close) return false;
+            index = close + 1;
+        } else {
+            int end = skip(value, index, length, REG_NAME);
+            if (end < 0 || end == index) return false;
+            index = end;
+        }
+
+        // Port
+        if (index < length && value.charAt(index) == ':') {
+            int port = 0;
+            int start = ++index;
+            for (; index < length && value.charAt(index) >= '0' && value.charAt(index) <= '9'; index++) {
+                port = port * 10 + value.charAt(index) - '0';
+                if (port > MAX_PORT) return false;
+            }
+            if (index == start) return false;
+        }
+
+        // Path, query and fragment
+        if (index < length && value.charAt(index) == '/') {
+            index = skip(value, index, length, PATH);
+            if (index < 0) return false;
+        }
+        if (index < length && value.charAt(index) == '?') {
+            index = skip(value, index + 1, length, QUERY);
+            if (index < 0) return false;
+        }
+        if (index < length && value.charAt(index) == '#') {
+            index = skip(value, index + 1, length, QUERY);
+            if (index < 0) return false;
+        }
+        return index == length;
+    }
+
+    /**
+     * @return the index after {@code http://} or {@code https://}, compared case-insensitively, or {@code -1}.
+     */
+    private static int scheme(String value) {
+        if (!value.regionMatches(true, 0, "http", 0, 4)) return -1;
+
+        int index = 4;
+        if (index < value.length() && (value.charAt(index) | 0x20) == 's') index++;
+        return value.startsWith("://", index) ? index + 3 : -1;
+    }
+
+    /**
+     * @return the index of the first character of {@code value} in {@code [from, to)} that is neither in {@code chars}
+     * nor part of a percent-encoded octet, or {@code -1} if a {@code %} is not followed by two hexadecimal digits.
+     */
+    private static int skip(String value, int from, int to, long[] chars) {
+        int index = from;
+        while (index < to) {
+            char c = value.charAt(index);
+            if (c == '%') {
+                if (index + 2 >= to || !isHex(value.charAt(index + 1)) || !isHex(value.charAt(index + 2))) return -1;
+                index += 3;
+            } else if (c < 128 && (chars[c >>> 6] & 1L << c) != 0) {
+                index++;
+            } else {
+                break;
+            }
+        }
+        return index;
+    }
+
+    private static boolean isHex(char c) {
+        return c >= '0' && c <= '9' || (c | 0x20) >= 'a' && (c | 0x20) <= 'f';
+    }
+
+    private static long[] chars(String chars) {
+        var words = new long[2];
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            words[c >>> 6] |= 1L << c;
+        }
+        return words;
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        return new long[]{a[0] | b[0], a[1] | b[1]};
+    }
+}
@@ -0,0 +1,50 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Validates UUIDs in their canonical, hyphenated form, e.g. {@code 123e4567-e89b-12d3-a456-426614174000}, in either
+ * case. Any version and variant is accepted.
+ */
+public record UuidValidator() implements HeaderValidator {
+    public static final ValidationResult.Failure INVALID_UUID = ValidationResult.Failure.of(
+            "INVALID_UUID",
+            "Header value '%s' is not a UUID".formatted(ValidationResult.Failure.VALUE_PLACEHOLDER)
+    );
+
+    private static final int LENGTH = 36;
+    /**
+     * The hexadecimal digits, as a bit per ASCII code in two words: {@code [0, 64)} and {@code [64, 128)}.
+     */
+    private static final long HEX_LOW = 0x03FF_0000_0000_0000L;
+    private static final long HEX_HIGH = 0x0000_007E_0000_007EL;
+
+    @Override
+    @NonNull
+    public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        return isUuid(headerValue) ? ValidationResult.SUCCESS : INVALID_UUID;
+    }
+
+    @Override
+    @NonNull
+    public ValidationCost cost() {
+        return ValidationCost.PARSE;
+    }
+
+    private static boolean isUuid(String value) {
+        return value.length() == LENGTH
+                && value.charAt(8) == '-' && value.charAt(13) == '-' && value.charAt(18) == '-' && value.charAt(23) == '-'
+                && isHex(value, 0, 8) && isHex(value, 9, 13) && isHex(value, 14, 18) && isHex(value, 19, 23)
+                && isHex(value, 24, LENGTH);
+    }
+
+    private static boolean isHex(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            // Shifts only use the low 6 bits, so c is only compared with the word of its range.
+            long word = c < 64 ? HEX_LOW : c < 128 ? HEX_HIGH : 0;
+            if ((word & 1L << c) == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,37 @@
+package co.ke.xently.common.headers.validators;
+
+/**
+ * Rough, relative cost of running a {@link HeaderValidator}. Rules are evaluated cheapest first so that, in fail-fast
+ * mode, a request is rejected before the expensive validators run.
+ */
+public enum ValidationCost {
+    /**
+     * Only checks that a value is present, e.g. {@link DefaultHeaderValidator}.
+     */
+    PRESENCE(1),
+    /**
+     * Parses the value in a single, bounded pass, e.g. {@link EpochTimestampValidator}.
+     */
+    PARSE(2),
+    /**
+     * Matches the value against a regular expression, e.g. {@link RegexValidator}.
+     */
+    PATTERN(8),
+    /**
+     * Unknown cost; assumed to be the most expensive. This is the default for custom validators.
+     */
+    CUSTOM(32);
+
+    private final int weight;
+
+    ValidationCost(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * @return the cost relative to {@link #PRESENCE}.
+     */
+    public int weight() {
+        return weight;
+    }
+}
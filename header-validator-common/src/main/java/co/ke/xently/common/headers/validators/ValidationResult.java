@@ -4,12 +4,78 @@ import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
 public sealed interface ValidationResult permits ValidationResult.Failure, ValidationResult.Success {
+    /**
+     * {@link Success} carries no state, so validators should return this shared instance instead of allocating.
+     */
+    Success SUCCESS = new Success();
+
     record Success() implements ValidationResult {
     }
 
-    record Failure(@NonNull String errorMessage, @Nullable Throwable cause) implements ValidationResult {
+    /**
+     * A validation failure.
+     * <p>
+     * Validators are expected to pre-build their failures and return the same instance for every rejected value. To
+     * that end {@code errorMessage} is a template: the {@value #VALUE_PLACEHOLDER} at {@code valueIndex} is only
+     * substituted with the offending value by {@link #renderMessage(String)}, when the error response is built. Any
+     * other occurrence, e.g. in a pattern quoted by the message, is left as is.
+     *
+     * @param errorCode    stable, machine-readable identifier of the failure, suitable as a metrics key.
+     * @param errorMessage human-readable message template.
+     * @param valueIndex   the index of the placeholder in {@code errorMessage}, or {@code -1} if it has none. Defaults
+     *                     to its first occurrence; use {@link #of(String, String, String)} when text preceding the
+     *                     placeholder may contain it.
+     */
+    record Failure(
+            @NonNull String errorCode,
+            @NonNull String errorMessage,
+            @Nullable Throwable cause,
+            int valueIndex
+    ) implements ValidationResult {
+        public static final String VALUE_PLACEHOLDER = "{value}";
+        public static final String INVALID_VALUE = "INVALID_VALUE";
+        public static final String MISSING_HEADER = "MISSING_HEADER";
+        public static final String VALUE_TOO_LONG = "VALUE_TOO_LONG";
+
+        public Failure {
+            if (valueIndex != -1 && !errorMessage.startsWith(VALUE_PLACEHOLDER, valueIndex)) {
+                throw new IllegalArgumentException("No placeholder at %d in '%s'".formatted(valueIndex, errorMessage));
+            }
+        }
+
+        public Failure(@NonNull String errorCode, @NonNull String errorMessage, @Nullable Throwable cause) {
+            this(errorCode, errorMessage, cause, errorMessage.indexOf(VALUE_PLACEHOLDER));
+        }
+
         public Failure(@NonNull String errorMessage) {
-            this(errorMessage, null);
+            this(INVALID_VALUE, errorMessage, null);
+        }
+
+        public Failure(@NonNull String errorMessage, @Nullable Throwable cause) {
+            this(INVALID_VALUE, errorMessage, cause);
+        }
+
+        @NonNull
+        public static Failure of(@NonNull String errorCode, @NonNull String errorMessage) {
+            return new Failure(errorCode, errorMessage, null);
+        }
+
+        /**
+         * @return a failure whose message is {@code before}, the placeholder, then {@code after}, e.g. for messages
+         * quoting configured text that may itself contain {@value #VALUE_PLACEHOLDER}.
+         */
+        @NonNull
+        public static Failure of(@NonNull String errorCode, @NonNull String before, @NonNull String after) {
+            return new Failure(errorCode, before + VALUE_PLACEHOLDER + after, null, before.length());
+        }
+
+        @NonNull
+        public String renderMessage(@Nullable String headerValue) {
+            if (headerValue == null || valueIndex < 0) return errorMessage;
+
+            return errorMessage.substring(0, valueIndex)
+                    + headerValue
+                    + errorMessage.substring(valueIndex + VALUE_PLACEHOLDER.length());
         }
     }
 }
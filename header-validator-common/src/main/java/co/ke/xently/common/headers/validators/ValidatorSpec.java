@@ -0,0 +1,166 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates the built-in validators from specs such as {@code integer(min=0, max=100)} or {@code enum(ios, android)},
+ * so that rules can configure them as they would name a validator class or bean:
+ * <ul>
+ *     <li>{@code uuid()}: {@link UuidValidator}</li>
+ *     <li>{@code url()}: {@link UrlValidator}</li>
+ *     <li>{@code integer(min=..., max=...)}: {@link IntegerRangeValidator}, both bounds optional</li>
+ *     <li>{@code length(min=..., max=...)}: {@link LengthValidator}, both bounds optional</li>
+ *     <li>{@code enum(a, b, ...)}: {@link EnumValidator}</li>
+ *     <li>{@code tokens(a, b, ...)}: {@link TokenListValidator}</li>
+ *     <li>{@code epoch-timestamp(unit=..., max-age=..., max-skew=...)}: {@link EpochTimestampValidator}</li>
+ *     <li>{@code iso8601-timestamp(max-age=..., max-skew=...)}: {@link ISO8601TimestampValidator}</li>
+ *     <li>{@code allow-list(file=...)}: {@link AllowListValidator}</li>
+ * </ul>
+ * Names and keys are case-insensitive, and durations are in the format of Spring Boot properties, e.g. {@code 5m}.
+ */
+public final class ValidatorSpec {
+    private ValidatorSpec() {
+    }
+
+    /**
+     * @return the validator {@code source} specifies, or {@code null} if {@code source} is not a spec, i.e. not of the
+     * form {@code name(...)}, such as a class or bean name.
+     * @throws IllegalArgumentException if {@code source} is a spec, but of no built-in validator or with invalid
+     *                                  arguments.
+     */
+    @Nullable
+    public static HeaderValidator parse(@NonNull String source) {
+        var spec = source.strip();
+        int open = spec.indexOf('(');
+        if (open <= 0 || !spec.endsWith(")") || !isName(spec.substring(0, open))) return null;
+
+        var name = spec.substring(0, open).toLowerCase(Locale.ROOT);
+        var body = spec.substring(open + 1, spec.length() - 1);
+        try {
+            return create(name, arguments(body));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid validator spec '%s': %s".formatted(source, e.getMessage()), e);
+        }
+    }
+
+    private static HeaderValidator create(String name, Arguments arguments) {
+        var validator = switch (name) {
+            case "uuid" -> new UuidValidator();
+            case "url" -> new UrlValidator();
+            case "integer" -> new IntegerRangeValidator(
+                    arguments.longValue("min", Long.MIN_VALUE),
+                    arguments.longValue("max", Long.MAX_VALUE)
+            );
+            case "length" -> new LengthValidator(
+                    arguments.intValue("min", 0),
+                    arguments.intValue("max", Integer.MAX_VALUE)
+            );
+            case "enum" -> new EnumValidator(arguments.values());
+            case "tokens" -> new TokenListValidator(arguments.values());
+            case "epoch-timestamp" -> new EpochTimestampValidator(
+                    arguments.unit(),
+                    new TimestampWindow(arguments.duration("max-age"), arguments.duration("max-skew"))
+            );
+            case "iso8601-timestamp" -> new ISO8601TimestampValidator(
+                    new TimestampWindow(arguments.duration("max-age"), arguments.duration("max-skew"))
+            );
+            case "allow-list" -> {
+                var file = Path.of(arguments.required("file"));
+                arguments.checkAllUsed(); // Before it starts watching the file.
+                yield new AllowListValidator(file);
+            }
+            default -> throw new IllegalArgumentException("no built-in validator is named '%s'".formatted(name));
+        };
+        arguments.checkAllUsed();
+        return validator;
+    }
+
+    private static boolean isName(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' && i > 0 || c == '-' && i > 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Arguments arguments(String body) {
+        var named = new LinkedHashMap<String, String>();
+        var values = new ArrayList<String>();
+        if (body.isBlank()) return new Arguments(named, values);
+
+        for (var argument : body.split(",", -1)) {
+            int equals = argument.indexOf('=');
+            if (equals < 0) {
+                values.add(argument.strip());
+            } else if (named.put(argument.substring(0, equals).strip().toLowerCase(Locale.ROOT), argument.substring(equals + 1).strip()) != null) {
+                throw new IllegalArgumentException("'%s' is set twice".formatted(argument.substring(0, equals).strip()));
+            }
+        }
+        return new Arguments(named, values);
+    }
+
+    /**
+     * @param named  the {@code key=value} arguments, by lower-cased key; removed as they are read.
+     * @param values the other arguments.
+     */
+    private record Arguments(Map<String, String> named, List<String> values) {
+        long longValue(String key, long defaultValue) {
+            var value = named.remove(key);
+            if (value == null) return defaultValue;
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("%s '%s' is not an integer".formatted(key, value), e);
+            }
+        }
+
+        int intValue(String key, int defaultValue) {
+            long value = longValue(key, defaultValue);
+            if (value != (int) value) throw new IllegalArgumentException("%s %d is too large".formatted(key, value));
+            return (int) value;
+        }
+
+        String required(String key) {
+            var value = named.remove(key);
+            if (value == null || value.isEmpty()) throw new IllegalArgumentException("%s is required".formatted(key));
+            return value;
+        }
+
+        @Nullable
+        Duration duration(String key) {
+            var value = named.remove(key);
+            return value == null ? null : DurationStyle.detectAndParse(value);
+        }
+
+        EpochTimestampValidator.Unit unit() {
+            var value = named.remove("unit");
+            return value == null
+                    ? EpochTimestampValidator.Unit.SECONDS
+                    : EpochTimestampValidator.Unit.valueOf(value.toUpperCase(Locale.ROOT));
+        }
+
+        @Override
+        public List<String> values() {
+            var values = List.copyOf(this.values);
+            this.values.clear();
+            return values;
+        }
+
+        void checkAllUsed() {
+            if (!named.isEmpty()) throw new IllegalArgumentException("unknown arguments %s".formatted(named.keySet()));
+            if (!values.isEmpty()) throw new IllegalArgumentException("unexpected arguments %s".formatted(values));
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package co.ke.xently.common.utils;
 
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
 import org.springframework.util.StringUtils;
 
 import java.util.function.Consumer;
@@ -10,18 +12,32 @@ public class ElapsedTimeManager {
     public static final String TIMESTAMP_HEADER = "X-TimeStamp";
     public static final String ELAPSED_TIME_HEADER = "X-ElapsedTime";
 
+    /**
+     * The unit of {@link #TIMESTAMP_HEADER}, which should match the one its {@link EpochTimestampValidator} accepts.
+     */
+    @NonNull
+    private final EpochTimestampValidator.Unit unit;
+
+    public ElapsedTimeManager(@NonNull EpochTimestampValidator.Unit unit) {
+        this.unit = unit;
+    }
+
+    public ElapsedTimeManager() {
+        this(EpochTimestampValidator.Unit.SECONDS);
+    }
+
     public void setElapsedTime(String timeStamp, String elapsedTimeHeaderValue, Consumer<String> elapsedTimeConsumer) {
-        try {
-            if (!StringUtils.hasText(elapsedTimeHeaderValue) && timeStamp != null) {
-                var elapsedTime = System.currentTimeMillis() - Long.parseLong(timeStamp) * 1_000;
-                elapsedTimeConsumer.accept(String.valueOf(elapsedTime));
-            }
-        } catch (Exception e) {
+        if (StringUtils.hasText(elapsedTimeHeaderValue) || timeStamp == null) return;
+
+        long startTime = unit.toEpochMilli(timeStamp);
+        if (startTime == EpochTimestampValidator.INVALID) {
             log.error(
                     """
                             An error was encountered while setting elapsed time header.
                             \tStart time: "{}"
-                            \tElapsed time header value: "{}\"""", timeStamp, elapsedTimeHeaderValue, e);
+                            \tElapsed time header value: "{}\"""", timeStamp, elapsedTimeHeaderValue);
+            return;
         }
+        elapsedTimeConsumer.accept(String.valueOf(System.currentTimeMillis() - startTime));
     }
 }
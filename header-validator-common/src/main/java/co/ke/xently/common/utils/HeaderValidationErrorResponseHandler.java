@@ -25,9 +25,9 @@ public class HeaderValidationErrorResponseHandler {
                     var failure = e.getFailure();
                     var errorInfo = ResponsePayload.ErrorInfo.builder()
                             .errorCode(e.getRule().getHeaderName())
-                            .errorDescription(failure.errorMessage())
+                            .errorDescription(e.getErrorMessage())
                             .build();
-                    log.debug("Validation failed for header '{}': {}", errorInfo.errorCode(), errorInfo.errorDescription(), failure.cause());
+                    log.debug("Validation failed for header '{}' [{}]: {}", errorInfo.errorCode(), failure.errorCode(), errorInfo.errorDescription(), failure.cause());
                     return errorInfo;
                 })
                 .toList();
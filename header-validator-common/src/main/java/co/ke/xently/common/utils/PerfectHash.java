@@ -0,0 +1,149 @@
+package co.ke.xently.common.utils;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Minimal perfect hash function over a fixed set of distinct 64-bit key hashes.
+ * <p>
+ * Built with the hash-and-displace scheme: keys are spread over small buckets and each bucket, largest first, is given
+ * the smallest displacement that sends all of its keys to distinct, still free slots. A lookup is one multiply-shift to
+ * find the bucket and one mix to find the slot; it neither branches on the key nor allocates.
+ * <p>
+ * Keys outside the set map to arbitrary slots, so callers must verify that the key stored at the returned slot is the
+ * one they looked up.
+ */
+public final class PerfectHash {
+    private static final int AVERAGE_BUCKET_SIZE = 4;
+    private static final int MAX_DISPLACEMENT = 1 << 24;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int size;
+    private final int[] displacements;
+
+    private PerfectHash(int size, int[] displacements) {
+        this.size = size;
+        this.displacements = displacements;
+    }
+
+    /**
+     * @param hashes well-mixed hashes of the keys, e.g. {@link #mix(long) mixed} FNV-1a hashes.
+     * @throws IllegalArgumentException if two keys share a hash; callers should re-hash with another seed and retry.
+     */
+    @NonNull
+    public static PerfectHash build(@NonNull long[] hashes) {
+        var sorted = hashes.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Duplicate key hash: %d".formatted(sorted[i]));
+            }
+        }
+
+        int size = hashes.length;
+        int bucketCount = Math.max(1, (size + AVERAGE_BUCKET_SIZE - 1) / AVERAGE_BUCKET_SIZE);
+
+        // Counting-sort the keys by bucket...
+        var bucketStarts = new int[bucketCount + 1];
+        for (long hash : hashes) bucketStarts[bucket(hash, bucketCount) + 1]++;
+        int largestBucket = 0;
+        for (int b = 0; b < bucketCount; b++) {
+            largestBucket = Math.max(largestBucket, bucketStarts[b + 1]);
+            bucketStarts[b + 1] += bucketStarts[b];
+        }
+        var keys = new long[size];
+        var fill = Arrays.copyOf(bucketStarts, bucketCount);
+        for (long hash : hashes) keys[fill[bucket(hash, bucketCount)]++] = hash;
+
+        // ...then the buckets by size, largest first, so that they are placed while the table is still empty.
+        var bucketsBySize = new int[bucketCount];
+        var sizeStarts = new int[largestBucket + 2];
+        for (int b = 0; b < bucketCount; b++) sizeStarts[largestBucket - bucketSize(bucketStarts, b) + 1]++;
+        for (int s = 0; s <= largestBucket; s++) sizeStarts[s + 1] += sizeStarts[s];
+        for (int b = 0; b < bucketCount; b++) bucketsBySize[sizeStarts[largestBucket - bucketSize(bucketStarts, b)]++] = b;
+
+        var displacements = new int[bucketCount];
+        var taken = new boolean[size];
+        var slots = new int[largestBucket];
+        for (int bucket : bucketsBySize) {
+            int start = bucketStarts[bucket], length = bucketSize(bucketStarts, bucket);
+            if (length == 0) break;
+
+            displacements[bucket] = place(keys, start, length, size, taken, slots);
+            for (int i = 0; i < length; i++) taken[slots[i]] = true;
+        }
+        return new PerfectHash(size, displacements);
+    }
+
+    private static int place(long[] keys, int start, int length, int size, boolean[] taken, int[] slots) {
+        displacement:
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+            for (int i = 0; i < length; i++) {
+                int slot = slot(keys[start + i], displacement, size);
+                if (taken[slot]) continue displacement;
+                for (int j = 0; j < i; j++) {
+                    if (slots[j] == slot) continue displacement;
+                }
+                slots[i] = slot;
+            }
+            return displacement;
+        }
+        throw new IllegalStateException("Could not place a bucket of %d keys into %d slots".formatted(length, size));
+    }
+
+    private static int bucketSize(int[] bucketStarts, int bucket) {
+        return bucketStarts[bucket + 1] - bucketStarts[bucket];
+    }
+
+    /**
+     * @return the bucket of {@code hash} in a function of {@code bucketCount} buckets. With
+     * {@link #slot(long, int, int)}, looks keys up in a function stored elsewhere, e.g. in a file, from its
+     * {@link #displacement(int) displacements}.
+     */
+    public static int bucket(long hash, int bucketCount) {
+        return (int) (((hash >>> 32) * bucketCount) >>> 32);
+    }
+
+    /**
+     * @return the slot of {@code hash} in a function of {@code size} keys, given the displacement of its bucket.
+     */
+    public static int slot(long hash, int displacement, int size) {
+        return (int) (((mix(hash + displacement * GOLDEN_GAMMA) >>> 32) * size) >>> 32);
+    }
+
+    /**
+     * The 64-bit finalizer of MurmurHash3; spreads every input bit over the whole output.
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * @return the number of keys, which is also the number of slots.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of buckets, i.e. of {@link #displacement(int) displacements}.
+     */
+    public int bucketCount() {
+        return displacements.length;
+    }
+
+    public int displacement(int bucket) {
+        return displacements[bucket];
+    }
+
+    /**
+     * @return a slot in {@code [0, size())}, unique for every key the function was built from. Must not be called on
+     * an empty function.
+     */
+    public int slot(long hash) {
+        return slot(hash, displacements[bucket(hash, displacements.length)], size);
+    }
+}
@@ -1,17 +1,36 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.exceptions.HeaderException;
 import co.ke.xently.common.headers.exceptions.HeadersValidationException;
 import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
 import co.ke.xently.common.headers.exceptions.MissingHeaderException;
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
 import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationCost;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.assertj.core.api.InstanceOfAssertFactories;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -19,19 +38,649 @@ import static org.mockito.Mockito.when;
 class AbstractHeaderValidatorTest {
 
     private static class TestHeaderValidator extends AbstractHeaderValidator {
+        private static final HeaderAccessor<Map<String, String>> MAP_HEADERS = new HeaderAccessor<>() {
+            @Override
+            public String getFirst(@NonNull Map<String, String> headers, @NonNull String headerName) {
+                return headers.get(headerName);
+            }
+
+            @NonNull
+            @Override
+            public Iterator<String> headerNames(@NonNull Map<String, String> headers) {
+                return headers.keySet().iterator();
+            }
+
+            @NonNull
+            @Override
+            public HttpMethod method(@NonNull Map<String, String> headers) {
+                return HttpMethod.GET;
+            }
+        };
+
         TestHeaderValidator(Set<HeaderRule> rules) {
-            super(mockProps(rules));
+            this(rules, null);
+        }
+
+        TestHeaderValidator(Set<HeaderRule> rules, HeaderValidationEngine engine) {
+            this(rules, engine, false);
+        }
+
+        TestHeaderValidator(Set<HeaderRule> rules, HeaderValidationEngine engine, boolean failFast) {
+            super(mockProps(rules, engine, failFast));
         }
 
-        private static HeaderValidationProperties mockProps(Set<HeaderRule> rules) {
+        private static HeaderValidationProperties mockProps(
+                Set<HeaderRule> rules,
+                HeaderValidationEngine engine,
+                boolean failFast) {
             var props = mock(HeaderValidationProperties.class);
             when(props.headers())
                     .thenReturn(rules);
+            when(props.engine())
+                    .thenReturn(engine);
+            when(props.failFast())
+                    .thenReturn(failFast);
             return props;
         }
 
         HeadersValidationException validateAll(Map<String, String> headers) {
-            return createHeadersValidationException(headers::get);
+            return createHeadersValidationException(headers, MAP_HEADERS);
+        }
+
+        HeadersValidationException validateHeaders(Map<String, String> headers) {
+            return validateHeaders(headers, MAP_HEADERS);
+        }
+
+        HeadersValidationException scanHeaders(Map<String, String> headers) {
+            return validateHeaders(headers, MAP_HEADERS);
+        }
+
+        HeadersValidationException validateAgainst(CompiledRules rules, Map<String, String> headers) {
+            return validateHeaders(rules, headers, MAP_HEADERS, RoutePlan.INHERIT, null);
+        }
+
+        HeadersValidationException deferHeaders(Map<String, String> headers, DeferredRules deferred) {
+            return validateHeaders(headers, MAP_HEADERS, RoutePlan.INHERIT, deferred);
+        }
+
+        @Override
+        protected boolean isDeferred(@NonNull HeaderValidator validator) {
+            return validator.isBlocking();
+        }
+    }
+
+    @Nested
+    class validateHeaders {
+        private final TestHeaderValidator validator = new TestHeaderValidator(Set.of(
+                HeaderRule.builder()
+                        .headerName("X-Required")
+                        .required(true)
+                        .build(),
+                HeaderRule.builder()
+                        .headerName("X-Regex")
+                        .required(false)
+                        .validator(new RegexValidator("^v\\d+$"))
+                        .build()
+        ));
+
+        @Test
+        void shouldReturnNullWhenAllHeadersValid() {
+            var actual = validator.validateHeaders(Map.of(
+                    "X-Required", "value",
+                    "X-Regex", "v1"
+            ));
+
+            assertThat(actual)
+                    .isNull();
+        }
+
+        @Test
+        void shouldGatherEveryFailureIntoOneException() {
+            var actual = validator.validateHeaders(Map.of("X-Regex", "bad"));
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isNotNull(),
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .hasSize(2),
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .hasAtLeastOneElementOfType(MissingHeaderException.class)
+                            .hasAtLeastOneElementOfType(InvalidHeaderValueException.class)
+            );
+        }
+
+        @Test
+        void shouldNotCaptureStackTraces() {
+            var actual = validator.validateHeaders(Map.of("X-Regex", "bad"));
+
+            assertAll(
+                    () -> assertThat(actual.getStackTrace())
+                            .isEmpty(),
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .allSatisfy(e -> assertThat(e.getStackTrace()).isEmpty())
+            );
+        }
+    }
+
+    @Nested
+    class singlePassEngine {
+        private static final Set<HeaderRule> RULES = Set.of(
+                HeaderRule.builder()
+                        .headerName("X-Required")
+                        .required(true)
+                        .build(),
+                HeaderRule.builder()
+                        .headerName("X-Regex")
+                        .required(false)
+                        .validator(new RegexValidator("^v\\d+$"))
+                        .build()
+        );
+
+        private final TestHeaderValidator perRule = new TestHeaderValidator(RULES, HeaderValidationEngine.PER_RULE);
+        private final TestHeaderValidator singlePass = new TestHeaderValidator(RULES, HeaderValidationEngine.SINGLE_PASS);
+
+        private record TestCase(Map<String, String> headers) {
+        }
+
+        private static Stream<TestCase> shouldReportTheSameFailuresAsThePerRuleEngine() {
+            return Stream.of(
+                    new TestCase(Map.of()),
+                    new TestCase(Map.of("X-Required", "value")),
+                    new TestCase(Map.of("X-Required", "value", "X-Regex", "v1")),
+                    new TestCase(Map.of("X-Required", "value", "X-Regex", "bad")),
+                    new TestCase(Map.of("X-Regex", "bad")),
+                    new TestCase(Map.of("X-Regex", "v1", "X-Unrelated", "value"))
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldReportTheSameFailuresAsThePerRuleEngine(TestCase testCase) {
+            var expected = perRule.scanHeaders(testCase.headers());
+            var actual = singlePass.scanHeaders(testCase.headers());
+
+            if (expected == null) {
+                assertThat(actual)
+                        .isNull();
+            } else {
+                assertThat(actual)
+                        .isNotNull()
+                        .extracting(HeadersValidationException::getHeaderExceptions)
+                        .asInstanceOf(InstanceOfAssertFactories.list(HeaderException.class))
+                        .extracting(HeaderException::getClass, HeaderException::getRule)
+                        .containsExactlyInAnyOrderElementsOf(
+                                expected.getHeaderExceptions().stream()
+                                        .map(e -> tuple(e.getClass(), e.getRule()))
+                                        .toList()
+                        );
+            }
+        }
+
+        @Test
+        void shouldValidateHeaderNamesDifferingOnlyInCaseOnce() {
+            var headers = new LinkedHashMap<String, String>();
+            headers.put("X-Required", "value");
+            headers.put("x-regex", "bad");
+            headers.put("X-REGEX", "worse");
+
+            var actual = singlePass.scanHeaders(headers);
+
+            assertThat(actual.getHeaderExceptions())
+                    .singleElement()
+                    .isInstanceOf(InvalidHeaderValueException.class);
+        }
+
+        @Test
+        void shouldNotCountDuplicateRequiredHeadersAsOtherRequiredHeaders() {
+            var validator = new TestHeaderValidator(Set.of(
+                    HeaderRule.builder().headerName("X-First").build(),
+                    HeaderRule.builder().headerName("X-Second").build()
+            ), HeaderValidationEngine.SINGLE_PASS);
+            var headers = new LinkedHashMap<String, String>();
+            headers.put("X-First", "value");
+            headers.put("x-first", "value");
+
+            var actual = validator.scanHeaders(headers);
+
+            assertThat(actual.getHeaderExceptions())
+                    .singleElement()
+                    .isInstanceOf(MissingHeaderException.class)
+                    .extracting(e -> e.getRule().getHeaderName())
+                    .isEqualTo("X-Second");
+        }
+
+        @ParameterizedTest
+        @ValueSource(ints = {10, 100, 1_000, 10_000})
+        void shouldOnlyEvaluateRulesForHeadersPresentOnTheRequest(int ruleCount) {
+            var validations = new AtomicInteger();
+            HeaderValidator counting = (name, value) -> {
+                validations.incrementAndGet();
+                return ValidationResult.SUCCESS;
+            };
+            var rules = IntStream.range(0, ruleCount)
+                    .mapToObj(i -> HeaderRule.builder()
+                            .headerName("X-Rule-" + i)
+                            .required(i < 2)
+                            .validator(counting)
+                            .build())
+                    .collect(Collectors.toSet());
+            var validator = new TestHeaderValidator(rules, HeaderValidationEngine.SINGLE_PASS);
+
+            var valid = validator.scanHeaders(Map.of(
+                    "X-Rule-0", "value",
+                    "X-Rule-1", "value",
+                    "X-Rule-" + (ruleCount - 1), "value",
+                    "X-Unrelated", "value"
+            ));
+            int validationsWhenValid = validations.getAndSet(0);
+            var missing = validator.scanHeaders(Map.of(
+                    "X-Rule-0", "value",
+                    "X-Rule-" + (ruleCount / 2), "value"
+            ));
+
+            assertAll(
+                    () -> assertThat(valid)
+                            .isNull(),
+                    () -> assertThat(validationsWhenValid)
+                            .isEqualTo(3),
+                    () -> assertThat(validations)
+                            .hasValue(2),
+                    () -> assertThat(missing.getHeaderExceptions())
+                            .singleElement()
+                            .isInstanceOf(MissingHeaderException.class)
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .isEqualTo("X-Rule-1")
+            );
+        }
+
+        @Test
+        void shouldMatchHeaderNamesCaseInsensitively() {
+            var actual = singlePass.scanHeaders(Map.of(
+                    "x-required", "value",
+                    "X-REGEX", "v2"
+            ));
+
+            assertThat(actual)
+                    .isNull();
+        }
+    }
+
+    @Nested
+    class failFast {
+        private final AtomicInteger cheapCalls = new AtomicInteger();
+        private final AtomicInteger expensiveCalls = new AtomicInteger();
+        private final Set<HeaderRule> rules = Set.of(
+                HeaderRule.builder()
+                        .headerName("X-Cheap")
+                        .validator(rejecting("bad", ValidationCost.PRESENCE, cheapCalls))
+                        .build(),
+                HeaderRule.builder()
+                        .headerName("X-Expensive")
+                        .validator(rejecting("bad", ValidationCost.CUSTOM, expensiveCalls))
+                        .build(),
+                HeaderRule.builder()
+                        .headerName("X-Required")
+                        .build()
+        );
+
+        private static HeaderValidator rejecting(String badValue, ValidationCost cost, AtomicInteger calls) {
+            return new HeaderValidator() {
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    calls.incrementAndGet();
+                    return headerValue.equals(badValue) ? new ValidationResult.Failure("Bad value") : ValidationResult.SUCCESS;
+                }
+
+                @NonNull
+                @Override
+                public ValidationCost cost() {
+                    return cost;
+                }
+            };
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldStopAtTheFirstFailureWithoutRunningExpensiveValidators(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine, true);
+
+            var actual = validator.scanHeaders(Map.of(
+                    "X-Required", "value",
+                    "X-Cheap", "bad",
+                    "X-Expensive", "bad"
+            ));
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .isEqualTo("X-Cheap"),
+                    () -> assertThat(expensiveCalls)
+                            .hasValue(0)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldReportMissingRequiredHeadersBeforeRunningValidators(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine, true);
+
+            var actual = validator.scanHeaders(Map.of(
+                    "X-Cheap", "ok",
+                    "X-Expensive", "bad"
+            ));
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .isInstanceOf(MissingHeaderException.class),
+                    () -> assertThat(expensiveCalls)
+                            .hasValue(0)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldRunTheRuleThatFailsMostOftenFirst(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine, true);
+            var request = Map.of(
+                    "X-Required", "value",
+                    "X-Cheap", "ok",
+                    "X-Expensive", "bad"
+            );
+
+            for (int i = 0; i < AdaptiveRuleOrder.REORDER_INTERVAL; i++) validator.scanHeaders(request);
+            cheapCalls.set(0);
+            var actual = validator.scanHeaders(request);
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .isEqualTo("X-Expensive"),
+                    () -> assertThat(cheapCalls)
+                            .hasValue(0)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldReturnNullWhenAllHeadersValid(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine, true);
+
+            var actual = validator.scanHeaders(Map.of(
+                    "X-Required", "value",
+                    "X-Cheap", "ok",
+                    "X-Expensive", "ok"
+            ));
+
+            assertThat(actual)
+                    .isNull();
+        }
+    }
+
+    @Nested
+    class deferral {
+        private final AtomicInteger blockingCalls = new AtomicInteger();
+        private final Set<HeaderRule> rules = Set.of(
+                HeaderRule.builder()
+                        .headerName("X-Blocking")
+                        .validator(new HeaderValidator() {
+                            @NonNull
+                            @Override
+                            public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                                blockingCalls.incrementAndGet();
+                                return ValidationResult.SUCCESS;
+                            }
+
+                            @Override
+                            public boolean isBlocking() {
+                                return true;
+                            }
+                        })
+                        .build(),
+                HeaderRule.builder()
+                        .headerName("X-Regex")
+                        .validator(new RegexValidator("^v\\d+$"))
+                        .build()
+        );
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldLeaveDeferredRulesToTheCaller(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine);
+            var deferred = new DeferredRules();
+
+            var actual = validator.deferHeaders(Map.of("X-Blocking", "value", "X-Regex", "bad"), deferred);
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .isEqualTo("X-Regex"),
+                    () -> assertThat(deferred.size())
+                            .isEqualTo(1),
+                    () -> assertThat(deferred.rule(0).headerName())
+                            .isEqualTo("X-Blocking"),
+                    () -> assertThat(deferred.value(0))
+                            .isEqualTo("value"),
+                    () -> assertThat(blockingCalls)
+                            .hasValue(0)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldStillReportMissingDeferredHeaders(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine);
+            var deferred = new DeferredRules();
+
+            var actual = validator.deferHeaders(Map.of("X-Regex", "v1"), deferred);
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .isInstanceOf(MissingHeaderException.class),
+                    () -> assertThat(deferred.size())
+                            .isZero()
+            );
+        }
+
+        @Test
+        void shouldEvaluateEveryRuleWhenNotDeferring() {
+            var validator = new TestHeaderValidator(rules);
+
+            var actual = validator.scanHeaders(Map.of("X-Blocking", "value", "X-Regex", "v1"));
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isNull(),
+                    () -> assertThat(blockingCalls)
+                            .hasValue(1)
+            );
+        }
+    }
+
+    @Nested
+    class maxLength {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Set<HeaderRule> rules = Set.of(
+                HeaderRule.builder()
+                        .headerName("X-Limited")
+                        .maxLength(4)
+                        .validator(new HeaderValidator() {
+                            @NonNull
+                            @Override
+                            public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                                calls.incrementAndGet();
+                                return ValidationResult.SUCCESS;
+                            }
+
+                            @Override
+                            public boolean isBlocking() {
+                                return true;
+                            }
+                        })
+                        .build()
+        );
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldRejectLongerValuesWithoutRunningTheValidator(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine);
+
+            var actual = validator.scanHeaders(Map.of("X-Limited", "12345"));
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .extracting(e -> e.getFailure().errorCode(), HeaderException::getErrorMessage)
+                            .containsExactly(ValidationResult.Failure.VALUE_TOO_LONG, "Header value is longer than 4 characters"),
+                    () -> assertThat(calls)
+                            .hasValue(0)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldValidateValuesUpToTheMaximumLength(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine);
+
+            var actual = validator.scanHeaders(Map.of("X-Limited", "1234"));
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isNull(),
+                    () -> assertThat(calls)
+                            .hasValue(1)
+            );
+        }
+
+        @ParameterizedTest
+        @EnumSource(HeaderValidationEngine.class)
+        void shouldRejectLongerValuesRatherThanDeferringThem(HeaderValidationEngine engine) {
+            var validator = new TestHeaderValidator(rules, engine);
+            var deferred = new DeferredRules();
+
+            var actual = validator.deferHeaders(Map.of("X-Limited", "12345"), deferred);
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .singleElement()
+                            .extracting(e -> e.getFailure().errorCode())
+                            .isEqualTo(ValidationResult.Failure.VALUE_TOO_LONG),
+                    () -> assertThat(deferred.size())
+                            .isZero()
+            );
+        }
+
+        @Test
+        void shouldNotCompileNegativeMaximumLengths() {
+            var rules = Set.of(HeaderRule.builder().headerName("X-Limited").maxLength(-1).build());
+
+            assertThrows(IllegalArgumentException.class, () -> new TestHeaderValidator(rules));
+        }
+    }
+
+    @Nested
+    class regexEngine {
+        private static HeaderValidationProperties props(RegexValidator validator, RegexValidator.Engine engine) {
+            var props = TestHeaderValidator.mockProps(
+                    Set.of(HeaderRule.builder().headerName("X-Regex").validator(validator).build()),
+                    null,
+                    false
+            );
+            when(props.regexEngine())
+                    .thenReturn(engine);
+            return props;
+        }
+
+        @Test
+        void shouldNotCompilePatternsMatchedByJavaUtilRegexWithTheLinearEngine() {
+            var props = props(new RegexValidator("(\\w+)\\1"), RegexValidator.Engine.LINEAR);
+
+            var exception = assertThrows(IllegalStateException.class, () -> new AbstractHeaderValidator(props) {
+            });
+
+            assertThat(exception.getMessage())
+                    .startsWith("Header X-Regex: Pattern '(\\w+)\\1' cannot be matched in linear time");
+        }
+
+        @Test
+        void shouldCompilePatternsMatchedByTheScannerWithTheLinearEngine() {
+            var props = props(new RegexValidator("(\\w+\\s?)*"), RegexValidator.Engine.LINEAR);
+
+            assertDoesNotThrow(() -> new AbstractHeaderValidator(props) {
+            });
+        }
+
+        @Test
+        void shouldCompilePatternsMatchedByJavaUtilRegexWithTheHybridEngine() {
+            var props = props(new RegexValidator("(\\w+\\s?)*\\1"), RegexValidator.Engine.HYBRID);
+
+            assertDoesNotThrow(() -> new AbstractHeaderValidator(props) {
+            });
+        }
+    }
+
+    @Nested
+    class reload {
+        private final TestHeaderValidator validator = new TestHeaderValidator(
+                Set.of(HeaderRule.builder().headerName("X-Old").build())
+        );
+
+        private static HeaderValidationProperties props(String headerName, HeaderRoute... routes) {
+            var props = TestHeaderValidator.mockProps(Set.of(HeaderRule.builder().headerName(headerName).build()), null, false);
+            when(props.routes())
+                    .thenReturn(List.of(routes));
+            return props;
+        }
+
+        private static Stream<String> missingHeaders(HeadersValidationException exception) {
+            return exception.getHeaderExceptions().stream().map(e -> e.getRule().getHeaderName());
+        }
+
+        @Test
+        void shouldSwapInTheReloadedRules() {
+            var reloaded = validator.reload(props("X-New"));
+
+            assertAll(
+                    () -> assertThat(reloaded)
+                            .isTrue(),
+                    () -> assertThat(missingHeaders(validator.scanHeaders(Map.of())))
+                            .containsExactly("X-New")
+            );
+        }
+
+        @Test
+        void shouldValidateInFlightRequestsAgainstTheirGeneration() {
+            var inFlight = validator.rules();
+
+            validator.reload(props("X-New"));
+
+            assertAll(
+                    () -> assertThat(missingHeaders(validator.validateAgainst(inFlight, Map.of())))
+                            .containsExactly("X-Old"),
+                    () -> assertThat(missingHeaders(validator.validateAgainst(validator.rules(), Map.of())))
+                            .containsExactly("X-New")
+            );
+        }
+
+        @Test
+        void shouldKeepTheCurrentRulesWhenTheReloadedOnesDoNotCompile() {
+            var current = validator.rules();
+
+            var reloaded = validator.reload(props("X-New", HeaderRoute.builder().paths(List.of("/api/{id")).build()));
+
+            assertAll(
+                    () -> assertThat(reloaded)
+                            .isFalse(),
+                    () -> assertThat(validator.rules())
+                            .isSameAs(current),
+                    () -> assertThat(missingHeaders(validator.scanHeaders(Map.of())))
+                            .containsExactly("X-Old")
+            );
         }
     }
 
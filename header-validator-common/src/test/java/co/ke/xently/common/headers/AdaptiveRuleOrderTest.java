@@ -0,0 +1,89 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class AdaptiveRuleOrderTest {
+    private final ValidationPlan plan = ValidationPlan.compile(List.of(
+            HeaderRule.builder().headerName("X-Presence").build(),
+            HeaderRule.builder().headerName("X-Regex").validator(new RegexValidator("^v\\d+$")).build(),
+            HeaderRule.builder().headerName("X-Custom").validator((name, value) -> ValidationResult.SUCCESS).build()
+    ));
+
+    @Test
+    void shouldStartInPlanOrder() {
+        var snapshot = new AdaptiveRuleOrder(plan).snapshot();
+
+        assertAll(
+                () -> assertThat(snapshot.order())
+                        .containsExactly(0, 1, 2),
+                () -> assertThat(snapshot.ranks())
+                        .containsExactly(0, 1, 2)
+        );
+    }
+
+    @Nested
+    class recordFailure {
+        @Test
+        void shouldMoveFrequentlyFailingRulesFirstAfterEnoughFailures() {
+            var order = new AdaptiveRuleOrder(plan);
+            int custom = plan.indexOf("X-Custom");
+
+            for (int i = 1; i < AdaptiveRuleOrder.REORDER_INTERVAL; i++) order.recordFailure(custom);
+            var before = order.snapshot();
+            order.recordFailure(custom);
+            var after = order.snapshot();
+
+            assertAll(
+                    () -> assertThat(before.order())
+                            .containsExactly(0, 1, 2),
+                    () -> assertThat(after.order())
+                            .containsExactly(custom, 0, 1),
+                    () -> assertThat(after.ranks()[custom])
+                            .isZero()
+            );
+        }
+    }
+
+    @Nested
+    class reorder {
+        @Test
+        void shouldWeighFailuresByCost() {
+            var order = new AdaptiveRuleOrder(plan);
+            int presence = plan.indexOf("X-Presence");
+            int custom = plan.indexOf("X-Custom");
+
+            // 10 failures of a presence check beat 100 failures of a custom validator that costs 32 times as much.
+            for (int i = 0; i < 10; i++) order.recordFailure(presence);
+            for (int i = 0; i < 100; i++) order.recordFailure(custom);
+            order.reorder();
+
+            assertThat(order.snapshot().order())
+                    .containsExactly(presence, custom, plan.indexOf("X-Regex"));
+        }
+
+        @Test
+        void shouldDecayFailureCountsSoThatTheOrderFollowsTraffic() {
+            var order = new AdaptiveRuleOrder(plan);
+            int presence = plan.indexOf("X-Presence");
+            int regex = plan.indexOf("X-Regex");
+
+            for (int i = 0; i < 64; i++) order.recordFailure(regex);
+            order.reorder();
+            for (int i = 0; i < 3; i++) order.reorder();
+            order.recordFailure(presence);
+            order.recordFailure(presence);
+            order.reorder();
+
+            assertThat(order.snapshot().order())
+                    .startsWith(presence, regex);
+        }
+    }
+}
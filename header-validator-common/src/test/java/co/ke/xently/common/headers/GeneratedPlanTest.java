@@ -0,0 +1,196 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.exceptions.HeaderException;
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
+import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
+import co.ke.xently.common.headers.exceptions.MissingHeaderException;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeneratedPlanTest {
+    private static final HeaderAccessor<Map<String, String>> MAP_HEADERS = new HeaderAccessor<>() {
+        @Override
+        public String getFirst(@NonNull Map<String, String> headers, @NonNull String headerName) {
+            return headers.get(headerName);
+        }
+
+        @NonNull
+        @Override
+        public Iterator<String> headerNames(@NonNull Map<String, String> headers) {
+            return headers.keySet().iterator();
+        }
+
+        @NonNull
+        @Override
+        public HttpMethod method(@NonNull Map<String, String> headers) {
+            return HttpMethod.GET;
+        }
+    };
+
+    private static class PrivateValidator implements HeaderValidator {
+        @NonNull
+        @Override
+        public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+            return headerValue.equals("private") ? ValidationResult.SUCCESS : new ValidationResult.Failure("Not private");
+        }
+    }
+
+    /**
+     * One rule per kind of validator class the generated code calls: public, private, anonymous and lambda.
+     */
+    private static final RoutePlan MIXED = RoutePlan.compile(List.of(
+            HeaderRule.builder().headerName("X-Version").validator(new RegexValidator("^v\\d+$")).build(),
+            HeaderRule.builder().headerName("X-Timestamp").required(false).validator(new EpochTimestampValidator()).build(),
+            HeaderRule.builder().headerName("X-Private").validator(new PrivateValidator()).build(),
+            HeaderRule.builder().headerName("X-Anonymous").validator(new HeaderValidator() {
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    return headerValue.length() < 4 ? ValidationResult.SUCCESS : new ValidationResult.Failure("Too long");
+                }
+            }).build(),
+            HeaderRule.builder().headerName("X-Lambda").validator((name, value) -> value.equals(name)
+                    ? ValidationResult.SUCCESS
+                    : new ValidationResult.Failure("Not the name")).build()
+    ));
+
+    private static HeadersValidationException validate(RoutePlan target, Map<String, String> headers) {
+        return GeneratedPlan.generate(target.plan(), validator -> false).validate(target, headers, MAP_HEADERS, null);
+    }
+
+    private static List<HeaderException> loop(RoutePlan target, Map<String, String> headers) {
+        var plan = target.plan();
+        return IntStream.range(0, plan.size())
+                .mapToObj(plan::get)
+                .map(rule -> {
+                    var value = headers.get(rule.headerName());
+                    if (value == null) return rule.required() ? new MissingHeaderException(rule.source()) : null;
+                    return AbstractHeaderValidator.check(rule, rule.validate(value), value);
+                })
+                .filter(failure -> failure != null)
+                .toList();
+    }
+
+    @Nested
+    class generate {
+        @Test
+        void shouldDefineAHiddenClass() {
+            var generated = GeneratedPlan.generate(MIXED.plan(), validator -> false);
+
+            assertThat(generated.getClass())
+                    .matches(Class::isHidden, "is hidden")
+                    .hasPackage(GeneratedPlan.class.getPackageName());
+        }
+
+        @Test
+        void shouldNotGeneratePlansLargerThanTheLimit() {
+            var plan = ValidationPlan.compile(IntStream.rangeClosed(0, GeneratedPlan.MAX_RULES)
+                    .mapToObj(i -> HeaderRule.builder().headerName("X-Header-" + i).build())
+                    .toList());
+
+            assertThat(GeneratedPlan.generate(plan, validator -> false))
+                    .isNull();
+        }
+    }
+
+    @Nested
+    class validate {
+        static Stream<Map<String, String>> shouldReportTheSameFailuresAsTheLoop() {
+            return Stream.of(
+                    Map.of(),
+                    Map.of("X-Version", "v1", "X-Private", "private", "X-Anonymous", "abc", "X-Lambda", "X-Lambda"),
+                    Map.of("X-Version", "1", "X-Timestamp", "yesterday", "X-Private", "public", "X-Anonymous", "abcd"),
+                    Map.of("X-Version", "v1", "X-Lambda", "other")
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldReportTheSameFailuresAsTheLoop(Map<String, String> headers) {
+            var expected = loop(MIXED, headers);
+
+            var actual = validate(MIXED, headers);
+
+            if (expected.isEmpty()) {
+                assertThat(actual)
+                        .isNull();
+            } else {
+                assertThat(actual.getHeaderExceptions())
+                        .extracting(e -> e.getClass(), e -> e.getRule().getHeaderName(), HeaderException::getMessage)
+                        .containsExactlyElementsOf(expected.stream()
+                                .map(e -> tuple(e.getClass(), e.getRule().getHeaderName(), e.getMessage()))
+                                .toList());
+            }
+        }
+
+        @Test
+        void shouldAddDeferrableRulesToTheDeferredOnes() {
+            var generated = GeneratedPlan.generate(MIXED.plan(), validator -> validator instanceof PrivateValidator);
+            var deferred = new DeferredRules();
+
+            var actual = generated.validate(MIXED, Map.of("X-Private", "public"), MAP_HEADERS, deferred);
+
+            assertAll(
+                    () -> assertThat(actual.getHeaderExceptions())
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .doesNotContain("X-Private"),
+                    () -> assertThat(deferred.size())
+                            .isEqualTo(1),
+                    () -> assertThat(deferred.rule(0).headerName())
+                            .isEqualTo("X-Private"),
+                    () -> assertThat(deferred.value(0))
+                            .isEqualTo("public")
+            );
+        }
+    }
+
+    @Nested
+    class check {
+        @Test
+        void shouldEvaluateOnlyTheGivenRule() {
+            var generated = GeneratedPlan.generate(MIXED.plan(), validator -> false);
+            var headers = Map.of("X-Version", "1");
+            int version = MIXED.plan().indexOf("X-Version");
+            int timestamp = MIXED.plan().indexOf("X-Timestamp");
+            int lambda = MIXED.plan().indexOf("X-Lambda");
+
+            assertAll(
+                    () -> assertThat(generated.check(MIXED, headers, MAP_HEADERS, null, version))
+                            .isInstanceOf(InvalidHeaderValueException.class),
+                    () -> assertThat(generated.check(MIXED, headers, MAP_HEADERS, null, timestamp))
+                            .isNull(),
+                    () -> assertThat(generated.check(MIXED, headers, MAP_HEADERS, null, lambda))
+                            .isInstanceOf(MissingHeaderException.class)
+                            .extracting(e -> e.getRule().getHeaderName())
+                            .isEqualTo("X-Lambda")
+            );
+        }
+
+        @Test
+        void shouldRejectIndicesOutsideThePlan() {
+            var generated = GeneratedPlan.generate(MIXED.plan(), validator -> false);
+
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> generated.check(MIXED, Map.of(), MAP_HEADERS, null, MIXED.plan().size()));
+        }
+    }
+}
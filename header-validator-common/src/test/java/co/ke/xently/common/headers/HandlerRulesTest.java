@@ -0,0 +1,118 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class HandlerRulesTest {
+    private static final Set<HeaderRule> HEADERS = Set.of(
+            HeaderRule.builder().headerName("X-Global").build(),
+            HeaderRule.builder().headerName("X-Channel").build()
+    );
+
+    private static RoutePlan compile(Class<?> type, String method) throws NoSuchMethodException {
+        Method handler = type.getDeclaredMethod(method);
+        return HandlerRules.compile(handler, type, HEADERS);
+    }
+
+    @RequireHeaders(value = @RequireHeaders.Header(name = "X-Tenant"), exclude = "X-Channel")
+    static class AnnotatedController {
+        void inherited() {
+        }
+
+        @RequireHeaders({
+                @RequireHeaders.Header(name = "X-Global", required = false),
+                @RequireHeaders.Header(name = "X-TimeStamp", validator = EpochTimestampValidator.class, maxLength = 13)
+        })
+        void annotated() {
+        }
+
+        @SkipHeaderValidation
+        void skipped() {
+        }
+    }
+
+    @SkipHeaderValidation
+    static class SkippedController {
+        void skipped() {
+        }
+
+        @RequireHeaders(@RequireHeaders.Header(name = "X-Tenant"))
+        void annotated() {
+        }
+    }
+
+    static class PlainController {
+        void plain() {
+        }
+    }
+
+    @Nested
+    class compile {
+        @Test
+        void shouldInheritRulesOfHandlersWithoutAnnotations() throws NoSuchMethodException {
+            assertThat(compile(PlainController.class, "plain"))
+                    .isSameAs(RoutePlan.INHERIT);
+        }
+
+        @Test
+        void shouldApplyClassAnnotationsOnTopOfConfiguredRules() throws NoSuchMethodException {
+            var plan = compile(AnnotatedController.class, "inherited").plan();
+
+            assertAll(
+                    () -> assertThat(plan.indexOf("X-Tenant"))
+                            .isNotNegative(),
+                    () -> assertThat(plan.indexOf("X-Global"))
+                            .isNotNegative(),
+                    () -> assertThat(plan.indexOf("X-Channel"))
+                            .isNegative()
+            );
+        }
+
+        @Test
+        void shouldLetMethodRulesOverrideClassAndConfiguredOnes() throws NoSuchMethodException {
+            var plan = compile(AnnotatedController.class, "annotated").plan();
+
+            assertAll(
+                    () -> assertThat(plan.get(plan.indexOf("X-Global")).required())
+                            .isFalse(),
+                    () -> assertThat(plan.get(plan.indexOf("X-TimeStamp")).validator())
+                            .isInstanceOf(EpochTimestampValidator.class),
+                    () -> assertThat(plan.get(plan.indexOf("X-TimeStamp")).maxLength())
+                            .isEqualTo(13),
+                    () -> assertThat(plan.indexOf("X-Tenant"))
+                            .isNotNegative(),
+                    () -> assertThat(plan.indexOf("X-Channel"))
+                            .isNegative()
+            );
+        }
+
+        @Test
+        void shouldSkipValidationWhenTheMethodOrItsClassSaysSo() throws NoSuchMethodException {
+            assertAll(
+                    () -> assertThat(compile(AnnotatedController.class, "skipped"))
+                            .isSameAs(RoutePlan.SKIP),
+                    () -> assertThat(compile(SkippedController.class, "skipped"))
+                            .isSameAs(RoutePlan.SKIP)
+            );
+        }
+
+        @Test
+        void shouldLetMethodRulesOverrideASkippedClass() throws NoSuchMethodException {
+            var plan = compile(SkippedController.class, "annotated");
+
+            assertAll(
+                    () -> assertThat(plan)
+                            .isNotIn(RoutePlan.SKIP, RoutePlan.INHERIT),
+                    () -> assertThat(plan.plan().indexOf("X-Tenant"))
+                            .isNotNegative()
+            );
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.lang.NonNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class HeaderRulesReloaderTest {
+    private static final String HEADER_NAME = HeaderValidationProperties.PREFIX + ".headers[0].header-name";
+
+    private final StandardEnvironment environment = new StandardEnvironment();
+    private final Map<String, Object> properties = new HashMap<>(Map.of(HEADER_NAME, "X-Old"));
+    private final TestHeaderValidator validator = new TestHeaderValidator();
+    private HeaderRulesReloader reloader;
+
+    {
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+    }
+
+    private static class TestHeaderValidator extends AbstractHeaderValidator {
+        TestHeaderValidator() {
+            super(new HeaderValidationProperties(Set.of()));
+        }
+
+        Set<String> headerNames() {
+            return rules().headers().stream().map(HeaderRule::getHeaderName).collect(Collectors.toSet());
+        }
+    }
+
+    private HeaderRulesReloader reloader(Path file) {
+        reloader = new HeaderRulesReloader(
+                environment,
+                source -> source.startsWith("^") ? new RegexValidator(source) : new DefaultHeaderValidator(),
+                new HeaderRulesReloadProperties(file, Duration.ofMillis(50)),
+                List.of(validator)
+        );
+        return reloader;
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (reloader != null) reloader.destroy();
+    }
+
+    @Nested
+    class reload {
+        @Test
+        void shouldRebindTheRulesFromTheEnvironment() throws Exception {
+            var reloader = reloader(null);
+            properties.put(HEADER_NAME, "X-New");
+
+            var reloaded = reloader.reload().get(10, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(reloaded)
+                            .isTrue(),
+                    () -> assertThat(validator.headerNames())
+                            .contains("X-New")
+                            .doesNotContain("X-Old")
+            );
+        }
+
+        @Test
+        void shouldConvertValidatorsWithTheGivenConverter() throws Exception {
+            var reloader = reloader(null);
+            properties.put(HeaderValidationProperties.PREFIX + ".headers[0].validator", "^v\\d+$");
+
+            reloader.reload().get(10, TimeUnit.SECONDS);
+
+            assertThat(validator.rules().headers())
+                    .filteredOn(rule -> rule.getHeaderName().equals("X-Old"))
+                    .singleElement()
+                    .extracting(HeaderRule::getValidator)
+                    .isInstanceOf(RegexValidator.class);
+        }
+
+        @Test
+        void shouldKeepTheCurrentRulesWhenTheReloadedOnesDoNotCompile() throws Exception {
+            var reloader = reloader(null);
+            reloader.reload().get(10, TimeUnit.SECONDS);
+            var current = validator.rules();
+            properties.put(HeaderValidationProperties.PREFIX + ".routes[0].paths[0]", "/api/{id");
+
+            var reloaded = reloader.reload().get(10, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(reloaded)
+                            .isFalse(),
+                    () -> assertThat(validator.rules())
+                            .isSameAs(current)
+            );
+        }
+    }
+
+    @Nested
+    class supportsEventType {
+        @Test
+        void shouldOnlyListenToEnvironmentChanges() {
+            assertThat(reloader(null).supportsEventType(ApplicationEvent.class))
+                    .isFalse();
+        }
+    }
+
+    @Nested
+    class afterSingletonsInstantiated {
+        @TempDir
+        Path directory;
+
+        @Test
+        void shouldLoadTheRulesFileAndReloadItWhenItChanges() throws Exception {
+            var file = directory.resolve("header-rules.properties");
+            Files.writeString(file, HEADER_NAME + "=X-File\n");
+            var reloader = reloader(file);
+
+            reloader.afterSingletonsInstantiated();
+            var loaded = validator.headerNames();
+            Files.writeString(file, HEADER_NAME + "=X-Changed\n");
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!validator.headerNames().contains("X-Changed") && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertAll(
+                    () -> assertThat(loaded)
+                            .contains("X-File")
+                            .doesNotContain("X-Old"),
+                    () -> assertThat(validator.headerNames())
+                            .contains("X-Changed")
+                            .doesNotContain("X-File")
+            );
+        }
+
+        /**
+         * Lays the directory out as Kubernetes mounts a config map, then updates it the same way: {@code ..data} is
+         * re-pointed at a new directory, while {@code header-rules.properties} remains a symlink to
+         * {@code ..data/header-rules.properties}.
+         */
+        @Test
+        void shouldReloadTheRulesFileWhenAConfigMapSwapsItsDataSymlink() throws Exception {
+            var first = Files.createDirectory(directory.resolve("..2026_01_01_00_00_00.1"));
+            Files.writeString(first.resolve("header-rules.properties"), HEADER_NAME + "=X-File\n");
+            Files.createSymbolicLink(directory.resolve("..data"), first.getFileName());
+            var file = Files.createSymbolicLink(
+                    directory.resolve("header-rules.properties"),
+                    Path.of("..data", "header-rules.properties")
+            );
+            reloader(file).afterSingletonsInstantiated();
+
+            var second = Files.createDirectory(directory.resolve("..2026_01_01_00_01_00.2"));
+            Files.writeString(second.resolve("header-rules.properties"), HEADER_NAME + "=X-Changed\n");
+            var swap = Files.createSymbolicLink(directory.resolve("..data_tmp"), second.getFileName());
+            Files.move(swap, directory.resolve("..data"), StandardCopyOption.ATOMIC_MOVE);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (!validator.headerNames().contains("X-Changed") && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(validator.headerNames())
+                    .contains("X-Changed")
+                    .doesNotContain("X-File");
+        }
+
+        @Test
+        void shouldDoNothingWithoutARulesFile() {
+            reloader(null).afterSingletonsInstantiated();
+
+            assertThat(validator.headerNames())
+                    .doesNotContain("X-Old");
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.validators.CoalescingHeaderValidator;
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
 import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.GuardedHeaderValidator;
+import co.ke.xently.common.headers.validators.ISO8601TimestampValidator;
+import co.ke.xently.common.headers.validators.IntegerRangeValidator;
+import co.ke.xently.common.headers.validators.MemoizingHeaderValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.TimestampWindow;
+import co.ke.xently.common.headers.validators.UrlValidator;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -9,12 +17,15 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpMethod;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class HeaderValidationPropertiesTest {
 
@@ -34,7 +45,27 @@ class HeaderValidationPropertiesTest {
                 () -> assertThat(actual)
                         .contains(HeaderRule.builder().headerName("X-ChannelCode").build()),
                 () -> assertThat(actual)
-                        .contains(HeaderRule.builder().headerName("X-CallBackURL").build())
+                        .contains(HeaderRule.builder().headerName("X-CallBackURL").build()),
+                () -> assertThat(actual)
+                        .filteredOn(headerRule -> headerRule.getHeaderName().equals("X-CallBackURL"))
+                        .singleElement()
+                        .extracting(HeaderRule::getValidator)
+                        .isInstanceOf(UrlValidator.class)
+        );
+    }
+
+    @Test
+    void getHeaders_returnsTheSameUnmodifiableRulesOnEveryCall() {
+        var props = new HeaderValidationProperties(Set.of());
+
+        var first = props.headers();
+        var second = props.headers();
+
+        assertAll(
+                () -> assertThat(second)
+                        .isSameAs(first),
+                () -> assertThrows(UnsupportedOperationException.class,
+                        () -> first.add(HeaderRule.builder().headerName("X-Custom").build()))
         );
     }
 
@@ -95,6 +126,270 @@ class HeaderValidationPropertiesTest {
             });
         }
 
+        @Test
+        void shouldBindBuiltInValidatorSpecs() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.headers.[0].header-name=X-Custom-Header",
+                    "xently.api.headers.validation.headers.[0].validator=integer(min=0, max=10)"
+            ).run(context -> {
+                var customHeader = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-Custom-Header"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertAll(
+                        () -> assertThat(customHeader.getValidator())
+                                .isEqualTo(new IntegerRangeValidator(0, 10)),
+                        () -> assertThat(customHeader.validate("11"))
+                                .isInstanceOf(ValidationResult.Failure.class)
+                );
+            });
+        }
+
+        @Test
+        void shouldBindEngineAndFailFast() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.engine=single-pass",
+                    "xently.api.headers.validation.fail-fast=true"
+            ).run(context -> {
+                var properties = context.getBean(HeaderValidationProperties.class);
+
+                assertAll(
+                        () -> assertThat(properties.engine())
+                                .isEqualTo(HeaderValidationEngine.SINGLE_PASS),
+                        () -> assertThat(properties.failFast())
+                                .isTrue(),
+                        () -> assertThat(properties.parallel())
+                                .isFalse()
+                );
+            });
+        }
+
+        @Test
+        void shouldBindMaxLengthAndRegexEngine() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.regex-engine=linear",
+                    "xently.api.headers.validation.headers.[0].header-name=X-Custom-Header",
+                    "xently.api.headers.validation.headers.[0].max-length=64"
+            ).run(context -> {
+                var properties = context.getBean(HeaderValidationProperties.class);
+
+                assertAll(
+                        () -> assertThat(properties.regexEngine())
+                                .isEqualTo(RegexValidator.Engine.LINEAR),
+                        () -> assertThat(properties.headers())
+                                .filteredOn(headerRule -> headerRule.getHeaderName().equals("X-Custom-Header"))
+                                .singleElement()
+                                .extracting(HeaderRule::getMaxLength)
+                                .isEqualTo(64)
+                );
+            });
+        }
+
+        @Test
+        void shouldDefaultToTheHybridRegexEngineAndUnlimitedLengths() {
+            var properties = new HeaderValidationProperties(Set.of());
+
+            assertAll(
+                    () -> assertThat(properties.regexEngine())
+                            .isEqualTo(RegexValidator.Engine.HYBRID),
+                    () -> assertThat(properties.headers())
+                            .extracting(HeaderRule::getMaxLength)
+                            .containsOnly(HeaderRule.UNLIMITED)
+            );
+        }
+
+        @Test
+        void shouldBindTheTimestampUnitAndWindow() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.timestamp.unit=milliseconds",
+                    "xently.api.headers.validation.timestamp.max-age=5m",
+                    "xently.api.headers.validation.timestamp.max-skew=30s"
+            ).run(context -> {
+                var rule = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-TimeStamp"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertThat(rule.getValidator())
+                        .isEqualTo(new EpochTimestampValidator(
+                                EpochTimestampValidator.Unit.MILLISECONDS,
+                                new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30))
+                        ));
+            });
+        }
+
+        @Test
+        void shouldBindTheIso8601TimestampFormat() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.timestamp.format=iso-8601",
+                    "xently.api.headers.validation.timestamp.max-skew=1m"
+            ).run(context -> {
+                var rule = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-TimeStamp"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertThat(rule.getValidator())
+                        .isEqualTo(new ISO8601TimestampValidator(new TimestampWindow(null, Duration.ofMinutes(1))));
+            });
+        }
+
+        @Test
+        void shouldDefaultToUnboundedEpochSeconds() {
+            var rule = new HeaderValidationProperties(Set.of())
+                    .headers()
+                    .stream()
+                    .filter(headerRule -> headerRule.getHeaderName().equals("X-TimeStamp"))
+                    .findFirst()
+                    .orElseThrow();
+
+            assertAll(
+                    () -> assertThat(rule.isRequired())
+                            .isFalse(),
+                    () -> assertThat(rule.getValidator())
+                            .isEqualTo(new EpochTimestampValidator())
+            );
+        }
+
+        @Test
+        void shouldBindParallel() {
+            runner.withPropertyValues("xently.api.headers.validation.parallel=true").run(context -> assertThat(
+                    context.getBean(HeaderValidationProperties.class).parallel()
+            ).isTrue());
+        }
+
+        @Test
+        void shouldBindRuleCaches() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.headers.[0].header-name=X-ChannelCode",
+                    "xently.api.headers.validation.headers.[0].cache.maximum-size=50",
+                    "xently.api.headers.validation.headers.[0].cache.ttl=5m",
+                    "xently.api.headers.validation.headers.[0].cache.failure-ttl=0s"
+            ).run(context -> {
+                var rule = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-ChannelCode"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertAll(
+                        () -> assertThat(rule.getCache().isEnabled())
+                                .isTrue(),
+                        () -> assertThat(rule.getCache().getMaximumSize())
+                                .isEqualTo(50),
+                        () -> assertThat(rule.getCache().getTtl())
+                                .isEqualTo(Duration.ofMinutes(5)),
+                        () -> assertThat(rule.getCache().getFailureTtl())
+                                .isZero(),
+                        () -> assertThat(rule.compileValidator())
+                                .isInstanceOf(MemoizingHeaderValidator.class)
+                );
+            });
+        }
+
+        @Test
+        void shouldBindRuleCoalescing() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.headers.[0].header-name=X-ChannelCode",
+                    "xently.api.headers.validation.headers.[0].coalesce=true"
+            ).run(context -> {
+                var rule = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-ChannelCode"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertAll(
+                        () -> assertThat(rule.isCoalesce())
+                                .isTrue(),
+                        () -> assertThat(rule.compileValidator())
+                                .isInstanceOf(CoalescingHeaderValidator.class)
+                );
+            });
+        }
+
+        @Test
+        void shouldBindRuleGuards() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.headers.[0].header-name=X-ChannelCode",
+                    "xently.api.headers.validation.headers.[0].guard.timeout=200ms",
+                    "xently.api.headers.validation.headers.[0].guard.failure-mode=fail-open",
+                    "xently.api.headers.validation.headers.[0].guard.failure-threshold=3",
+                    "xently.api.headers.validation.headers.[0].guard.open-duration=10s"
+            ).run(context -> {
+                var rule = context.getBean(HeaderValidationProperties.class)
+                        .headers()
+                        .stream()
+                        .filter(headerRule -> headerRule.getHeaderName().equals("X-ChannelCode"))
+                        .findFirst()
+                        .orElseThrow();
+
+                assertAll(
+                        () -> assertThat(rule.getGuard().getTimeout())
+                                .isEqualTo(Duration.ofMillis(200)),
+                        () -> assertThat(rule.getGuard().getFailureMode())
+                                .isEqualTo(GuardedHeaderValidator.FailureMode.FAIL_OPEN),
+                        () -> assertThat(rule.getGuard().getFailureThreshold())
+                                .isEqualTo(3),
+                        () -> assertThat(rule.getGuard().getOpenDuration())
+                                .isEqualTo(Duration.ofSeconds(10)),
+                        () -> assertThat(rule.compileValidator())
+                                .isInstanceOf(GuardedHeaderValidator.class)
+                );
+            });
+        }
+
+        @Test
+        void shouldBindRoutes() {
+            runner.withPropertyValues(
+                    "xently.api.headers.validation.routes.[0].paths=/actuator/**",
+                    "xently.api.headers.validation.routes.[0].skip=true",
+                    "xently.api.headers.validation.routes.[1].paths=/api/**,/v2/api/**",
+                    "xently.api.headers.validation.routes.[1].methods=POST,PUT",
+                    "xently.api.headers.validation.routes.[1].headers.[0].header-name=X-Idempotency-Key"
+            ).run(context -> {
+                var routes = context.getBean(HeaderValidationProperties.class).routes();
+
+                assertAll(
+                        () -> assertThat(routes)
+                                .hasSize(2),
+                        () -> assertThat(routes.get(0).isSkip())
+                                .isTrue(),
+                        () -> assertThat(routes.get(1).getPaths())
+                                .containsExactly("/api/**", "/v2/api/**"),
+                        () -> assertThat(routes.get(1).getMethods())
+                                .containsExactlyInAnyOrder(HttpMethod.POST, HttpMethod.PUT),
+                        () -> assertThat(routes.get(1).getHeaders())
+                                .singleElement()
+                                .extracting(HeaderRule::getHeaderName)
+                                .isEqualTo("X-Idempotency-Key")
+                );
+            });
+        }
+
+        @Test
+        void shouldDefaultToPerRuleEngineAndReportingEveryFailure() {
+            runner.run(context -> {
+                var properties = context.getBean(HeaderValidationProperties.class);
+
+                assertAll(
+                        () -> assertThat(properties.engine())
+                                .isEqualTo(HeaderValidationEngine.PER_RULE),
+                        () -> assertThat(properties.failFast())
+                                .isFalse()
+                );
+            });
+        }
+
         @ParameterizedTest
         @MethodSource
         void shouldDefaultToRequiredAndDefaultValidator(TestCase testCase) {
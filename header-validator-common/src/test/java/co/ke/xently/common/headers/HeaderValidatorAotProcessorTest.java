@@ -0,0 +1,241 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.aot.generate.GeneratedMethods;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.generate.MethodReference;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.AotServices;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationCode;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.javapoet.ClassName;
+import org.springframework.lang.NonNull;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class HeaderValidatorAotProcessorTest {
+    @TempDir
+    Path directory;
+
+    private static final String PREFIX = HeaderValidationProperties.PREFIX;
+
+    private static StandardEnvironment environment(Map<String, Object> properties) {
+        var environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("test", properties));
+        return environment;
+    }
+
+    private static DefaultListableBeanFactory beanFactory(Map<String, Object> properties) {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environment", environment(properties));
+        return beanFactory;
+    }
+
+    private static class Initializers extends ArrayList<MethodReference> implements BeanFactoryInitializationCode {
+        @NonNull
+        @Override
+        public GeneratedMethods getMethods() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void addInitializer(@NonNull MethodReference methodReference) {
+            add(methodReference);
+        }
+    }
+
+    private record Processed(DefaultGenerationContext context, InMemoryGeneratedFiles files, Initializers initializers) {
+    }
+
+    private static Processed process(DefaultListableBeanFactory beanFactory) {
+        var files = new InMemoryGeneratedFiles();
+        var context = new DefaultGenerationContext(new ClassNameGenerator(ClassName.get("com.example", "App")), files);
+        var initializers = new Initializers();
+
+        var contribution = new HeaderValidatorAotProcessor().processAheadOfTime(beanFactory);
+        if (contribution != null) contribution.applyTo(context, initializers);
+        context.writeGeneratedContent();
+        return new Processed(context, files, initializers);
+    }
+
+    /**
+     * Compiles the generated sources and defines them in this package, as the generated code calls package-private
+     * types.
+     */
+    private Class<?> compile(InMemoryGeneratedFiles files) throws Exception {
+        var sources = directory.resolve("src");
+        var classes = directory.resolve("classes");
+        Files.createDirectories(classes);
+        var paths = new ArrayList<String>();
+        for (var entry : files.getGeneratedFiles(GeneratedFiles.Kind.SOURCE).entrySet()) {
+            var file = sources.resolve(entry.getKey());
+            Files.createDirectories(file.getParent());
+            try (var content = entry.getValue().getInputStream()) {
+                Files.write(file, content.readAllBytes());
+            }
+            paths.add(file.toString());
+        }
+        assertThat(paths)
+                .hasSize(1);
+
+        var classPath = String.join(File.pathSeparator,
+                location(AotHeaderValidators.class),
+                location(DefaultListableBeanFactory.class),
+                location(NonNull.class)
+        );
+        var arguments = new ArrayList<>(List.of("-classpath", classPath, "-d", classes.toString(), "-proc:none"));
+        arguments.addAll(paths);
+        assertThat(ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(String[]::new)))
+                .isZero();
+
+        try (var compiled = Files.walk(classes)) {
+            var file = compiled.filter(path -> path.toString().endsWith(".class")).findFirst().orElseThrow();
+            return MethodHandles.lookup().defineClass(Files.readAllBytes(file));
+        }
+    }
+
+    private static String location(Class<?> type) throws Exception {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    public static class PrivateConstructorValidator implements HeaderValidator {
+        private PrivateConstructorValidator() {
+        }
+
+        @NonNull
+        @Override
+        public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+            return ValidationResult.SUCCESS;
+        }
+    }
+
+    @RequireHeaders(@RequireHeaders.Header(name = "X-Tenant", validator = EpochTimestampValidator.class))
+    static class AnnotatedController {
+        @RequireHeaders(@RequireHeaders.Header(name = "X-Private", validator = PrivateConstructorValidator.class))
+        void handle() {
+        }
+    }
+
+    @Nested
+    class configuredValidators {
+        @Test
+        void shouldReturnTheValidatorsOfEveryRule() {
+            var environment = environment(Map.of(
+                    PREFIX + ".headers[0].validator", EpochTimestampValidator.class.getName(),
+                    PREFIX + ".headers[1].header-name", "X-Other",
+                    PREFIX + ".routes[0].headers[0].validator", " tenantValidator ",
+                    "other.validator", DefaultHeaderValidator.class.getName()
+            ));
+
+            var actual = HeaderValidatorAotProcessor.configuredValidators(environment);
+
+            assertThat(actual)
+                    .containsExactlyInAnyOrder(EpochTimestampValidator.class.getName(), "tenantValidator");
+        }
+    }
+
+    @Nested
+    class processAheadOfTime {
+        @Test
+        void shouldBeLoadedFromAotFactories() {
+            assertThat(AotServices.factories().load(BeanFactoryInitializationAotProcessor.class))
+                    .hasAtLeastOneElementOfType(HeaderValidatorAotProcessor.class);
+        }
+
+        @Test
+        void shouldContributeNothingWithoutValidators() {
+            assertThat(new HeaderValidatorAotProcessor().processAheadOfTime(beanFactory(Map.of())))
+                    .isNull();
+        }
+
+        @Test
+        void shouldRegisterTheConfiguredAndAnnotatedValidatorsForReflection() {
+            var beanFactory = beanFactory(Map.of(
+                    PREFIX + ".headers[0].validator", DefaultHeaderValidator.class.getName(),
+                    PREFIX + ".headers[1].validator", "tenantValidator"
+            ));
+            beanFactory.registerBeanDefinition("controller", new RootBeanDefinition(AnnotatedController.class));
+
+            var hints = process(beanFactory).context().getRuntimeHints();
+
+            assertAll(
+                    () -> assertThat(RuntimeHintsPredicates.reflection()
+                            .onType(DefaultHeaderValidator.class)
+                            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                            .accepts(hints),
+                    () -> assertThat(RuntimeHintsPredicates.reflection()
+                            .onType(EpochTimestampValidator.class)
+                            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                            .accepts(hints),
+                    () -> assertThat(RuntimeHintsPredicates.reflection()
+                            .onType(PrivateConstructorValidator.class)
+                            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                            .accepts(hints)
+            );
+        }
+
+        @Test
+        void shouldGenerateConstructorCallsForTheInstantiableConfiguredValidators() throws Exception {
+            var processed = process(beanFactory(Map.of(
+                    PREFIX + ".headers[0].validator", EpochTimestampValidator.class.getName(),
+                    PREFIX + ".headers[1].validator", PrivateConstructorValidator.class.getName()
+            )));
+            var generated = compile(processed.files());
+            var target = new DefaultListableBeanFactory();
+
+            generated.getMethod("registerHeaderValidators", DefaultListableBeanFactory.class)
+                    .invoke(null, target);
+
+            var validators = target.getBean(AotHeaderValidators.BEAN_NAME, AotHeaderValidators.class);
+            assertAll(
+                    () -> assertThat(processed.initializers())
+                            .hasSize(1),
+                    () -> assertThat(validators.suppliers())
+                            .containsOnlyKeys(EpochTimestampValidator.class.getName()),
+                    () -> assertThat(validators.get(EpochTimestampValidator.class.getName()).get())
+                            .isInstanceOf(EpochTimestampValidator.class)
+            );
+        }
+    }
+
+    @Nested
+    class isInstantiable {
+        @Test
+        void shouldOnlyAcceptPublicClassesWithAPublicNoArgConstructor() {
+            assertAll(
+                    () -> assertThat(HeaderValidatorAotProcessor.isInstantiable(EpochTimestampValidator.class))
+                            .isTrue(),
+                    () -> assertThat(HeaderValidatorAotProcessor.isInstantiable(PrivateConstructorValidator.class))
+                            .isFalse(),
+                    () -> assertThat(HeaderValidatorAotProcessor.isInstantiable(HeaderValidator.class))
+                            .isFalse(),
+                    () -> assertThat(HeaderValidatorAotProcessor.isInstantiable(AnnotatedController.class))
+                            .isFalse()
+            );
+        }
+    }
+}
@@ -4,12 +4,16 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import co.ke.xently.common.headers.validators.AllowList;
+import co.ke.xently.common.headers.validators.AllowListValidator;
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
 import co.ke.xently.common.headers.validators.EpochTimestampValidator;
 import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.IntegerRangeValidator;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.slf4j.LoggerFactory;
@@ -18,11 +22,19 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.core.env.Environment;
 import org.springframework.lang.NonNull;
 
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class HeaderValidatorConverterTest {
@@ -147,6 +159,175 @@ class HeaderValidatorConverterTest {
         );
     }
 
+    @Test
+    void shouldCreateInstancesResolvedAheadOfTimeWithoutReflection() {
+        var context = mock(ApplicationContext.class);
+        var environment = mock(Environment.class);
+        when(context.getEnvironment())
+                .thenReturn(environment);
+        when(environment.getProperty(HeaderValidatorConverter.SOURCE_PROPERTY, HeaderValidatorSource.class, HeaderValidatorSource.FQCNB4BeanDefinition))
+                .thenReturn(HeaderValidatorSource.FQCN);
+        when(context.containsBean(AotHeaderValidators.BEAN_NAME))
+                .thenReturn(true);
+        var validator = new EpochTimestampValidator();
+        when(context.getBean(AotHeaderValidators.BEAN_NAME, AotHeaderValidators.class))
+                .thenReturn(new AotHeaderValidators(Map.of(PrivateConstructorValidator.class.getName(), () -> validator)));
+        var converter = new HeaderValidatorConverter(context);
+
+        var actual = converter.convert(PrivateConstructorValidator.class.getName());
+
+        assertThat(actual)
+                .isSameAs(validator);
+    }
+
+    @Test
+    void shouldReadTheValidatorSourceOnce() {
+        var context = mock(ApplicationContext.class);
+        var environment = mock(Environment.class);
+        when(context.getEnvironment())
+                .thenReturn(environment);
+        when(environment.getProperty(HeaderValidatorConverter.SOURCE_PROPERTY, HeaderValidatorSource.class, HeaderValidatorSource.FQCNB4BeanDefinition))
+                .thenReturn(HeaderValidatorSource.FQCN);
+        var converter = new HeaderValidatorConverter(context);
+
+        converter.convert(EpochTimestampValidator.class.getName());
+        converter.convert(DefaultHeaderValidator.class.getName());
+
+        verify(environment, times(1))
+                .getProperty(HeaderValidatorConverter.SOURCE_PROPERTY, HeaderValidatorSource.class, HeaderValidatorSource.FQCNB4BeanDefinition);
+    }
+
+    private static ApplicationContext context(HeaderValidatorSource validatorSource) {
+        var context = mock(ApplicationContext.class);
+        var environment = mock(Environment.class);
+        when(context.getEnvironment())
+                .thenReturn(environment);
+        when(environment.getProperty(HeaderValidatorConverter.SOURCE_PROPERTY, HeaderValidatorSource.class, HeaderValidatorSource.FQCNB4BeanDefinition))
+                .thenReturn(validatorSource);
+        return context;
+    }
+
+    @Test
+    void shouldShareImmutableValidatorsBetweenRules() {
+        var converter = new HeaderValidatorConverter(context(HeaderValidatorSource.FQCN));
+
+        var first = converter.convert(EpochTimestampValidator.class.getName());
+        var second = converter.convert(EpochTimestampValidator.class.getName());
+
+        assertThat(second)
+                .isSameAs(first);
+    }
+
+    @Test
+    void shouldCreateBuiltInValidatorsFromSpecsWithoutLookingThemUp() {
+        var context = context(HeaderValidatorSource.BeanDefinition);
+        var converter = new HeaderValidatorConverter(context);
+
+        var first = converter.convert("integer(min=0, max=100)");
+        var second = converter.convert("integer(min=0, max=100)");
+
+        assertAll(
+                () -> assertThat(first)
+                        .isEqualTo(new IntegerRangeValidator(0, 100)),
+                () -> assertThat(second)
+                        .isSameAs(first),
+                () -> assertThat(loggingEvents.list)
+                        .isEmpty()
+        );
+        verify(context, never()).getBean(anyString(), eq(HeaderValidator.class));
+    }
+
+    @Test
+    void shouldCloseBuiltInValidatorsOnDestroy(@TempDir Path directory) throws Exception {
+        var file = directory.resolve("channel-codes.xal");
+        AllowList.write(List.of("APP", "USSD"), file);
+        var converter = new HeaderValidatorConverter(context(HeaderValidatorSource.FQCN));
+        var validator = converter.convert("allow-list(file=%s)".formatted(file));
+
+        converter.destroy();
+
+        assertThat(validator)
+                .isInstanceOfSatisfying(AllowListValidator.class, allowList -> assertThat(allowList.isWatching())
+                        .isFalse());
+    }
+
+    @Test
+    void shouldNotShareMutableValidatorsBetweenRules() {
+        var converter = new HeaderValidatorConverter(context(HeaderValidatorSource.FQCN));
+
+        var first = converter.convert(MutableValidator.class.getName());
+        var second = converter.convert(MutableValidator.class.getName());
+
+        assertAll(
+                () -> assertThat(first)
+                        .isInstanceOf(MutableValidator.class),
+                () -> assertThat(second)
+                        .isInstanceOf(MutableValidator.class)
+                        .isNotSameAs(first)
+        );
+    }
+
+    @Test
+    void shouldOnlyShareSingletonBeans() {
+        var context = context(HeaderValidatorSource.BeanDefinition);
+        when(context.getBean("singletonValidator", HeaderValidator.class))
+                .thenReturn(new MutableValidator());
+        when(context.isSingleton("singletonValidator"))
+                .thenReturn(true);
+        when(context.getBean("prototypeValidator", HeaderValidator.class))
+                .thenAnswer(invocation -> new EpochTimestampValidator());
+        var converter = new HeaderValidatorConverter(context);
+
+        converter.convert("singletonValidator");
+        converter.convert("singletonValidator");
+        converter.convert("prototypeValidator");
+        converter.convert("prototypeValidator");
+
+        assertAll(
+                () -> verify(context, times(1))
+                        .getBean("singletonValidator", HeaderValidator.class),
+                () -> verify(context, times(2))
+                        .getBean("prototypeValidator", HeaderValidator.class)
+        );
+    }
+
+    @Test
+    void shouldRememberFailedLookups() {
+        var context = context(HeaderValidatorSource.BeanDefinitionB4FQCN);
+        when(context.getBean(MutableValidator.class.getName(), HeaderValidator.class))
+                .thenThrow(new NoSuchBeanDefinitionException("Error"));
+        var converter = new HeaderValidatorConverter(context);
+
+        var first = converter.convert(MutableValidator.class.getName());
+        var second = converter.convert(MutableValidator.class.getName());
+
+        assertAll(
+                () -> assertThat(second)
+                        .isInstanceOf(MutableValidator.class)
+                        .isNotSameAs(first),
+                () -> verify(context, times(1))
+                        .getBean(MutableValidator.class.getName(), HeaderValidator.class)
+        );
+    }
+
+    @Test
+    void shouldReportAFailedLookupOnce() {
+        var context = context(HeaderValidatorSource.FQCN);
+        var converter = new HeaderValidatorConverter(context);
+
+        var first = converter.convert("com.example.DoesNotExistValidator");
+        var second = converter.convert("com.example.DoesNotExistValidator");
+
+        assertAll(
+                () -> assertThat(second)
+                        .isInstanceOf(DefaultHeaderValidator.class)
+                        .isSameAs(first),
+                () -> assertThat(loggingEvents.list)
+                        .filteredOn(e -> e.getLevel().equals(Level.ERROR))
+                        .hasSize(1)
+        );
+    }
+
     @ParameterizedTest
     @MethodSource
     void shouldReturnDefaultHeaderValidator(TestCase testCase) {
@@ -192,6 +373,17 @@ class HeaderValidatorConverterTest {
         }
     }
 
+    public static class MutableValidator implements HeaderValidator {
+        private int calls;
+
+        @Override
+        @NonNull
+        public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+            calls++;
+            return ValidationResult.SUCCESS;
+        }
+    }
+
     public static class ThrowingCtorValidator implements HeaderValidator {
         public ThrowingCtorValidator() {
             throw new RuntimeException();
@@ -0,0 +1,49 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.ISO8601TimestampValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.AotServices;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class HeaderValidatorRuntimeHintsTest {
+    @Test
+    void shouldBeLoadedFromAotFactories() {
+        assertThat(AotServices.factories().load(RuntimeHintsRegistrar.class))
+                .hasAtLeastOneElementOfType(HeaderValidatorRuntimeHints.class);
+    }
+
+    @Test
+    void shouldRegisterTheBuiltInValidatorsAndHandlerAnnotations() {
+        var hints = new RuntimeHints();
+
+        new HeaderValidatorRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertAll(
+                () -> assertThat(RuntimeHintsPredicates.reflection()
+                        .onType(DefaultHeaderValidator.class)
+                        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                        .accepts(hints),
+                () -> assertThat(RuntimeHintsPredicates.reflection()
+                        .onType(EpochTimestampValidator.class)
+                        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                        .accepts(hints),
+                () -> assertThat(RuntimeHintsPredicates.reflection()
+                        .onType(ISO8601TimestampValidator.class)
+                        .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS))
+                        .accepts(hints),
+                () -> assertThat(RuntimeHintsPredicates.proxies().forInterfaces(RequireHeaders.class))
+                        .accepts(hints),
+                () -> assertThat(RuntimeHintsPredicates.resource()
+                        .forResource("META-INF/services/" + HeaderRuleProvider.class.getName()))
+                        .accepts(hints)
+        );
+    }
+}
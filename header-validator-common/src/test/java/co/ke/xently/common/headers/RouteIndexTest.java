@@ -0,0 +1,139 @@
+package co.ke.xently.common.headers;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PatternParseException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteIndexTest {
+    private static final Set<HeaderRule> HEADERS = Set.of(
+            HeaderRule.builder().headerName("X-Global").build()
+    );
+
+    private static RouteIndex compile(HeaderRoute... routes) {
+        return RouteIndex.compile(List.of(routes), HEADERS);
+    }
+
+    @Nested
+    class compile {
+        @Test
+        void shouldBeEmptyWithoutRoutes() {
+            assertThat(compile().isEmpty())
+                    .isTrue();
+        }
+
+        @Test
+        void shouldRejectInvalidPatternsAtStartup() {
+            var route = HeaderRoute.builder().paths(List.of("/api/{id")).build();
+
+            assertThrows(PatternParseException.class, () -> compile(route));
+        }
+
+        @Test
+        void shouldLetRouteRulesTakePrecedenceOverGlobalOnes() {
+            var index = compile(HeaderRoute.builder()
+                    .paths(List.of("/api/**"))
+                    .headers(Set.of(
+                            HeaderRule.builder().headerName("X-Global").required(false).build(),
+                            HeaderRule.builder().headerName("X-Api-Key").build()
+                    ))
+                    .build());
+
+            var plan = index.resolve(PathContainer.parsePath("/api/orders"), HttpMethod.GET).plan();
+
+            assertAll(
+                    () -> assertThat(plan.size())
+                            .isEqualTo(2),
+                    () -> assertThat(plan.get(plan.indexOf("X-Global")).required())
+                            .isFalse(),
+                    () -> assertThat(plan.indexOf("X-Api-Key"))
+                            .isNotNegative()
+            );
+        }
+    }
+
+    @Nested
+    class resolve {
+        private final HeaderRoute actuator = HeaderRoute.builder()
+                .paths(List.of("/actuator/**"))
+                .skip(true)
+                .build();
+        private final HeaderRoute writes = HeaderRoute.builder()
+                .paths(List.of("/api/**"))
+                .methods(Set.of(HttpMethod.POST, HttpMethod.PUT))
+                .headers(Set.of(HeaderRule.builder().headerName("X-Idempotency-Key").build()))
+                .build();
+        private final HeaderRoute tenants = HeaderRoute.builder()
+                .paths(List.of("/{tenant}/reports/**"))
+                .headers(Set.of(HeaderRule.builder().headerName("X-Tenant").build()))
+                .build();
+        private final RouteIndex index = compile(actuator, writes, tenants);
+
+        private record TestCase(String path, HttpMethod method, String expectedRoute) {
+        }
+
+        private static Stream<TestCase> shouldResolveTheFirstMatchingRoute() {
+            return Stream.of(
+                    new TestCase("/actuator/health/liveness", HttpMethod.GET, "actuator"),
+                    new TestCase("/actuator", HttpMethod.GET, "actuator"),
+                    new TestCase("/api/orders", HttpMethod.POST, "writes"),
+                    new TestCase("/api/orders", HttpMethod.GET, "fallback"),
+                    new TestCase("/api/reports/daily", HttpMethod.GET, "tenants"),
+                    new TestCase("/api/reports/daily", HttpMethod.PUT, "writes"),
+                    new TestCase("/acme/reports", HttpMethod.GET, "tenants"),
+                    new TestCase("/acme/invoices", HttpMethod.GET, "fallback"),
+                    new TestCase("/", HttpMethod.GET, "fallback")
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldResolveTheFirstMatchingRoute(TestCase testCase) {
+            var actual = index.resolve(PathContainer.parsePath(testCase.path()), testCase.method());
+
+            switch (testCase.expectedRoute()) {
+                case "actuator" -> assertThat(actual)
+                        .isSameAs(RoutePlan.SKIP);
+                case "fallback" -> assertThat(actual)
+                        .isNull();
+                case "writes" -> assertThat(actual.plan().indexOf("X-Idempotency-Key"))
+                        .isNotNegative();
+                case "tenants" -> assertThat(actual.plan().indexOf("X-Tenant"))
+                        .isNotNegative();
+                default -> throw new IllegalArgumentException(testCase.expectedRoute());
+            }
+        }
+
+        @Test
+        void shouldCompareMethodsCaseInsensitively() {
+            var index = compile(HeaderRoute.builder()
+                    .paths(List.of("/api/**"))
+                    .methods(Set.of(HttpMethod.valueOf("post")))
+                    .skip(true)
+                    .build());
+
+            assertThat(index.resolve(PathContainer.parsePath("/api/orders"), HttpMethod.POST))
+                    .isSameAs(RoutePlan.SKIP);
+        }
+
+        @Test
+        void shouldCompileOnePlanPerRoute() {
+            var first = index.resolve(PathContainer.parsePath("/api/orders"), HttpMethod.POST);
+            var second = index.resolve(PathContainer.parsePath("/api/customers"), HttpMethod.PUT);
+
+            assertThat(first)
+                    .isSameAs(second);
+        }
+    }
+}
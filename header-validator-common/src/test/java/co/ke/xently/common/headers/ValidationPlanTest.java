@@ -0,0 +1,219 @@
+package co.ke.xently.common.headers;
+
+import co.ke.xently.common.headers.validators.CoalescingHeaderValidator;
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.GuardedHeaderValidator;
+import co.ke.xently.common.headers.validators.MemoizingHeaderValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ValidationPlanTest {
+    @Nested
+    class compile {
+        @Test
+        void shouldCanonicalizeHeaderNames() {
+            var plan = ValidationPlan.compile(List.of(
+                    HeaderRule.builder().headerName("  X-FeatureCode ").build()
+            ));
+
+            var rule = plan.get(0);
+
+            assertAll(
+                    () -> assertThat(plan.size())
+                            .isEqualTo(1),
+                    () -> assertThat(rule.headerName())
+                            .isEqualTo("X-FeatureCode"),
+                    () -> assertThat(rule.canonicalName())
+                            .isEqualTo("x-featurecode")
+            );
+        }
+
+        @Test
+        void shouldKeepFirstRuleWhenHeaderNamesClash() {
+            var first = HeaderRule.builder().headerName("X-Timestamp").required(false).build();
+            var second = HeaderRule.builder().headerName("X-TimeStamp").validator(new EpochTimestampValidator()).build();
+
+            var plan = ValidationPlan.compile(List.of(first, second));
+
+            assertAll(
+                    () -> assertThat(plan.size())
+                            .isEqualTo(1),
+                    () -> assertThat(plan.get(0).source())
+                            .isSameAs(first),
+                    () -> assertThat(plan.get(0).required())
+                            .isFalse()
+            );
+        }
+
+        @Test
+        void shouldNotObserveChangesMadeToRulesAfterCompilation() {
+            var rule = HeaderRule.builder().headerName("X-Custom").build();
+            var plan = ValidationPlan.compile(List.of(rule));
+
+            rule.setRequired(false);
+            rule.setHeaderName("X-Other");
+            rule.setValidator((name, value) -> new ValidationResult.Failure("Failure"));
+
+            var compiled = plan.get(0);
+
+            assertAll(
+                    () -> assertThat(compiled.required())
+                            .isTrue(),
+                    () -> assertThat(compiled.headerName())
+                            .isEqualTo("X-Custom"),
+                    () -> assertThat(compiled.validator())
+                            .isInstanceOf(DefaultHeaderValidator.class)
+            );
+        }
+
+        @Test
+        void shouldShareTheCacheOfARuleAcrossPlans() {
+            var rule = HeaderRule.builder()
+                    .headerName("X-ChannelCode")
+                    .cache(HeaderRule.Cache.builder().build())
+                    .build();
+
+            var first = ValidationPlan.compile(List.of(rule));
+            var second = ValidationPlan.compile(List.of(rule));
+
+            assertAll(
+                    () -> assertThat(first.get(0).validator())
+                            .isInstanceOf(MemoizingHeaderValidator.class),
+                    () -> assertThat(first.get(0).validator())
+                            .isSameAs(second.get(0).validator())
+            );
+        }
+
+        @Test
+        void shouldCoalesceBehindTheCache() {
+            var rule = HeaderRule.builder()
+                    .headerName("X-ChannelCode")
+                    .cache(HeaderRule.Cache.builder().build())
+                    .coalesce(true)
+                    .build();
+
+            var validator = ValidationPlan.compile(List.of(rule)).get(0).validator();
+
+            assertThat(validator)
+                    .isInstanceOfSatisfying(MemoizingHeaderValidator.class, memoizing -> assertThat(memoizing.delegate())
+                            .isInstanceOf(CoalescingHeaderValidator.class));
+        }
+
+        @Test
+        void shouldCoalesceGuardedCallsAsynchronously() {
+            var rule = HeaderRule.builder()
+                    .headerName("X-ChannelCode")
+                    .cache(HeaderRule.Cache.builder().build())
+                    .guard(HeaderRule.Guard.builder().build())
+                    .coalesce(true)
+                    .build();
+
+            var validator = ValidationPlan.compile(List.of(rule)).get(0).validator();
+
+            assertThat(validator)
+                    .isInstanceOfSatisfying(MemoizingHeaderValidator.Async.class, memoizing -> assertThat(memoizing.delegate())
+                            .isInstanceOfSatisfying(CoalescingHeaderValidator.class, coalescing -> assertThat(coalescing.delegate())
+                                    .isInstanceOf(GuardedHeaderValidator.class)));
+        }
+
+        @Test
+        void shouldMemoizeAroundTheGuard() {
+            var rule = HeaderRule.builder()
+                    .headerName("X-ChannelCode")
+                    .cache(HeaderRule.Cache.builder().build())
+                    .guard(HeaderRule.Guard.builder().build())
+                    .build();
+
+            var validator = ValidationPlan.compile(List.of(rule)).get(0).validator();
+
+            assertThat(validator)
+                    .isInstanceOfSatisfying(MemoizingHeaderValidator.Async.class, memoizing -> assertThat(memoizing.delegate())
+                            .isInstanceOfSatisfying(GuardedHeaderValidator.class, guarded -> assertThat(guarded.breaker().name())
+                                    .isEqualTo("X-ChannelCode")));
+        }
+
+        @Test
+        void shouldOrderRulesCheapestFirst() {
+            var plan = ValidationPlan.compile(List.of(
+                    HeaderRule.builder().headerName("X-Custom").validator((name, value) -> ValidationResult.SUCCESS).build(),
+                    HeaderRule.builder().headerName("X-Regex").validator(new RegexValidator("^v\\d+$")).build(),
+                    HeaderRule.builder().headerName("X-Timestamp").validator(new EpochTimestampValidator()).build(),
+                    HeaderRule.builder().headerName("X-Presence").build(),
+                    HeaderRule.builder().headerName("X-Other-Presence").build()
+            ));
+
+            var names = IntStream.range(0, plan.size())
+                    .mapToObj(plan::get)
+                    .map(ValidationPlan.Rule::headerName)
+                    .toList();
+
+            assertThat(names)
+                    .containsExactly("X-Presence", "X-Other-Presence", "X-Timestamp", "X-Regex", "X-Custom");
+        }
+
+        @Test
+        void shouldContainEveryConfiguredAndDefaultHeader() {
+            var properties = new HeaderValidationProperties(Set.of(
+                    HeaderRule.builder().headerName("X-Custom").build()
+            ));
+
+            var plan = ValidationPlan.compile(properties.headers());
+
+            var names = IntStream.range(0, plan.size())
+                    .mapToObj(plan::get)
+                    .map(ValidationPlan.Rule::headerName)
+                    .toList();
+
+            assertThat(names)
+                    .hasSize(properties.headers().size())
+                    .contains("X-Custom", "X-FeatureName", "X-CallBackURL");
+        }
+    }
+
+    @Nested
+    class indexOf {
+        private final ValidationPlan plan = ValidationPlan.compile(List.of(
+                HeaderRule.builder().headerName("X-FeatureCode").build(),
+                HeaderRule.builder().headerName("X-TimeStamp").build(),
+                HeaderRule.builder().headerName("X-Version").build()
+        ));
+
+        @Test
+        void shouldFindEveryRuleByItsName() {
+            assertThat(IntStream.range(0, plan.size()))
+                    .allSatisfy(i -> assertThat(plan.indexOf(plan.get(i).headerName())).isEqualTo(i));
+        }
+
+        @Test
+        void shouldCompareHeaderNamesCaseInsensitively() {
+            assertAll(
+                    () -> assertThat(plan.indexOf("x-featurecode"))
+                            .isEqualTo(0),
+                    () -> assertThat(plan.indexOf("X-TIMESTAMP"))
+                            .isEqualTo(1)
+            );
+        }
+
+        @Test
+        void shouldReturnMinusOneForUnknownHeaders() {
+            assertAll(
+                    () -> assertThat(plan.indexOf("X-Unknown"))
+                            .isEqualTo(-1),
+                    () -> assertThat(plan.indexOf(""))
+                            .isEqualTo(-1),
+                    () -> assertThat(ValidationPlan.compile(List.of()).indexOf("X-Version"))
+                            .isEqualTo(-1)
+            );
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AllowListFileBuilderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldBuildTheAllowListOfEveryDistinctValue() throws Exception {
+        var source = Files.writeString(directory.resolve("codes.txt"), """
+                # Channel codes
+                APP
+                  USSD\t
+
+                APP
+                Ärzte
+                """);
+        var target = directory.resolve("codes.xal");
+
+        int size = AllowListFileBuilder.build(source, target);
+        var allowList = AllowList.map(target);
+
+        assertAll(
+                () -> assertThat(size)
+                        .isEqualTo(3),
+                () -> assertThat(allowList.size())
+                        .isEqualTo(3),
+                () -> assertThat(List.of("APP", "USSD", "Ärzte"))
+                        .allSatisfy(value -> assertThat(allowList.contains(value))
+                                .isTrue()),
+                () -> assertThat(allowList.contains("# Channel codes"))
+                        .isFalse()
+        );
+    }
+
+    @Test
+    void shouldRejectSourcesWithoutValues() throws Exception {
+        var source = Files.writeString(directory.resolve("codes.txt"), "# Nothing yet\n\n");
+
+        assertThrows(IllegalArgumentException.class, () -> AllowListFileBuilder.build(source, directory.resolve("codes.xal")));
+    }
+}
@@ -0,0 +1,133 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AllowListTest {
+    private static final List<String> UNICODE = List.of("Ärzte", "café-01", "日本-42", "😀-smile", "ß");
+
+    @TempDir
+    Path directory;
+
+    @Nested
+    class contains {
+        @Test
+        void shouldContainEveryWrittenValueAndNothingElse() throws Exception {
+            var values = new ArrayList<>(IntStream.range(0, 50_000).mapToObj("CH%06d"::formatted).toList());
+            values.addAll(UNICODE);
+            var file = directory.resolve("codes.xal");
+            AllowList.write(values, file);
+
+            var allowList = AllowList.map(file);
+
+            assertAll(
+                    () -> assertThat(allowList.size())
+                            .isEqualTo(values.size()),
+                    () -> assertThat(values)
+                            .allSatisfy(value -> assertThat(allowList.contains(value))
+                                    .as(value)
+                                    .isTrue()),
+                    () -> assertThat(List.of(
+                            "", "CH050000", "ch000001", "CH00000", "CH0000011", " CH000001",
+                            "ärzte", "Ärzt", "Ärztee", "café-0", "日本-4", "😀", "\uD83D-smile", "\uDE00\uD83D-smile", "ss"
+                    )).allSatisfy(value -> assertThat(allowList.contains(value))
+                            .as(value)
+                            .isFalse())
+            );
+        }
+
+        @Test
+        void shouldNotAllocate() throws Exception {
+            var file = directory.resolve("codes.xal");
+            AllowList.write(IntStream.range(0, 1_000).mapToObj("CH%06d"::formatted).toList(), file);
+            var allowList = AllowList.map(file);
+            var values = new String[]{"CH000001", "CH999999", "日本-42", "garbage"};
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            int found = 0;
+            for (int i = 0; i < 20_000; i++) found += allowList.contains(values[i & 3]) ? 1 : 0;
+
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < 20_000; i++) found += allowList.contains(values[i & 3]) ? 1 : 0;
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            int total = found;
+
+            assertAll(
+                    () -> assertThat(allocated)
+                            .isLessThan(1024),
+                    () -> assertThat(total)
+                            .isEqualTo(10_000)
+            );
+        }
+    }
+
+    @Nested
+    class write {
+        @Test
+        void shouldReplaceTheFileWithoutAffectingMappedLists() throws Exception {
+            var file = directory.resolve("codes.xal");
+            AllowList.write(List.of("A", "B"), file);
+            var before = AllowList.map(file);
+
+            AllowList.write(List.of("C"), file);
+            var after = AllowList.map(file);
+
+            assertAll(
+                    () -> assertThat(before.contains("A"))
+                            .isTrue(),
+                    () -> assertThat(before.contains("C"))
+                            .isFalse(),
+                    () -> assertThat(after.contains("C"))
+                            .isTrue(),
+                    () -> assertThat(after.contains("A"))
+                            .isFalse(),
+                    () -> assertThat(directory)
+                            .isDirectoryContaining(path -> path.equals(file))
+                            .isDirectoryNotContaining(path -> path.toString().endsWith(".tmp"))
+            );
+        }
+
+        @Test
+        void shouldRejectInvalidValues() {
+            var file = directory.resolve("codes.xal");
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.write(List.of(), file)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.write(List.of("A", "B", "A"), file)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.write(List.of("A", "\uD83D"), file)),
+                    () -> assertThat(file)
+                            .doesNotExist()
+            );
+        }
+    }
+
+    @Nested
+    class map {
+        @Test
+        void shouldRejectFilesThatAreNotCompleteAllowLists() throws Exception {
+            var file = directory.resolve("codes.xal");
+            AllowList.write(List.of("A", "B", "C"), file);
+            var bytes = Files.readAllBytes(file);
+            var truncated = Files.write(directory.resolve("truncated.xal"), java.util.Arrays.copyOf(bytes, bytes.length - 1));
+            var text = Files.writeString(directory.resolve("codes.txt"), "A\nB\nC\n");
+            var empty = Files.write(directory.resolve("empty.xal"), new byte[0]);
+
+            assertAll(
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.map(truncated)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.map(text)),
+                    () -> assertThrows(IllegalArgumentException.class, () -> AllowList.map(empty))
+            );
+        }
+    }
+}
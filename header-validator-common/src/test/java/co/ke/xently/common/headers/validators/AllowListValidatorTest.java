@@ -0,0 +1,99 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AllowListValidatorTest {
+    @TempDir
+    Path directory;
+    private Path file;
+    private AllowListValidator validator;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        file = directory.resolve("channel-codes.xal");
+        AllowList.write(List.of("APP", "USSD"), file);
+        validator = new AllowListValidator(file);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        validator.close();
+    }
+
+    @Nested
+    class validate {
+        @Test
+        void shouldOnlyAllowListedValues() {
+            assertAll(
+                    () -> assertThat(validator.validate("X-ChannelCode", "USSD"))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(validator.validate("X-ChannelCode", "SMS"))
+                            .isSameAs(AllowListValidator.NOT_ALLOWED)
+            );
+        }
+
+        @Test
+        void shouldSwapInTheFileWhenItIsReplaced() throws Exception {
+            AllowList.write(List.of("APP", "USSD", "SMS"), file);
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (validator.size() != 3 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+
+            assertThat(validator.validate("X-ChannelCode", "SMS"))
+                    .isSameAs(ValidationResult.SUCCESS);
+        }
+    }
+
+    @Nested
+    class reload {
+        @Test
+        void shouldKeepTheCurrentListWhenTheFileIsNotAnAllowList() throws Exception {
+            var text = Files.writeString(directory.resolve("channel-codes.txt"), "SMS\n");
+            Files.move(text, file, StandardCopyOption.REPLACE_EXISTING);
+
+            assertAll(
+                    () -> assertThat(validator.reload())
+                            .isFalse(),
+                    () -> assertThat(validator.validate("X-ChannelCode", "APP"))
+                            .isSameAs(ValidationResult.SUCCESS)
+            );
+        }
+    }
+
+    @Nested
+    class close {
+        @Test
+        void shouldStopWatchingTheFileAndKeepTheCurrentList() throws Exception {
+            validator.close();
+
+            assertAll(
+                    () -> assertThat(validator.isWatching())
+                            .isFalse(),
+                    () -> assertThat(validator.validate("X-ChannelCode", "APP"))
+                            .isSameAs(ValidationResult.SUCCESS)
+            );
+        }
+    }
+
+    @Test
+    void shouldRejectMissingFiles() {
+        assertThrows(UncheckedIOException.class, () -> new AllowListValidator(directory.resolve("missing.xal")));
+    }
+}
@@ -0,0 +1,68 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BacktrackingAnalysisTest {
+    static Stream<TestCase> shouldFindRiskyConstructs() {
+        return Stream.of(
+                new TestCase("(a+)+", "nested quantifiers in '(a+)+'"),
+                new TestCase("^(\\w+\\s?)*$", "nested quantifiers in '(\\w+\\s?)*'"),
+                new TestCase("x(?:a*b*)*y", "nested quantifiers in '(?:a*b*)*'"),
+                new TestCase("((ab)+)+", "nested quantifiers in '((ab)+)+'"),
+                new TestCase("(\\p{L}+)+", "nested quantifiers in '(\\p{L}+)+'"),
+                new TestCase("(a|ab)*c", "overlapping alternatives in '(a|ab)*'"),
+                new TestCase("(\\d|\\w)+", "overlapping alternatives in '(\\d|\\w)+'"),
+                new TestCase("\\d+\\d*", "adjacent quantifiers matching the same characters in '\\d+\\d*'"),
+                new TestCase(".*x?.*", "adjacent quantifiers matching the same characters in '.*x?.*'"),
+                new TestCase("(?i)[A-Z]+(?=\\d)[a-z]+", "adjacent quantifiers matching the same characters in '[A-Z]+(?=\\d)[a-z]+'"),
+                new TestCase("(?<name>(a|a)+)\\k<name>", "overlapping alternatives in '(a|a)+'"),
+                new TestCase("(?=(x+)+y)", "nested quantifiers in '(x+)+'")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldFindRiskyConstructs(TestCase testCase) {
+        var pattern = Pattern.compile(testCase.pattern(), Pattern.CASE_INSENSITIVE);
+
+        assertThat(BacktrackingAnalysis.analyze(pattern))
+                .isEqualTo(testCase.expected());
+    }
+
+    static Stream<String> shouldAcceptSafePatterns() {
+        return Stream.of(
+                "v?\\d+(.\\d+){0,2}",
+                "^https?://.+..+",
+                "v\\d+(\\.\\d+)*",
+                "(ab*)+",
+                "(a+b)+",
+                "[a-z]+\\d+",
+                "(?:GET|POST)",
+                "(a+)++",
+                "(?>a+)+",
+                "(a|b)*",
+                "\\bword\\b",
+                "(\\w)\\1",
+                "\\Qa+\\E+",
+                "[]a]+",
+                "[a-z&&[^e]]+:",
+                "\\x41+\\u0042+\\0101"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldAcceptSafePatterns(String pattern) {
+        assertThat(BacktrackingAnalysis.analyze(Pattern.compile(pattern)))
+                .isNull();
+    }
+
+    record TestCase(String pattern, String expected) {
+    }
+}
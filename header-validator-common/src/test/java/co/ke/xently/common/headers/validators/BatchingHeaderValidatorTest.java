@@ -0,0 +1,216 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchingHeaderValidatorTest {
+    private static final ValidationResult.Failure NOT_ENTITLED = ValidationResult.Failure.of("NOT_ENTITLED", "Not entitled");
+    private static final Duration LONG_WINDOW = Duration.ofMinutes(1);
+
+    /**
+     * An in-process entitlement store: even values are entitled, {@code boom} fails the whole batch and
+     * {@code unknown} is left out of the results.
+     */
+    private static class FakeStore implements BatchHeaderValidator {
+        private final List<Set<String>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Map<String, ValidationResult> validateAll(String headerName, Set<String> headerValues) {
+            calls.add(headerValues);
+            if (headerValues.contains("boom")) throw new IllegalStateException("Store unavailable");
+
+            return headerValues.stream()
+                    .filter(value -> !value.equals("unknown"))
+                    .collect(Collectors.toMap(Function.identity(), value -> Integer.parseInt(value) % 2 == 0
+                            ? ValidationResult.SUCCESS
+                            : NOT_ENTITLED));
+        }
+    }
+
+    private final FakeStore store = new FakeStore();
+
+    @Nested
+    class validateAsync {
+        @Test
+        void shouldSendABatchOnceItIsFull() throws Exception {
+            var validator = new BatchingHeaderValidator(store, 10, LONG_WINDOW);
+
+            var results = IntStream.range(0, 100)
+                    .mapToObj(i -> validator.validateAsync("X-Entitlement", Integer.toString(i)))
+                    .toList();
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(store.calls)
+                            .hasSize(10)
+                            .allSatisfy(batch -> assertThat(batch).hasSize(10)),
+                    () -> assertThat(results.get(2).join())
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(results.get(3).join())
+                            .isSameAs(NOT_ENTITLED),
+                    () -> assertThat(validator.batches())
+                            .isEqualTo(10),
+                    () -> assertThat(validator.batchedValues())
+                            .isEqualTo(100)
+            );
+        }
+
+        @Test
+        void shouldSendAPartialBatchOnceItsWindowElapses() throws Exception {
+            var validator = new BatchingHeaderValidator(store, 100, Duration.ofMillis(20));
+
+            var first = validator.validateAsync("X-Entitlement", "2");
+            var second = validator.validateAsync("X-Entitlement", "3");
+
+            assertAll(
+                    () -> assertThat(first.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(second.get(5, TimeUnit.SECONDS))
+                            .isSameAs(NOT_ENTITLED),
+                    () -> assertThat(store.calls)
+                            .containsExactly(Set.of("2", "3"))
+            );
+        }
+
+        @Test
+        void shouldShareTheResultOfAValueAmongItsCallers() {
+            var validator = new BatchingHeaderValidator(store, 2, LONG_WINDOW);
+
+            var first = validator.validateAsync("X-Entitlement", "2");
+            var second = validator.validateAsync("X-Entitlement", "2");
+            validator.validateAsync("X-Entitlement", "4").join();
+
+            assertAll(
+                    () -> assertThat(first)
+                            .isSameAs(second),
+                    () -> assertThat(store.calls)
+                            .containsExactly(Set.of("2", "4"))
+            );
+        }
+
+        @Test
+        void shouldKeepHeaderNamesApart() {
+            var validator = new BatchingHeaderValidator(store, 1, LONG_WINDOW);
+
+            validator.validateAsync("X-Entitlement", "2").join();
+            validator.validateAsync("X-Other", "2").join();
+
+            assertThat(store.calls)
+                    .hasSize(2);
+        }
+
+        @Test
+        void shouldFailEveryCallOfAFailedBatch() {
+            var validator = new BatchingHeaderValidator(store, 2, LONG_WINDOW);
+
+            var first = validator.validateAsync("X-Entitlement", "2");
+            var second = validator.validateAsync("X-Entitlement", "boom");
+
+            for (var result : List.of(first, second)) {
+                var exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertThat(exception.getCause())
+                        .hasMessage("Store unavailable");
+            }
+        }
+
+        @Test
+        void shouldFailValuesMissingFromTheResults() {
+            var validator = new BatchingHeaderValidator(store, 2, LONG_WINDOW);
+
+            var known = validator.validateAsync("X-Entitlement", "2");
+            var unknown = validator.validateAsync("X-Entitlement", "unknown");
+
+            assertAll(
+                    () -> assertThat(known.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(assertThrows(ExecutionException.class, () -> unknown.get(5, TimeUnit.SECONDS)))
+                            .cause()
+                            .isInstanceOf(IllegalStateException.class)
+            );
+        }
+    }
+
+    @Nested
+    class validate {
+        @Test
+        void shouldBatchConcurrentCallers() throws Exception {
+            var validator = new BatchingHeaderValidator(store, 50, Duration.ofMillis(50));
+
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var results = IntStream.range(0, 500)
+                        .mapToObj(i -> executor.submit(() -> validator.validate("X-Entitlement", Integer.toString(i % 50))))
+                        .toList();
+                for (var result : results) result.get(5, TimeUnit.SECONDS);
+            }
+
+            assertThat(validator.batches())
+                    .isLessThan(500)
+                    .isEqualTo(store.calls.size());
+        }
+
+        @Test
+        void shouldRethrowTheFailureOfItsBatch() {
+            var validator = new BatchingHeaderValidator(store, 1, LONG_WINDOW);
+
+            assertThrows(IllegalStateException.class, () -> validator.validate("X-Entitlement", "boom"));
+        }
+    }
+
+    @Nested
+    class close {
+        @Test
+        void shouldSendTheOpenBatchesWithoutWaitingForTheirWindow() throws Exception {
+            var validator = new BatchingHeaderValidator(store, 100, LONG_WINDOW);
+            var first = validator.validateAsync("X-Entitlement", "2");
+            var second = validator.validateAsync("X-Entitlement", "3");
+
+            validator.close();
+
+            assertAll(
+                    () -> assertThat(first.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(second.get(5, TimeUnit.SECONDS))
+                            .isSameAs(NOT_ENTITLED),
+                    () -> assertThat(store.calls)
+                            .containsExactly(Set.of("2", "3"))
+            );
+        }
+
+        @Test
+        void shouldSendCallsMadeAfterClosingAtOnce() throws Exception {
+            var validator = new BatchingHeaderValidator(store, 100, LONG_WINDOW);
+            validator.close();
+
+            var actual = validator.validateAsync("X-Entitlement", "2").get(5, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(store.calls)
+                            .containsExactly(Set.of("2"))
+            );
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveBatchSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchingHeaderValidator(store, 0, LONG_WINDOW));
+    }
+}
@@ -0,0 +1,121 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker("X-Test", 3, OPEN_DURATION, now::get);
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire())
+                    .isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    @Nested
+    class tryAcquire {
+        @Test
+        void shouldOpenAfterConsecutiveFailures() {
+            fail(3);
+
+            assertAll(
+                    () -> assertThat(breaker.state())
+                            .isEqualTo(CircuitBreaker.State.OPEN),
+                    () -> assertThat(breaker.tryAcquire())
+                            .isFalse(),
+                    () -> assertThat(breaker.rejected())
+                            .isEqualTo(1),
+                    () -> assertThat(breaker.transitions(CircuitBreaker.State.OPEN))
+                            .isEqualTo(1)
+            );
+        }
+
+        @Test
+        void shouldResetTheFailuresOnSuccess() {
+            fail(2);
+            breaker.onSuccess();
+            fail(2);
+
+            assertThat(breaker.state())
+                    .isEqualTo(CircuitBreaker.State.CLOSED);
+        }
+
+        @Test
+        void shouldLetASingleProbeThroughOnceTheOpenDurationElapsed() {
+            fail(3);
+            now.addAndGet(OPEN_DURATION.toNanos());
+
+            assertAll(
+                    () -> assertThat(breaker.tryAcquire())
+                            .isTrue(),
+                    () -> assertThat(breaker.state())
+                            .isEqualTo(CircuitBreaker.State.HALF_OPEN),
+                    () -> assertThat(breaker.tryAcquire())
+                            .isFalse()
+            );
+        }
+
+        @Test
+        void shouldCloseWhenTheProbeSucceeds() {
+            fail(3);
+            now.addAndGet(OPEN_DURATION.toNanos());
+            breaker.tryAcquire();
+
+            breaker.onSuccess();
+
+            assertAll(
+                    () -> assertThat(breaker.state())
+                            .isEqualTo(CircuitBreaker.State.CLOSED),
+                    () -> assertThat(breaker.transitions(CircuitBreaker.State.CLOSED))
+                            .isEqualTo(1),
+                    () -> assertThat(breaker.tryAcquire())
+                            .isTrue()
+            );
+        }
+
+        @Test
+        void shouldReopenWhenTheProbeFails() {
+            fail(3);
+            now.addAndGet(OPEN_DURATION.toNanos());
+            breaker.tryAcquire();
+
+            breaker.onFailure();
+
+            assertAll(
+                    () -> assertThat(breaker.state())
+                            .isEqualTo(CircuitBreaker.State.OPEN),
+                    () -> assertThat(breaker.transitions(CircuitBreaker.State.OPEN))
+                            .isEqualTo(2),
+                    () -> assertThat(breaker.tryAcquire())
+                            .isFalse()
+            );
+        }
+
+        @Test
+        void shouldIgnoreSuccessesOfCallsStartedBeforeItOpened() {
+            fail(3);
+
+            breaker.onSuccess();
+
+            assertThat(breaker.state())
+                    .isEqualTo(CircuitBreaker.State.OPEN);
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker("X-Test", 0, OPEN_DURATION));
+    }
+}
@@ -0,0 +1,272 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoalescingHeaderValidatorTest {
+    private static final int CALLERS = 8;
+    private static final ValidationResult.Failure REJECTED = ValidationResult.Failure.of("REJECTED", "Rejected");
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final HeaderValidator delegate = (name, value) -> {
+        calls.incrementAndGet();
+        entered.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (value.equals("boom")) throw new IllegalStateException("boom");
+        return value.startsWith("bad") ? REJECTED : ValidationResult.SUCCESS;
+    };
+    private final CoalescingHeaderValidator validator = new CoalescingHeaderValidator(delegate);
+
+    /**
+     * Starts {@link #CALLERS} concurrent calls for {@code value}, releasing the delegate once all but the first are
+     * waiting on it.
+     */
+    private List<Future<ValidationResult>> validateConcurrently(String value) throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            var results = new ArrayList<Future<ValidationResult>>();
+            results.add(executor.submit(() -> validator.validate("X-ChannelCode", value)));
+            assertThat(entered.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> validator.validate("X-ChannelCode", value)));
+            }
+            while (validator.coalesced() < CALLERS - 1) Thread.onSpinWait();
+            release.countDown();
+            return results;
+        } finally {
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS))
+                    .isTrue();
+        }
+    }
+
+    @Nested
+    class validate {
+        @Test
+        void shouldShareOneCallAmongConcurrentCallers() throws Exception {
+            var results = validateConcurrently("bad");
+
+            for (var result : results) {
+                assertThat(result.get())
+                        .isSameAs(REJECTED);
+            }
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(1),
+                    () -> assertThat(validator.calls())
+                            .isEqualTo(1),
+                    () -> assertThat(validator.coalesced())
+                            .isEqualTo(CALLERS - 1)
+            );
+        }
+
+        @Test
+        void shouldPropagateExceptionsToEveryCaller() throws Exception {
+            var results = validateConcurrently("boom");
+
+            for (var result : results) {
+                var exception = assertThrows(ExecutionException.class, result::get);
+                assertThat(exception.getCause())
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessage("boom");
+            }
+            assertThat(calls)
+                    .hasValue(1);
+        }
+
+        @Test
+        void shouldNotRememberCompletedCalls() {
+            release.countDown();
+
+            validator.validate("X-ChannelCode", "10");
+            validator.validate("X-ChannelCode", "10");
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(2),
+                    () -> assertThat(validator.coalesced())
+                            .isZero()
+            );
+        }
+
+        @Test
+        void shouldKeepHeaderNamesAndValuesApart() {
+            release.countDown();
+
+            validator.validate("X-ChannelCode", "10");
+            validator.validate("X-ChannelCode", "11");
+            validator.validate("X-ServiceCode", "10");
+
+            assertThat(calls)
+                    .hasValue(3);
+        }
+    }
+
+    @Nested
+    class validateAsync {
+        @Test
+        void shouldReturnTheInFlightCall() throws Exception {
+            var leader = CompletableFuture.supplyAsync(() -> validator.validate("X-ChannelCode", "10"));
+            assertThat(entered.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+
+            var follower = validator.validateAsync("X-ChannelCode", "10");
+            assertThat(follower)
+                    .isNotDone();
+
+            release.countDown();
+            assertAll(
+                    () -> assertThat(follower.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(leader.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(calls)
+                            .hasValue(1)
+            );
+        }
+
+        @Test
+        void shouldChainTheFutureOfAnAsyncDelegate() {
+            var pending = new CompletableFuture<ValidationResult>();
+            var asyncCalls = new AtomicInteger();
+            var coalescing = new CoalescingHeaderValidator(new AsyncHeaderValidator() {
+                @Override
+                public CompletableFuture<ValidationResult> validateAsync(String headerName, String headerValue) {
+                    asyncCalls.incrementAndGet();
+                    return pending;
+                }
+
+                @Override
+                public ValidationResult validate(String headerName, String headerValue) {
+                    throw new AssertionError("Called synchronously");
+                }
+            });
+
+            var leader = coalescing.validateAsync("X-ChannelCode", "10");
+            var follower = coalescing.validateAsync("X-ChannelCode", "10");
+            assertAll(
+                    () -> assertThat(leader)
+                            .isNotDone(),
+                    () -> assertThat(follower)
+                            .isNotDone()
+            );
+
+            pending.complete(REJECTED);
+            assertAll(
+                    () -> assertThat(leader.get(5, TimeUnit.SECONDS))
+                            .isSameAs(REJECTED),
+                    () -> assertThat(follower.get(5, TimeUnit.SECONDS))
+                            .isSameAs(REJECTED),
+                    () -> assertThat(asyncCalls)
+                            .hasValue(1),
+                    () -> assertThat(coalescing.coalesced())
+                            .isEqualTo(1)
+            );
+        }
+
+        @Test
+        void shouldCallABlockingDelegateOffTheCallingThread() throws Exception {
+            var thread = new AtomicReference<Thread>();
+            var coalescing = new CoalescingHeaderValidator(new HeaderValidator() {
+                @Override
+                public ValidationResult validate(String headerName, String headerValue) {
+                    thread.set(Thread.currentThread());
+                    return ValidationResult.SUCCESS;
+                }
+
+                @Override
+                public boolean isBlocking() {
+                    return true;
+                }
+            });
+
+            var result = coalescing.validateAsync("X-ChannelCode", "10").get(5, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(result)
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(thread.get())
+                            .isNotSameAs(Thread.currentThread())
+            );
+        }
+
+        @Test
+        void shouldNotCancelTheSharedCallWhenACallerCancels() throws Exception {
+            var leader = CompletableFuture.supplyAsync(() -> validator.validate("X-ChannelCode", "10"));
+            assertThat(entered.await(5, TimeUnit.SECONDS))
+                    .isTrue();
+
+            validator.validateAsync("X-ChannelCode", "10").cancel(true);
+            var follower = validator.validateAsync("X-ChannelCode", "10");
+
+            release.countDown();
+            assertAll(
+                    () -> assertThat(follower.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(leader.get(5, TimeUnit.SECONDS))
+                            .isSameAs(ValidationResult.SUCCESS)
+            );
+        }
+
+        @Test
+        void shouldCompleteExceptionallyWhenTheDelegateThrows() {
+            release.countDown();
+
+            var result = validator.validateAsync("X-ChannelCode", "boom");
+
+            var exception = assertThrows(ExecutionException.class, result::get);
+            assertThat(exception.getCause())
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldBeBlockingWhenTheDelegateIs() {
+        HeaderValidator blocking = new HeaderValidator() {
+            @Override
+            public ValidationResult validate(String headerName, String headerValue) {
+                return ValidationResult.SUCCESS;
+            }
+
+            @Override
+            public boolean isBlocking() {
+                return true;
+            }
+        };
+
+        assertAll(
+                () -> assertThat(new CoalescingHeaderValidator(blocking).isBlocking())
+                        .isTrue(),
+                () -> assertThat(validator.isBlocking())
+                        .isFalse()
+        );
+    }
+
+    @Test
+    void shouldReportTheCostOfTheDelegate() {
+        assertThat(new CoalescingHeaderValidator(new RegexValidator("^\\d+$")).cost())
+                .isEqualTo(ValidationCost.PATTERN);
+    }
+}
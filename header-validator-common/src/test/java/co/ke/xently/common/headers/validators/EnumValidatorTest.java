@@ -0,0 +1,67 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EnumValidatorTest {
+    private static final EnumValidator VALIDATOR = new EnumValidator(List.of("App", "USSD", "Web", "Ärzte"));
+
+    static Stream<TestCase> valueProvider() {
+        return Stream.of(
+                new TestCase("", ValidationResult.Failure.class),
+                new TestCase("Ap", ValidationResult.Failure.class),
+                new TestCase("Apps", ValidationResult.Failure.class),
+                new TestCase(" App", ValidationResult.Failure.class),
+                new TestCase("SMS", ValidationResult.Failure.class),
+                new TestCase("App", ValidationResult.Success.class),
+                new TestCase("app", ValidationResult.Success.class),
+                new TestCase("uSsD", ValidationResult.Success.class),
+                new TestCase("WEB", ValidationResult.Success.class),
+                new TestCase("ärzte", ValidationResult.Success.class)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("valueProvider")
+    void shouldValidateCaseInsensitively(TestCase testCase) {
+        var actual = VALIDATOR.validate("X-ChannelName", testCase.headerValue());
+
+        assertInstanceOf(testCase.expected(), actual);
+    }
+
+    @Test
+    void shouldLookUpLargeSets() {
+        var values = IntStream.range(0, 2_000).mapToObj("value-%d"::formatted).toList();
+        var validator = new EnumValidator(values);
+
+        assertAll(
+                () -> assertThat(values)
+                        .allSatisfy(value -> assertThat(validator.validate("X-Code", value.toUpperCase()))
+                                .isSameAs(ValidationResult.SUCCESS)),
+                () -> assertThat(validator.validate("X-Code", "value-2000"))
+                        .isInstanceOf(ValidationResult.Failure.class)
+        );
+    }
+
+    @Test
+    void shouldRejectEmptyBlankAndDuplicateValues() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new EnumValidator(List.of())),
+                () -> assertThrows(IllegalArgumentException.class, () -> new EnumValidator(List.of("a", " "))),
+                () -> assertThrows(IllegalArgumentException.class, () -> new EnumValidator(List.of("a", "A")))
+        );
+    }
+
+    record TestCase(String headerValue, Class<? extends ValidationResult> expected) {
+    }
+}
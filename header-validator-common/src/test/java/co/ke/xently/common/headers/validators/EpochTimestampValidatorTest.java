@@ -1,21 +1,42 @@
 package co.ke.xently.common.headers.validators;
 
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class EpochTimestampValidatorTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
     static Stream<TestCase> timestampProvider() {
         return Stream.of(
                 new TestCase("", ValidationResult.Failure.class),
                 new TestCase("1nvalid", ValidationResult.Failure.class),
+                new TestCase("-", ValidationResult.Failure.class),
+                new TestCase("+", ValidationResult.Failure.class),
+                new TestCase("1.5", ValidationResult.Failure.class),
+                new TestCase(" 1", ValidationResult.Failure.class),
+                new TestCase("١", ValidationResult.Failure.class),
                 new TestCase("1", ValidationResult.Success.class),
-                new TestCase(String.valueOf(Long.MIN_VALUE), ValidationResult.Success.class),
-                new TestCase(String.valueOf(Long.MAX_VALUE), ValidationResult.Success.class),
-                new TestCase(String.valueOf(System.currentTimeMillis()), ValidationResult.Success.class)
+                new TestCase("+1", ValidationResult.Success.class),
+                new TestCase("-1", ValidationResult.Success.class),
+                new TestCase(String.valueOf(Long.MAX_VALUE / 1_000), ValidationResult.Success.class),
+                new TestCase(String.valueOf(Long.MAX_VALUE / 1_000 + 1), ValidationResult.Failure.class),
+                new TestCase(String.valueOf(Long.MIN_VALUE), ValidationResult.Failure.class),
+                new TestCase(String.valueOf(Long.MAX_VALUE), ValidationResult.Failure.class),
+                new TestCase("9".repeat(40), ValidationResult.Failure.class),
+                new TestCase(String.valueOf(System.currentTimeMillis() / 1_000), ValidationResult.Success.class)
         );
     }
 
@@ -29,6 +50,105 @@ class EpochTimestampValidatorTest {
         assertInstanceOf(timestamp.expected(), actual);
     }
 
+    static Stream<WindowTestCase> shouldValidateWithinTheWindow() {
+        var window = new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30));
+        var seconds = NOW.getEpochSecond();
+        var millis = NOW.toEpochMilli();
+        return Stream.of(
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(seconds), ValidationResult.SUCCESS),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(seconds - 300), ValidationResult.SUCCESS),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(seconds - 301), TimestampWindow.TOO_OLD),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(seconds + 30), ValidationResult.SUCCESS),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(seconds + 31), TimestampWindow.IN_FUTURE),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, String.valueOf(millis), TimestampWindow.IN_FUTURE),
+                new WindowTestCase(EpochTimestampValidator.Unit.SECONDS, window, "x", EpochTimestampValidator.INVALID_EPOCH_TIMESTAMP),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(millis - 300_000), ValidationResult.SUCCESS),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(millis - 300_001), TimestampWindow.TOO_OLD),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(millis + 30_001), TimestampWindow.IN_FUTURE),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(seconds), TimestampWindow.TOO_OLD),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(Long.MIN_VALUE + 1), TimestampWindow.TOO_OLD),
+                new WindowTestCase(EpochTimestampValidator.Unit.MILLISECONDS, window, String.valueOf(Long.MAX_VALUE), TimestampWindow.IN_FUTURE),
+                new WindowTestCase(
+                        EpochTimestampValidator.Unit.MILLISECONDS,
+                        new TimestampWindow(null, Duration.ofMillis(Long.MAX_VALUE)),
+                        String.valueOf(Long.MAX_VALUE),
+                        ValidationResult.SUCCESS
+                ),
+                new WindowTestCase(
+                        EpochTimestampValidator.Unit.SECONDS,
+                        new TimestampWindow(Duration.ofMinutes(5), null),
+                        String.valueOf(Long.MAX_VALUE / 1_000),
+                        ValidationResult.SUCCESS
+                )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldValidateWithinTheWindow(WindowTestCase testCase) {
+        var validator = new EpochTimestampValidator(testCase.unit(), testCase.window(), InstantSource.fixed(NOW));
+
+        var actual = validator.validate("X-TimeStamp", testCase.headerValue());
+
+        assertSame(testCase.expected(), actual);
+    }
+
+    @Test
+    void shouldNotAllocateWhileRejectingValues() {
+        var validator = new EpochTimestampValidator(
+                EpochTimestampValidator.Unit.SECONDS,
+                new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30))
+        );
+        var values = new String[]{"garbage", "17000000000000000000000", "-", String.valueOf(Long.MAX_VALUE / 1_000)};
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int failures = 0;
+        for (int i = 0; i < 20_000; i++) {
+            failures += validator.validate("X-TimeStamp", values[i & 3]) instanceof ValidationResult.Failure ? 1 : 0;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20_000; i++) {
+            failures += validator.validate("X-TimeStamp", values[i & 3]) instanceof ValidationResult.Failure ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        int total = failures;
+
+        assertAll(
+                () -> assertThat(allocated)
+                        .isLessThan(1024),
+                () -> assertThat(total)
+                        .isEqualTo(40_000)
+        );
+    }
+
+    @Nested
+    class toEpochMilli {
+        @Test
+        void shouldParseValuesOfEachUnitIntoMilliseconds() {
+            assertAll(
+                    () -> assertThat(EpochTimestampValidator.Unit.SECONDS.toEpochMilli("1700000000"))
+                            .isEqualTo(1_700_000_000_000L),
+                    () -> assertThat(EpochTimestampValidator.Unit.SECONDS.toEpochMilli("-1"))
+                            .isEqualTo(-1_000L),
+                    () -> assertThat(EpochTimestampValidator.Unit.MILLISECONDS.toEpochMilli("1700000000123"))
+                            .isEqualTo(1_700_000_000_123L),
+                    () -> assertThat(EpochTimestampValidator.Unit.MILLISECONDS.toEpochMilli(String.valueOf(-Long.MAX_VALUE)))
+                            .isEqualTo(-Long.MAX_VALUE),
+                    () -> assertThat(EpochTimestampValidator.Unit.MILLISECONDS.toEpochMilli(String.valueOf(Long.MIN_VALUE)))
+                            .isEqualTo(EpochTimestampValidator.INVALID),
+                    () -> assertThat(EpochTimestampValidator.Unit.MILLISECONDS.toEpochMilli("18446744073709551616"))
+                            .isEqualTo(EpochTimestampValidator.INVALID)
+            );
+        }
+    }
+
     record TestCase(String headerValue, Class<? extends ValidationResult> expected) {
     }
-}
\ No newline at end of file
+
+    record WindowTestCase(
+            EpochTimestampValidator.Unit unit,
+            TimestampWindow window,
+            String headerValue,
+            ValidationResult expected) {
+    }
+}
@@ -0,0 +1,192 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GuardedHeaderValidatorTest {
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+    /**
+     * Hangs on {@code hang}, throws on {@code boom} and otherwise accepts values starting with {@code ok}.
+     */
+    private final HeaderValidator delegate = (name, value) -> {
+        calls.incrementAndGet();
+        switch (value) {
+            case "hang" -> {
+                try {
+                    Thread.sleep(Duration.ofMinutes(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return ValidationResult.SUCCESS;
+            }
+            case "boom" -> throw new IllegalStateException("boom");
+            default -> {
+                return value.startsWith("ok") ? ValidationResult.SUCCESS : new ValidationResult.Failure("Invalid value");
+            }
+        }
+    };
+
+    private GuardedHeaderValidator guard(GuardedHeaderValidator.FailureMode failureMode, int failureThreshold) {
+        return new GuardedHeaderValidator(
+                delegate,
+                TIMEOUT,
+                failureMode,
+                new CircuitBreaker("X-Test", failureThreshold, Duration.ofMinutes(1))
+        );
+    }
+
+    record TestCase(String value, GuardedHeaderValidator.FailureMode failureMode, ValidationResult expected) {
+    }
+
+    static Stream<TestCase> shouldDegradeAsConfigured() {
+        return Stream.of(
+                new TestCase("hang", GuardedHeaderValidator.FailureMode.FAIL_CLOSED, GuardedHeaderValidator.TIMED_OUT),
+                new TestCase("hang", GuardedHeaderValidator.FailureMode.FAIL_OPEN, GuardedHeaderValidator.FAILED_OPEN),
+                new TestCase("boom", GuardedHeaderValidator.FailureMode.FAIL_CLOSED, GuardedHeaderValidator.UNAVAILABLE),
+                new TestCase("boom", GuardedHeaderValidator.FailureMode.FAIL_OPEN, GuardedHeaderValidator.FAILED_OPEN)
+        );
+    }
+
+    @Nested
+    class validate {
+        @Test
+        void shouldReturnTheResultOfTheDelegate() {
+            var validator = guard(GuardedHeaderValidator.FailureMode.FAIL_CLOSED, 5);
+
+            assertAll(
+                    () -> assertThat(validator.validate("X-Tenant", "ok"))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(validator.validate("X-Tenant", "bad"))
+                            .isInstanceOf(ValidationResult.Failure.class)
+                            .isNotIn(GuardedHeaderValidator.TIMED_OUT, GuardedHeaderValidator.UNAVAILABLE)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource("co.ke.xently.common.headers.validators.GuardedHeaderValidatorTest#shouldDegradeAsConfigured")
+        void shouldDegradeAsConfigured(TestCase testCase) {
+            var validator = guard(testCase.failureMode(), 5);
+
+            assertThat(validator.validate("X-Tenant", testCase.value()))
+                    .isSameAs(testCase.expected());
+        }
+
+        @Test
+        void shouldInterruptCallsThatTimeOut() throws InterruptedException {
+            var validator = guard(GuardedHeaderValidator.FailureMode.FAIL_CLOSED, 5);
+
+            validator.validate("X-Tenant", "hang");
+
+            assertAll(
+                    () -> assertThat(interrupted.await(5, TimeUnit.SECONDS))
+                            .isTrue(),
+                    () -> assertThat(validator.timeouts())
+                            .isEqualTo(1)
+            );
+        }
+
+        @Test
+        void shouldShortCircuitOnceTheCircuitOpens() {
+            var validator = guard(GuardedHeaderValidator.FailureMode.FAIL_CLOSED, 2);
+            validator.validate("X-Tenant", "boom");
+            validator.validate("X-Tenant", "hang");
+            calls.set(0);
+
+            var actual = validator.validate("X-Tenant", "ok");
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isSameAs(GuardedHeaderValidator.UNAVAILABLE),
+                    () -> assertThat(calls)
+                            .hasValue(0),
+                    () -> assertThat(validator.breaker().state())
+                            .isEqualTo(CircuitBreaker.State.OPEN),
+                    () -> assertThat(validator.errors())
+                            .isEqualTo(1),
+                    () -> assertThat(validator.timeouts())
+                            .isEqualTo(1),
+                    () -> assertThat(validator.shortCircuited())
+                            .isEqualTo(1)
+            );
+        }
+    }
+
+    @Nested
+    class validateAsync {
+        @Test
+        void shouldNotCompleteTheFutureOfAnAsyncDelegateOnTimeout() throws Exception {
+            var shared = new CompletableFuture<ValidationResult>();
+            AsyncHeaderValidator async = new AsyncHeaderValidator() {
+                @Override
+                public CompletableFuture<ValidationResult> validateAsync(String headerName, String headerValue) {
+                    return shared;
+                }
+
+                @Override
+                public ValidationResult validate(String headerName, String headerValue) {
+                    return shared.join();
+                }
+            };
+            var validator = new GuardedHeaderValidator(
+                    async,
+                    TIMEOUT,
+                    GuardedHeaderValidator.FailureMode.FAIL_CLOSED,
+                    new CircuitBreaker("X-Test", 5, Duration.ofMinutes(1))
+            );
+
+            var actual = validator.validateAsync("X-Tenant", "ok").get(5, TimeUnit.SECONDS);
+
+            assertAll(
+                    () -> assertThat(actual)
+                            .isSameAs(GuardedHeaderValidator.TIMED_OUT),
+                    () -> assertThat(shared)
+                            .isNotDone()
+            );
+        }
+    }
+
+    @Nested
+    class isFallback {
+        @Test
+        void shouldOnlyHoldForSubstitutedResults() {
+            assertAll(
+                    () -> assertThat(GuardedHeaderValidator.isFallback(GuardedHeaderValidator.FAILED_OPEN))
+                            .isTrue(),
+                    () -> assertThat(GuardedHeaderValidator.isFallback(GuardedHeaderValidator.TIMED_OUT))
+                            .isTrue(),
+                    () -> assertThat(GuardedHeaderValidator.isFallback(GuardedHeaderValidator.UNAVAILABLE))
+                            .isTrue(),
+                    () -> assertThat(GuardedHeaderValidator.isFallback(ValidationResult.SUCCESS))
+                            .isFalse(),
+                    () -> assertThat(GuardedHeaderValidator.FAILED_OPEN)
+                            .isEqualTo(ValidationResult.SUCCESS)
+            );
+        }
+    }
+
+    @Test
+    void shouldRejectNonPositiveTimeouts() {
+        assertThrows(IllegalArgumentException.class, () -> new GuardedHeaderValidator(
+                delegate,
+                Duration.ZERO,
+                GuardedHeaderValidator.FailureMode.FAIL_OPEN,
+                new CircuitBreaker("X-Test", 1, Duration.ofSeconds(1))
+        ));
+    }
+}
@@ -0,0 +1,151 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ISO8601TimestampValidatorTest {
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    static Stream<TestCase> timestampProvider() {
+        return Stream.of(
+                new TestCase("", ValidationResult.Failure.class),
+                new TestCase("garbage", ValidationResult.Failure.class),
+                new TestCase("1735689600", ValidationResult.Failure.class),
+                new TestCase("2025-01-01", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01 00:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-1-01T00:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-02-29T00:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-13-01T00:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T24:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:60Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00.Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00.1234567890Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00+3:00", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00+0300", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00+18:30", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00ZZ", ValidationResult.Failure.class),
+                new TestCase("٢٠٢٥-01-01T00:00:00Z", ValidationResult.Failure.class),
+                new TestCase("2025-01-01T00:00:00Z", ValidationResult.Success.class),
+                new TestCase("2025-01-01t00:00:00z", ValidationResult.Success.class),
+                new TestCase("2024-02-29T23:59:59.999999999Z", ValidationResult.Success.class),
+                new TestCase("2016-12-31T23:59:60Z", ValidationResult.Success.class),
+                new TestCase("2025-01-01T00:00:00.5+03:00", ValidationResult.Success.class),
+                new TestCase("2025-01-01T00:00:00-18:00", ValidationResult.Success.class),
+                new TestCase(Instant.now().toString(), ValidationResult.Success.class)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("timestampProvider")
+    void shouldValidate(TestCase timestamp) {
+        var validator = new ISO8601TimestampValidator();
+
+        var actual = validator.validate("X-Timestamp", timestamp.headerValue());
+
+        assertInstanceOf(timestamp.expected(), actual);
+    }
+
+    @Test
+    void shouldValidateWithinTheWindow() {
+        var validator = new ISO8601TimestampValidator(
+                new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30)),
+                InstantSource.fixed(NOW)
+        );
+
+        assertAll(
+                () -> assertSame(ValidationResult.SUCCESS, validator.validate("X-Timestamp", "2024-12-31T23:55:00Z")),
+                () -> assertSame(TimestampWindow.TOO_OLD, validator.validate("X-Timestamp", "2024-12-31T23:54:59.999Z")),
+                () -> assertSame(ValidationResult.SUCCESS, validator.validate("X-Timestamp", "2025-01-01T03:00:30+03:00")),
+                () -> assertSame(TimestampWindow.IN_FUTURE, validator.validate("X-Timestamp", "2025-01-01T00:00:30.001Z")),
+                () -> assertSame(
+                        ISO8601TimestampValidator.INVALID_ISO8601_TIMESTAMP,
+                        validator.validate("X-Timestamp", "2025-01-01T00:00:00")
+                )
+        );
+    }
+
+    @Test
+    void shouldNotAllocateWhileRejectingValues() {
+        var validator = new ISO8601TimestampValidator(new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30)));
+        var values = new String[]{"garbage", "2025-02-30T00:00:00Z", "2025-01-01T00:00:00+19:00", "9999-12-31T23:59:59Z"};
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int failures = 0;
+        for (int i = 0; i < 20_000; i++) {
+            failures += validator.validate("X-Timestamp", values[i & 3]) instanceof ValidationResult.Failure ? 1 : 0;
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20_000; i++) {
+            failures += validator.validate("X-Timestamp", values[i & 3]) instanceof ValidationResult.Failure ? 1 : 0;
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        int total = failures;
+
+        assertAll(
+                () -> assertThat(allocated)
+                        .isLessThan(1024),
+                () -> assertThat(total)
+                        .isEqualTo(40_000)
+        );
+    }
+
+    @Nested
+    class toEpochMilli {
+        @Test
+        void shouldParseLikeInstantParse() {
+            var random = new Random(8601);
+            var values = Stream.generate(() -> "%04d-%02d-%02dT%02d:%02d:%02d%s%s".formatted(
+                            random.nextInt(10_000),
+                            random.nextInt(14),
+                            random.nextInt(33),
+                            random.nextInt(26),
+                            random.nextInt(61),
+                            random.nextInt(10) == 0 ? 60 : random.nextInt(60),
+                            switch (random.nextInt(3)) {
+                                case 0 -> "";
+                                case 1 -> "." + "1234567890".substring(0, 1 + random.nextInt(10));
+                                default -> "." + random.nextInt(1_000);
+                            },
+                            switch (random.nextInt(3)) {
+                                case 0 -> "Z";
+                                case 1 -> "+%02d:%02d".formatted(random.nextInt(20), random.nextInt(61));
+                                default -> "-%02d:%02d".formatted(random.nextInt(20), random.nextInt(61));
+                            }))
+                    .limit(20_000)
+                    .toList();
+
+            assertThat(values)
+                    .allSatisfy(value -> assertThat(ISO8601TimestampValidator.toEpochMilli(value))
+                            .as(value)
+                            .isEqualTo(parse(value)));
+        }
+
+        private static long parse(String value) {
+            try {
+                return Instant.parse(value).toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return ISO8601TimestampValidator.INVALID;
+            }
+        }
+    }
+
+    record TestCase(String headerValue, Class<? extends ValidationResult> expected) {
+    }
+}
@@ -0,0 +1,61 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntegerRangeValidatorTest {
+    static Stream<TestCase> shouldValidate() {
+        var unsigned = new IntegerRangeValidator(0, 100);
+        var any = new IntegerRangeValidator();
+        return Stream.of(
+                new TestCase(unsigned, "", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "-", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "+", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "1.0", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, " 1", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "0x10", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "9".repeat(30) + "x", IntegerRangeValidator.INVALID_INTEGER.errorCode()),
+                new TestCase(unsigned, "0", null),
+                new TestCase(unsigned, "100", null),
+                new TestCase(unsigned, "+42", null),
+                new TestCase(unsigned, "007", null),
+                new TestCase(unsigned, "-0", null),
+                new TestCase(unsigned, "-1", IntegerRangeValidator.OUT_OF_RANGE),
+                new TestCase(unsigned, "101", IntegerRangeValidator.OUT_OF_RANGE),
+                new TestCase(unsigned, "9".repeat(30), IntegerRangeValidator.OUT_OF_RANGE),
+                new TestCase(any, String.valueOf(Long.MIN_VALUE), null),
+                new TestCase(any, String.valueOf(Long.MAX_VALUE), null),
+                new TestCase(any, "-9223372036854775809", IntegerRangeValidator.OUT_OF_RANGE),
+                new TestCase(any, "9223372036854775808", IntegerRangeValidator.OUT_OF_RANGE)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldValidate(TestCase testCase) {
+        var actual = testCase.validator().validate("X-Count", testCase.headerValue());
+
+        if (testCase.expectedErrorCode() == null) {
+            assertThat(actual)
+                    .isSameAs(ValidationResult.SUCCESS);
+        } else {
+            assertThat(actual)
+                    .isInstanceOfSatisfying(ValidationResult.Failure.class, failure -> assertThat(failure.errorCode())
+                            .isEqualTo(testCase.expectedErrorCode()));
+        }
+    }
+
+    @Test
+    void shouldRejectEmptyRanges() {
+        assertThrows(IllegalArgumentException.class, () -> new IntegerRangeValidator(1, 0));
+    }
+
+    record TestCase(IntegerRangeValidator validator, String headerValue, String expectedErrorCode) {
+    }
+}
@@ -0,0 +1,35 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LengthValidatorTest {
+    private final LengthValidator validator = new LengthValidator(2, 4);
+
+    @Test
+    void shouldAcceptValuesWithinTheRangeInclusive() {
+        assertAll(
+                () -> assertThat(validator.validate("X-Code", "ab"))
+                        .isSameAs(ValidationResult.SUCCESS),
+                () -> assertThat(validator.validate("X-Code", "abcd"))
+                        .isSameAs(ValidationResult.SUCCESS),
+                () -> assertThat(validator.validate("X-Code", "a"))
+                        .isInstanceOfSatisfying(ValidationResult.Failure.class, failure -> assertThat(failure.errorCode())
+                                .isEqualTo(LengthValidator.LENGTH_OUT_OF_RANGE)),
+                () -> assertThat(validator.validate("X-Code", "abcde"))
+                        .isInstanceOfSatisfying(ValidationResult.Failure.class, failure -> assertThat(failure.errorMessage())
+                                .isEqualTo("Header value must be between 2 and 4 characters long"))
+        );
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new LengthValidator(-1, 4)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new LengthValidator(5, 4))
+        );
+    }
+}
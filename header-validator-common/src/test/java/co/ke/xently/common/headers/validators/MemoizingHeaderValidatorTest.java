@@ -0,0 +1,250 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MemoizingHeaderValidatorTest {
+    private static final ValidationResult.Failure REJECTED = ValidationResult.Failure.of("REJECTED", "Rejected");
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong();
+    private final HeaderValidator delegate = (name, value) -> {
+        calls.incrementAndGet();
+        if (value.equals("boom")) throw new IllegalStateException("boom");
+        return value.startsWith("bad") ? REJECTED : ValidationResult.SUCCESS;
+    };
+
+    private MemoizingHeaderValidator memoize(int maximumSize, Duration ttl, Duration failureTtl) {
+        return new MemoizingHeaderValidator(delegate, maximumSize, ttl, failureTtl, now::get);
+    }
+
+    @Nested
+    class validate {
+        @Test
+        void shouldCallTheDelegateOncePerValue() {
+            var validator = memoize(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+            for (int i = 0; i < 5; i++) {
+                validator.validate("X-ChannelCode", "10");
+                validator.validate("X-ChannelCode", "bad");
+            }
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(2),
+                    () -> assertThat(validator.hits())
+                            .isEqualTo(8),
+                    () -> assertThat(validator.misses())
+                            .isEqualTo(2),
+                    () -> assertThat(validator.validate("X-ChannelCode", "bad"))
+                            .isSameAs(REJECTED)
+            );
+        }
+
+        @Test
+        void shouldKeepHeaderNamesApart() {
+            var validator = memoize(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+            validator.validate("X-ChannelCode", "10");
+            validator.validate("X-ServiceCode", "10");
+
+            assertThat(calls)
+                    .hasValue(2);
+        }
+
+        @Test
+        void shouldExpireSuccessesAndFailuresIndependently() {
+            var validator = memoize(10, Duration.ofSeconds(60), Duration.ofSeconds(5));
+            validator.validate("X-ChannelCode", "10");
+            validator.validate("X-ChannelCode", "bad");
+
+            now.addAndGet(Duration.ofSeconds(10).toNanos());
+            validator.validate("X-ChannelCode", "10");
+            validator.validate("X-ChannelCode", "bad");
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(3),
+                    () -> assertThat(validator.hits())
+                            .isEqualTo(1)
+            );
+        }
+
+        @Test
+        void shouldNotCacheFailuresWhenNegativeCachingIsDisabled() {
+            var validator = memoize(10, Duration.ofMinutes(1), Duration.ZERO);
+
+            validator.validate("X-ChannelCode", "bad");
+            validator.validate("X-ChannelCode", "bad");
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(2),
+                    () -> assertThat(validator.size())
+                            .isZero()
+            );
+        }
+
+        @Test
+        void shouldNotCacheExceptions() {
+            var validator = memoize(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+            assertThrows(IllegalStateException.class, () -> validator.validate("X-ChannelCode", "boom"));
+            assertThrows(IllegalStateException.class, () -> validator.validate("X-ChannelCode", "boom"));
+
+            assertThat(calls)
+                    .hasValue(2);
+        }
+
+        @Test
+        void shouldNotCacheGuardFallbacks() {
+            HeaderValidator guarded = (name, value) -> {
+                calls.incrementAndGet();
+                return value.equals("slow") ? GuardedHeaderValidator.FAILED_OPEN : GuardedHeaderValidator.TIMED_OUT;
+            };
+            var validator = new MemoizingHeaderValidator(guarded, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), now::get);
+
+            for (int i = 0; i < 2; i++) {
+                validator.validate("X-ChannelCode", "slow");
+                validator.validate("X-ChannelCode", "stuck");
+            }
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(4),
+                    () -> assertThat(validator.size())
+                            .isZero()
+            );
+        }
+
+        @Test
+        void shouldStayWithinItsMaximumSize() {
+            var validator = memoize(100, Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+            for (int i = 0; i < 1_000; i++) validator.validate("X-Correlation-Id", String.valueOf(i));
+
+            assertAll(
+                    () -> assertThat(validator.size())
+                            .isLessThanOrEqualTo(100),
+                    () -> assertThat(validator.evictions())
+                            .isGreaterThanOrEqualTo(900)
+            );
+        }
+
+        @Test
+        void shouldStayWithinItsMaximumSizeUnderConcurrentMisses() throws InterruptedException {
+            var validator = memoize(10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+            var largest = new AtomicLong();
+            var executor = Executors.newFixedThreadPool(8);
+
+            for (int i = 0; i < 8; i++) {
+                int caller = i;
+                executor.execute(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        validator.validate("X-Correlation-Id", caller + "-" + j);
+                        largest.accumulateAndGet(validator.size(), Math::max);
+                    }
+                });
+            }
+            executor.shutdown();
+
+            assertAll(
+                    () -> assertThat(executor.awaitTermination(30, TimeUnit.SECONDS))
+                            .isTrue(),
+                    () -> assertThat(largest)
+                            .hasValueLessThanOrEqualTo(10),
+                    () -> assertThat(validator.size())
+                            .isLessThanOrEqualTo(10)
+            );
+        }
+
+        @Test
+        void shouldPreferEvictingEntriesThatWereNotReadRecently() {
+            var validator = memoize(3, Duration.ofMinutes(1), Duration.ofMinutes(1));
+            validator.validate("X-ChannelCode", "hot");
+            validator.validate("X-ChannelCode", "cold-1");
+            validator.validate("X-ChannelCode", "cold-2");
+            validator.validate("X-ChannelCode", "hot");
+
+            validator.validate("X-ChannelCode", "new");
+            calls.set(0);
+            validator.validate("X-ChannelCode", "hot");
+
+            assertThat(calls)
+                    .hasValue(0);
+        }
+    }
+
+    @Nested
+    class validateAsync {
+        private final CompletableFuture<ValidationResult> pending = new CompletableFuture<>();
+        private final AsyncHeaderValidator async = new AsyncHeaderValidator() {
+            @Override
+            public CompletableFuture<ValidationResult> validateAsync(String headerName, String headerValue) {
+                calls.incrementAndGet();
+                return pending;
+            }
+
+            @Override
+            public ValidationResult validate(String headerName, String headerValue) {
+                return pending.join();
+            }
+        };
+        private final MemoizingHeaderValidator.Async validator = new MemoizingHeaderValidator.Async(
+                async, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), now::get
+        );
+
+        @Test
+        void shouldCacheResultsOnceTheDelegateCompletes() {
+            var miss = validator.validateAsync("X-ChannelCode", "10");
+            pending.complete(ValidationResult.SUCCESS);
+
+            var hit = validator.validateAsync("X-ChannelCode", "10");
+
+            assertAll(
+                    () -> assertThat(miss)
+                            .isCompletedWithValue(ValidationResult.SUCCESS),
+                    () -> assertThat(hit)
+                            .isCompletedWithValue(ValidationResult.SUCCESS),
+                    () -> assertThat(calls)
+                            .hasValue(1)
+            );
+        }
+
+        @Test
+        void shouldNotCacheGuardFallbacks() {
+            pending.complete(GuardedHeaderValidator.UNAVAILABLE);
+
+            validator.validateAsync("X-ChannelCode", "10");
+            validator.validateAsync("X-ChannelCode", "10");
+
+            assertAll(
+                    () -> assertThat(calls)
+                            .hasValue(2),
+                    () -> assertThat(validator.size())
+                            .isZero()
+            );
+        }
+    }
+
+    @Test
+    void shouldBeCheaperThanItsDelegate() {
+        assertAll(
+                () -> assertThat(memoize(1, Duration.ofMinutes(1), Duration.ZERO).cost())
+                        .isEqualTo(ValidationCost.PARSE),
+                () -> assertThat(new MemoizingHeaderValidator(new DefaultHeaderValidator(), 1, Duration.ofMinutes(1), Duration.ZERO).cost())
+                        .isEqualTo(ValidationCost.PRESENCE)
+        );
+    }
+}
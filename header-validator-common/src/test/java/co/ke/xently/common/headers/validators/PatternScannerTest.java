@@ -0,0 +1,160 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class PatternScannerTest {
+    private static final List<String> VALUES = List.of(
+            "", "v", "V", "v1", "V1", "1", "v1.", "v1.2", "v1.2.3", "v1.2.3.4", "v1x2", "v12.34.56", "1.2.3",
+            "http://a.b", "https://example.com/callback", "https://", "ftp://a.b", "HTTP://A.B", "http://ab",
+            "abc", "ABC", "abc1", "a-b", "a_b", "a b", "a\tb", "a\nb", "a\rb", "a\u0085b", "a\u2028b", "\n", "ab\n",
+            "ABC123", "AB12", "0", "00", "123456789", "-1", "+1", "\u00e9", "a\u00e9", "\u00e9\u00e9", "\u03a9", "x\u03a9x", "x".repeat(70),
+            "abababababab", "bbbbbbbbbbbbbbb", "aaaaaaaaaaaaaaaaaa", "\ud83d\ude00", "a\ud83d\ude00", "\ud83d\ude00\ud83d\ude00",
+            "\ud83d", "\ude00\ud83d", "a\ud83db", "ab".repeat(40) + "a".repeat(9), "x".repeat(65)
+    );
+
+    static Stream<Pattern> shouldMatchLikeJavaUtilRegex() {
+        return Stream.of(
+                Pattern.compile("v?\\d+(.\\d+){0,2}", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("^https?://.+..+"),
+                Pattern.compile("v\\d+(.\\d+){0,2}"),
+                Pattern.compile("^[A-Z]{3}\\d{0,3}$"),
+                Pattern.compile("[a-z]+", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("[^a-c]*", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("[^a-c]*"),
+                Pattern.compile("abc|ABC|\\d+"),
+                Pattern.compile("(?:ab|a)(?:b|)c?"),
+                Pattern.compile("a.b"),
+                Pattern.compile("a.b", Pattern.DOTALL),
+                Pattern.compile("\\w+[-_ ]\\w+"),
+                Pattern.compile("\\S+\\s\\S+"),
+                Pattern.compile("[\\d\\-+]{1,3}"),
+                Pattern.compile("[\\W]+"),
+                Pattern.compile("\\D*"),
+                Pattern.compile("(a|b)*c*"),
+                Pattern.compile("(x{2,3}){2,}"),
+                Pattern.compile("x{1,}?"),
+                Pattern.compile("(\\d+)?"),
+                Pattern.compile("\\x41\\u0042c", Pattern.CASE_INSENSITIVE),
+                Pattern.compile("[\u00e9]+"),
+                Pattern.compile("[x\u03a9]+"),
+                Pattern.compile("x.+"),
+                // More states than MAX_STATES, so simulated rather than turned into a DFA.
+                Pattern.compile("(a|b)*a(a|b){8}"),
+                // More than 64 positions.
+                Pattern.compile("x{65}"),
+                Pattern.compile("(?:ab|\\d){40}a*"),
+                Pattern.compile("(a|b)*a(a|b){40}"),
+                Pattern.compile("[\\w\ud83d\ude00]{2,70}"),
+                Pattern.compile("\ud83d\ude00+"),
+                Pattern.compile("[^a]+"),
+                Pattern.compile(".*", Pattern.DOTALL),
+                Pattern.compile("\\.\\*\\$"),
+                Pattern.compile("^$"),
+                Pattern.compile("")
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldMatchLikeJavaUtilRegex(Pattern pattern) {
+        var scanner = PatternScanner.compile(pattern);
+        var random = new Random(pattern.pattern().hashCode());
+        var alphabet = "aAbBcCvVxX019._-+ \t\n/:\u00e9\u03a9\ud83d\ude00";
+        var values = Stream.concat(
+                VALUES.stream(),
+                Stream.generate(() -> random.ints(random.nextInt(12), 0, alphabet.length())
+                                .collect(StringBuilder::new, (builder, i) -> builder.append(alphabet.charAt(i)), StringBuilder::append)
+                                .toString())
+                        .limit(500)
+        ).toList();
+
+        assertThat(scanner)
+                .isNotNull();
+        assertThat(values)
+                .allSatisfy(value -> assertThat(scanner.match(value) == PatternScanner.MATCH)
+                        .as("'%s' against '%s'", value, pattern)
+                        .isEqualTo(pattern.matcher(value).matches()));
+    }
+
+    @Test
+    void shouldMatchSurrogatePairsAsSingleCodePoints() {
+        var any = PatternScanner.compile(Pattern.compile("."));
+        var ascii = PatternScanner.compile(Pattern.compile("[a-z]+"));
+
+        assertAll(
+                () -> assertThat(any.match("\ud83d\ude00"))
+                        .isEqualTo(PatternScanner.MATCH),
+                () -> assertThat(any.match("\ud83d"))
+                        .isEqualTo(PatternScanner.MATCH),
+                () -> assertThat(any.match("\ude00\ud83d"))
+                        .isEqualTo(PatternScanner.MISMATCH),
+                () -> assertThat(ascii.match("a\ud83d\ude00"))
+                        .isEqualTo(PatternScanner.MISMATCH)
+        );
+    }
+
+    @Test
+    void shouldNotAllocateWhileMatching() {
+        var scanner = PatternScanner.compile(Pattern.compile("v?\\d+(.\\d+){0,2}", Pattern.CASE_INSENSITIVE));
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int matches = 0;
+        for (int i = 0; i < 20_000; i++) {
+            matches += scanner.match("v1.123.3");
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 20_000; i++) {
+            matches += scanner.match("v1.123.3");
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        int total = matches;
+
+        assertAll(
+                () -> assertThat(allocated)
+                        .isLessThan(1024),
+                () -> assertThat(total)
+                        .isEqualTo(40_000)
+        );
+    }
+
+    @Nested
+    class compile {
+        static Stream<Pattern> shouldNotSupport() {
+            return Stream.of(
+                    Pattern.compile("(a)\\1"),
+                    Pattern.compile("a(?=b)"),
+                    Pattern.compile("(?i)a"),
+                    Pattern.compile("a++"),
+                    Pattern.compile("\\bword\\b"),
+                    Pattern.compile("\\p{Alpha}"),
+                    Pattern.compile("[a-z&&[^e]]"),
+                    Pattern.compile("[a[b]]"),
+                    Pattern.compile("a$|b"),
+                    Pattern.compile("a", Pattern.MULTILINE),
+                    Pattern.compile("a", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE),
+                    Pattern.compile("\\Qa.b\\E"),
+                    Pattern.compile("x{1025}"),
+                    Pattern.compile("\ud83d")
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldNotSupport(Pattern pattern) {
+            assertThat(PatternScanner.compile(pattern))
+                    .isNull();
+        }
+    }
+}
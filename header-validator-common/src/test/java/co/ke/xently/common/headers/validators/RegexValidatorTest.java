@@ -1,11 +1,18 @@
 package co.ke.xently.common.headers.validators;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.time.Duration;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 
 class RegexValidatorTest {
     static Stream<TestCase> regexProvider() {
@@ -33,6 +40,117 @@ class RegexValidatorTest {
         assertInstanceOf(testCase.expected(), actual);
     }
 
+    @Test
+    void shouldReuseResultInstances() {
+        var validator = new RegexValidator("^ok$");
+
+        var success = validator.validate("X-Header-Name", "ok");
+        var failure1 = validator.validate("X-Header-Name", "nope");
+        var failure2 = validator.validate("X-Header-Name", "still nope");
+
+        assertAll(
+                () -> assertThat(success)
+                        .isSameAs(ValidationResult.SUCCESS),
+                () -> assertThat(failure1)
+                        .isSameAs(failure2)
+        );
+    }
+
+    @Test
+    void shouldRenderFailureMessageLazily() {
+        var validator = new RegexValidator("^ok$");
+
+        var failure = (ValidationResult.Failure) validator.validate("X-Header-Name", "nope");
+
+        assertAll(
+                () -> assertThat(failure.errorCode())
+                        .isEqualTo(RegexValidator.PATTERN_MISMATCH),
+                () -> assertThat(failure.renderMessage("nope"))
+                        .isEqualTo("Header value 'nope' does not match pattern '^ok$'")
+        );
+    }
+
+    @Test
+    void shouldRenderOnlyTheValuePlaceholderOfTheFailureMessage() {
+        var validator = new RegexValidator("^\\{value\\}$");
+
+        var failure = (ValidationResult.Failure) validator.validate("X-Header-Name", "nope");
+
+        assertThat(failure.renderMessage("nope"))
+                .isEqualTo("Header value 'nope' does not match pattern '^\\{value\\}$'");
+    }
+
+    @Test
+    void shouldCompileTheDefaultPatterns() {
+        assertAll(
+                () -> assertThat(new RegexValidator(Pattern.compile("v?\\d+(.\\d+){0,2}", Pattern.CASE_INSENSITIVE)).isCompiled())
+                        .isTrue(),
+                () -> assertThat(new RegexValidator("^https?://.+..+").isCompiled())
+                        .isTrue()
+        );
+    }
+
+    @Test
+    void shouldFallBackToJavaUtilRegexForUnsupportedPatterns() {
+        var validator = new RegexValidator("(a+)\\1");
+
+        assertAll(
+                () -> assertThat(validator.isCompiled())
+                        .isFalse(),
+                () -> assertThat(validator.validate("X-Header-Name", "aaaa"))
+                        .isSameAs(ValidationResult.SUCCESS),
+                () -> assertThat(validator.validate("X-Header-Name", "aaa"))
+                        .isInstanceOf(ValidationResult.Failure.class)
+        );
+    }
+
+    @Test
+    void shouldMatchSurrogatePairsAsCodePoints() {
+        var validator = new RegexValidator("a.");
+
+        assertAll(
+                () -> assertThat(validator.isCompiled())
+                        .isTrue(),
+                () -> assertThat(validator.validate("X-Header-Name", "a\ud83d\ude00"))
+                        .isSameAs(ValidationResult.SUCCESS)
+        );
+    }
+
+    @Test
+    void shouldMatchInLinearTimePatternsThatBacktrackExponentially() {
+        var validator = new RegexValidator(Pattern.compile("(a|aa)+"), RegexValidator.Engine.LINEAR);
+        var value = "a".repeat(8_000) + "!";
+
+        var actual = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> validator.validate("X-Header-Name", value));
+
+        assertThat(actual)
+                .isInstanceOf(ValidationResult.Failure.class);
+    }
+
+    @Test
+    void shouldRejectPatternsTheLinearEngineDoesNotSupport() {
+        var pattern = Pattern.compile("(a+)\\1");
+
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> new RegexValidator(pattern, RegexValidator.Engine.LINEAR));
+
+        assertThat(exception.getMessage())
+                .startsWith("Pattern '(a+)\\1' cannot be matched in linear time");
+    }
+
+    @Test
+    void shouldReportTheBacktrackingRiskOfPatternsMatchedByJavaUtilRegex() {
+        assertAll(
+                () -> assertThat(new RegexValidator("(\\w+\\s?)*\\b").backtrackingRisk())
+                        .isEqualTo("nested quantifiers in '(\\w+\\s?)*'"),
+                () -> assertThat(new RegexValidator("(\\w+\\s?)*").backtrackingRisk())
+                        .as("compiled")
+                        .isNull(),
+                () -> assertThat(new RegexValidator("(a+)\\1").backtrackingRisk())
+                        .isNull()
+        );
+    }
+
     record TestCase(String headerValue, Class<? extends ValidationResult> expected) {
     }
 }
\ No newline at end of file
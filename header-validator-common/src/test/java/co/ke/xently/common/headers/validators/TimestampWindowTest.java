@@ -0,0 +1,52 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TimestampWindowTest {
+    @Test
+    void shouldRejectNegativeAndOverlongBounds() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new TimestampWindow(Duration.ofSeconds(-1), null)),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TimestampWindow(null, Duration.ofSeconds(-1))),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TimestampWindow(Duration.ofSeconds(Long.MAX_VALUE), null))
+        );
+    }
+
+    @Nested
+    class check {
+        private final TimestampWindow window = new TimestampWindow(Duration.ofMillis(10), Duration.ofMillis(5));
+
+        @Test
+        void shouldAcceptTimestampsWithinTheBoundsInclusive() {
+            assertAll(
+                    () -> assertThat(window.check(990, 1_000))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(window.check(1_005, 1_000))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(window.check(989, 1_000))
+                            .isSameAs(TimestampWindow.TOO_OLD),
+                    () -> assertThat(window.check(1_006, 1_000))
+                            .isSameAs(TimestampWindow.IN_FUTURE)
+            );
+        }
+
+        @Test
+        void shouldAcceptEveryTimestampWhenUnbounded() {
+            assertAll(
+                    () -> assertThat(TimestampWindow.UNBOUNDED.isUnbounded())
+                            .isTrue(),
+                    () -> assertThat(TimestampWindow.UNBOUNDED.check(Long.MIN_VALUE, 1_000))
+                            .isSameAs(ValidationResult.SUCCESS),
+                    () -> assertThat(TimestampWindow.UNBOUNDED.check(Long.MAX_VALUE, 1_000))
+                            .isSameAs(ValidationResult.SUCCESS)
+            );
+        }
+    }
+}
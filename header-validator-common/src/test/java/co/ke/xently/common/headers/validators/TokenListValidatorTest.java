@@ -0,0 +1,80 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenListValidatorTest {
+    private static final TokenListValidator VALIDATOR = new TokenListValidator(List.of("SMS", "EMAIL", "PUSH"));
+
+    @Nested
+    class toBits {
+        static Stream<TestCase> shouldReadListsIntoBitSets() {
+            return Stream.of(
+                    new TestCase("", TokenListValidator.INVALID),
+                    new TestCase(" ", TokenListValidator.INVALID),
+                    new TestCase(",", TokenListValidator.INVALID),
+                    new TestCase("SMS,", TokenListValidator.INVALID),
+                    new TestCase(",SMS", TokenListValidator.INVALID),
+                    new TestCase("SMS,,PUSH", TokenListValidator.INVALID),
+                    new TestCase("SMS;PUSH", TokenListValidator.INVALID),
+                    new TestCase("SMS,FAX", TokenListValidator.INVALID),
+                    new TestCase("SMS", 0b001),
+                    new TestCase("email", 0b010),
+                    new TestCase("SMS,PUSH", 0b101),
+                    new TestCase(" push ,\tSms", 0b101),
+                    new TestCase("SMS, EMAIL, PUSH, SMS", 0b111)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldReadListsIntoBitSets(TestCase testCase) {
+            assertThat(VALIDATOR.toBits(testCase.headerValue()))
+                    .isEqualTo(testCase.expected());
+        }
+
+        @Test
+        void shouldUseEveryBitOf64Tokens() {
+            var tokens = IntStream.range(0, 64).mapToObj("T%d"::formatted).toList();
+            var validator = new TokenListValidator(tokens);
+
+            assertThat(validator.toBits(String.join(",", tokens)))
+                    .isEqualTo(-1L);
+        }
+
+        record TestCase(String headerValue, long expected) {
+        }
+    }
+
+    @Test
+    void shouldValidate() {
+        assertAll(
+                () -> assertThat(VALIDATOR.validate("X-SubscriberEvents", "SMS,PUSH"))
+                        .isSameAs(ValidationResult.SUCCESS),
+                () -> assertThat(VALIDATOR.validate("X-SubscriberEvents", "SMS,FAX"))
+                        .isInstanceOfSatisfying(ValidationResult.Failure.class, failure -> assertThat(failure.errorCode())
+                                .isEqualTo(TokenListValidator.UNKNOWN_TOKEN))
+        );
+    }
+
+    @Test
+    void shouldRejectInvalidTokens() {
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> new TokenListValidator(
+                        IntStream.range(0, 65).mapToObj("T%d"::formatted).toList())),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TokenListValidator(List.of("A,B"))),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TokenListValidator(List.of(" A"))),
+                () -> assertThrows(IllegalArgumentException.class, () -> new TokenListValidator(List.of("A", "a")))
+        );
+    }
+}
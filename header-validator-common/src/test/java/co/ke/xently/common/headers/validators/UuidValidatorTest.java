@@ -0,0 +1,39 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class UuidValidatorTest {
+    static Stream<TestCase> uuidProvider() {
+        return Stream.of(
+                new TestCase("", ValidationResult.Failure.class),
+                new TestCase("not-a-uuid", ValidationResult.Failure.class),
+                new TestCase("123e4567e89b12d3a456426614174000", ValidationResult.Failure.class),
+                new TestCase("123e4567-e89b-12d3-a456-42661417400", ValidationResult.Failure.class),
+                new TestCase("123e4567-e89b-12d3-a456-4266141740000", ValidationResult.Failure.class),
+                new TestCase("123e4567-e89b-12d3-a456_426614174000", ValidationResult.Failure.class),
+                new TestCase("123e4567-e89b-12d3-a456-42661417400g", ValidationResult.Failure.class),
+                new TestCase("{123e4567-e89b-12d3-a456-426614174000}", ValidationResult.Failure.class),
+                new TestCase("123e4567-e89b-12d3-a456-426614174000", ValidationResult.Success.class),
+                new TestCase("123E4567-E89B-12D3-A456-426614174000", ValidationResult.Success.class),
+                new TestCase("00000000-0000-0000-0000-000000000000", ValidationResult.Success.class),
+                new TestCase(UUID.randomUUID().toString(), ValidationResult.Success.class)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("uuidProvider")
+    void shouldValidate(TestCase testCase) {
+        var actual = new UuidValidator().validate("X-Request-Id", testCase.headerValue());
+
+        assertInstanceOf(testCase.expected(), actual);
+    }
+
+    record TestCase(String headerValue, Class<? extends ValidationResult> expected) {
+    }
+}
@@ -0,0 +1,103 @@
+package co.ke.xently.common.headers.validators;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValidatorSpecTest {
+    static Stream<TestCase> shouldCreateBuiltInValidators() {
+        return Stream.of(
+                new TestCase("uuid()", new UuidValidator()),
+                new TestCase("URL()", new UrlValidator()),
+                new TestCase("integer()", new IntegerRangeValidator()),
+                new TestCase("integer(min=0)", new IntegerRangeValidator(0, Long.MAX_VALUE)),
+                new TestCase(" integer( MIN = -5 , max=10 ) ", new IntegerRangeValidator(-5, 10)),
+                new TestCase("length(max=64)", new LengthValidator(0, 64)),
+                new TestCase("length(min=1, max=8)", new LengthValidator(1, 8)),
+                new TestCase("enum(App, USSD, Web)", new EnumValidator(List.of("App", "USSD", "Web"))),
+                new TestCase("tokens(SMS,EMAIL)", new TokenListValidator(List.of("SMS", "EMAIL"))),
+                new TestCase("epoch-timestamp()", new EpochTimestampValidator()),
+                new TestCase(
+                        "epoch-timestamp(unit=milliseconds, max-age=5m, max-skew=30s)",
+                        new EpochTimestampValidator(
+                                EpochTimestampValidator.Unit.MILLISECONDS,
+                                new TimestampWindow(Duration.ofMinutes(5), Duration.ofSeconds(30))
+                        )
+                ),
+                new TestCase(
+                        "iso8601-timestamp(max-skew=PT1M)",
+                        new ISO8601TimestampValidator(new TimestampWindow(null, Duration.ofMinutes(1)))
+                )
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    void shouldCreateBuiltInValidators(TestCase testCase) {
+        assertThat(ValidatorSpec.parse(testCase.spec()))
+                .isEqualTo(testCase.expected());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "co.ke.xently.common.headers.validators.UuidValidator",
+            "CustomValidator",
+            "uuid",
+            "(uuid)",
+            "1uuid()",
+            "my.Validator()"
+    })
+    void shouldNotTreatClassOrBeanNamesAsSpecs(String source) {
+        assertThat(ValidatorSpec.parse(source))
+                .isNull();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "regex(a+)",
+            "uuid(strict)",
+            "integer(min=a)",
+            "integer(min=1, max=0)",
+            "integer(min=1, min=2)",
+            "integer(step=2)",
+            "length(max=99999999999)",
+            "enum()",
+            "enum(a, A)",
+            "tokens(a,,b)",
+            "epoch-timestamp(unit=minutes)",
+            "epoch-timestamp(max-age=-1s)",
+            "iso8601-timestamp(max-skew=soon)",
+            "allow-list()",
+            "allow-list(file=codes.xal, ignore-case=true)"
+    })
+    void shouldRejectInvalidSpecs(String spec) {
+        var exception = assertThrows(IllegalArgumentException.class, () -> ValidatorSpec.parse(spec));
+
+        assertThat(exception.getMessage())
+                .startsWith("Invalid validator spec '%s': ".formatted(spec));
+    }
+
+    @Test
+    void shouldCreateAllowListValidators(@TempDir Path directory) throws Exception {
+        var file = directory.resolve("codes.xal");
+        AllowList.write(List.of("APP"), file);
+
+        try (var validator = (AllowListValidator) ValidatorSpec.parse("allow-list(file=%s)".formatted(file))) {
+            assertThat(validator.file())
+                    .isEqualTo(file.toAbsolutePath());
+        }
+    }
+
+    record TestCase(String spec, HeaderValidator expected) {
+    }
+}
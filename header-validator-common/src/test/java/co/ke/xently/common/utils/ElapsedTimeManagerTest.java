@@ -4,6 +4,7 @@ import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -62,6 +63,18 @@ class ElapsedTimeManagerTest {
             );
         }
 
+        @Test
+        void shouldReadTimestampsInTheConfiguredUnit() {
+            String timeStampMillis = String.valueOf(System.currentTimeMillis());
+            var captured = new AtomicReference<String>();
+
+            new ElapsedTimeManager(EpochTimestampValidator.Unit.MILLISECONDS)
+                    .setElapsedTime(timeStampMillis, null, captured::set);
+
+            assertThat(Long.parseLong(captured.get()))
+                    .isBetween(0L, 60_000L);
+        }
+
         @Test
         void shouldNotSetWhenElapsedTimeHeaderAlreadyPresent() {
             String timeStampSeconds = String.valueOf(System.currentTimeMillis() / 1000);
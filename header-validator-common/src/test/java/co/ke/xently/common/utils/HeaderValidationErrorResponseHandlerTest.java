@@ -69,5 +69,23 @@ class HeaderValidationErrorResponseHandlerTest {
                     )
             );
         }
+
+        @Test
+        void shouldRenderFailureMessagesWithTheRejectedValue() {
+            RequestContextHolder.setContext(new RequestContext("conv-002", "msg-002"));
+
+            var rule = HeaderRule.builder().headerName("X-Channel").required(true).build();
+            var failure = ValidationResult.Failure.of("UNKNOWN_CHANNEL", "Channel '{value}' is not supported");
+
+            var ex = new HeadersValidationException();
+            ex.addHeaderException(new InvalidHeaderValueException(rule, failure, "fax"));
+            var handler = new HeaderValidationErrorResponseHandler(new PayloadConverter() {
+            });
+
+            var actual = (ResponsePayload<?>) handler.handleHeadersValidationException(ex);
+
+            assertThat(actual.errorInfo().getFirst().errorDescription())
+                    .isEqualTo("Channel 'fax' is not supported");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package co.ke.xently.common.utils;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PerfectHashTest {
+    @Nested
+    class build {
+        @ParameterizedTest
+        @ValueSource(ints = {0, 1, 2, 10, 1_000, 10_000})
+        void shouldMapEveryKeyToADistinctSlot(int keys) {
+            var hashes = LongStream.range(0, keys).map(PerfectHash::mix).toArray();
+
+            var hash = PerfectHash.build(hashes);
+
+            var slots = new HashSet<Integer>();
+            for (long h : hashes) slots.add(hash.slot(h));
+            assertAll(
+                    () -> assertThat(hash.size())
+                            .isEqualTo(keys),
+                    () -> assertThat(slots)
+                            .hasSize(keys)
+                            .allSatisfy(slot -> assertThat(slot).isBetween(0, keys - 1))
+            );
+        }
+
+        @Test
+        void shouldRejectDuplicateHashes() {
+            assertThrows(IllegalArgumentException.class, () -> PerfectHash.build(new long[]{1, 2, 1}));
+        }
+    }
+
+    @Nested
+    class slot {
+        @Test
+        void shouldBeComputableFromTheDisplacementsAlone() {
+            var hashes = LongStream.range(0, 1_000).map(PerfectHash::mix).toArray();
+            var hash = PerfectHash.build(hashes);
+
+            assertThat(LongStream.of(hashes).boxed().toList())
+                    .allSatisfy(h -> assertThat(PerfectHash.slot(h, hash.displacement(PerfectHash.bucket(h, hash.bucketCount())), hash.size()))
+                            .isEqualTo(hash.slot(h)));
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package co.ke.xently.common.headers.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Generates, for every type annotated with {@code @HeaderSpec}, a {@code <Type>Rules} class in the same package that
+ * <ul>
+ *     <li>implements {@code HeaderRuleProvider}, creating the declared rules and their validators with plain
+ *     constructor calls, and</li>
+ *     <li>binds the headers of a request to the type: {@code static <Type> bind(Function<String, String> headers)}.</li>
+ * </ul>
+ * The generated classes are registered in {@code META-INF/services}, so that the starters validate their rules without
+ * reflection nor property binding. Invalid specs, e.g. a malformed pattern, fail the compilation.
+ * <p>
+ * Only refers to the annotations and the types it generates code against by name, so that it has no dependencies.
+ */
+@SupportedAnnotationTypes(HeaderSpecProcessor.HEADER_SPEC)
+public class HeaderSpecProcessor extends AbstractProcessor {
+    static final String HEADER_SPEC = "co.ke.xently.common.headers.HeaderSpec";
+    static final String HEADER = HEADER_SPEC + ".Header";
+    static final String PROVIDER = "co.ke.xently.common.headers.HeaderRuleProvider";
+    private static final String SERVICES = "META-INF/services/" + PROVIDER;
+    private static final String DEFAULT_VALIDATOR = "co.ke.xently.common.headers.validators.DefaultHeaderValidator";
+    private static final String REGEX_VALIDATOR = "co.ke.xently.common.headers.validators.RegexValidator";
+    /**
+     * {@code HeaderRule.UNLIMITED}, the default {@code maxLength}.
+     */
+    private static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * The providers generated by this compilation, registered once processing is over.
+     */
+    private final Set<String> providers = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        if (round.processingOver()) {
+            if (!providers.isEmpty()) registerProviders();
+            return false;
+        }
+
+        var headerSpec = processingEnv.getElementUtils().getTypeElement(HEADER_SPEC);
+        if (headerSpec == null) return false;
+
+        for (var element : round.getElementsAnnotatedWith(headerSpec)) {
+            var spec = parse((TypeElement) element);
+            if (spec != null) generate(spec);
+        }
+        return true;
+    }
+
+    private record Spec(TypeElement type, String packageName, String rulesName, List<Header> headers) {
+    }
+
+    /**
+     * @param element   the record component or interface method declaring the header.
+     * @param validator the source creating its validator.
+     */
+    private record Header(
+            Element element,
+            String accessor,
+            String constant,
+            String name,
+            boolean required,
+            String validator,
+            int maxLength
+    ) {
+    }
+
+    /**
+     * @return the spec declared by {@code type}, or {@code null} if it is invalid, in which case errors were reported.
+     */
+    private Spec parse(TypeElement type) {
+        List<? extends Element> members;
+        if (type.getKind() == ElementKind.RECORD) {
+            members = type.getRecordComponents();
+        } else if (type.getKind() == ElementKind.INTERFACE) {
+            // Inherited too, as the generated implementation must implement them all.
+            members = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)).stream()
+                    .filter(method -> method.getModifiers().contains(Modifier.ABSTRACT) && !isObjectMethod(method))
+                    .toList();
+        } else {
+            return error(type, "@HeaderSpec can only be declared on records and interfaces");
+        }
+        if (type.getModifiers().contains(Modifier.PRIVATE) || !type.getTypeParameters().isEmpty()) {
+            return error(type, "@HeaderSpec types can neither be private nor generic");
+        }
+
+        var headers = new ArrayList<Header>();
+        var names = new HashSet<String>();
+        var constants = new HashSet<String>();
+        boolean valid = true;
+        for (var member : members) {
+            var header = parse(member);
+            if (header == null) {
+                valid = false;
+            } else if (!names.add(header.name().toLowerCase(Locale.ROOT))) {
+                error(member, "Header '%s' is declared more than once".formatted(header.name()));
+                valid = false;
+            } else if (!constants.add(header.constant())) {
+                error(member, "Member '%s' maps to the constant %s of another member; rename either".formatted(
+                        header.accessor(), header.constant()));
+                valid = false;
+            } else {
+                headers.add(header);
+            }
+        }
+        if (!valid) return null;
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        var simpleName = packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1);
+        return new Spec(type, packageName, simpleName.replace('$', '_') + "Rules", headers);
+    }
+
+    private Header parse(Element member) {
+        var mirror = findAnnotation(member, HEADER);
+        if (mirror == null) return error(member, "Every member of a @HeaderSpec must be annotated with @HeaderSpec.Header");
+
+        var type = member instanceof ExecutableElement method ? method.getReturnType() : member.asType();
+        if (!isString(type)) return error(member, "@HeaderSpec.Header members must be Strings");
+        if (member instanceof ExecutableElement method && !method.getParameters().isEmpty()) {
+            return error(member, "@HeaderSpec.Header methods cannot have parameters");
+        }
+
+        var name = ((String) value(mirror, "name")).strip();
+        if (name.isEmpty()) return error(member, "@HeaderSpec.Header names cannot be blank");
+
+        var pattern = (String) value(mirror, "pattern");
+        var validatorType = (DeclaredType) value(mirror, "validator");
+        var validatorName = ((TypeElement) validatorType.asElement()).getQualifiedName().toString();
+        String validator;
+        if (!pattern.isEmpty()) {
+            if (!validatorName.equals(DEFAULT_VALIDATOR)) {
+                return error(member, "@HeaderSpec.Header cannot declare both a pattern and a validator");
+            }
+            try {
+                Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                return error(member, "Invalid pattern: %s".formatted(e.getMessage()));
+            }
+            validator = "new %s(%s)".formatted(REGEX_VALIDATOR, literal(pattern));
+        } else {
+            if (!isInstantiable((TypeElement) validatorType.asElement())) {
+                return error(member, "Validator %s must be a public class with a public no-arg constructor".formatted(validatorName));
+            }
+            validator = "new %s()".formatted(validatorName);
+        }
+
+        int maxLength = (Integer) value(mirror, "maxLength");
+        if (maxLength < 0) return error(member, "@HeaderSpec.Header maxLength cannot be negative");
+
+        var accessor = member.getSimpleName().toString();
+        return new Header(
+                member,
+                accessor,
+                constantName(accessor),
+                name,
+                (Boolean) value(mirror, "required"),
+                validator,
+                maxLength
+        );
+    }
+
+    private void generate(Spec spec) {
+        var type = spec.type();
+        var typeName = type.getQualifiedName().toString();
+        var qualifiedName = spec.packageName().isEmpty() ? spec.rulesName() : spec.packageName() + "." + spec.rulesName();
+        try (var out = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter())) {
+            if (!spec.packageName().isEmpty()) {
+                out.printf("package %s;%n%n", spec.packageName());
+            }
+            out.printf("/**%n * The header rules of {@link %s}.%n */%n", typeName);
+            out.printf("@javax.annotation.processing.Generated(\"%s\")%n", getClass().getName());
+            out.printf("public final class %s implements %s {%n", spec.rulesName(), PROVIDER);
+            for (var header : spec.headers()) {
+                out.printf("    public static final String %s = %s;%n", header.constant(), literal(header.name()));
+            }
+
+            out.printf("%n    @Override%n");
+            out.printf("    public java.util.Set<co.ke.xently.common.headers.HeaderRule> rules() {%n");
+            out.printf("        return java.util.Set.of(");
+            for (int i = 0; i < spec.headers().size(); i++) {
+                var header = spec.headers().get(i);
+                out.printf(i == 0 ? "%n" : ",%n");
+                out.printf("                co.ke.xently.common.headers.HeaderRule.builder()%n");
+                out.printf("                        .headerName(%s)%n", header.constant());
+                out.printf("                        .required(%s)%n", header.required());
+                out.printf("                        .validator(%s)%n", header.validator());
+                if (header.maxLength() != UNLIMITED) {
+                    out.printf("                        .maxLength(%d)%n", header.maxLength());
+                }
+                out.printf("                        .build()");
+            }
+            out.printf("%n        );%n    }%n");
+
+            var bound = type.getKind() == ElementKind.RECORD ? typeName : "Bound";
+            out.printf("%n    /**%n     * @param headers the first value of a header, given its name, or {@code null} if it is missing.%n     */%n");
+            out.printf("    public static %s bind(java.util.function.Function<String, String> headers) {%n", typeName);
+            out.printf("        return new %s(", bound);
+            for (int i = 0; i < spec.headers().size(); i++) {
+                out.printf(i == 0 ? "%n" : ",%n");
+                out.printf("                headers.apply(%s)", spec.headers().get(i).constant());
+            }
+            out.printf("%n        );%n    }%n");
+
+            if (type.getKind() == ElementKind.INTERFACE) {
+                out.printf("%n    private record Bound(");
+                for (int i = 0; i < spec.headers().size(); i++) {
+                    out.printf(i == 0 ? "%n" : ",%n");
+                    out.printf("            String %s", spec.headers().get(i).accessor());
+                }
+                out.printf("%n    ) implements %s {%n    }%n", typeName);
+            }
+            out.printf("}%n");
+        } catch (IOException e) {
+            error(type, "Failed to generate %s: %s".formatted(qualifiedName, e.getMessage()));
+            return;
+        }
+        providers.add(qualifiedName);
+    }
+
+    /**
+     * Writes the generated providers, along with those registered by previous (incremental) compilations, to
+     * {@value #SERVICES}.
+     */
+    private void registerProviders() {
+        var filer = processingEnv.getFiler();
+        var registered = new TreeSet<>(providers);
+        try {
+            FileObject existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICES);
+            try (var reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                        .map(String::strip)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .forEach(registered::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Nothing registered yet.
+        }
+
+        try (var out = new PrintWriter(filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICES).openWriter())) {
+            registered.forEach(out::println);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Failed to register the header rule providers: %s".formatted(e.getMessage())
+            );
+        }
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    /**
+     * @return whether {@code method} is, or redeclares, a public method of {@link Object}, which the generated records
+     * implement.
+     */
+    private boolean isObjectMethod(ExecutableElement method) {
+        var object = processingEnv.getElementUtils().getTypeElement(Object.class.getName());
+        var types = processingEnv.getTypeUtils();
+        return method.getEnclosingElement().equals(object)
+                || ElementFilter.methodsIn(object.getEnclosedElements()).stream()
+                .filter(candidate -> candidate.getModifiers().contains(Modifier.PUBLIC))
+                .anyMatch(candidate -> candidate.getSimpleName().equals(method.getSimpleName())
+                        && types.isSubsignature((ExecutableType) method.asType(), (ExecutableType) candidate.asType()));
+    }
+
+    private static boolean isInstantiable(TypeElement type) {
+        return (type.getKind() == ElementKind.CLASS || type.getKind() == ElementKind.RECORD)
+                && type.getModifiers().contains(Modifier.PUBLIC)
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && (type.getNestingKind() == NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.STATIC))
+                && ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty()
+                        && constructor.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String annotation) {
+        for (var mirror : element.getAnnotationMirrors()) {
+            var type = (TypeElement) mirror.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotation)) return mirror;
+        }
+        return null;
+    }
+
+    private Object value(AnnotationMirror mirror, String name) {
+        for (var entry : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return ((AnnotationValue) entry.getValue()).getValue();
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * {@code serviceCode} becomes {@code SERVICE_CODE}.
+     */
+    static String constantName(String name) {
+        var constant = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && !Character.isUpperCase(name.charAt(i - 1))) constant.append('_');
+            constant.append(Character.toUpperCase(c));
+        }
+        return constant.toString();
+    }
+
+    private <T> T error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return null;
+    }
+}
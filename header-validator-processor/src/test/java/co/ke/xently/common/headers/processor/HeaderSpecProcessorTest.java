@@ -0,0 +1,315 @@
+package co.ke.xently.common.headers.processor;
+
+import co.ke.xently.common.headers.HeaderRule;
+import co.ke.xently.common.headers.HeaderRuleProvider;
+import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
+import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.lang.NonNull;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class HeaderSpecProcessorTest {
+    @TempDir
+    Path directory;
+
+    private record Compilation(boolean success, List<String> errors, ClassLoader classLoader) {
+        Class<?> load(String name) throws ClassNotFoundException {
+            return Class.forName(name, true, classLoader);
+        }
+    }
+
+    private Compilation compile(String typeName, String source) throws IOException, URISyntaxException {
+        var sources = directory.resolve("src");
+        var classes = directory.resolve("classes");
+        Files.createDirectories(classes);
+        var file = sources.resolve(typeName.replace('.', '/') + ".java");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, source);
+
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (var files = compiler.getStandardFileManager(diagnostics, null, null)) {
+            var classPath = String.join(File.pathSeparator,
+                    location(HeaderRule.class),
+                    location(NonNull.class)
+            );
+            var task = compiler.getTask(
+                    null,
+                    files,
+                    diagnostics,
+                    List.of("-classpath", classPath, "-d", classes.toString()),
+                    null,
+                    files.getJavaFileObjects(file)
+            );
+            task.setProcessors(List.of(new HeaderSpecProcessor()));
+            boolean success = task.call();
+
+            var errors = diagnostics.getDiagnostics().stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .toList();
+            var classLoader = new URLClassLoader(new java.net.URL[]{classes.toUri().toURL()}, getClass().getClassLoader());
+            return new Compilation(success, errors, classLoader);
+        }
+    }
+
+    private static String location(Class<?> type) throws URISyntaxException {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    private static final String RECORD_SPEC = """
+            package com.example;
+
+            import co.ke.xently.common.headers.HeaderSpec;
+            import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+
+            @HeaderSpec
+            public record ServiceHeaders(
+                    @HeaderSpec.Header(name = "X-ServiceCode", pattern = "^[A-Z]{3}\\\\d$", maxLength = 4) String serviceCode,
+                    @HeaderSpec.Header(name = "X-TimeStamp", required = false, validator = EpochTimestampValidator.class) String timestamp,
+                    @HeaderSpec.Header(name = "X-ChannelName") String channelName
+            ) {
+            }
+            """;
+
+    @Nested
+    class rules {
+        @Test
+        void shouldCreateTheDeclaredRules() throws Exception {
+            var compilation = compile("com.example.ServiceHeaders", RECORD_SPEC);
+
+            var provider = (HeaderRuleProvider) compilation.load("com.example.ServiceHeadersRules")
+                    .getDeclaredConstructor()
+                    .newInstance();
+
+            assertAll(
+                    () -> assertThat(compilation.errors())
+                            .isEmpty(),
+                    () -> assertThat(provider.rules())
+                            .extracting(HeaderRule::getHeaderName, HeaderRule::isRequired, rule -> rule.getValidator().getClass(), HeaderRule::getMaxLength)
+                            .containsExactlyInAnyOrder(
+                                    tuple("X-ServiceCode", true, RegexValidator.class, 4),
+                                    tuple("X-TimeStamp", false, EpochTimestampValidator.class, HeaderRule.UNLIMITED),
+                                    tuple("X-ChannelName", true, DefaultHeaderValidator.class, HeaderRule.UNLIMITED)
+                            ),
+                    () -> assertThat(provider.rules())
+                            .filteredOn(rule -> rule.getHeaderName().equals("X-ServiceCode"))
+                            .singleElement()
+                            .satisfies(rule -> assertAll(
+                                    () -> assertThat(rule.validate("ABC1"))
+                                            .isSameAs(ValidationResult.SUCCESS),
+                                    () -> assertThat(rule.validate("abc1"))
+                                            .isInstanceOf(ValidationResult.Failure.class)
+                            ))
+            );
+        }
+
+        @Test
+        void shouldRegisterTheProvider() throws Exception {
+            var compilation = compile("com.example.ServiceHeaders", RECORD_SPEC);
+
+            var rules = HeaderRuleProvider.loadRules(compilation.classLoader());
+
+            assertThat(rules)
+                    .extracting(HeaderRule::getHeaderName)
+                    .containsExactlyInAnyOrder("X-ServiceCode", "X-TimeStamp", "X-ChannelName");
+        }
+    }
+
+    @Nested
+    class bind {
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldBindRecords() throws Exception {
+            var compilation = compile("com.example.ServiceHeaders", RECORD_SPEC);
+            var rules = compilation.load("com.example.ServiceHeadersRules");
+            Function<String, String> headers = Map.of("X-ServiceCode", "ABC1", "X-ChannelName", "web")::get;
+
+            var bound = rules.getMethod("bind", Function.class).invoke(null, headers);
+
+            assertThat(bound)
+                    .hasToString("ServiceHeaders[serviceCode=ABC1, timestamp=null, channelName=web]");
+        }
+
+        @Test
+        void shouldBindInterfacesToAnImplementation() throws Exception {
+            var compilation = compile("com.example.Tenant", """
+                    package com.example;
+
+                    import co.ke.xently.common.headers.HeaderSpec;
+
+                    @HeaderSpec
+                    public interface Tenant {
+                        @HeaderSpec.Header(name = "X-Tenant")
+                        String id();
+
+                        default String describe() {
+                            return "tenant " + id();
+                        }
+                    }
+                    """);
+            var rules = compilation.load("com.example.TenantRules");
+            Function<String, String> headers = Map.of("X-Tenant", "acme")::get;
+
+            var bound = rules.getMethod("bind", Function.class).invoke(null, headers);
+
+            assertAll(
+                    () -> assertThat(compilation.errors())
+                            .isEmpty(),
+                    () -> assertThat(compilation.load("com.example.Tenant").getMethod("describe").invoke(bound))
+                            .isEqualTo("tenant acme")
+            );
+        }
+
+        @Test
+        void shouldBindInheritedHeaders() throws Exception {
+            var compilation = compile("com.example.Tenant", """
+                    package com.example;
+
+                    import co.ke.xently.common.headers.HeaderSpec;
+
+                    @HeaderSpec
+                    public interface Tenant extends Regional {
+                        @HeaderSpec.Header(name = "X-Tenant")
+                        String id();
+
+                        @Override
+                        String toString();
+                    }
+
+                    interface Regional {
+                        @HeaderSpec.Header(name = "X-Region", required = false)
+                        String region();
+                    }
+                    """);
+            var rules = compilation.load("com.example.TenantRules");
+            Function<String, String> headers = Map.of("X-Tenant", "acme", "X-Region", "eu")::get;
+
+            var bound = rules.getMethod("bind", Function.class).invoke(null, headers);
+
+            assertAll(
+                    () -> assertThat(compilation.errors())
+                            .isEmpty(),
+                    () -> assertThat(bound)
+                            .asString()
+                            .contains("id=acme", "region=eu")
+            );
+        }
+    }
+
+    @Nested
+    class errors {
+        record TestCase(String declaration, String error) {
+        }
+
+        static Stream<TestCase> shouldRejectInvalidSpecs() {
+            return Stream.of(
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\", pattern = \"[a-\") String a) {}",
+                            "Invalid pattern"),
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\") String a, @HeaderSpec.Header(name = \"x-a\") String b) {}",
+                            "declared more than once"),
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\") String a, String b) {}",
+                            "must be annotated with @HeaderSpec.Header"),
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\") int a) {}",
+                            "must be Strings"),
+                    new TestCase(
+                            "public class Spec {}",
+                            "can only be declared on records and interfaces"),
+                    new TestCase(
+                            """
+                                    public record Spec(@HeaderSpec.Header(name = "X-A", pattern = "a", validator = co.ke.xently.common.headers.validators.EpochTimestampValidator.class) String a) {}""",
+                            "both a pattern and a validator"),
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\", maxLength = -1) String a) {}",
+                            "maxLength cannot be negative"),
+                    new TestCase(
+                            """
+                                    public record Spec(@HeaderSpec.Header(name = "X-A", validator = Spec.Hidden.class) String a) {
+                                        static class Hidden implements co.ke.xently.common.headers.validators.HeaderValidator {
+                                            public co.ke.xently.common.headers.validators.ValidationResult validate(String name, String value) {
+                                                return co.ke.xently.common.headers.validators.ValidationResult.SUCCESS;
+                                            }
+                                        }
+                                    }""",
+                            "must be a public class with a public no-arg constructor"),
+                    new TestCase(
+                            "public record Spec(@HeaderSpec.Header(name = \"X-A\") String fooBar, @HeaderSpec.Header(name = \"X-B\") String foo_bar) {}",
+                            "maps to the constant FOO_BAR of another member"),
+                    new TestCase(
+                            """
+                                    public interface Spec extends Base {
+                                        @HeaderSpec.Header(name = "X-A")
+                                        String a();
+                                    }
+
+                                    interface Base {
+                                        String b();
+                                    }""",
+                            "must be annotated with @HeaderSpec.Header")
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        void shouldRejectInvalidSpecs(TestCase testCase) throws Exception {
+            var compilation = compile("com.example.Spec", """
+                    package com.example;
+
+                    import co.ke.xently.common.headers.HeaderSpec;
+
+                    @HeaderSpec
+                    %s
+                    """.formatted(testCase.declaration()));
+
+            assertAll(
+                    () -> assertThat(compilation.success())
+                            .isFalse(),
+                    () -> assertThat(compilation.errors())
+                            .anyMatch(error -> error.contains(testCase.error()))
+            );
+        }
+    }
+
+    @Nested
+    class constantName {
+        @Test
+        void shouldConvertCamelCaseToConstantCase() {
+            assertAll(
+                    () -> assertThat(HeaderSpecProcessor.constantName("serviceCode"))
+                            .isEqualTo("SERVICE_CODE"),
+                    () -> assertThat(HeaderSpecProcessor.constantName("id"))
+                            .isEqualTo("ID"),
+                    () -> assertThat(HeaderSpecProcessor.constantName("requestID"))
+                            .isEqualTo("REQUEST_ID")
+            );
+        }
+    }
+}
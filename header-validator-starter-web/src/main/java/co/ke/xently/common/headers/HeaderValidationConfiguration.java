@@ -2,23 +2,70 @@ package co.ke.xently.common.headers;
 
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
 import co.ke.xently.common.headers.validators.EpochTimestampValidator;
-import lombok.RequiredArgsConstructor;
+import co.ke.xently.common.utils.ElapsedTimeManager;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.List;
 
-@RequiredArgsConstructor
 @AutoConfiguration
-@EnableConfigurationProperties(HeaderValidationProperties.class)
+@EnableConfigurationProperties({HeaderValidationProperties.class, HeaderRulesReloadProperties.class})
 @Import({HeaderValidatorConverter.class, DefaultHeaderValidator.class, EpochTimestampValidator.class})
-class HeaderValidationConfiguration implements WebMvcConfigurer {
-    private final HeaderValidationProperties properties;
+class HeaderValidationConfiguration implements WebMvcConfigurer, SmartInitializingSingleton, DisposableBean {
+    private final HeaderValidationInterceptor interceptor;
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+
+    HeaderValidationConfiguration(
+            HeaderValidationProperties properties,
+            ObjectProvider<RequestMappingHandlerMapping> handlerMappings) {
+        this.interceptor = new HeaderValidationInterceptor(properties);
+        this.handlerMappings = handlerMappings;
+    }
+
+    /**
+     * Reads {@value ElapsedTimeManager#TIMESTAMP_HEADER} in the unit its default rule validates.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    ElapsedTimeManager elapsedTimeManager(HeaderValidationProperties properties) {
+        return new ElapsedTimeManager(properties.timestamp().unit());
+    }
+
+    @Bean
+    HeaderRulesReloader headerRulesReloader(
+            ConfigurableEnvironment environment,
+            HeaderValidatorConverter converter,
+            HeaderRulesReloadProperties properties) {
+        return new HeaderRulesReloader(environment, converter, properties, List.of(interceptor));
+    }
 
     @Override
     public void addInterceptors(@NonNull InterceptorRegistry registry) {
-        registry.addInterceptor(new HeaderValidationInterceptor(properties));
+        registry.addInterceptor(interceptor);
+    }
+
+    /**
+     * Compiles the rules of every handler method up front, so that no request pays for reading their annotations.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        handlerMappings.orderedStream()
+                .forEach(mapping -> interceptor.compileHandlers(mapping.getHandlerMethods().values()));
+    }
+
+    @Override
+    public void destroy() {
+        interceptor.close();
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,224 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.exceptions.HeaderException;
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
+import co.ke.xently.common.headers.validators.HeaderValidator;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
 import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 final class HeaderValidationInterceptor extends AbstractHeaderValidator implements HandlerInterceptor {
+    private static final HeaderAccessor<HttpServletRequest> HEADERS = new HeaderAccessor<>() {
+        @Override
+        public String getFirst(@NonNull HttpServletRequest request, @NonNull String headerName) {
+            return request.getHeader(headerName);
+        }
+
+        @NonNull
+        @Override
+        public Iterator<String> headerNames(@NonNull HttpServletRequest request) {
+            return request.getHeaderNames().asIterator();
+        }
+
+        @Override
+        public PathContainer path(@NonNull HttpServletRequest request) {
+            var path = ServletRequestPathUtils.hasParsedRequestPath(request)
+                    ? ServletRequestPathUtils.getParsedRequestPath(request)
+                    : ServletRequestPathUtils.parseAndCache(request);
+            return path.pathWithinApplication();
+        }
+
+        @NonNull
+        @Override
+        public HttpMethod method(@NonNull HttpServletRequest request) {
+            return HttpMethod.valueOf(request.getMethod());
+        }
+    };
+
+    /**
+     * The type of every handler method seen, keyed by {@link HandlerMethod#getMethod()}, so that their plans can be
+     * compiled before a reloaded configuration is swapped in. Filled at startup by {@link #compileHandlers(Collection)};
+     * handlers registered later are compiled on their first request.
+     */
+    private final Map<Method, Class<?>> handlers = new ConcurrentHashMap<>();
+    /**
+     * Runs the {@link HeaderValidator#isBlocking() blocking} validators of a request in parallel, or {@code null} if
+     * they run one after another. One virtual thread per validator, so it needs no sizing; shut down by
+     * {@link #close()}.
+     */
+    @Nullable
+    private final ExecutorService parallel;
+
     HeaderValidationInterceptor(@NonNull HeaderValidationProperties properties) {
         super(properties);
+        this.parallel = properties.parallel()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("header-validator-", 0).factory())
+                : null;
+    }
+
+    void compileHandlers(@NonNull Collection<HandlerMethod> handlerMethods) {
+        for (var handlerMethod : handlerMethods) {
+            handlers.put(handlerMethod.getMethod(), handlerMethod.getBeanType());
+        }
+        prepareCurrent();
+    }
+
+    @Override
+    protected void prepare(@NonNull CompiledRules next) {
+        handlers.forEach(next::handler);
+    }
+
+    /**
+     * Shuts down the executor of {@link HeaderValidationProperties#parallel()}, if any, letting the validators it runs
+     * complete. Requests validated afterwards, e.g. while the server drains, run their validators one after another.
+     */
+    void close() {
+        if (parallel != null) parallel.shutdown();
     }
 
     @Override
     public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
-        var exception = createHeadersValidationException(request::getHeader);
-        if (!exception.getHeaderExceptions().isEmpty()) throw exception;
+        var rules = rules();
+        var plan = planOf(rules, handler);
+        var exception = parallel == null || parallel.isShutdown()
+                ? validateHeaders(rules, request, HEADERS, plan, null)
+                : validateInParallel(rules, request, plan);
+        if (exception != null) throw exception;
         return true;
     }
-}
\ No newline at end of file
+
+    /**
+     * Evaluates the rules of blocking validators concurrently, after the others, and merges their failures with the
+     * others'. Every validator started for a request has completed or been cancelled by the time this returns: when
+     * failing fast, the first failure cancels (interrupts) the rest.
+     */
+    @Nullable
+    private HeadersValidationException validateInParallel(CompiledRules rules, HttpServletRequest request, RoutePlan handler) {
+        var deferred = new DeferredRules();
+        var exception = validateHeaders(rules, request, HEADERS, handler, deferred);
+        if (deferred.size() == 0 || exception != null && deferred.failFast()) return exception;
+
+        List<HeaderException> failures;
+        if (deferred.size() == 1) {
+            // Nothing to run in parallel with.
+            var failure = evaluate(deferred, 0);
+            failures = failure == null ? List.of() : List.of(failure);
+        } else {
+            failures = deferred.failFast() ? firstFailure(deferred) : allFailures(deferred);
+        }
+        if (failures.isEmpty()) return exception;
+        if (exception == null) return new HeadersValidationException(new ArrayList<>(failures));
+
+        failures.forEach(exception::addHeaderException);
+        return exception;
+    }
+
+    private List<HeaderException> allFailures(DeferredRules deferred) {
+        var calls = fork(deferred, null);
+        var failures = new ArrayList<HeaderException>();
+        try {
+            for (var call : calls) {
+                var failure = join(call);
+                if (failure != null) failures.add(failure);
+            }
+        } finally {
+            cancel(calls);
+        }
+        return failures;
+    }
+
+    private List<HeaderException> firstFailure(DeferredRules deferred) {
+        var completed = new ExecutorCompletionService<HeaderException>(parallel);
+        var calls = fork(deferred, completed);
+        try {
+            for (int i = 0; i < calls.size(); i++) {
+                var failure = join(take(completed));
+                if (failure != null) return List.of(failure);
+            }
+            return List.of();
+        } finally {
+            cancel(calls);
+        }
+    }
+
+    private List<Future<HeaderException>> fork(
+            DeferredRules deferred,
+            @Nullable ExecutorCompletionService<HeaderException> completed) {
+        var calls = new ArrayList<Future<HeaderException>>(deferred.size());
+        for (int i = 0; i < deferred.size(); i++) {
+            int index = i;
+            Callable<HeaderException> call = () -> evaluate(deferred, index);
+            calls.add(completed == null ? parallel.submit(call) : completed.submit(call));
+        }
+        return calls;
+    }
+
+    @Nullable
+    private HeaderException evaluate(DeferredRules deferred, int i) {
+        var rule = deferred.rule(i);
+        var value = deferred.value(i);
+        var failure = check(rule, rule.validate(value), value);
+        if (failure != null && deferred.failFast()) deferred.recordFailure(i);
+        return failure;
+    }
+
+    private static Future<HeaderException> take(ExecutorCompletionService<HeaderException> completed) {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating headers", e);
+        }
+    }
+
+    @Nullable
+    private static HeaderException join(Future<HeaderException> call) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating headers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static void cancel(List<Future<HeaderException>> calls) {
+        for (var call : calls) call.cancel(true);
+    }
+
+    @Override
+    protected boolean isDeferred(@NonNull HeaderValidator validator) {
+        return validator.isBlocking();
+    }
+
+    private RoutePlan planOf(CompiledRules rules, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) return RoutePlan.INHERIT;
+
+        var method = handlerMethod.getMethod();
+        if (!handlers.containsKey(method)) handlers.putIfAbsent(method, handlerMethod.getBeanType());
+        return rules.handler(method, handlerMethod.getBeanType());
+    }
+}
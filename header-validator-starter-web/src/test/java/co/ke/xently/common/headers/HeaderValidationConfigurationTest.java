@@ -3,17 +3,22 @@ package co.ke.xently.common.headers;
 import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
 import co.ke.xently.common.headers.exceptions.MissingHeaderException;
 import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.utils.ElapsedTimeManager;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.ArgumentCaptor;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -23,7 +28,7 @@ class HeaderValidationConfigurationTest {
     @Test
     void addInterceptors_registersHeaderValidationInterceptor() {
         var properties = new HeaderValidationProperties(Set.of());
-        var config = new HeaderValidationConfiguration(properties);
+        var config = new HeaderValidationConfiguration(properties, mock());
         var registry = mock(InterceptorRegistry.class);
         var captor = ArgumentCaptor.forClass(HandlerInterceptor.class);
         when(registry.addInterceptor(captor.capture()))
@@ -92,4 +97,24 @@ class HeaderValidationConfigurationTest {
             assertDoesNotThrow(() -> interceptor.validate(rule, "v1"));
         }
     }
+
+    @Nested
+    class elapsedTimeManager {
+        @Test
+        void shouldReadTimestampsInTheConfiguredUnit() {
+            new WebApplicationContextRunner()
+                    .withConfiguration(AutoConfigurations.of(HeaderValidationConfiguration.class))
+                    .withPropertyValues("xently.api.headers.validation.timestamp.unit=milliseconds")
+                    .run(context -> {
+                        var elapsed = new AtomicReference<String>();
+                        long timestamp = System.currentTimeMillis() - 5_000;
+
+                        context.getBean(ElapsedTimeManager.class)
+                                .setElapsedTime(String.valueOf(timestamp), null, elapsed::set);
+
+                        assertThat(Long.parseLong(elapsed.get()))
+                                .isBetween(5_000L, 65_000L);
+                    });
+        }
+    }
 }
@@ -3,15 +3,27 @@ package co.ke.xently.common.headers;
 import co.ke.xently.common.headers.exceptions.HeadersValidationException;
 import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
 import co.ke.xently.common.headers.exceptions.MissingHeaderException;
+import co.ke.xently.common.headers.validators.HeaderValidator;
 import co.ke.xently.common.headers.validators.RegexValidator;
 import co.ke.xently.common.headers.validators.ValidationResult;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 class HeaderValidationInterceptorTest {
@@ -110,4 +122,292 @@ class HeaderValidationInterceptorTest {
                 }
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenSinglePassEngine_thenMatchesHeadersCaseInsensitively() {
+        var required = HeaderRule.builder().headerName("X-Req").required(true).build();
+        var invalid = HeaderRule.builder().headerName("X-Invalid").required(true)
+                .validator(new RegexValidator("^v\\d+$")).build();
+
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of(required, invalid))
+                .engine(HeaderValidationEngine.SINGLE_PASS)
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+
+        var request = getMockHttpServletRequest();
+        request.addHeader("x-req", "value");
+        request.addHeader("X-INVALID", "bad");
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        assertThat(ex.getHeaderExceptions())
+                .singleElement()
+                .isInstanceOf(InvalidHeaderValueException.class)
+                .extracting(e -> e.getRule().getHeaderName())
+                .isEqualTo("X-Invalid");
+    }
+
+    @Test
+    void whenRouteSkipsValidation_thenPreHandlePassesWithoutHeaders() {
+        var route = HeaderRoute.builder().paths(List.of("/actuator/**")).skip(true).build();
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of())
+                .routes(List.of(route))
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+
+        var request = new MockHttpServletRequest("GET", "/actuator/health/liveness");
+
+        boolean actual = interceptor.preHandle(request, new MockHttpServletResponse(), new Object());
+
+        assertThat(actual)
+                .isTrue();
+    }
+
+    @Test
+    void whenRouteMatchesPathAndMethod_thenAppliesItsRules() {
+        var route = HeaderRoute.builder()
+                .paths(List.of("/api/**"))
+                .methods(Set.of(HttpMethod.POST))
+                .headers(Set.of(HeaderRule.builder().headerName("X-Idempotency-Key").build()))
+                .build();
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of())
+                .routes(List.of(route))
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+
+        var post = getMockHttpServletRequest();
+        post.setMethod("POST");
+        post.setRequestURI("/api/orders");
+        var get = getMockHttpServletRequest();
+        get.setMethod("GET");
+        get.setRequestURI("/api/orders");
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(post, new MockHttpServletResponse(), new Object()));
+
+        assertAll(
+                () -> assertThat(ex.getHeaderExceptions())
+                        .singleElement()
+                        .isInstanceOf(MissingHeaderException.class)
+                        .extracting(e -> e.getRule().getHeaderName())
+                        .isEqualTo("X-Idempotency-Key"),
+                () -> assertThat(interceptor.preHandle(get, new MockHttpServletResponse(), new Object()))
+                        .isTrue()
+        );
+    }
+
+    @RequireHeaders(@RequireHeaders.Header(name = "X-Tenant"))
+    static class AnnotatedController {
+        @RequireHeaders(value = @RequireHeaders.Header(name = "X-Api-Key"), exclude = "X-FeatureName")
+        public void create() {
+        }
+
+        @SkipHeaderValidation
+        public void health() {
+        }
+
+        public void list() {
+        }
+    }
+
+    private static HandlerMethod handlerMethod(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new AnnotatedController(), name);
+    }
+
+    @Test
+    void whenHandlerIsAnnotated_thenAppliesItsRules() throws NoSuchMethodException {
+        var interceptor = new HeaderValidationInterceptor(new HeaderValidationProperties(Set.of()));
+        var create = handlerMethod("create");
+        interceptor.compileHandlers(List.of(create));
+
+        var request = getMockHttpServletRequest();
+        request.removeHeader("X-FeatureName");
+        request.addHeader("X-Tenant", "acme");
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), create));
+
+        assertThat(ex.getHeaderExceptions())
+                .singleElement()
+                .isInstanceOf(MissingHeaderException.class)
+                .extracting(e -> e.getRule().getHeaderName())
+                .isEqualTo("X-Api-Key");
+    }
+
+    @Test
+    void whenHandlerSkipsValidation_thenPreHandlePassesWithoutHeaders() throws NoSuchMethodException {
+        var interceptor = new HeaderValidationInterceptor(new HeaderValidationProperties(Set.of()));
+
+        boolean actual = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handlerMethod("health"));
+
+        assertThat(actual)
+                .isTrue();
+    }
+
+    @Test
+    void whenHandlerInheritsClassRules_thenAppliesThemOnTopOfConfiguredOnes() throws NoSuchMethodException {
+        var interceptor = new HeaderValidationInterceptor(new HeaderValidationProperties(Set.of()));
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(getMockHttpServletRequest(), new MockHttpServletResponse(), handlerMethod("list")));
+
+        assertThat(ex.getHeaderExceptions())
+                .singleElement()
+                .extracting(e -> e.getRule().getHeaderName())
+                .isEqualTo("X-Tenant");
+    }
+
+    @Test
+    void whenReloaded_thenAppliesTheNewRulesToCompiledHandlers() throws NoSuchMethodException {
+        var interceptor = new HeaderValidationInterceptor(new HeaderValidationProperties(Set.of()));
+        var create = handlerMethod("create");
+        interceptor.compileHandlers(List.of(create));
+        var request = getMockHttpServletRequest();
+        request.addHeader("X-Tenant", "acme");
+        request.addHeader("X-Api-Key", "secret");
+
+        boolean reloaded = interceptor.reload(new HeaderValidationProperties(Set.of(
+                HeaderRule.builder().headerName("X-Region").build()
+        )));
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), create));
+
+        assertAll(
+                () -> assertTrue(reloaded),
+                () -> assertThat(ex.getHeaderExceptions())
+                        .singleElement()
+                        .extracting(e -> e.getRule().getHeaderName())
+                        .isEqualTo("X-Region")
+        );
+    }
+
+    private static HeaderRule blockingRule(String headerName, HeaderValidator validator) {
+        return HeaderRule.builder()
+                .headerName(headerName)
+                .validator(new HeaderValidator() {
+                    @NonNull
+                    @Override
+                    public ValidationResult validate(@NonNull String name, @NonNull String value) {
+                        return validator.validate(name, value);
+                    }
+
+                    @Override
+                    public boolean isBlocking() {
+                        return true;
+                    }
+                })
+                .build();
+    }
+
+    @Test
+    void whenParallel_thenRunsBlockingValidatorsConcurrentlyAndMergesTheirFailures() {
+        // Each validator waits for the other two, so running them one after another would time out.
+        var barrier = new CyclicBarrier(3);
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        HeaderValidator awaiting = (name, value) -> {
+            threads.add(Thread.currentThread().getName());
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                return new ValidationResult.Failure("Not run concurrently", e);
+            }
+            return value.equals("ok") ? ValidationResult.SUCCESS : new ValidationResult.Failure("Invalid value");
+        };
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of(
+                        blockingRule("X-First", awaiting),
+                        blockingRule("X-Second", awaiting),
+                        blockingRule("X-Third", awaiting),
+                        HeaderRule.builder().headerName("X-Req").build()
+                ))
+                .parallel(true)
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+
+        var request = getMockHttpServletRequest();
+        request.addHeader("X-First", "ok");
+        request.addHeader("X-Second", "bad");
+        request.addHeader("X-Third", "bad");
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        assertAll(
+                () -> assertThat(ex.getHeaderExceptions())
+                        .extracting(e -> e.getRule().getHeaderName(), e -> e.getFailure().errorMessage())
+                        .containsExactlyInAnyOrder(
+                                tuple("X-Req", "Missing required header"),
+                                tuple("X-Second", "Invalid value"),
+                                tuple("X-Third", "Invalid value")
+                        ),
+                () -> assertThat(threads)
+                        .hasSize(3)
+                        .allMatch(name -> name.startsWith("header-validator-"))
+        );
+    }
+
+    @Test
+    void whenParallelAndFailFast_thenCancelsTheRestOnTheFirstFailure() throws InterruptedException {
+        var interrupted = new CountDownLatch(1);
+        HeaderValidator slow = (name, value) -> {
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return ValidationResult.SUCCESS;
+        };
+        HeaderValidator rejecting = (name, value) -> new ValidationResult.Failure("Invalid value");
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of(blockingRule("X-Slow", slow), blockingRule("X-Rejecting", rejecting)))
+                .failFast(true)
+                .parallel(true)
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+
+        var request = getMockHttpServletRequest();
+        request.addHeader("X-Slow", "value");
+        request.addHeader("X-Rejecting", "value");
+
+        var ex = assertThrows(HeadersValidationException.class,
+                () -> interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+
+        assertThat(ex.getHeaderExceptions())
+                .singleElement()
+                .extracting(e -> e.getRule().getHeaderName())
+                .isEqualTo("X-Rejecting");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS))
+                .isTrue();
+    }
+
+    @Test
+    void whenParallelAndClosed_thenRunsBlockingValidatorsOnTheRequestThread() {
+        var threads = new CopyOnWriteArrayList<String>();
+        HeaderValidator recording = (name, value) -> {
+            threads.add(Thread.currentThread().getName());
+            return ValidationResult.SUCCESS;
+        };
+        var props = HeaderValidationProperties.builder()
+                .headers(Set.of(blockingRule("X-First", recording), blockingRule("X-Second", recording)))
+                .parallel(true)
+                .build();
+        var interceptor = new HeaderValidationInterceptor(props);
+        interceptor.close();
+
+        var request = getMockHttpServletRequest();
+        request.addHeader("X-First", "value");
+        request.addHeader("X-Second", "value");
+
+        assertAll(
+                () -> assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()))
+                        .isTrue(),
+                () -> assertThat(threads)
+                        .containsOnly(Thread.currentThread().getName())
+                        .hasSize(2)
+        );
+    }
+}
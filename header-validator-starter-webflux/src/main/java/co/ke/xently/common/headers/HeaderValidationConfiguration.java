@@ -2,14 +2,37 @@ package co.ke.xently.common.headers;
 
 import co.ke.xently.common.headers.validators.DefaultHeaderValidator;
 import co.ke.xently.common.headers.validators.EpochTimestampValidator;
+import co.ke.xently.common.utils.ElapsedTimeManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.List;
 
 @RequiredArgsConstructor
 @AutoConfiguration
-@EnableConfigurationProperties(HeaderValidationProperties.class)
+@EnableConfigurationProperties({HeaderValidationProperties.class, HeaderRulesReloadProperties.class})
 @Import({HeaderValidationWebFilter.class, HeaderValidatorConverter.class, DefaultHeaderValidator.class, EpochTimestampValidator.class})
 class HeaderValidationConfiguration {
-}
\ No newline at end of file
+    /**
+     * Reads {@value ElapsedTimeManager#TIMESTAMP_HEADER} in the unit its default rule validates.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    ElapsedTimeManager elapsedTimeManager(HeaderValidationProperties properties) {
+        return new ElapsedTimeManager(properties.timestamp().unit());
+    }
+
+    @Bean
+    HeaderRulesReloader headerRulesReloader(
+            ConfigurableEnvironment environment,
+            HeaderValidatorConverter converter,
+            HeaderRulesReloadProperties properties,
+            HeaderValidationWebFilter filter) {
+        return new HeaderRulesReloader(environment, converter, properties, List.of(filter));
+    }
+}
@@ -1,30 +1,190 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.exceptions.HeaderException;
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
+import co.ke.xently.common.headers.validators.AsyncHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.MemoizingHeaderValidator;
+import co.ke.xently.common.headers.validators.ReactiveHeaderValidator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE + 1)
-final class HeaderValidationWebFilter extends AbstractHeaderValidator implements WebFilter {
+final class HeaderValidationWebFilter extends AbstractHeaderValidator
+        implements WebFilter, ApplicationContextAware, SmartInitializingSingleton {
+    private static final HeaderAccessor<ServerHttpRequest> HEADERS = new HeaderAccessor<>() {
+        @Override
+        public String getFirst(@NonNull ServerHttpRequest request, @NonNull String headerName) {
+            return request.getHeaders().getFirst(headerName);
+        }
+
+        @NonNull
+        @Override
+        public Iterator<String> headerNames(@NonNull ServerHttpRequest request) {
+            return request.getHeaders().keySet().iterator();
+        }
+
+        @Override
+        public PathContainer path(@NonNull ServerHttpRequest request) {
+            return request.getPath().pathWithinApplication();
+        }
+
+        @NonNull
+        @Override
+        public HttpMethod method(@NonNull ServerHttpRequest request) {
+            return request.getMethod();
+        }
+    };
+
+    private ApplicationContext applicationContext;
+    /**
+     * The handler methods to derive routes from, kept to derive them again when the configuration is reloaded.
+     */
+    private volatile Collection<Map.Entry<RequestMappingInfo, HandlerMethod>> handlerMethods = List.of();
+
     public HeaderValidationWebFilter(HeaderValidationProperties properties) {
         super(properties);
     }
 
+    @Override
+    public void setApplicationContext(@NonNull ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Web filters run before the handler of a request is known, so the rules of annotated handlers are turned into
+     * routes: one per pattern of every handler's mapping, most specific first, as
+     * {@link RequestMappingHandlerMapping} would match them.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        compileHandlers(applicationContext.getBeanProvider(RequestMappingHandlerMapping.class)
+                .orderedStream()
+                .flatMap(mapping -> mapping.getHandlerMethods().entrySet().stream())
+                .toList());
+    }
+
+    void compileHandlers(@NonNull Collection<Map.Entry<RequestMappingInfo, HandlerMethod>> handlerMethods) {
+        this.handlerMethods = List.copyOf(handlerMethods);
+        prepareCurrent();
+    }
+
+    @Override
+    protected void prepare(@NonNull CompiledRules next) {
+        var routes = new ArrayList<RouteIndex.Route>();
+        for (var entry : handlerMethods) {
+            var mapping = entry.getKey();
+            var handlerMethod = entry.getValue();
+            var plan = next.handler(handlerMethod.getMethod(), handlerMethod.getBeanType());
+            var methods = mapping.getMethodsCondition().getMethods().stream()
+                    .map(RequestMethod::asHttpMethod)
+                    .collect(Collectors.toUnmodifiableSet());
+            for (var pattern : mapping.getPatternsCondition().getPatterns()) {
+                routes.add(new RouteIndex.Route(pattern, methods, plan));
+            }
+        }
+        // Method-specific mappings before method-agnostic ones of the same pattern. Other conditions (params, headers,
+        // consumes, produces) are not considered.
+        routes.sort(Comparator.comparing(RouteIndex.Route::pattern, PathPattern.SPECIFICITY_COMPARATOR)
+                .thenComparing(route -> route.methods().isEmpty()));
+        next.setHandlerRoutes(routes);
+    }
+
+    /**
+     * Rules backed by a {@link ReactiveHeaderValidator}, an {@link AsyncHeaderValidator} or a
+     * {@link HeaderValidator#isBlocking() blocking} validator are evaluated after the others, concurrently, and their
+     * failures are merged with the others'. Blocking validators are called on {@link Schedulers#boundedElastic()}
+     * rather than on the event loop, except for the cache hits of a {@link MemoizingHeaderValidator}, which are served
+     * inline; the results of the others are awaited without blocking.
+     */
     @Override
     @NonNull
     public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
-        var exception = createHeadersValidationException(headerName -> exchange.getRequest().getHeaders().getFirst(headerName));
+        var deferred = new DeferredRules();
+        var exception = validateHeaders(exchange.getRequest(), HEADERS, RoutePlan.INHERIT, deferred);
 
-        if (!exception.getHeaderExceptions().isEmpty()) {
-            return Mono.error(exception);
+        if (deferred.size() == 0 || exception != null && deferred.failFast()) {
+            return exception != null ? Mono.error(exception) : chain.filter(exchange);
         }
 
-        return chain.filter(exchange);
+        var failures = Flux.range(0, deferred.size());
+        if (deferred.failFast()) {
+            return failures.flatMap(i -> evaluate(deferred, i), deferred.size())
+                    .next()
+                    .flatMap(failure -> Mono.<Void>error(new HeadersValidationException(new ArrayList<>(List.of(failure)))))
+                    .switchIfEmpty(Mono.defer(() -> chain.filter(exchange)));
+        }
+        return failures.flatMapSequential(i -> evaluate(deferred, i), deferred.size())
+                .collectList()
+                .flatMap(found -> {
+                    if (exception != null) {
+                        found.forEach(exception::addHeaderException);
+                        return Mono.error(exception);
+                    }
+                    return found.isEmpty() ? chain.filter(exchange) : Mono.error(new HeadersValidationException(found));
+                });
+    }
+
+    /**
+     * @return the failure of the {@code i}-th deferred rule, or nothing if it passed.
+     */
+    private Mono<HeaderException> evaluate(DeferredRules deferred, int i) {
+        var rule = deferred.rule(i);
+        var value = deferred.value(i);
+        var validator = rule.validator();
+        var result = switch (validator) {
+            case ReactiveHeaderValidator reactive -> reactive.validateReactive(rule.headerName(), value);
+            case AsyncHeaderValidator async -> Mono.fromFuture(() -> async.validateAsync(rule.headerName(), value));
+            case MemoizingHeaderValidator memoizing -> {
+                // Hits are a map lookup: only misses are worth leaving the event loop for.
+                var cached = memoizing.cached(rule.headerName(), value);
+                yield cached != null
+                        ? Mono.just(cached)
+                        : Mono.fromCallable(() -> memoizing.remember(
+                                rule.headerName(),
+                                value,
+                                memoizing.delegate().validate(rule.headerName(), value)
+                        )).subscribeOn(Schedulers.boundedElastic());
+            }
+            default -> Mono.fromCallable(() -> validator.validate(rule.headerName(), value))
+                    .subscribeOn(Schedulers.boundedElastic());
+        };
+
+        return result.mapNotNull(outcome -> {
+            var failure = check(rule, outcome, value);
+            if (failure != null && deferred.failFast()) deferred.recordFailure(i);
+            return failure;
+        });
+    }
+
+    @Override
+    protected boolean isDeferred(@NonNull HeaderValidator validator) {
+        // Asynchronous validators (e.g. coalesced ones) may hand out a call that is in flight elsewhere.
+        return validator instanceof ReactiveHeaderValidator
+                || validator instanceof AsyncHeaderValidator
+                || validator.isBlocking();
     }
 }
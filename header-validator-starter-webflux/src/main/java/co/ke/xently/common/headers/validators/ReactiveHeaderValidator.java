@@ -0,0 +1,50 @@
+package co.ke.xently.common.headers.validators;
+
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link HeaderValidator} that validates without blocking, e.g. one calling out to a remote service with a reactive
+ * client. The web filter subscribes to the validators of a request concurrently and merges their failures with those
+ * of the other rules.
+ * <p>
+ * It is an {@link AsyncHeaderValidator}, so that wrappers such as {@link MemoizingHeaderValidator.Async},
+ * {@link CoalescingHeaderValidator} and {@link GuardedHeaderValidator} subscribe to it too rather than blocking on
+ * it. The synchronous {@link #validate(String, String)} blocks on {@link #validateReactive(String, String)}, so such
+ * validators are {@link #isBlocking() blocking} wherever they are called synchronously.
+ */
+@FunctionalInterface
+public interface ReactiveHeaderValidator extends AsyncHeaderValidator {
+    /**
+     * @return the result of validating {@code headerValue}; must emit exactly one {@link ValidationResult}.
+     */
+    @NonNull
+    Mono<ValidationResult> validateReactive(@NonNull String headerName, @NonNull String headerValue);
+
+    @Override
+    @NonNull
+    default CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+        return validateReactive(headerName, headerValue)
+                .switchIfEmpty(Mono.error(() -> noResult(headerName)))
+                .toFuture();
+    }
+
+    @Override
+    @NonNull
+    default ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+        var result = validateReactive(headerName, headerValue).block();
+        if (result == null) throw noResult(headerName);
+        return result;
+    }
+
+    private IllegalStateException noResult(String headerName) {
+        return new IllegalStateException("%s emitted no result for '%s'".formatted(this, headerName));
+    }
+
+    @Override
+    default boolean isBlocking() {
+        return true;
+    }
+}
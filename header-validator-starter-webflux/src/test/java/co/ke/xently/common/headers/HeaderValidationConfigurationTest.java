@@ -1,18 +1,48 @@
 package co.ke.xently.common.headers;
 
+import co.ke.xently.common.headers.exceptions.HeadersValidationException;
 import co.ke.xently.common.headers.exceptions.InvalidHeaderValueException;
 import co.ke.xently.common.headers.exceptions.MissingHeaderException;
+import co.ke.xently.common.headers.validators.AsyncHeaderValidator;
+import co.ke.xently.common.headers.validators.BatchingHeaderValidator;
+import co.ke.xently.common.headers.validators.HeaderValidator;
+import co.ke.xently.common.headers.validators.ReactiveHeaderValidator;
 import co.ke.xently.common.headers.validators.RegexValidator;
+import co.ke.xently.common.headers.validators.ValidationResult;
+import co.ke.xently.common.utils.ElapsedTimeManager;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.lang.NonNull;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 class HeaderValidationConfigurationTest {
     @Nested
@@ -69,4 +99,360 @@ class HeaderValidationConfigurationTest {
             assertDoesNotThrow(() -> filter.validate(rule, "v1"));
         }
     }
+
+    static class AnnotatedController {
+        @RequireHeaders(@RequireHeaders.Header(name = "X-Api-Key"))
+        public void create() {
+        }
+
+        @SkipHeaderValidation
+        public void health() {
+        }
+
+        public void fallback() {
+        }
+    }
+
+    @Nested
+    class filter {
+        private final HeaderRoute actuator = HeaderRoute.builder()
+                .paths(List.of("/actuator/**"))
+                .skip(true)
+                .build();
+        private final HeaderValidationWebFilter filter = new HeaderValidationWebFilter(
+                HeaderValidationProperties.builder().headers(Set.of()).routes(List.of(actuator)).build()
+        );
+        private final WebFilterChain chain = exchange -> Mono.empty();
+
+        @Test
+        void shouldBypassValidationForSkippedRoutes() {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health"));
+
+            assertDoesNotThrow(() -> filter.filter(exchange, chain).block());
+        }
+
+        @Test
+        void shouldApplyTheRulesOfTheMostSpecificAnnotatedHandler() throws NoSuchMethodException {
+            var controller = new AnnotatedController();
+            filter.compileHandlers(List.of(
+                    Map.entry(RequestMappingInfo.paths("/api/**").build(), new HandlerMethod(controller, "fallback")),
+                    Map.entry(RequestMappingInfo.paths("/api/orders").methods(RequestMethod.POST).build(),
+                            new HandlerMethod(controller, "create")),
+                    Map.entry(RequestMappingInfo.paths("/api/health").build(), new HandlerMethod(controller, "health"))
+            ));
+
+            var create = MockServerWebExchange.from(MockServerHttpRequest.post("/api/orders"));
+            var health = MockServerWebExchange.from(MockServerHttpRequest.get("/api/health"));
+            var fallback = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders"));
+
+            var ex = assertThrows(HeadersValidationException.class, () -> filter.filter(create, chain).block());
+            assertAll(
+                    () -> assertTrue(ex.getHeaderExceptions().stream()
+                            .anyMatch(e -> e.getRule().getHeaderName().equals("X-Api-Key"))),
+                    () -> assertDoesNotThrow(() -> filter.filter(health, chain).block()),
+                    () -> assertThrows(HeadersValidationException.class, () -> filter.filter(fallback, chain).block())
+            );
+        }
+
+        @Test
+        void shouldValidateRequestsMatchingNoRoute() {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders"));
+
+            assertThrows(HeadersValidationException.class, () -> filter.filter(exchange, chain).block());
+        }
+    }
+
+    @Nested
+    class deferredRules {
+        private static final ValidationResult.Failure REJECTED = ValidationResult.Failure.of("REJECTED", "Rejected");
+        private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+        private final WebFilterChain chain = exchange -> Mono.empty();
+
+        private HeaderValidationWebFilter filter(boolean failFast, HeaderRule... rules) {
+            // Mocked so that the default headers are not merged in.
+            var properties = mock(HeaderValidationProperties.class);
+            when(properties.headers())
+                    .thenReturn(Set.of(rules));
+            when(properties.failFast())
+                    .thenReturn(failFast);
+            return new HeaderValidationWebFilter(properties);
+        }
+
+        private static HeaderRule rule(String headerName, HeaderValidator validator) {
+            return HeaderRule.builder().headerName(headerName).validator(validator).build();
+        }
+
+        private static MockServerWebExchange exchange(String... headers) {
+            var request = MockServerHttpRequest.get("/api/orders");
+            for (int i = 0; i < headers.length; i += 2) request.header(headers[i], headers[i + 1]);
+            return MockServerWebExchange.from(request);
+        }
+
+        @Test
+        void shouldEvaluateReactiveValidatorsConcurrently() {
+            // Each validator only completes once the other one was subscribed to, so evaluating them one after the
+            // other would never complete.
+            var firstSubscribed = Sinks.empty();
+            var secondSubscribed = Sinks.empty();
+            ReactiveHeaderValidator first = (name, value) -> Mono.defer(() -> {
+                firstSubscribed.tryEmitEmpty();
+                return secondSubscribed.asMono().thenReturn(ValidationResult.SUCCESS);
+            });
+            ReactiveHeaderValidator second = (name, value) -> Mono.defer(() -> {
+                secondSubscribed.tryEmitEmpty();
+                return firstSubscribed.asMono().thenReturn(REJECTED);
+            });
+            var filter = filter(false, rule("X-First", first), rule("X-Second", second));
+
+            var ex = assertThrows(
+                    HeadersValidationException.class,
+                    () -> filter.filter(exchange("X-First", "1", "X-Second", "2"), chain).block(TIMEOUT)
+            );
+
+            assertEquals(List.of("X-Second"), ex.getHeaderExceptions().stream()
+                    .map(e -> e.getRule().getHeaderName())
+                    .toList());
+        }
+
+        @Test
+        void shouldMergeDeferredFailuresWithTheOthers() {
+            ReactiveHeaderValidator reactive = (name, value) -> Mono.just(REJECTED);
+            var filter = filter(
+                    false,
+                    rule("X-Reactive", reactive),
+                    rule("X-Regex", new RegexValidator("^v\\d+$")),
+                    HeaderRule.builder().headerName("X-Required").build()
+            );
+
+            var ex = assertThrows(
+                    HeadersValidationException.class,
+                    () -> filter.filter(exchange("X-Reactive", "1", "X-Regex", "bad"), chain).block(TIMEOUT)
+            );
+
+            assertEquals(
+                    Set.of("X-Reactive", "X-Regex", "X-Required"),
+                    ex.getHeaderExceptions().stream().map(e -> e.getRule().getHeaderName()).collect(Collectors.toSet())
+            );
+        }
+
+        @Test
+        void shouldCallBlockingValidatorsOffTheCallingThread() {
+            var threads = new ArrayList<String>();
+            var blocking = new HeaderValidator() {
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    threads.add(Thread.currentThread().getName());
+                    return ValidationResult.SUCCESS;
+                }
+
+                @Override
+                public boolean isBlocking() {
+                    return true;
+                }
+            };
+            var filter = filter(false, rule("X-Blocking", blocking));
+
+            assertDoesNotThrow(() -> filter.filter(exchange("X-Blocking", "1"), chain).block(TIMEOUT));
+            assertAll(
+                    () -> assertEquals(1, threads.size()),
+                    () -> assertTrue(threads.getFirst().startsWith("boundedElastic"), threads.getFirst())
+            );
+        }
+
+        @Test
+        void shouldNotEvaluateDeferredRulesAfterAnInlineFailureWhenFailingFast() {
+            var calls = new AtomicInteger();
+            ReactiveHeaderValidator reactive = (name, value) -> Mono.fromCallable(() -> {
+                calls.incrementAndGet();
+                return ValidationResult.SUCCESS;
+            });
+            var filter = filter(
+                    true,
+                    rule("X-Reactive", reactive),
+                    rule("X-Regex", new RegexValidator("^v\\d+$"))
+            );
+
+            assertThrows(
+                    HeadersValidationException.class,
+                    () -> filter.filter(exchange("X-Reactive", "1", "X-Regex", "bad"), chain).block(TIMEOUT)
+            );
+            assertEquals(0, calls.get());
+        }
+
+        @Test
+        void shouldReportTheFirstDeferredFailureWhenFailingFast() {
+            ReactiveHeaderValidator rejecting = (name, value) -> Mono.just(REJECTED);
+            ReactiveHeaderValidator never = (name, value) -> Mono.never();
+            var filter = filter(true, rule("X-Rejecting", rejecting), rule("X-Never", never));
+
+            var ex = assertThrows(
+                    HeadersValidationException.class,
+                    () -> filter.filter(exchange("X-Rejecting", "1", "X-Never", "2"), chain).block(TIMEOUT)
+            );
+
+            assertEquals(1, ex.getHeaderExceptions().size());
+        }
+
+        @Test
+        void shouldBatchTheValuesOfConcurrentRequests() {
+            var batches = new CopyOnWriteArrayList<Set<String>>();
+            var batching = new BatchingHeaderValidator((name, values) -> {
+                batches.add(values);
+                return values.stream().collect(Collectors.toMap(
+                        value -> value,
+                        value -> value.equals("acme") ? ValidationResult.SUCCESS : REJECTED
+                ));
+            }, 2, Duration.ofMinutes(1));
+            var filter = filter(false, rule("X-Tenant", batching));
+
+            var acme = filter.filter(exchange("X-Tenant", "acme"), chain);
+            var other = filter.filter(exchange("X-Tenant", "other"), chain)
+                    .onErrorResume(HeadersValidationException.class, e -> Mono.empty());
+
+            assertDoesNotThrow(() -> Mono.when(acme, other).block(TIMEOUT));
+            assertEquals(List.of(Set.of("acme", "other")), batches);
+        }
+
+        @Test
+        void shouldShareCoalescedCallsWithoutWaitingOnTheCallingThread() {
+            var calls = new AtomicInteger();
+            var pending = new CompletableFuture<ValidationResult>();
+            var async = new AsyncHeaderValidator() {
+                @NonNull
+                @Override
+                public CompletableFuture<ValidationResult> validateAsync(@NonNull String headerName, @NonNull String headerValue) {
+                    calls.incrementAndGet();
+                    return pending;
+                }
+
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    return pending.join();
+                }
+            };
+            var filter = filter(false, HeaderRule.builder().headerName("X-Tenant").validator(async).coalesce(true).build());
+
+            // Subscribing would never return if either request waited for the shared call on the calling thread.
+            var first = assertTimeoutPreemptively(TIMEOUT, () -> filter.filter(exchange("X-Tenant", "acme"), chain).toFuture());
+            var second = assertTimeoutPreemptively(TIMEOUT, () -> filter.filter(exchange("X-Tenant", "acme"), chain).toFuture());
+            assertAll(
+                    () -> assertFalse(first.isDone()),
+                    () -> assertFalse(second.isDone())
+            );
+
+            pending.complete(ValidationResult.SUCCESS);
+            assertAll(
+                    () -> assertDoesNotThrow(() -> first.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS)),
+                    () -> assertDoesNotThrow(() -> second.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS)),
+                    () -> assertEquals(1, calls.get())
+            );
+        }
+
+        @Test
+        void shouldServeCacheHitsOfBlockingValidatorsOnTheCallingThread() {
+            var calls = new AtomicInteger();
+            var blocking = new HeaderValidator() {
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    calls.incrementAndGet();
+                    return ValidationResult.SUCCESS;
+                }
+
+                @Override
+                public boolean isBlocking() {
+                    return true;
+                }
+            };
+            var filter = filter(false, HeaderRule.builder()
+                    .headerName("X-Blocking")
+                    .validator(blocking)
+                    .cache(HeaderRule.Cache.builder().build())
+                    .build());
+            var threads = new ArrayList<String>();
+            WebFilterChain recording = exchange -> Mono.fromRunnable(() -> threads.add(Thread.currentThread().getName()));
+
+            assertDoesNotThrow(() -> filter.filter(exchange("X-Blocking", "1"), recording).block(TIMEOUT));
+            assertDoesNotThrow(() -> filter.filter(exchange("X-Blocking", "1"), recording).block(TIMEOUT));
+
+            assertAll(
+                    () -> assertEquals(1, calls.get()),
+                    () -> assertTrue(threads.get(0).startsWith("boundedElastic"), threads.get(0)),
+                    () -> assertEquals(Thread.currentThread().getName(), threads.get(1))
+            );
+        }
+
+        @Test
+        void shouldSubscribeToReactiveValidatorsBehindWrappers() {
+            var subscriptions = new AtomicInteger();
+            var reactive = new ReactiveHeaderValidator() {
+                @NonNull
+                @Override
+                public Mono<ValidationResult> validateReactive(@NonNull String headerName, @NonNull String headerValue) {
+                    return Mono.fromCallable(() -> {
+                        subscriptions.incrementAndGet();
+                        return REJECTED;
+                    });
+                }
+
+                @NonNull
+                @Override
+                public ValidationResult validate(@NonNull String headerName, @NonNull String headerValue) {
+                    throw new AssertionError("Blocked on");
+                }
+            };
+            var filter = filter(false, HeaderRule.builder()
+                    .headerName("X-Reactive")
+                    .validator(reactive)
+                    .cache(HeaderRule.Cache.builder().build())
+                    .guard(HeaderRule.Guard.builder().build())
+                    .coalesce(true)
+                    .build());
+
+            for (int i = 0; i < 2; i++) {
+                var ex = assertThrows(
+                        HeadersValidationException.class,
+                        () -> filter.filter(exchange("X-Reactive", "1"), chain).block(TIMEOUT)
+                );
+                assertEquals("X-Reactive", ex.getHeaderExceptions().getFirst().getRule().getHeaderName());
+            }
+            assertEquals(1, subscriptions.get());
+        }
+
+        @Test
+        void shouldContinueTheChainWhenDeferredRulesPass() {
+            var chained = new AtomicInteger();
+            ReactiveHeaderValidator reactive = (name, value) -> Mono.just(ValidationResult.SUCCESS);
+            var filter = filter(false, rule("X-Reactive", reactive));
+
+            assertDoesNotThrow(() -> filter.filter(
+                    exchange("X-Reactive", "1"),
+                    exchange -> Mono.fromRunnable(chained::incrementAndGet)
+            ).block(TIMEOUT));
+            assertEquals(1, chained.get());
+        }
+    }
+
+    @Nested
+    class elapsedTimeManager {
+        @Test
+        void shouldReadTimestampsInTheConfiguredUnit() {
+            new ReactiveWebApplicationContextRunner()
+                    .withConfiguration(AutoConfigurations.of(HeaderValidationConfiguration.class))
+                    .withPropertyValues("xently.api.headers.validation.timestamp.unit=milliseconds")
+                    .run(context -> {
+                        var elapsed = new AtomicReference<String>();
+                        long timestamp = System.currentTimeMillis() - 5_000;
+
+                        context.getBean(ElapsedTimeManager.class)
+                                .setElapsedTime(String.valueOf(timestamp), null, elapsed::set);
+
+                        assertThat(Long.parseLong(elapsed.get()))
+                                .isBetween(5_000L, 65_000L);
+                    });
+        }
+    }
 }